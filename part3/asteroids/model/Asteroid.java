@@ -1,5 +1,6 @@
 package asteroids.model;
 
+import java.util.Arrays;
 import java.util.Random;
 import static asteroids.Util.*;
 
@@ -64,7 +65,7 @@ public class Asteroid extends SpatialElement{
 	@Raw
 	public Asteroid(Vector2D position, double radius,Vector2D velocity, Random random) 
 			throws IllegalArgumentException, NullPointerException{
-		this(position, radius, velocity, 300000, random);
+		this(position, radius, velocity, getSpeedOfLight(), random);
 	}
 	
 	/**
@@ -88,7 +89,7 @@ public class Asteroid extends SpatialElement{
 	@Raw
 	public Asteroid(Vector2D position, double radius, Vector2D velocity)
 			throws IllegalArgumentException, NullPointerException{
-		this(position,radius,velocity,300000,new Random());
+		this(position,radius,velocity,getSpeedOfLight(),new Random());
 	}
 	
 	/**
@@ -96,10 +97,9 @@ public class Asteroid extends SpatialElement{
 	 * 
 	 * @effect	Two new asteroids are created, moving in opposite random directions.
 	 * 			| if(fuzzyLessThanOrEqualTo(30, getRadius()) && this.hasProperWorld() && !isTerminated())
-	 * 			|		asteroid1 = new Asteroid(position1, newRadius, velocity1, new Random())
-	 * 			|		asteroid2 = new Asteroid(position2, newRadius, velocity2, new Random())
-	 * 			|		this.getWorld().addAsSpatialElement(asteroid1);
-	 *			|		this.getWorld().addAsSpatialElement(asteroid2);
+	 * 			|		asteroid1 = createChild(getWorld(), position1, newRadius, velocity1)
+	 * 			|		asteroid2 = createChild(getWorld(), position2, newRadius, velocity2)
+	 * 			|		this.getWorld().addAll(Arrays.asList(asteroid1, asteroid2));
 	 *			|		with
 	 *			|		velocity1.equals(velocity2.multiply(-1)) &&
 	 * 			|		fuzzyEquals(velocity1.getNorm(),this.getVelocity().getNorm()*1.5) &&
@@ -124,16 +124,60 @@ public class Asteroid extends SpatialElement{
 			Vector2D velocityChild1 = randomDirection.multiply(getVelocity().getNorm()*1.5);
 			World temp = getWorld();
 			this.terminate();
-			SpatialElement childAsteroid1 = new Asteroid(positionChild1, radiusChild, velocityChild1,new Random());
-			SpatialElement childAsteroid2 = new Asteroid(positionChild2, radiusChild, velocityChild1.multiply(-1),new Random());
-			temp.addAsSpatialElement(childAsteroid1);
-			temp.addAsSpatialElement(childAsteroid2);
+			SpatialElement childAsteroid1 = createChild(temp, positionChild1, radiusChild, velocityChild1);
+			SpatialElement childAsteroid2 = createChild(temp, positionChild2, radiusChild, velocityChild1.multiply(-1));
+			temp.addAll(Arrays.asList(childAsteroid1, childAsteroid2));
 		}
 		else {
 			this.terminate();
 		}
 	}
 	
+	/**
+	 * Return a child of this asteroid with the given position, radius and velocity,
+	 * reviving a recycled asteroid of the given world if it has one.
+	 * 
+	 * @param	world
+	 * 			The world the child is created for.
+	 * @param	position
+	 * 			The position of the child.
+	 * @param	radius
+	 * 			The radius of the child.
+	 * @param	velocity
+	 * 			The velocity of the child.
+	 * @return	...
+	 * 			| result.getPosition().equals(position) && result.getRadius() == radius
+	 * 			|	&& result.getVelocity().equals(velocity) && result.getMaxSpeed() == getSpeedOfLight()
+	 * 			|	&& !result.isTerminated() && result.getWorld() == null
+	 * @note	A new child shares the random generator of this asteroid, rather
+	 * 			than seeding a generator of its own.
+	 */
+	private Asteroid createChild(World world, Vector2D position, double radius, Vector2D velocity) {
+		Asteroid child = world.pollRecycledAsteroid(radius);
+		if (child == null)
+			return new Asteroid(position, radius, velocity, getRandom());
+		child.revive(position, velocity);
+		return child;
+	}
+	
+	/**
+	 * Terminate this asteroid.
+	 * 
+	 * @effect	...
+	 * 			| super.terminate()
+	 * @effect	If this asteroid leaves a world that recycles elements, it is
+	 * 			handed to that world to be revived as a child of another asteroid.
+	 * 			| if(getWorld() != null && getWorld().isRecyclingElements())
+	 * 			| then getWorld().recycleAsteroid(this)
+	 */
+	@Override
+	public void terminate() throws IllegalArgumentException, NullPointerException {
+		World world = getWorld();
+		super.terminate();
+		if (world != null && world.isRecyclingElements())
+			world.recycleAsteroid(this);
+	}
+	
 	/** 
 	 * Get the mass density of this asteroid.
 	 */
@@ -178,61 +222,18 @@ public class Asteroid extends SpatialElement{
 	private Random random;
 	
 	/**
-	 * Resolve a collision of this asteroid and another element.
+	 * Return the category of this asteroid.
 	 * 
-	 * @effect	If the other element is a ship, let it collide.
-	 * 			| if(otherElement.isShip())
-	 * 			|	then otherElement.collide()
-	 * @effect	If the other element is a bullet, let both collide.
-	 * 			| if(otherElement.isBullet())
-	 * 			|	then otherElement.collide()
-	 * 			|		 this.collide()
-	 * @effect	If the other element is an asteroid, resolve by bouncing.
-	 * 			| if(otherElement.isAsteroid())
-	 * 			|	then resolveBounce(otherElement)
-	 * @effect	If the other element is not a ship, bullet or asteroid, let it resolve this ship.
-	 * 			| if(!otherElement.isShip() && !otherElement.isBullet() && !otherElement.isAsteroid())
-	 * 			|	then otherElement.resolve(this)
+	 * @return	...
+	 * 			| result == CollisionTable.ASTEROID
 	 */
 	@Override
-	public void resolve(SpatialElement otherElement) throws IllegalArgumentException, NullPointerException{
-		if(!isValidObjectCollision(otherElement))
-			throw new IllegalArgumentException("Element cannot be resolved.");
-		if(otherElement.isAsteroid())
-			resolveBounce(otherElement);
-		else if(otherElement.isBullet()){
-			otherElement.collide();
-			this.collide();
-		}
-		else if(otherElement.isShip()){
-			otherElement.collide();
-		} else
-			otherElement.resolve(this);
-	}
-	
-	/**
-	 * Check if the collision of this element and the given element
-	 * is a valid object collision.
-	 * 
-	 * @return	If the element is an asteroid, the result is the boolean 
-	 * 			indicating whether this is a valid object overlap.
-	 * 			| if(element.isAsteroid())
-	 *			| then result == isValidObjectOverlap(element)
-	 * @return	If the element is not an asteroid, the result is the boolean 
-	 * 			indicating whether the collision of the given element
-	 * 			with this element is valid.
-	 * 			| if(!element.isAsteroid())
-	 *			| then result == element.isValidObjectCollision(this)
-	 */
-	public boolean isValidObjectCollision(SpatialElement element){
-		if(element == null)
-			return false;
-		if(element.isAsteroid())
-			return isValidObjectOverlap(element);
-		return element.isValidObjectCollision(this);
+	@Immutable
+	@Raw
+	public int getCategory() {
+		return CollisionTable.ASTEROID;
 	}
 	
-	
 	/**
 	 * Resolve the initial condition of this and the given element.
 	 * 
@@ -0,0 +1,243 @@
+package asteroids.model;
+
+import java.util.*;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of spatial indices used by a world to limit the number of spatial
+ * elements that have to be tested against each other when predicting
+ * collisions or checking overlaps.
+ *
+ * Each registered element occupies the bounding box of its disc swept along
+ * its straight line path over a given time span. Two elements can only
+ * collide within that time span if their boxes overlap, so a broadphase
+ * must return at least all elements whose boxes overlap a queried box.
+ *
+ * @invar	The broadphase has a valid horizon.
+ * 			| isValidHorizon(getHorizon())
+ *
+ * @version 1.2
+ * @author  Frederik Van Eeghem, Pieter Lietaert
+ */
+public abstract class Broadphase {
+	/**
+	 * Initialize this new broadphase with the given horizon.
+	 *
+	 * @param 	horizon
+	 * 			The time span in seconds over which the paths of the elements
+	 * 			are swept into this new broadphase.
+	 * @post	...
+	 * 			| (new this).getHorizon() == horizon
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| !isValidHorizon(horizon)
+	 */
+	protected Broadphase(double horizon) throws IllegalArgumentException {
+		if (!isValidHorizon(horizon))
+			throw new IllegalArgumentException("Invalid horizon for the broadphase.");
+		this.horizon = horizon;
+	}
+
+	/**
+	 * Return the time span over which the paths of the elements are swept
+	 * into this broadphase.
+	 */
+	@Basic @Immutable
+	public double getHorizon() {
+		return this.horizon;
+	}
+
+	/**
+	 * Check whether the given horizon is a valid horizon for a broadphase.
+	 *
+	 * @param	horizon
+	 * 			The horizon to check.
+	 * @return	...
+	 * 			| result == (horizon > 0) && (horizon < Double.POSITIVE_INFINITY)
+	 */
+	public static boolean isValidHorizon(double horizon) {
+		return (horizon > 0) && (horizon < Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * Variable registering the horizon of this broadphase in seconds.
+	 */
+	private final double horizon;
+
+	/**
+	 * Check whether this broadphase contains the given element.
+	 *
+	 * @param	element
+	 * 			The element to check.
+	 */
+	public abstract boolean contains(SpatialElement element);
+
+	/**
+	 * Return the number of elements registered in this broadphase.
+	 */
+	public abstract int getNbElements();
+
+	/**
+	 * Register the given element in this broadphase with the path it sweeps
+	 * over the given time span, starting from its current position. A previous
+	 * registration of the same element is replaced.
+	 *
+	 * @param	element
+	 * 			The element to register.
+	 * @param	timeSpan
+	 * 			The time span over which the path of the element is swept.
+	 * @post	...
+	 * 			| (new this).contains(element)
+	 * @throws	NullPointerException
+	 * 			...
+	 * 			| element == null
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| !SpatialElement.isValidTime(timeSpan)
+	 */
+	public abstract void add(SpatialElement element, double timeSpan)
+			throws NullPointerException, IllegalArgumentException;
+
+	/**
+	 * Register all given elements in this broadphase with the paths they sweep
+	 * over the given time span.
+	 *
+	 * @param	elements
+	 * 			The elements to register.
+	 * @param	timeSpan
+	 * 			The time span over which the paths of the elements are swept.
+	 * @effect	...
+	 * 			| for each element in elements:
+	 * 			|	add(element, timeSpan)
+	 * @throws	NullPointerException
+	 * 			...
+	 * 			| elements == null || elements.contains(null)
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| !SpatialElement.isValidTime(timeSpan)
+	 * @note	A broadphase that can register a batch faster than one element
+	 * 			at a time overrides this method.
+	 */
+	public void addAll(Collection<? extends SpatialElement> elements, double timeSpan)
+			throws NullPointerException, IllegalArgumentException {
+		for (SpatialElement element: elements)
+			add(element, timeSpan);
+	}
+
+	/**
+	 * Check whether this broadphase registers a batch of elements with addAll
+	 * faster than by adding them one at a time while it is queried in between.
+	 *
+	 * @return	...
+	 * 			| result == false
+	 */
+	public boolean isBatchInsertionFaster() {
+		return false;
+	}
+
+	/**
+	 * Remove the given element from this broadphase, if it is registered.
+	 *
+	 * @param	element
+	 * 			The element to remove.
+	 * @post	...
+	 * 			| !(new this).contains(element)
+	 */
+	public abstract void remove(SpatialElement element);
+
+	/**
+	 * Remove all elements from this broadphase.
+	 *
+	 * @post	...
+	 * 			| (new this).getNbElements() == 0
+	 */
+	public abstract void clear();
+
+	/**
+	 * Return the elements that may collide with the given element within the
+	 * time span it was registered with.
+	 *
+	 * @param	element
+	 * 			The element to return the candidates of.
+	 * @return	...
+	 * 			| if (!contains(element))
+	 * 			| then result.isEmpty()
+	 * @return	...
+	 * 			| !result.contains(element)
+	 * @return	...
+	 * 			| for each other registered with a box overlapping the box of element:
+	 * 			|	result.contains(other)
+	 */
+	public abstract Set<SpatialElement> getCandidates(SpatialElement element);
+
+	/**
+	 * Store the slots of the elements that may collide with the given element
+	 * within the time span it was registered with at the front of the given
+	 * array, and return their number.
+	 *
+	 * @param	element
+	 * 			The element to return the candidates of.
+	 * @param	slots
+	 * 			The array to store the slots of the candidates in.
+	 * @return	...
+	 * 			| result == getCandidates(element).size()
+	 * @post	...
+	 * 			| for each other in getCandidates(element):
+	 * 			|	exactly one index in 0..result-1 has (new slots)[index] == other.getSlot()
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| slots.length < getNbElements()
+	 * @note	Unlike getCandidates(element), this allocates nothing, so a world
+	 * 			can query its broadphase for every prediction with a single buffer.
+	 */
+	public abstract int getCandidates(SpatialElement element, int[] slots) throws IllegalArgumentException;
+
+	/**
+	 * Return the elements that may overlap the given rectangle.
+	 *
+	 * @param	minX
+	 * 			The smallest x-coordinate of the rectangle.
+	 * @param	minY
+	 * 			The smallest y-coordinate of the rectangle.
+	 * @param	maxX
+	 * 			The largest x-coordinate of the rectangle.
+	 * @param	maxY
+	 * 			The largest y-coordinate of the rectangle.
+	 * @return	...
+	 * 			| for each element in result:
+	 * 			|	contains(element)
+	 * @return	...
+	 * 			| for each element registered with a box overlapping the rectangle:
+	 * 			|	result.contains(element)
+	 */
+	public abstract Set<SpatialElement> getCandidates(double minX, double minY, double maxX, double maxY);
+
+	/**
+	 * Store the slots of the elements that may overlap the given rectangle at the
+	 * front of the given array, and return their number.
+	 *
+	 * @param	minX
+	 * 			The smallest x-coordinate of the rectangle.
+	 * @param	minY
+	 * 			The smallest y-coordinate of the rectangle.
+	 * @param	maxX
+	 * 			The largest x-coordinate of the rectangle.
+	 * @param	maxY
+	 * 			The largest y-coordinate of the rectangle.
+	 * @param	slots
+	 * 			The array to store the slots of the candidates in.
+	 * @return	...
+	 * 			| result == getCandidates(minX, minY, maxX, maxY).size()
+	 * @post	...
+	 * 			| for each element in getCandidates(minX, minY, maxX, maxY):
+	 * 			|	exactly one index in 0..result-1 has (new slots)[index] == element.getSlot()
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| slots.length < getNbElements()
+	 * @note	This lets a world check the overlaps of each element it adds
+	 * 			without allocating.
+	 */
+	public abstract int getCandidates(double minX, double minY, double maxX, double maxY, int[] slots)
+			throws IllegalArgumentException;
+}
@@ -1,6 +1,7 @@
 package asteroids.model;
 
 import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
 import be.kuleuven.cs.som.annotate.Raw;
 
 /**
@@ -59,6 +60,18 @@ public class Bullet extends SpatialElement{
 		return this.ship;
 	}
 	
+	/**
+	 * Return the source of this bullet, which it never collides with.
+	 * 
+	 * @return	...
+	 * 			| result == getShip()
+	 */
+	@Override
+	@Raw
+	public SpatialElement getSource() {
+		return getShip();
+	}
+	
 	/**
 	 * Check whether this bullet can have the given ship as its owner. 
 	 * 
@@ -130,44 +143,43 @@ public class Bullet extends SpatialElement{
 	 * 
 	 * @effect	Remove this bullet from the set of bullets in its ship.
 	 * 			| getShip().removeAsBullet(this)
+	 * @effect	If this bullet leaves a world that recycles elements, it is
+	 * 			handed back to its ship to be fired again.
+	 * 			| if(getWorld() != null && getWorld().isRecyclingElements())
+	 * 			| then getShip().recycleBullet(this)
 	 */
 	@Override
 	public void terminate() throws IllegalArgumentException, NullPointerException{
+		World world = getWorld();
 		super.terminate();
 		getShip().removeAsBullet(this);
+		if (world != null && world.isRecyclingElements())
+			getShip().recycleBullet(this);
 	}
 	
 	/**
-	 * Resolve a collision of this bullet and another element.
+	 * Revive this terminated bullet at the given position with the given velocity.
 	 * 
-	 * @effect	If the other element is a ship and it is not the source
-	 * 			of this bullet, let both collide.
-	 * 			| if(otherElement.isShip() && this.getShip() != otherElement)
-	 * 			|	then otherElement.collide()
-	 * 			|		 this.collide()
-	 * @effect	If the other element is a bullet, let both collide.
-	 * 			| if(otherElement.isBullet())
-	 * 			|	then otherElement.collide()
-	 * 			|		 this.collide()
-	 * @effect	If the other element is not a ship or a bullet, let it resolve this ship.
-	 * 			| if(!otherElement.isShip() && !otherElement.isBullet())
-	 * 			|	then otherElement.resolve(this)
+	 * @post	...
+	 * 			| !(new this).hasBounced()
 	 */
 	@Override
-	public void resolve(SpatialElement otherElement) throws IllegalArgumentException, NullPointerException{
-		if(!isValidObjectCollision(otherElement))
-			throw new IllegalArgumentException("Element cannot be resolved.");
-		if(otherElement.isBullet()){
-			otherElement.collide();
-			this.collide();
-		}
-		else if(otherElement.isShip() && this.getShip() != otherElement){
-			// double check if getShip != otherElement even though normally
-			// no list of collisions would contain such a collision.
-				this.collide();
-				otherElement.collide();
-		} else
-			otherElement.resolve(this);
+	void revive(Vector2D position, Vector2D velocity) throws IllegalStateException, IllegalArgumentException {
+		super.revive(position, velocity);
+		this.hasBounced = false;
+	}
+	
+	/**
+	 * Return the category of this bullet.
+	 * 
+	 * @return	...
+	 * 			| result == CollisionTable.BULLET
+	 */
+	@Override
+	@Immutable
+	@Raw
+	public int getCategory() {
+		return CollisionTable.BULLET;
 	}
 	
 	/**
@@ -195,36 +207,6 @@ public class Bullet extends SpatialElement{
 			overlappingElement.resolveInitialCondition(this);
 	}
 	
-	/**
-	 * Check if the collision of this element and the given element
-	 * is a valid object collision.
-	 * 
-	 * @return	If the element is an asteroid or a bullet, the result is
-	 * 			the boolean indicating whether this is a valid object overlap.
-	 * 			| if(element.isAsteroid() || element.isBullet())
-	 *			| then result == isValidObjectOverlap(element)
-	 * @return	If the given element is a ship, the result is true if and only if
-	 * 			the overlap of this and the given element is valid and the ship of 
-	 * 			this bullet is different from the given element.
-	 * 			| if(element.isShip())
-	 * 			| then result == (isValidObjectOverlap(element) && this.getShip() != element)
-	 * @return	If the element is not an asteroid or a ship or a bullet, the result
-	 * 			is the boolean indicating whether the collision of the given element
-	 * 			with this element is valid.
-	 * 			| if(!element.isAsteroid() && !element.isShip() && !element.isBullet())
-	 *			| then result == element.isValidObjectCollision(this)
-	 */
-	@Override
-	public boolean isValidObjectCollision(SpatialElement element){
-		if(element == null)
-			return false;
-		if(element.isAsteroid() || element.isBullet())
-			return isValidObjectOverlap(element);
-		if(element.isShip())
-			return (isValidObjectOverlap(element) && this.getShip() != element);
-		return element.isValidObjectCollision(this);
-	}
-	
 	/**
 	 * Resolve a collision with a horizontal or vertical wall
 	 * 
@@ -1,13 +1,15 @@
 package asteroids.model;
 
+import java.util.Collection;
 import java.util.Set;
 
 import asteroids.CollisionListener;
+import be.kuleuven.cs.som.annotate.*;
 
 /**
  * An abstract class of collisions for the world of the game Asteroids.
  * 
- * @version 1.1
+ * @version 1.2
  * @author Frederik Van Eeghem, Pieter Lietaert
  */
 
@@ -41,6 +43,42 @@ public abstract class Collision implements Comparable<Collision>{
 	 */
 	public abstract double getCollisionTime() throws NullPointerException;
 	
+	/**
+	 * Return the time of the world at which this collision takes place,
+	 * as predicted when this collision was created.
+	 */
+	@Basic
+	public double getTime() {
+		return this.time;
+	}
+	
+	/**
+	 * Predict the time of the world at which this collision takes place.
+	 * 
+	 * @param	element
+	 * 			An element involved in this collision.
+	 * @post	...
+	 * 			| if(element.getWorld() == null)
+	 * 			| then (new this).getTime() == getCollisionTime()
+	 * 			| else (new this).getTime() == element.getWorld().getTime() + getCollisionTime()
+	 * @note	Subclasses call this method at the end of their constructor.
+	 */
+	@Raw
+	protected void predictTime(SpatialElement element) {
+		if(element.getWorld() == null)
+			this.time = getCollisionTime();
+		else
+			this.time = element.getWorld().getTime() + getCollisionTime();
+	}
+	
+	/**
+	 * Variable registering the time of the world at which this collision takes place.
+	 * 
+	 * @note	Unlike getCollisionTime(), this time does not change while the
+	 * 			world evolves, so it can safely be used as a key in a priority queue.
+	 */
+	private double time;
+	
 	/**
 	 * Get the point on the edge of an object involved in the collision
 	 * closest to the other object involved in the collision.
@@ -62,16 +100,16 @@ public abstract class Collision implements Comparable<Collision>{
 	}
 	
 	/**
-	 * Compare the time to collision of this collision to the
-	 * time to collision of the given other collision to see if 
+	 * Compare the predicted time of this collision to the
+	 * predicted time of the given other collision to see if 
 	 * it is smaller, equal or larger.
 	 * 
 	 * @param	otherCollision
-	 * 			The collision to compare the time to collision to.
+	 * 			The collision to compare the predicted time to.
 	 * @return	...
-	 * 			| if(this.getCollisionTime() < otherCollision.getCollisionTime())
+	 * 			| if(this.getTime() < otherCollision.getTime())
 	 * 			| then result == -1
-	 * 			| else if(this.getCollisionTime() == otherCollision.getCollisionTime())
+	 * 			| else if(this.getTime() == otherCollision.getTime())
 	 * 			| then result == 0
 	 * 			| else result == 1
 	 * @throws	NullPointerException
@@ -82,9 +120,9 @@ public abstract class Collision implements Comparable<Collision>{
 	public int compareTo(Collision otherCollision) {
 		if(otherCollision == null)
 			throw new NullPointerException("Non-effective collision");
-		if(this.getCollisionTime() < otherCollision.getCollisionTime())
+		if(this.getTime() < otherCollision.getTime())
 			return -1;
-		if(this.getCollisionTime() == otherCollision.getCollisionTime())
+		if(this.getTime() == otherCollision.getTime())
 			return 0;
 		return 1;
 	}
@@ -132,5 +170,16 @@ public abstract class Collision implements Comparable<Collision>{
 	 */
 	public abstract Set<SpatialElement> getAllElements();
 	
+	/**
+	 * Add all spatial elements involved in this collision to the given collection.
+	 * 
+	 * @param	elements
+	 * 			The collection to add the elements to.
+	 * @effect	...
+	 * 			| elements.addAll(getAllElements())
+	 * @note	Unlike getAllElements, this does not create a new set.
+	 */
+	public abstract void addAllElementsTo(Collection<? super SpatialElement> elements);
+	
 }
 
@@ -0,0 +1,104 @@
+package asteroids.model;
+
+/**
+ * A class of kernels computing the times to collision of one disc with
+ * a batch of other discs.
+ *
+ * The states of the other discs are given as dense arrays, so that the
+ * computation streams over contiguous memory. The loop has no early exits
+ * and selects its result without branches that depend on the data, which
+ * keeps it cheap and leaves it open to automatic vectorization.
+ *
+ * @version 1.0
+ * @author  Frederik Van Eeghem, Pieter Lietaert
+ */
+public final class CollisionKernel {
+
+	/**
+	 * This class only offers static methods.
+	 */
+	private CollisionKernel() {
+	}
+
+	/**
+	 * Compute the time to collision of the disc with the given state with
+	 * each of the given other discs.
+	 *
+	 * @param	x
+	 * 			The x-coordinate of the center of the disc.
+	 * @param	y
+	 * 			The y-coordinate of the center of the disc.
+	 * @param	vx
+	 * 			The velocity of the disc in the x-direction.
+	 * @param	vy
+	 * 			The velocity of the disc in the y-direction.
+	 * @param	radius
+	 * 			The radius of the disc.
+	 * @param	xs
+	 * 			The x-coordinates of the centers of the other discs.
+	 * @param	ys
+	 * 			The y-coordinates of the centers of the other discs.
+	 * @param	vxs
+	 * 			The velocities of the other discs in the x-direction.
+	 * @param	vys
+	 * 			The velocities of the other discs in the y-direction.
+	 * @param	radii
+	 * 			The radii of the other discs.
+	 * @param	nbDiscs
+	 * 			The number of other discs.
+	 * @param	times
+	 * 			The array to store the times to collision in.
+	 * @post	...
+	 * 			| for each i in 0..nbDiscs-1:
+	 * 			|	(new times)[i] == getTimeToCollision(x, y, vx, vy, radius,
+	 * 			|		xs[i], ys[i], vxs[i], vys[i], radii[i])
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| nbDiscs < 0 || xs.length < nbDiscs || ys.length < nbDiscs
+	 * 			|	|| vxs.length < nbDiscs || vys.length < nbDiscs
+	 * 			|	|| radii.length < nbDiscs || times.length < nbDiscs
+	 */
+	public static void getTimesToCollision(double x, double y, double vx, double vy, double radius,
+			double[] xs, double[] ys, double[] vxs, double[] vys, double[] radii, int nbDiscs,
+			double[] times) throws IllegalArgumentException {
+		if (nbDiscs < 0 || xs.length < nbDiscs || ys.length < nbDiscs || vxs.length < nbDiscs
+				|| vys.length < nbDiscs || radii.length < nbDiscs || times.length < nbDiscs)
+			throw new IllegalArgumentException("Arrays too short for the number of discs.");
+		for (int i = 0; i < nbDiscs; i++)
+			times[i] = getTimeToCollision(x, y, vx, vy, radius, xs[i], ys[i], vxs[i], vys[i], radii[i]);
+	}
+
+	/**
+	 * Return the time to collision of two discs with the given states.
+	 *
+	 * @return	...
+	 * 			| let
+	 * 			|	a == |v1 - v2|^2
+	 * 			|	b == 2 * (p1 - p2).(v1 - v2)
+	 * 			|	c == |p1 - p2|^2 - (radius1 + radius2)^2
+	 * 			|	discriminant == b*b - 4*a*c
+	 * 			| in
+	 * 			|	if(b >= 0 || discriminant < 0)
+	 * 			|	then result == Double.POSITIVE_INFINITY
+	 * 			|	else result == the smallest non-negative root of a*t^2 + b*t + c
+	 * @note	Since b < 0 and a > 0 whenever a root is returned, the larger root
+	 * 			is always positive, so the smaller root only has to be checked.
+	 */
+	public static double getTimeToCollision(double x1, double y1, double vx1, double vy1, double radius1,
+			double x2, double y2, double vx2, double vy2, double radius2) {
+		double dx = x1 - x2;
+		double dy = y1 - y2;
+		double dvx = vx1 - vx2;
+		double dvy = vy1 - vy2;
+		double sigma = radius1 + radius2;
+		double a = dvx*dvx + dvy*dvy;
+		double b = 2 * (dx*dvx + dy*dvy);
+		double c = (dx*dx + dy*dy) - sigma*sigma;
+		double discriminant = b * b - 4 * a * c;
+		double root = Math.sqrt(discriminant);
+		double solution1 = (-b + root) / (2 * a);
+		double solution2 = (-b - root) / (2 * a);
+		double solution = (solution2 < 0) ? solution1 : solution2;
+		return (b < 0 && discriminant >= 0) ? solution : Double.POSITIVE_INFINITY;
+	}
+}
@@ -0,0 +1,400 @@
+package asteroids.model;
+
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of priority queues of predicted collisions, ordered by the time
+ * at which they take place.
+ *
+ * The queue does not store collision objects. Each entry consists of a time,
+ * the slot numbers of the elements involved (the second one being WALL for a
+ * collision with a boundary of the world) and the versions those slots had
+ * when the collision was predicted. All entries are kept in parallel primitive
+ * arrays ordered as a 4-ary heap, so adding and removing entries does not
+ * allocate any objects.
+ *
+ * @invar	The number of entries is not negative and not larger than the capacity.
+ * 			| 0 <= size() && size() <= getCapacity()
+ *
+ * @version 1.0
+ * @author  Frederik Van Eeghem, Pieter Lietaert
+ */
+public class CollisionQueue {
+	/**
+	 * Initialize this new collision queue as an empty queue.
+	 *
+	 * @post	...
+	 * 			| (new this).isEmpty()
+	 */
+	public CollisionQueue() {
+		this(16);
+	}
+
+	/**
+	 * Initialize this new collision queue as an empty queue with the given
+	 * initial capacity.
+	 *
+	 * @param	capacity
+	 * 			The number of entries this new queue can hold before growing.
+	 * @post	...
+	 * 			| (new this).isEmpty()
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| capacity < 1
+	 */
+	public CollisionQueue(int capacity) throws IllegalArgumentException {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Invalid capacity for the collision queue.");
+		times = new double[capacity];
+		elements1 = new int[capacity];
+		elements2 = new int[capacity];
+		versions1 = new int[capacity];
+		versions2 = new int[capacity];
+	}
+
+	/**
+	 * The code used as second element of a collision with a wall.
+	 */
+	public static final int WALL = -1;
+
+	/**
+	 * Return the number of entries in this queue.
+	 */
+	@Basic
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Check whether this queue is empty.
+	 *
+	 * @return	...
+	 * 			| result == (size() == 0)
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Return the number of entries this queue can hold before growing.
+	 */
+	@Basic
+	public int getCapacity() {
+		return times.length;
+	}
+
+	/**
+	 * Variable registering the number of entries in this queue.
+	 */
+	private int size = 0;
+
+	/**
+	 * Add a collision with the given properties to this queue.
+	 *
+	 * @param	time
+	 * 			The time at which the collision takes place.
+	 * @param	element1
+	 * 			The slot of the first element involved in the collision.
+	 * @param	element2
+	 * 			The slot of the second element involved in the collision, or WALL.
+	 * @param	version1
+	 * 			The version of the slot of the first element.
+	 * @param	version2
+	 * 			The version of the slot of the second element.
+	 * @post	...
+	 * 			| (new this).size() == size() + 1
+	 */
+	public void add(double time, int element1, int element2, int version1, int version2) {
+		if (size == getCapacity())
+			grow();
+		set(size, time, element1, element2, version1, version2);
+		siftUp(size);
+		size++;
+	}
+
+	/**
+	 * Return the time of the first collision in this queue.
+	 *
+	 * @return	...
+	 * 			| result == getTime(0)
+	 * @throws	IllegalStateException
+	 * 			...
+	 * 			| isEmpty()
+	 */
+	public double peekTime() throws IllegalStateException {
+		checkNotEmpty();
+		return times[0];
+	}
+
+	/**
+	 * Return the slot of the first element of the first collision in this queue.
+	 *
+	 * @return	...
+	 * 			| result == getElement1(0)
+	 * @throws	IllegalStateException
+	 * 			...
+	 * 			| isEmpty()
+	 */
+	public int peekElement1() throws IllegalStateException {
+		checkNotEmpty();
+		return elements1[0];
+	}
+
+	/**
+	 * Return the slot of the second element of the first collision in this queue.
+	 *
+	 * @return	...
+	 * 			| result == getElement2(0)
+	 * @throws	IllegalStateException
+	 * 			...
+	 * 			| isEmpty()
+	 */
+	public int peekElement2() throws IllegalStateException {
+		checkNotEmpty();
+		return elements2[0];
+	}
+
+	/**
+	 * Remove the first collision from this queue.
+	 *
+	 * @post	...
+	 * 			| (new this).size() == size() - 1
+	 * @throws	IllegalStateException
+	 * 			...
+	 * 			| isEmpty()
+	 */
+	public void poll() throws IllegalStateException {
+		checkNotEmpty();
+		size--;
+		if (size > 0) {
+			copy(size, 0);
+			siftDown(0);
+		}
+	}
+
+	/**
+	 * Remove all collisions from this queue.
+	 *
+	 * @post	...
+	 * 			| (new this).isEmpty()
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Return the time of the collision at the given index.
+	 *
+	 * @param	index
+	 * 			The index of the collision, in no particular order.
+	 * @throws	IndexOutOfBoundsException
+	 * 			...
+	 * 			| index < 0 || index >= size()
+	 */
+	public double getTime(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return times[index];
+	}
+
+	/**
+	 * Return the slot of the first element of the collision at the given index.
+	 *
+	 * @param	index
+	 * 			The index of the collision, in no particular order.
+	 * @throws	IndexOutOfBoundsException
+	 * 			...
+	 * 			| index < 0 || index >= size()
+	 */
+	public int getElement1(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return elements1[index];
+	}
+
+	/**
+	 * Return the slot of the second element of the collision at the given index.
+	 *
+	 * @param	index
+	 * 			The index of the collision, in no particular order.
+	 * @throws	IndexOutOfBoundsException
+	 * 			...
+	 * 			| index < 0 || index >= size()
+	 */
+	public int getElement2(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return elements2[index];
+	}
+
+	/**
+	 * Check whether the collision at the given index is outdated with respect to
+	 * the given versions of the slots.
+	 *
+	 * @param	index
+	 * 			The index of the collision, in no particular order.
+	 * @param	versions
+	 * 			The current version of each slot.
+	 * @return	...
+	 * 			| result == (versions[getElement1(index)] != version1 of the collision)
+	 * 			|	|| (getElement2(index) != WALL
+	 * 			|		&& versions[getElement2(index)] != version2 of the collision)
+	 * @throws	IndexOutOfBoundsException
+	 * 			...
+	 * 			| index < 0 || index >= size()
+	 */
+	public boolean isOutdated(int index, int[] versions) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return isOutdated1(index, versions) || isOutdated2(index, versions);
+	}
+
+	/**
+	 * Check whether the first element of the collision at the given index changed
+	 * since the collision was predicted.
+	 *
+	 * @param	index
+	 * 			The index of the collision, in no particular order.
+	 * @param	versions
+	 * 			The current version of each slot.
+	 * @return	...
+	 * 			| result == (versions[getElement1(index)] != version1 of the collision)
+	 * @throws	IndexOutOfBoundsException
+	 * 			...
+	 * 			| index < 0 || index >= size()
+	 */
+	public boolean isOutdated1(int index, int[] versions) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return versions[elements1[index]] != versions1[index];
+	}
+
+	/**
+	 * Check whether the second element of the collision at the given index changed
+	 * since the collision was predicted.
+	 *
+	 * @param	index
+	 * 			The index of the collision, in no particular order.
+	 * @param	versions
+	 * 			The current version of each slot.
+	 * @return	...
+	 * 			| result == (getElement2(index) != WALL
+	 * 			|	&& versions[getElement2(index)] != version2 of the collision)
+	 * @throws	IndexOutOfBoundsException
+	 * 			...
+	 * 			| index < 0 || index >= size()
+	 */
+	public boolean isOutdated2(int index, int[] versions) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return elements2[index] != WALL && versions[elements2[index]] != versions2[index];
+	}
+
+	/**
+	 * Remove all collisions that are outdated with respect to the given versions
+	 * of the slots from this queue.
+	 *
+	 * @param	versions
+	 * 			The current version of each slot.
+	 * @post	...
+	 * 			| for each index in 0..(new this).size()-1:
+	 * 			|	!(new this).isOutdated(index, versions)
+	 */
+	public void removeOutdated(int[] versions) {
+		int kept = 0;
+		for (int i = 0; i < size; i++) {
+			if (!isOutdated(i, versions)) {
+				copy(i, kept);
+				kept++;
+			}
+		}
+		size = kept;
+		// Restore the heap order bottom-up.
+		for (int i = (size - 2) / arity; i >= 0; i--)
+			siftDown(i);
+	}
+
+	/**
+	 * Move the entry at the given index up until its parent is not later.
+	 */
+	private void siftUp(int index) {
+		double time = times[index];
+		int element1 = elements1[index], element2 = elements2[index];
+		int version1 = versions1[index], version2 = versions2[index];
+		while (index > 0) {
+			int parent = (index - 1) / arity;
+			if (times[parent] <= time)
+				break;
+			copy(parent, index);
+			index = parent;
+		}
+		set(index, time, element1, element2, version1, version2);
+	}
+
+	/**
+	 * Move the entry at the given index down until none of its children is earlier.
+	 */
+	private void siftDown(int index) {
+		double time = times[index];
+		int element1 = elements1[index], element2 = elements2[index];
+		int version1 = versions1[index], version2 = versions2[index];
+		while (true) {
+			int first = arity*index + 1;
+			if (first >= size)
+				break;
+			int last = Math.min(first + arity, size);
+			int smallest = first;
+			for (int child = first + 1; child < last; child++) {
+				if (times[child] < times[smallest])
+					smallest = child;
+			}
+			if (times[smallest] >= time)
+				break;
+			copy(smallest, index);
+			index = smallest;
+		}
+		set(index, time, element1, element2, version1, version2);
+	}
+
+	private void set(int index, double time, int element1, int element2, int version1, int version2) {
+		times[index] = time;
+		elements1[index] = element1;
+		elements2[index] = element2;
+		versions1[index] = version1;
+		versions2[index] = version2;
+	}
+
+	private void copy(int from, int to) {
+		set(to, times[from], elements1[from], elements2[from], versions1[from], versions2[from]);
+	}
+
+	private void grow() {
+		int capacity = 2*getCapacity();
+		times = Arrays.copyOf(times, capacity);
+		elements1 = Arrays.copyOf(elements1, capacity);
+		elements2 = Arrays.copyOf(elements2, capacity);
+		versions1 = Arrays.copyOf(versions1, capacity);
+		versions2 = Arrays.copyOf(versions2, capacity);
+	}
+
+	private void checkNotEmpty() throws IllegalStateException {
+		if (isEmpty())
+			throw new IllegalStateException("The collision queue is empty.");
+	}
+
+	private void checkIndex(int index) throws IndexOutOfBoundsException {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Invalid index in the collision queue.");
+	}
+
+	/**
+	 * The number of children of each node of the heap.
+	 */
+	private static final int arity = 4;
+
+	/**
+	 * Arrays registering the time, the slots of the elements and their versions
+	 * of each collision in this queue, in heap order.
+	 */
+	private double[] times;
+	private int[] elements1;
+	private int[] elements2;
+	private int[] versions1;
+	private int[] versions2;
+}
@@ -0,0 +1,153 @@
+package asteroids.model;
+
+/**
+ * A class holding the categories of spatial elements and the table that
+ * decides, for each pair of categories, how a collision between elements of
+ * those categories is resolved.
+ *
+ * Each kind of spatial element has a category with a single bit set, and
+ * each element has a mask with a bit set for every category it collides
+ * with. Two elements can only collide if the category of each of them is
+ * in the mask of the other, which a world can test with two bitwise ANDs
+ * before looking at the elements themselves.
+ *
+ * A new kind of element only needs a new category bit and a row and column
+ * in the table of resolutions.
+ *
+ * @version 1.0
+ * @author  Frederik Van Eeghem, Pieter Lietaert
+ */
+public final class CollisionTable {
+
+	/**
+	 * This class only offers static methods.
+	 */
+	private CollisionTable() {
+	}
+
+	/**
+	 * The categories of ships, bullets and asteroids.
+	 */
+	public static final int SHIP = 1;
+	public static final int BULLET = 2;
+	public static final int ASTEROID = 4;
+
+	/**
+	 * The mask of an element that collides with elements of all categories.
+	 */
+	public static final int ALL = SHIP | BULLET | ASTEROID;
+
+	/**
+	 * The ways in which a collision between two elements can be resolved:
+	 * nothing happens, both elements bounce off each other, or only the first,
+	 * only the second, or both elements collide. When both collide, the
+	 * element named first collides first.
+	 */
+	public static final int NONE = 0;
+	public static final int BOUNCE = 1;
+	public static final int COLLIDE_FIRST = 2;
+	public static final int COLLIDE_SECOND = 3;
+	public static final int COLLIDE_FIRST_THEN_SECOND = 4;
+	public static final int COLLIDE_SECOND_THEN_FIRST = 5;
+
+	/**
+	 * Check whether elements with the given categories and masks can collide.
+	 *
+	 * @param	category1
+	 * 			The category of the first element.
+	 * @param	mask1
+	 * 			The mask of the first element.
+	 * @param	category2
+	 * 			The category of the second element.
+	 * @param	mask2
+	 * 			The mask of the second element.
+	 * @return	...
+	 * 			| result == ((category1 & mask2) != 0) && ((category2 & mask1) != 0)
+	 */
+	public static boolean canCollide(int category1, int mask1, int category2, int mask2) {
+		return ((category1 & mask2) != 0) && ((category2 & mask1) != 0);
+	}
+
+	/**
+	 * Return the way in which a collision between an element of the first
+	 * given category and an element of the second given category is resolved.
+	 *
+	 * @param	category1
+	 * 			The category of the first element.
+	 * @param	category2
+	 * 			The category of the second element.
+	 * @return	One of NONE, BOUNCE, COLLIDE_FIRST, COLLIDE_SECOND,
+	 * 			COLLIDE_FIRST_THEN_SECOND and COLLIDE_SECOND_THEN_FIRST.
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| !isValidCategory(category1) || !isValidCategory(category2)
+	 */
+	public static int getResolution(int category1, int category2) throws IllegalArgumentException {
+		if (!isValidCategory(category1) || !isValidCategory(category2))
+			throw new IllegalArgumentException("Invalid category of a spatial element.");
+		return resolutions[getIndex(category1)][getIndex(category2)];
+	}
+
+	/**
+	 * Check whether the given category is a valid category of a spatial element.
+	 *
+	 * @param	category
+	 * 			The category to check.
+	 * @return	...
+	 * 			| result == (category == SHIP) || (category == BULLET) || (category == ASTEROID)
+	 */
+	public static boolean isValidCategory(int category) {
+		return (category == SHIP) || (category == BULLET) || (category == ASTEROID);
+	}
+
+	/**
+	 * Return the index of the given category in the table of resolutions.
+	 */
+	private static int getIndex(int category) {
+		return Integer.numberOfTrailingZeros(category);
+	}
+
+	/**
+	 * The table of resolutions, indexed by the indices of both categories.
+	 *
+	 * @note	A bullet is destroyed before the element it hits, so an asteroid
+	 * 			only splits once the bullet has left the world.
+	 */
+	private static final int[][] resolutions = new int[3][3];
+
+	static {
+		setResolution(SHIP, SHIP, BOUNCE);
+		setResolution(ASTEROID, ASTEROID, BOUNCE);
+		setResolution(SHIP, ASTEROID, COLLIDE_FIRST);
+		setResolution(BULLET, SHIP, COLLIDE_FIRST_THEN_SECOND);
+		setResolution(BULLET, ASTEROID, COLLIDE_FIRST_THEN_SECOND);
+		setResolution(BULLET, BULLET, COLLIDE_SECOND_THEN_FIRST);
+	}
+
+	/**
+	 * Register the given resolution for both orders of the given categories.
+	 */
+	private static void setResolution(int category1, int category2, int resolution) {
+		resolutions[getIndex(category1)][getIndex(category2)] = resolution;
+		if (category1 != category2)
+			resolutions[getIndex(category2)][getIndex(category1)] = getSwapped(resolution);
+	}
+
+	/**
+	 * Return the given resolution for the elements in the opposite order.
+	 */
+	private static int getSwapped(int resolution) {
+		switch (resolution) {
+		case COLLIDE_FIRST:
+			return COLLIDE_SECOND;
+		case COLLIDE_SECOND:
+			return COLLIDE_FIRST;
+		case COLLIDE_FIRST_THEN_SECOND:
+			return COLLIDE_SECOND_THEN_FIRST;
+		case COLLIDE_SECOND_THEN_FIRST:
+			return COLLIDE_FIRST_THEN_SECOND;
+		default:
+			return resolution;
+		}
+	}
+}
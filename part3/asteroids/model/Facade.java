@@ -49,7 +49,7 @@ public class Facade implements IFacade<World, Ship, Asteroid, Bullet, Program> {
 	@Override
 	public Set<Ship> getShips(World world) {
 		try {
-			return world.getShips();
+			return world.getShipsView();
 		} catch (Exception exc){
 			throw new ModelException(exc);	
 		}
@@ -58,7 +58,7 @@ public class Facade implements IFacade<World, Ship, Asteroid, Bullet, Program> {
 	@Override
 	public Set<Asteroid> getAsteroids(World world) {
 		try {
-			return world.getAsteroids();
+			return world.getAsteroidsView();
 		} catch (Exception exc){
 			throw new ModelException(exc);	
 		}
@@ -67,7 +67,7 @@ public class Facade implements IFacade<World, Ship, Asteroid, Bullet, Program> {
 	@Override
 	public Set<Bullet> getBullets(World world) {
 		try {
-			return world.getBullets();
+			return world.getBulletsView();
 		} catch (Exception exc){
 			throw new ModelException(exc);	
 		}
@@ -0,0 +1,346 @@
+package asteroids.model;
+
+import java.util.Arrays;
+
+import asteroids.CollisionListener;
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of drivers that evolve a world in steps of a fixed size, however
+ * irregular the frames in which time is handed to them.
+ *
+ * The time of each frame is added to an accumulator, and the world is evolved
+ * by whole steps as long as the accumulator holds at least one step. The part
+ * of a step left in the accumulator is exposed as an interpolation factor, so
+ * a renderer can blend the positions of the elements before and after the
+ * last step and move smoothly at any frame rate.
+ *
+ * The world only ever evolves by the step size, so its evolution does not
+ * depend on the frame times. Changes made to the world between calls of
+ * advance take effect at the start of the next step, and can be replayed by
+ * applying them at the same number of steps.
+ *
+ * @invar	The driver has a valid step size.
+ * 			| isValidStepSize(getStepSize())
+ * @invar	The driver has a valid maximum number of steps per frame.
+ * 			| isValidMaxStepsPerFrame(getMaxStepsPerFrame())
+ * @invar	The accumulated time is less than one step.
+ * 			| 0 <= getAlpha() && getAlpha() < 1
+ *
+ * @version 1.0
+ * @author  Frederik Van Eeghem, Pieter Lietaert
+ */
+public class FixedStepDriver {
+	/**
+	 * Initialize this new driver for the given world with the given step size
+	 * and maximum number of steps per frame.
+	 *
+	 * @param	world
+	 * 			The world to evolve.
+	 * @param	stepSize
+	 * 			The time in seconds the world evolves by in each step.
+	 * @param	maxStepsPerFrame
+	 * 			The maximum number of steps taken in a single frame.
+	 * @post	...
+	 * 			| (new this).getWorld() == world
+	 * 			|	&& (new this).getStepSize() == stepSize
+	 * 			|	&& (new this).getMaxStepsPerFrame() == maxStepsPerFrame
+	 * 			|	&& (new this).getNbSteps() == 0
+	 * 			|	&& (new this).getAlpha() == 0
+	 * @throws	NullPointerException
+	 * 			...
+	 * 			| world == null
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| !isValidStepSize(stepSize) || !isValidMaxStepsPerFrame(maxStepsPerFrame)
+	 */
+	public FixedStepDriver(World world, double stepSize, int maxStepsPerFrame)
+			throws NullPointerException, IllegalArgumentException {
+		if (world == null)
+			throw new NullPointerException("Noneffective world for the driver.");
+		if (!isValidStepSize(stepSize))
+			throw new IllegalArgumentException("Invalid step size for the driver.");
+		if (!isValidMaxStepsPerFrame(maxStepsPerFrame))
+			throw new IllegalArgumentException("Invalid maximum number of steps per frame for the driver.");
+		this.world = world;
+		this.stepSize = stepSize;
+		this.maxStepsPerFrame = maxStepsPerFrame;
+	}
+
+	/**
+	 * Return the world evolved by this driver.
+	 */
+	@Basic @Immutable
+	public World getWorld() {
+		return this.world;
+	}
+
+	/**
+	 * Variable referencing the world evolved by this driver.
+	 */
+	private final World world;
+
+	/**
+	 * Return the time in seconds the world of this driver evolves by in each step.
+	 */
+	@Basic @Immutable
+	public double getStepSize() {
+		return this.stepSize;
+	}
+
+	/**
+	 * Check whether the given step size is a valid step size for any driver.
+	 *
+	 * @return	...
+	 * 			| result == (stepSize > 0 && stepSize < Double.POSITIVE_INFINITY)
+	 */
+	public static boolean isValidStepSize(double stepSize) {
+		return stepSize > 0 && stepSize < Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Variable registering the step size of this driver.
+	 */
+	private final double stepSize;
+
+	/**
+	 * Return the maximum number of steps this driver takes in a single frame.
+	 */
+	@Basic @Immutable
+	public int getMaxStepsPerFrame() {
+		return this.maxStepsPerFrame;
+	}
+
+	/**
+	 * Check whether the given number is a valid maximum number of steps per
+	 * frame for any driver.
+	 *
+	 * @return	...
+	 * 			| result == (maxStepsPerFrame >= 1)
+	 */
+	public static boolean isValidMaxStepsPerFrame(int maxStepsPerFrame) {
+		return maxStepsPerFrame >= 1;
+	}
+
+	/**
+	 * Variable registering the maximum number of steps per frame of this driver.
+	 */
+	private final int maxStepsPerFrame;
+
+	/**
+	 * Return the number of steps this driver has taken.
+	 */
+	@Basic
+	public long getNbSteps() {
+		return this.nbSteps;
+	}
+
+	/**
+	 * Variable registering the number of steps this driver has taken.
+	 */
+	private long nbSteps = 0;
+
+	/**
+	 * Return the time in seconds this driver has dropped because frames
+	 * needed more steps than the maximum number of steps per frame.
+	 */
+	@Basic
+	public double getDroppedTime() {
+		return this.droppedTime;
+	}
+
+	/**
+	 * Variable registering the time dropped by this driver.
+	 */
+	private double droppedTime = 0;
+
+	/**
+	 * Return the fraction of a step accumulated by this driver but not yet
+	 * evolved, to blend the positions before and after the last step with.
+	 *
+	 * @return	...
+	 * 			| result == accumulator / getStepSize()
+	 */
+	public double getAlpha() {
+		return this.accumulator / getStepSize();
+	}
+
+	/**
+	 * Variable registering the time accumulated by this driver but not yet evolved.
+	 */
+	private double accumulator = 0;
+
+	/**
+	 * Hand the given frame time to this driver, and evolve its world by
+	 * as many whole steps as the accumulated time allows.
+	 *
+	 * @param	frameTime
+	 * 			The time in seconds since the previous frame.
+	 * @param	collisionListener
+	 * 			The listener to notify of the resolved collisions.
+	 * @return	The number of steps taken, which is the number of whole steps
+	 * 			in the accumulated time, but at most the maximum number of
+	 * 			steps per frame.
+	 * @effect	...
+	 * 			| for each step in 1..result
+	 * 			|	step(collisionListener)
+	 * @post	If the maximum number of steps is taken while more whole steps
+	 * 			are left, the surplus steps are dropped and added to the dropped
+	 * 			time, so a slow frame does not make the next frames slower.
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| !(frameTime >= 0 && frameTime < Double.POSITIVE_INFINITY)
+	 * @note	The positions before a step are only recorded for the last step of
+	 * 			the frame, since only those are blended when rendering it.
+	 */
+	public int advance(double frameTime, CollisionListener collisionListener)
+			throws IllegalArgumentException {
+		if (!(frameTime >= 0 && frameTime < Double.POSITIVE_INFINITY))
+			throw new IllegalArgumentException("Invalid frame time for the driver.");
+		accumulator += frameTime;
+		int nbFrameSteps = 0;
+		while (accumulator >= getStepSize() && nbFrameSteps < getMaxStepsPerFrame()) {
+			accumulator -= getStepSize();
+			nbFrameSteps++;
+			evolveStep(collisionListener, accumulator < getStepSize() || nbFrameSteps == getMaxStepsPerFrame());
+		}
+		if (accumulator >= getStepSize()) {
+			double dropped = Math.floor(accumulator / getStepSize()) * getStepSize();
+			droppedTime += dropped;
+			accumulator -= dropped;
+			// Guard against rounding in the subtraction above.
+			if (accumulator >= getStepSize())
+				accumulator = 0;
+		}
+		return nbFrameSteps;
+	}
+
+	/**
+	 * Evolve the world of this driver by a single step.
+	 *
+	 * @param	collisionListener
+	 * 			The listener to notify of the resolved collisions.
+	 * @effect	...
+	 * 			| getWorld().evolve(getStepSize(), collisionListener)
+	 * @post	...
+	 * 			| (new this).getNbSteps() == getNbSteps() + 1
+	 */
+	public void step(CollisionListener collisionListener) {
+		evolveStep(collisionListener, true);
+	}
+
+	/**
+	 * Evolve the world of this driver by a single step, recording the
+	 * positions of its elements first if asked to.
+	 *
+	 * @param	collisionListener
+	 * 			The listener to notify of the resolved collisions.
+	 * @param	recording
+	 * 			Whether the positions before the step are recorded.
+	 * @effect	...
+	 * 			| if(recording)
+	 * 			| then recordPositions()
+	 * @effect	...
+	 * 			| getWorld().evolve(getStepSize(), collisionListener)
+	 * @post	...
+	 * 			| (new this).getNbSteps() == getNbSteps() + 1
+	 */
+	private void evolveStep(CollisionListener collisionListener, boolean recording) {
+		if (recording)
+			recordPositions();
+		getWorld().evolve(getStepSize(), collisionListener);
+		nbSteps++;
+	}
+
+	/**
+	 * Record the current positions of the elements of the world of this
+	 * driver, by the slots they occupy.
+	 *
+	 * @post	...
+	 * 			| for each element in getWorld().getShips() union getWorld().getBullets()
+	 * 			|		union getWorld().getAsteroids()
+	 * 			|	recordedElements[element.getSlot()] == element
+	 * 			|	&& recordedX[element.getSlot()] == element.getPosition().getXComponent()
+	 * 			|	&& recordedY[element.getSlot()] == element.getPosition().getYComponent()
+	 * @note	An element is only recognized if it occupies the same slot when its
+	 * 			position is interpolated, so a slot reused in the meantime by another
+	 * 			element is not mistaken for it.
+	 */
+	private void recordPositions() {
+		Arrays.fill(recordedElements, null);
+		recordPositions(getWorld().getShipsView());
+		recordPositions(getWorld().getBulletsView());
+		recordPositions(getWorld().getAsteroidsView());
+	}
+
+	/**
+	 * Record the current positions of the given elements by the slots they occupy.
+	 *
+	 * @param	elements
+	 * 			The elements to record the positions of.
+	 */
+	private void recordPositions(Iterable<? extends SpatialElement> elements) {
+		for (SpatialElement element: elements) {
+			int slot = element.getSlot();
+			if (slot < 0)
+				continue;
+			if (slot >= recordedElements.length) {
+				int capacity = Math.max(2*recordedElements.length, slot + 1);
+				recordedElements = Arrays.copyOf(recordedElements, capacity);
+				recordedX = Arrays.copyOf(recordedX, capacity);
+				recordedY = Arrays.copyOf(recordedY, capacity);
+			}
+			recordedElements[slot] = element;
+			recordedX[slot] = element.getPositionX();
+			recordedY[slot] = element.getPositionY();
+		}
+	}
+
+	/**
+	 * Arrays registering for each slot the element occupying it and its
+	 * position before the last recorded step.
+	 */
+	private SpatialElement[] recordedElements = new SpatialElement[16];
+	private double[] recordedX = new double[16];
+	private double[] recordedY = new double[16];
+
+	/**
+	 * Return the x-coordinate to render the given element at.
+	 *
+	 * @param	element
+	 * 			The element to render.
+	 * @return	...
+	 * 			| if(the position of element before the last recorded step is known)
+	 * 			| then result == recordedX + getAlpha()*(element.getPosition().getXComponent() - recordedX)
+	 * 			| else result == element.getPosition().getXComponent()
+	 * @throws	NullPointerException
+	 * 			...
+	 * 			| element == null
+	 */
+	public double getInterpolatedX(SpatialElement element) throws NullPointerException {
+		int slot = element.getSlot();
+		if (slot < 0 || slot >= recordedElements.length || recordedElements[slot] != element)
+			return element.getPositionX();
+		return recordedX[slot] + getAlpha()*(element.getPositionX() - recordedX[slot]);
+	}
+
+	/**
+	 * Return the y-coordinate to render the given element at.
+	 *
+	 * @param	element
+	 * 			The element to render.
+	 * @return	...
+	 * 			| if(the position of element before the last recorded step is known)
+	 * 			| then result == recordedY + getAlpha()*(element.getPosition().getYComponent() - recordedY)
+	 * 			| else result == element.getPosition().getYComponent()
+	 * @throws	NullPointerException
+	 * 			...
+	 * 			| element == null
+	 */
+	public double getInterpolatedY(SpatialElement element) throws NullPointerException {
+		int slot = element.getSlot();
+		if (slot < 0 || slot >= recordedElements.length || recordedElements[slot] != element)
+			return element.getPositionY();
+		return recordedY[slot] + getAlpha()*(element.getPositionY() - recordedY[slot]);
+	}
+}
@@ -0,0 +1,478 @@
+package asteroids.model;
+
+import java.util.*;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of loose quadtrees used as broadphase by a world.
+ *
+ * The tree covers a square region starting at the origin. Each node may hold
+ * elements whose box has its center inside the node and whose largest side is
+ * not larger than the side of the node. The loose bounds of a node, which
+ * extend (a little more than) half a side beyond the node in each direction,
+ * therefore contain the boxes of all its elements. Elements are stored in the
+ * deepest node that can hold them, so small and large elements end up at
+ * different depths and clustered elements in different subtrees.
+ *
+ * Nodes are only created for regions that contain elements, which keeps the
+ * memory use of the tree proportional to the number of elements, whatever the
+ * extent of the region it covers. Elements with a center outside the region
+ * are kept in the root node, which is tested against every query.
+ *
+ * @invar	The tree has a valid size.
+ * 			| isValidSize(getSize())
+ *
+ * @version 1.2
+ * @author  Frederik Van Eeghem, Pieter Lietaert
+ */
+public class LooseQuadtree extends Broadphase {
+	/**
+	 * Initialize this new loose quadtree covering a region of the given width
+	 * and height, with the given horizon.
+	 *
+	 * @param	width
+	 * 			The width of the region covered by this new tree in km.
+	 * @param	height
+	 * 			The height of the region covered by this new tree in km.
+	 * @param 	horizon
+	 * 			The time span in seconds over which the paths of the elements
+	 * 			are swept into this new tree.
+	 * @post	...
+	 * 			| (new this).getSize() == Math.max(width, height)
+	 * @effect	...
+	 * 			| super(horizon)
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| !isValidSize(Math.max(width, height))
+	 */
+	public LooseQuadtree(double width, double height, double horizon) throws IllegalArgumentException {
+		super(horizon);
+		double size = Math.max(width, height);
+		if (!isValidSize(size))
+			throw new IllegalArgumentException("Invalid size for the loose quadtree.");
+		this.size = size;
+		this.root = new Node(null, 0, 0, 0, 0, size);
+	}
+
+	/**
+	 * Return the length of the side of the square region covered by this tree.
+	 */
+	@Basic @Immutable
+	public double getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Check whether the given size is a valid size for a loose quadtree.
+	 *
+	 * @param	size
+	 * 			The size to check.
+	 * @return	...
+	 * 			| result == (size > 0) && (size < Double.POSITIVE_INFINITY)
+	 */
+	public static boolean isValidSize(double size) {
+		return (size > 0) && (size < Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * Variable registering the side of the region covered by this tree in km.
+	 */
+	private final double size;
+
+	/**
+	 * Return the maximum depth of a node in a loose quadtree.
+	 */
+	@Basic @Immutable
+	public static int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * Variable registering the maximum depth of a node in a loose quadtree.
+	 */
+	private static final int maxDepth = 40;
+
+	/**
+	 * Check whether this tree contains the given element.
+	 *
+	 * @param	element
+	 * 			The element to check.
+	 * @return	...
+	 * 			| result == registered.containsKey(element)
+	 */
+	@Override
+	@Basic
+	public boolean contains(SpatialElement element) {
+		return registered.containsKey(element);
+	}
+
+	/**
+	 * Return the number of elements registered in this tree.
+	 */
+	@Override
+	@Basic
+	public int getNbElements() {
+		return registered.size();
+	}
+
+	/**
+	 * Return the number of nodes of this tree, including its root.
+	 */
+	public int getNbNodes() {
+		return getNbNodes(root);
+	}
+
+	private static int getNbNodes(Node node) {
+		int nbNodes = 1;
+		if (node.children != null) {
+			for (Node child: node.children) {
+				if (child != null)
+					nbNodes += getNbNodes(child);
+			}
+		}
+		return nbNodes;
+	}
+
+	/**
+	 * Register the given element in this tree with the path it sweeps over
+	 * the given time span, starting from its current position. A previous
+	 * registration of the same element is replaced.
+	 *
+	 * @param	element
+	 * 			The element to register.
+	 * @param	timeSpan
+	 * 			The time span over which the path of the element is swept.
+	 * @post	...
+	 * 			| (new this).contains(element)
+	 * @throws	NullPointerException
+	 * 			...
+	 * 			| element == null
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| !SpatialElement.isValidTime(timeSpan)
+	 * @note	An element that still fits the node it occupies is not moved,
+	 * 			only its box is updated.
+	 */
+	@Override
+	public void add(SpatialElement element, double timeSpan)
+			throws NullPointerException, IllegalArgumentException {
+		if (element == null)
+			throw new NullPointerException("Non-effective element for the loose quadtree.");
+		if (!SpatialElement.isValidTime(timeSpan))
+			throw new IllegalArgumentException("Invalid time span for the loose quadtree.");
+		double radius = element.getRadius();
+		double minX = element.getMinX(timeSpan) - radius;
+		double minY = element.getMinY(timeSpan) - radius;
+		double maxX = element.getMaxX(timeSpan) + radius;
+		double maxY = element.getMaxY(timeSpan) + radius;
+
+		// Find the depth and indices of the deepest node that can hold the box.
+		double extent = Math.max(maxX - minX, maxY - minY);
+		double centerX = minX/2 + maxX/2;
+		double centerY = minY/2 + maxY/2;
+		int depth = 0;
+		long i = 0, j = 0;
+		if (0 <= centerX && centerX < getSize() && 0 <= centerY && centerY < getSize()) {
+			double side = getSize();
+			while (depth < getMaxDepth() && side/2 >= extent) {
+				side /= 2;
+				depth++;
+			}
+			i = Math.min((long) (centerX / side), (1L << depth) - 1);
+			j = Math.min((long) (centerY / side), (1L << depth) - 1);
+		}
+
+		Entry entry = registered.get(element);
+		if (entry != null) {
+			if (entry.node.depth == depth && entry.node.i == i && entry.node.j == j) {
+				entry.setBox(minX, minY, maxX, maxY);
+				return;
+			}
+			remove(element);
+		}
+		Node node = getNode(depth, i, j);
+		entry = new Entry(element, node);
+		entry.setBox(minX, minY, maxX, maxY);
+		node.entries.add(entry);
+		for (Node ancestor = node; ancestor != null; ancestor = ancestor.parent)
+			ancestor.nbElements++;
+		registered.put(element, entry);
+	}
+
+	/**
+	 * Return the node at the given depth with the given indices, creating
+	 * it and its ancestors if needed.
+	 */
+	private Node getNode(int depth, long i, long j) {
+		Node node = root;
+		for (int level = 1; level <= depth; level++) {
+			int quadrantX = (int) ((i >> (depth - level)) & 1);
+			int quadrantY = (int) ((j >> (depth - level)) & 1);
+			int quadrant = 2*quadrantY + quadrantX;
+			if (node.children == null)
+				node.children = new Node[4];
+			Node child = node.children[quadrant];
+			if (child == null) {
+				double side = node.side/2;
+				child = new Node(node, quadrant, level, 2*node.i + quadrantX, 2*node.j + quadrantY, side);
+				node.children[quadrant] = child;
+			}
+			node = child;
+		}
+		return node;
+	}
+
+	/**
+	 * Remove the given element from this tree, if it is registered.
+	 *
+	 * @param	element
+	 * 			The element to remove.
+	 * @post	...
+	 * 			| !(new this).contains(element)
+	 * @note	Nodes that no longer hold any element in their subtree are
+	 * 			removed from this tree.
+	 */
+	@Override
+	public void remove(SpatialElement element) {
+		Entry entry = registered.remove(element);
+		if (entry == null)
+			return;
+		Node node = entry.node;
+		node.entries.remove(entry);
+		for (Node ancestor = node; ancestor != null; ancestor = ancestor.parent)
+			ancestor.nbElements--;
+		while (node != root && node.nbElements == 0) {
+			node.parent.children[node.quadrant] = null;
+			node = node.parent;
+		}
+	}
+
+	/**
+	 * Remove all elements from this tree.
+	 *
+	 * @post	...
+	 * 			| (new this).getNbElements() == 0
+	 */
+	@Override
+	public void clear() {
+		registered.clear();
+		root.entries.clear();
+		root.children = null;
+		root.nbElements = 0;
+	}
+
+	/**
+	 * Return all elements whose registered box overlaps the registered box
+	 * of the given element.
+	 *
+	 * @param	element
+	 * 			The element to return the candidates of.
+	 * @return	...
+	 * 			| if (!contains(element))
+	 * 			| then result.isEmpty()
+	 * @return	...
+	 * 			| !result.contains(element)
+	 */
+	@Override
+	public Set<SpatialElement> getCandidates(SpatialElement element) {
+		Entry entry = registered.get(element);
+		Set<SpatialElement> candidates = new HashSet<SpatialElement>();
+		if (entry == null)
+			return candidates;
+		collect(root, entry.minX, entry.minY, entry.maxX, entry.maxY, element, null, 0, candidates);
+		return candidates;
+	}
+
+	/**
+	 * Store the slots of all elements whose registered box overlaps the registered
+	 * box of the given element at the front of the given array, and return their number.
+	 *
+	 * @param	element
+	 * 			The element to return the candidates of.
+	 * @param	slots
+	 * 			The array to store the slots of the candidates in.
+	 * @return	...
+	 * 			| result == getCandidates(element).size()
+	 * @post	...
+	 * 			| for each other in getCandidates(element):
+	 * 			|	exactly one index in 0..result-1 has (new slots)[index] == other.getSlot()
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| slots.length < getNbElements()
+	 */
+	@Override
+	public int getCandidates(SpatialElement element, int[] slots) throws IllegalArgumentException {
+		if (slots.length < getNbElements())
+			throw new IllegalArgumentException("Too small an array for the candidates.");
+		Entry entry = registered.get(element);
+		if (entry == null)
+			return 0;
+		return collect(root, entry.minX, entry.minY, entry.maxX, entry.maxY, element, slots, 0, null);
+	}
+
+	/**
+	 * Return all elements whose registered box overlaps the given rectangle.
+	 *
+	 * @param	minX
+	 * 			The smallest x-coordinate of the rectangle.
+	 * @param	minY
+	 * 			The smallest y-coordinate of the rectangle.
+	 * @param	maxX
+	 * 			The largest x-coordinate of the rectangle.
+	 * @param	maxY
+	 * 			The largest y-coordinate of the rectangle.
+	 * @return	...
+	 * 			| for each element in result:
+	 * 			|	contains(element)
+	 */
+	@Override
+	public Set<SpatialElement> getCandidates(double minX, double minY, double maxX, double maxY) {
+		Set<SpatialElement> candidates = new HashSet<SpatialElement>();
+		collect(root, minX, minY, maxX, maxY, null, null, 0, candidates);
+		return candidates;
+	}
+
+	/**
+	 * Store the slots of all elements whose registered box overlaps the given
+	 * rectangle at the front of the given array, and return their number.
+	 *
+	 * @param	minX
+	 * 			The smallest x-coordinate of the rectangle.
+	 * @param	minY
+	 * 			The smallest y-coordinate of the rectangle.
+	 * @param	maxX
+	 * 			The largest x-coordinate of the rectangle.
+	 * @param	maxY
+	 * 			The largest y-coordinate of the rectangle.
+	 * @param	slots
+	 * 			The array to store the slots of the candidates in.
+	 * @return	...
+	 * 			| result == getCandidates(minX, minY, maxX, maxY).size()
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| slots.length < getNbElements()
+	 */
+	@Override
+	public int getCandidates(double minX, double minY, double maxX, double maxY, int[] slots)
+			throws IllegalArgumentException {
+		if (slots.length < getNbElements())
+			throw new IllegalArgumentException("Too small an array for the candidates.");
+		return collect(root, minX, minY, maxX, maxY, null, slots, 0, null);
+	}
+
+	/**
+	 * Report all elements in the subtree of the given node whose box overlaps
+	 * the given rectangle, except the given element, either by storing their
+	 * slots in the given array after the given number of reported elements or
+	 * by adding them to the given set, and return the number of reported elements.
+	 */
+	private int collect(Node node, double minX, double minY, double maxX, double maxY,
+			SpatialElement element, int[] slots, int nbCandidates, Set<SpatialElement> candidates) {
+		if (node.nbElements == 0)
+			return nbCandidates;
+		if (node != root) {
+			double margin = node.side*looseness;
+			if (maxX < node.i*node.side - margin || (node.i + 1)*node.side + margin < minX
+					|| maxY < node.j*node.side - margin || (node.j + 1)*node.side + margin < minY)
+				return nbCandidates;
+		}
+		List<Entry> entries = node.entries;
+		for (int k = 0; k < entries.size(); k++) {
+			Entry entry = entries.get(k);
+			if (entry.element != element && entry.minX <= maxX && minX <= entry.maxX
+					&& entry.minY <= maxY && minY <= entry.maxY) {
+				if (slots != null)
+					slots[nbCandidates] = entry.element.getSlot();
+				else
+					candidates.add(entry.element);
+				nbCandidates++;
+			}
+		}
+		if (node.children != null) {
+			for (int quadrant = 0; quadrant < 4; quadrant++) {
+				if (node.children[quadrant] != null)
+					nbCandidates = collect(node.children[quadrant], minX, minY, maxX, maxY, element,
+							slots, nbCandidates, candidates);
+			}
+		}
+		return nbCandidates;
+	}
+
+	/**
+	 * The distance, relative to its side, by which the loose bounds of a node
+	 * extend beyond the node. A little more than a half, to absorb rounding
+	 * errors in the placement of the elements.
+	 */
+	private static final double looseness = 0.5 + 1e-6;
+
+	/**
+	 * The root node of this tree, covering the whole region and holding the
+	 * elements that do not fit in any deeper node.
+	 */
+	private final Node root;
+
+	/**
+	 * Map registering for each registered element its entry in this tree.
+	 */
+	private final Map<SpatialElement, Entry> registered = new HashMap<SpatialElement, Entry>();
+
+	/**
+	 * A class of nodes of a loose quadtree. A node at some depth with indices
+	 * i and j covers the square [i*side, (i+1)*side] x [j*side, (j+1)*side].
+	 */
+	private static class Node {
+		private Node(Node parent, int quadrant, int depth, long i, long j, double side) {
+			this.parent = parent;
+			this.quadrant = quadrant;
+			this.depth = depth;
+			this.i = i;
+			this.j = j;
+			this.side = side;
+		}
+
+		private final Node parent;
+		private final int quadrant;
+		private final int depth;
+		private final long i;
+		private final long j;
+		private final double side;
+
+		/**
+		 * The children of this node, indexed by quadrant, or null if none
+		 * has been created yet.
+		 */
+		private Node[] children = null;
+
+		/**
+		 * The entries held by this node itself.
+		 */
+		private final List<Entry> entries = new ArrayList<Entry>(2);
+
+		/**
+		 * The number of entries held in the subtree of this node.
+		 */
+		private int nbElements = 0;
+	}
+
+	/**
+	 * A class of entries registering an element, its box and its node.
+	 */
+	private static class Entry {
+		private Entry(SpatialElement element, Node node) {
+			this.element = element;
+			this.node = node;
+		}
+
+		private void setBox(double minX, double minY, double maxX, double maxY) {
+			this.minX = minX;
+			this.minY = minY;
+			this.maxX = maxX;
+			this.maxY = maxY;
+		}
+
+		private final SpatialElement element;
+		private final Node node;
+		private double minX, minY, maxX, maxY;
+	}
+}
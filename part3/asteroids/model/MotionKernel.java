@@ -0,0 +1,364 @@
+package asteroids.model;
+
+/**
+ * A class of kernels on the motion of discs under a constant acceleration
+ * that only lasts for a limited time, after which the discs move on in a
+ * straight line.
+ *
+ * A disc accelerates until it reaches its maximum speed, so its motion
+ * consists of a parabolic part followed by a straight part. All positions
+ * and times to collision are computed in closed form or by isolating the
+ * roots of polynomials, so they do not depend on any time step.
+ *
+ * @version 1.0
+ * @author  Frederik Van Eeghem, Pieter Lietaert
+ */
+public final class MotionKernel {
+
+	/**
+	 * This class only offers static methods.
+	 */
+	private MotionKernel() {
+	}
+
+	/**
+	 * Return the coordinate along some axis of a disc after the given time.
+	 *
+	 * @param	coordinate
+	 * 			The initial coordinate of the disc.
+	 * @param	speed
+	 * 			The initial speed of the disc along the axis.
+	 * @param	acceleration
+	 * 			The acceleration of the disc along the axis.
+	 * @param	accelerationTime
+	 * 			The time during which the disc accelerates.
+	 * @param	time
+	 * 			The time after which the coordinate is returned.
+	 * @return	...
+	 * 			| let
+	 * 			|	accelerated == min(max(accelerationTime, 0), time)
+	 * 			| in
+	 * 			|	result == coordinate + speed*time + acceleration*accelerated*(time - accelerated/2)
+	 */
+	public static double getPosition(double coordinate, double speed, double acceleration,
+			double accelerationTime, double time) {
+		double accelerated = Math.min(Math.max(accelerationTime, 0), time);
+		return coordinate + speed*time + acceleration*accelerated*(time - accelerated/2);
+	}
+
+	/**
+	 * Return the speed along some axis of a disc after the given time.
+	 *
+	 * @return	...
+	 * 			| result == speed + acceleration*min(max(accelerationTime, 0), time)
+	 */
+	public static double getSpeed(double speed, double acceleration, double accelerationTime, double time) {
+		return speed + acceleration*Math.min(Math.max(accelerationTime, 0), time);
+	}
+
+	/**
+	 * Return the smallest coordinate along some axis of a disc while it moves
+	 * during the given time span.
+	 *
+	 * @return	...
+	 * 			| if(acceleration == 0 || accelerationTime <= 0)
+	 * 			| then result == Math.min(coordinate, coordinate + speed*timeSpan)
+	 * 			| else result == the minimum of getPosition(coordinate, speed, acceleration,
+	 * 			|	accelerationTime, t) for t in 0..timeSpan
+	 */
+	public static double getMinPosition(double coordinate, double speed, double acceleration,
+			double accelerationTime, double timeSpan) {
+		if (acceleration == 0 || accelerationTime <= 0)
+			return Math.min(coordinate, coordinate + speed*timeSpan);
+		return Math.min(coordinate, getExtremePosition(coordinate, speed, acceleration, accelerationTime,
+				timeSpan, -1));
+	}
+
+	/**
+	 * Return the largest coordinate along some axis of a disc while it moves
+	 * during the given time span.
+	 *
+	 * @return	...
+	 * 			| if(acceleration == 0 || accelerationTime <= 0)
+	 * 			| then result == Math.max(coordinate, coordinate + speed*timeSpan)
+	 * 			| else result == the maximum of getPosition(coordinate, speed, acceleration,
+	 * 			|	accelerationTime, t) for t in 0..timeSpan
+	 */
+	public static double getMaxPosition(double coordinate, double speed, double acceleration,
+			double accelerationTime, double timeSpan) {
+		if (acceleration == 0 || accelerationTime <= 0)
+			return Math.max(coordinate, coordinate + speed*timeSpan);
+		return Math.max(coordinate, getExtremePosition(coordinate, speed, acceleration, accelerationTime,
+				timeSpan, 1));
+	}
+
+	/**
+	 * Return the extreme coordinate of an accelerating disc during the given
+	 * time span after the start, in the direction with the given sign.
+	 *
+	 * @note	The coordinate is a parabola while the disc accelerates and a line
+	 * 			afterwards, so its extremes lie at the end of the time span, at the
+	 * 			end of the acceleration or where the speed along the axis vanishes.
+	 */
+	private static double getExtremePosition(double coordinate, double speed, double acceleration,
+			double accelerationTime, double timeSpan, double sign) {
+		double accelerated = Math.min(accelerationTime, timeSpan);
+		double extreme = sign*Math.max(sign*getPosition(coordinate, speed, acceleration, accelerationTime, timeSpan),
+				sign*getPosition(coordinate, speed, acceleration, accelerationTime, accelerated));
+		double turn = -speed/acceleration;
+		if (0 < turn && turn < accelerated)
+			extreme = sign*Math.max(sign*extreme,
+					sign*getPosition(coordinate, speed, acceleration, accelerationTime, turn));
+		return extreme;
+	}
+
+	/**
+	 * Return the time after which a disc with the given velocity and
+	 * acceleration reaches the given speed.
+	 *
+	 * @param	vx
+	 * 			The velocity of the disc in the x-direction.
+	 * @param	vy
+	 * 			The velocity of the disc in the y-direction.
+	 * @param	ax
+	 * 			The acceleration of the disc in the x-direction.
+	 * @param	ay
+	 * 			The acceleration of the disc in the y-direction.
+	 * @param	speed
+	 * 			The speed to reach.
+	 * @return	...
+	 * 			| if(ax == 0 && ay == 0)
+	 * 			| then result == Double.POSITIVE_INFINITY
+	 * 			| else result == the largest non-negative time t for which
+	 * 			|	Vector2D.getNorm(vx + ax*t, vy + ay*t) == speed, or zero if there is none
+	 * @note	A disc that already moves at the given speed and accelerates away
+	 * 			from it reaches that speed at once.
+	 */
+	public static double getTimeToSpeed(double vx, double vy, double ax, double ay, double speed) {
+		double a = ax*ax + ay*ay;
+		if (a == 0)
+			return Double.POSITIVE_INFINITY;
+		double b = vx*ax + vy*ay;
+		double c = vx*vx + vy*vy - speed*speed;
+		double discriminant = b*b - a*c;
+		if (discriminant < 0)
+			return 0;
+		double root = Math.sqrt(discriminant);
+		// Avoid the cancellation of -b + root when b is positive.
+		double time = (b <= 0) ? (-b + root) / a : -c / (b + root);
+		return Math.max(time, 0);
+	}
+
+	/**
+	 * Return the time to the collision of a disc with a wall along some axis,
+	 * while the disc accelerates during the given time.
+	 *
+	 * @param	bound
+	 * 			The coordinate of the wall along the axis.
+	 * @param	coordinate
+	 * 			The coordinate of the center of the disc along the axis.
+	 * @param	speed
+	 * 			The speed of the disc along the axis.
+	 * @param	acceleration
+	 * 			The acceleration of the disc along the axis.
+	 * @param	accelerationTime
+	 * 			The time during which the disc accelerates.
+	 * @param	radius
+	 * 			The radius of the disc.
+	 * @return	...
+	 * 			| if(acceleration == 0 || accelerationTime <= 0)
+	 * 			| then result == getTimeToWall(bound, coordinate, speed, radius)
+	 * @return	Otherwise, the first time at which the edge of the disc on the side
+	 * 			of the wall reaches the wall while moving towards it, or
+	 * 			Double.POSITIVE_INFINITY if it never does.
+	 */
+	public static double getTimeToWall(double bound, double coordinate, double speed,
+			double acceleration, double accelerationTime, double radius) {
+		if (acceleration == 0 || accelerationTime <= 0)
+			return getTimeToWall(bound, coordinate, speed, radius);
+		double side = (coordinate < bound) ? 1 : -1;
+		// The signed distance of the edge beyond the wall, which grows while the disc approaches it.
+		double distance = side*(coordinate - bound) + radius;
+		double approach = side*speed;
+		if (distance < 0) {
+			double discriminant = approach*approach - 2*side*acceleration*distance;
+			if (discriminant >= 0) {
+				double time = -2*distance / (approach + Math.sqrt(discriminant));
+				if (time >= 0 && time <= accelerationTime)
+					return time;
+			}
+		}
+		double time = getTimeToWall(bound,
+				getPosition(coordinate, speed, acceleration, accelerationTime, accelerationTime),
+				getSpeed(speed, acceleration, accelerationTime, accelerationTime), radius);
+		return accelerationTime + time;
+	}
+
+	/**
+	 * Return the time to the collision of a disc moving in a straight line
+	 * with a wall along some axis.
+	 *
+	 * @return	...
+	 * 			| if((bound - coordinate - radius * Math.signum(speed)) * speed > 0)
+	 * 			| then result == (bound - coordinate - radius * Math.signum(speed)) / speed
+	 * 			| else result == Double.POSITIVE_INFINITY
+	 */
+	public static double getTimeToWall(double bound, double coordinate, double speed, double radius) {
+		double distance = bound - coordinate - radius * Math.signum(speed);
+		if (distance * speed > 0)
+			return distance / speed;
+		return Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Return the time to collision of two discs with the given states, that
+	 * accelerate during the given times.
+	 *
+	 * @param	accelerationTime1
+	 * 			The time during which the first disc accelerates.
+	 * @param	accelerationTime2
+	 * 			The time during which the second disc accelerates.
+	 * @return	The first time at which both discs touch while approaching each
+	 * 			other, or Double.POSITIVE_INFINITY if they never do.
+	 * @return	...
+	 * 			| if(ax1 == 0 && ay1 == 0 && ax2 == 0 && ay2 == 0)
+	 * 			| then result == CollisionKernel.getTimeToCollision(x1, y1, vx1, vy1, radius1,
+	 * 			|	x2, y2, vx2, vy2, radius2)
+	 * @note	The motion is split at the ends of both accelerations. On each part,
+	 * 			the relative motion is a straight line or a parabola, so the squared
+	 * 			distance between both centers is a polynomial of at most the fourth degree.
+	 */
+	public static double getTimeToCollision(double x1, double y1, double vx1, double vy1, double ax1, double ay1,
+			double accelerationTime1, double radius1, double x2, double y2, double vx2, double vy2,
+			double ax2, double ay2, double accelerationTime2, double radius2) {
+		double start = 0;
+		while (true) {
+			double end = Double.POSITIVE_INFINITY;
+			if (accelerationTime1 > start)
+				end = accelerationTime1;
+			if (accelerationTime2 > start)
+				end = Math.min(end, accelerationTime2);
+			double bx1 = (accelerationTime1 > start) ? ax1 : 0;
+			double by1 = (accelerationTime1 > start) ? ay1 : 0;
+			double bx2 = (accelerationTime2 > start) ? ax2 : 0;
+			double by2 = (accelerationTime2 > start) ? ay2 : 0;
+			double time;
+			if (bx1 == bx2 && by1 == by2)
+				time = CollisionKernel.getTimeToCollision(x1, y1, vx1, vy1, radius1, x2, y2, vx2, vy2, radius2);
+			else
+				time = getTimeToContact(x1 - x2, y1 - y2, vx1 - vx2, vy1 - vy2, bx1 - bx2, by1 - by2,
+						radius1 + radius2, end - start);
+			if (time <= end - start)
+				return start + time;
+			if (end == Double.POSITIVE_INFINITY)
+				return Double.POSITIVE_INFINITY;
+			double duration = end - start;
+			x1 = getPosition(x1, vx1, bx1, duration, duration);
+			y1 = getPosition(y1, vy1, by1, duration, duration);
+			x2 = getPosition(x2, vx2, bx2, duration, duration);
+			y2 = getPosition(y2, vy2, by2, duration, duration);
+			vx1 += bx1*duration;
+			vy1 += by1*duration;
+			vx2 += bx2*duration;
+			vy2 += by2*duration;
+			start = end;
+		}
+	}
+
+	/**
+	 * Return the first time within the given limit at which two discs with
+	 * the given relative position, velocity and acceleration touch while
+	 * approaching each other.
+	 *
+	 * @return	...
+	 * 			| let
+	 * 			|	f(t) == (dx + dvx*t + dax*t*t/2)^2 + (dy + dvy*t + day*t*t/2)^2 - sigma^2
+	 * 			| in
+	 * 			|	if(f(0) <= 0)
+	 * 			|	then result == (f'(0) < 0) ? 0 : Double.POSITIVE_INFINITY
+	 * 			|	else result == the smallest t in 0..limit with f(t) <= 0, up to
+	 * 			|		rounding, or Double.POSITIVE_INFINITY if there is none
+	 * @note	The roots of f are isolated by those of its derivatives: f is monotone
+	 * 			between its critical points, which are found by bisection between the
+	 * 			roots of its second derivative, a quadratic.
+	 */
+	private static double getTimeToContact(double dx, double dy, double dvx, double dvy,
+			double dax, double day, double sigma, double limit) {
+		double c4 = (dax*dax + day*day) / 4;
+		double c3 = dvx*dax + dvy*day;
+		double c2 = dvx*dvx + dvy*dvy + dx*dax + dy*day;
+		double c1 = 2*(dx*dvx + dy*dvy);
+		double c0 = dx*dx + dy*dy - sigma*sigma;
+		if (c0 <= 0)
+			return (c1 < 0) ? 0 : Double.POSITIVE_INFINITY;
+		// No positive root lies beyond the Cauchy bound.
+		double bound = 1 + Math.max(Math.max(Math.abs(c3), Math.abs(c2)), Math.max(Math.abs(c1), c0)) / c4;
+		double upper = Math.min(Math.min(limit, bound), maxTime);
+		// The roots of the second derivative split the range in parts where the first is monotone.
+		double q1 = upper, q2 = upper;
+		double discriminant = 36*c3*c3 - 96*c4*c2;
+		if (discriminant > 0) {
+			double root = Math.sqrt(discriminant);
+			q1 = Math.min(Math.max((-6*c3 - root) / (24*c4), 0), upper);
+			q2 = Math.min(Math.max((-6*c3 + root) / (24*c4), 0), upper);
+		}
+		double r1 = getRoot(0, 4*c4, 3*c3, 2*c2, c1, 0, q1);
+		double r2 = getRoot(0, 4*c4, 3*c3, 2*c2, c1, q1, q2);
+		double r3 = getRoot(0, 4*c4, 3*c3, 2*c2, c1, q2, upper);
+		// The distance is monotone between successive critical points.
+		double lower = 0;
+		for (int i = 0; i < 4; i++) {
+			double next = (i == 0) ? r1 : (i == 1) ? r2 : (i == 2) ? r3 : upper;
+			if (Double.isNaN(next))
+				continue;
+			if (evaluate(c4, c3, c2, c1, c0, next) <= 0)
+				return getRoot(c4, c3, c2, c1, c0, lower, next);
+			lower = next;
+		}
+		return Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Return the largest time in the given range at which the given polynomial
+	 * still has the sign it has at the lower end of the range, if its sign
+	 * changes over the range.
+	 *
+	 * @return	...
+	 * 			| if(sign(evaluate(c4, c3, c2, c1, c0, lower)) == sign(evaluate(c4, c3, c2, c1, c0, upper)))
+	 * 			| then Double.isNaN(result)
+	 * 			| else lower <= result && result <= upper
+	 * @note	The range is bisected until it cannot be split any further, so the
+	 * 			result is as close to the root as doubles allow.
+	 */
+	private static double getRoot(double c4, double c3, double c2, double c1, double c0,
+			double lower, double upper) {
+		boolean positive = evaluate(c4, c3, c2, c1, c0, lower) > 0;
+		if ((evaluate(c4, c3, c2, c1, c0, upper) > 0) == positive)
+			return Double.NaN;
+		while (true) {
+			double middle = lower + (upper - lower) / 2;
+			if (middle <= lower || middle >= upper)
+				return lower;
+			if ((evaluate(c4, c3, c2, c1, c0, middle) > 0) == positive)
+				lower = middle;
+			else
+				upper = middle;
+		}
+	}
+
+	/**
+	 * Evaluate the polynomial with the given coefficients at the given time.
+	 *
+	 * @return	...
+	 * 			| result == (((c4*t + c3)*t + c2)*t + c1)*t + c0
+	 */
+	private static double evaluate(double c4, double c3, double c2, double c1, double c0, double t) {
+		return (((c4*t + c3)*t + c2)*t + c1)*t + c0;
+	}
+
+	/**
+	 * The time in seconds beyond which no collisions are searched for, which
+	 * keeps all powers of times well within the range of doubles.
+	 */
+	private static final double maxTime = 1e50;
+}
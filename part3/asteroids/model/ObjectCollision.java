@@ -1,5 +1,6 @@
 package asteroids.model;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -29,6 +30,8 @@ public class ObjectCollision extends Collision{
 	 * @post	...
 	 * 			| (new this).getElement1() == element1
 	 * 			| (new this).getElement2() == element2
+	 * @effect	...
+	 * 			| predictTime(element1)
 	 * @throws	IllegalArgumentException
 	 * 			...
 	 * 			| !isValidElement(element1) || !isValidElement(element2)
@@ -38,6 +41,7 @@ public class ObjectCollision extends Collision{
 			throw new IllegalArgumentException("Non-valid element(s) given while constructing new object collision.");
 		this.element1 = element1;
 		this.element2 = element2;
+		predictTime(element1);
 	}
 	
 	/**
@@ -124,8 +128,56 @@ public class ObjectCollision extends Collision{
 	 */
 	@Override
 	public Vector2D getConnectingEdgePoint() {
-		Vector2D unitDirection = getElement2().getPosition().subtract(getElement1().getPosition()).getDirection();
-		return getElement1().getPosition().add(unitDirection.multiply(getElement1().getRadius()));
+		double x1 = getElement1().getPositionX();
+		double y1 = getElement1().getPositionY();
+		double x2 = getElement2().getPositionX();
+		double y2 = getElement2().getPositionY();
+		return new Vector2D(getEdgePointX(x1, y1, x2, y2, getElement1().getRadius()),
+				getEdgePointY(x1, y1, x2, y2, getElement1().getRadius()));
+	}
+	
+	/**
+	 * Return the x-coordinate of the point on the edge of a first element with the
+	 * given position and radius in the direction of a second element at the given position.
+	 * 
+	 * @param	x1
+	 * 			The x-coordinate of the first element.
+	 * @param	y1
+	 * 			The y-coordinate of the first element.
+	 * @param	x2
+	 * 			The x-coordinate of the second element.
+	 * @param	y2
+	 * 			The y-coordinate of the second element.
+	 * @param	radius
+	 * 			The radius of the first element.
+	 * @return	...
+	 * 			| result == x1 + Math.cos(Vector2D.getAngle(x2 - x1, y2 - y1))*radius
+	 * @note	Together with getEdgePointY, this lets a world notify a collision
+	 * 			listener without creating an object collision.
+	 */
+	static double getEdgePointX(double x1, double y1, double x2, double y2, double radius) {
+		return x1 + Math.cos(Vector2D.getAngle(x2 - x1, y2 - y1))*radius;
+	}
+	
+	/**
+	 * Return the y-coordinate of the point on the edge of a first element with the
+	 * given position and radius in the direction of a second element at the given position.
+	 * 
+	 * @param	x1
+	 * 			The x-coordinate of the first element.
+	 * @param	y1
+	 * 			The y-coordinate of the first element.
+	 * @param	x2
+	 * 			The x-coordinate of the second element.
+	 * @param	y2
+	 * 			The y-coordinate of the second element.
+	 * @param	radius
+	 * 			The radius of the first element.
+	 * @return	...
+	 * 			| result == y1 + Math.sin(Vector2D.getAngle(x2 - x1, y2 - y1))*radius
+	 */
+	static double getEdgePointY(double x1, double y1, double x2, double y2, double radius) {
+		return y1 + Math.sin(Vector2D.getAngle(x2 - x1, y2 - y1))*radius;
 	}
 
 	/**
@@ -149,6 +201,48 @@ public class ObjectCollision extends Collision{
 		getElement1().resolve(getElement2());
 	}
 	
+	/**
+	 * Check whether the elements of this collision bounce off each other.
+	 * 
+	 * @return	...
+	 * 			| result == (CollisionTable.getResolution(getElement1().getCategory(),
+	 * 			|	getElement2().getCategory()) == CollisionTable.BOUNCE)
+	 */
+	public boolean isBounce() {
+		return CollisionTable.getResolution(getElement1().getCategory(),
+				getElement2().getCategory()) == CollisionTable.BOUNCE;
+	}
+	
+	/**
+	 * Resolve this collision using the given collisionListener, merging
+	 * the motion of both elements along their connecting line if they bounce.
+	 * 
+	 * @effect	...
+	 * 			| if(!isBounce())
+	 * 			| then resolve(collisionListener)
+	 * @effect	...
+	 * 			| if(isBounce() && collisionListener != null)
+	 * 			| then collisionListener.objectCollision(getElement1(), getElement2(), 
+	 *			| 	   this.getConnectingEdgePoint().getXComponent(),
+	 *			| 	   this.getConnectingEdgePoint().getYComponent())
+	 * @effect	...
+	 * 			| if(isBounce())
+	 * 			| then getElement1().resolveBounce(getElement2(), 0)
+	 * @note	Merged elements no longer approach each other, so they cannot
+	 * 			collide again until a third element pushes one of them.
+	 */
+	public void resolveMerged(CollisionListener collisionListener) throws IllegalArgumentException, NullPointerException{
+		if(!isBounce()) {
+			resolve(collisionListener);
+			return;
+		}
+		if(collisionListener != null)
+			collisionListener.objectCollision(getElement1(), getElement2(), 
+				this.getConnectingEdgePoint().getXComponent(),
+				this.getConnectingEdgePoint().getYComponent());
+		getElement1().resolveBounce(getElement2(), 0);
+	}
+	
 	/**
 	 * Return all spatial elements involved in this collision.
 	 * 
@@ -165,4 +259,13 @@ public class ObjectCollision extends Collision{
 		allElements.add(getElement2());
 		return allElements;
 	}
+	
+	/**
+	 * Add all spatial elements involved in this collision to the given collection.
+	 */
+	@Override
+	public void addAllElementsTo(Collection<? super SpatialElement> elements) {
+		elements.add(getElement1());
+		elements.add(getElement2());
+	}
 }
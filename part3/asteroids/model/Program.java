@@ -3,6 +3,7 @@ package asteroids.model;
 import java.util.*;
 import asteroids.model.types.*;
 import asteroids.model.statements.*;
+import be.kuleuven.cs.som.annotate.*;
 
 public class Program {
 	public Program(Map<String, T> globalTypes, S executable) {
@@ -108,7 +109,7 @@ public class Program {
 	
 	public void advanceProgram(double dt) throws IllegalArgumentException, NullPointerException{
 		this.waitingTime += dt;
-		while(!this.isTerminated() && !getBroken() && this.waitingTime >= 0.2){
+		while(!this.isTerminated() && !getBroken() && this.waitingTime >= getActionPeriod()){
 				try {
 					S currentStatement = null;
 					while (!(currentStatement instanceof Action) && this.getLine() < this.getEndLine()){
@@ -127,10 +128,38 @@ public class Program {
 					System.out.println(exc);
 					this.setBroken(true);
 				}
-			this.waitingTime -= 0.2;
+			this.waitingTime -= getActionPeriod();
 		}
 	}
 	
+	/**
+	 * Return the time until this program executes its next action when it is
+	 * advanced.
+	 * 
+	 * @return	...
+	 * 			| if(isTerminated() || getBroken() || getLine() >= getEndLine())
+	 * 			| then result == Double.POSITIVE_INFINITY
+	 * 			| else result == Math.max(getActionPeriod() - waitingTime, 0)
+	 */
+	public double getTimeToAction() {
+		if (isTerminated() || getBroken() || getLine() >= getEndLine())
+			return Double.POSITIVE_INFINITY;
+		return Math.max(getActionPeriod() - this.waitingTime, 0);
+	}
+	
+	/**
+	 * Return the time in seconds between two actions of a program.
+	 */
+	@Immutable
+	public static double getActionPeriod() {
+		return actionPeriod;
+	}
+	
+	/**
+	 * Variable registering the time in seconds between two actions of a program.
+	 */
+	private static final double actionPeriod = 0.2;
+	
 	public boolean typeCheck() throws NullPointerException {
 		return this.getExecutable().typeCheck(this.getGlobalTypes());
 	}
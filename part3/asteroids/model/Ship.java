@@ -71,12 +71,12 @@ public class Ship extends SpatialElement{
 	 * 			angle equal to the given angle, radius equal to the given 
 	 * 			radius, velocity equal to given velocity, maximum speed 
 	 * 			equal to the speed of light and the mass equal to the given mass.
-	 * 			| this(position, angle, radius, velocity, 300000, mass)
+	 * 			| this(position, angle, radius, velocity, getSpeedOfLight(), mass)
 	 */
 	@Raw
 	public Ship(Vector2D position, double angle, double radius, Vector2D velocity, double mass)
 			throws IllegalArgumentException{
-		this(position,angle,radius,velocity,300000,mass);
+		this(position,angle,radius,velocity,getSpeedOfLight(),mass);
 	}
 	
 	/**
@@ -106,6 +106,7 @@ public class Ship extends SpatialElement{
 		if(getProgram() != null)
 			getProgram().terminate();
 		super.terminate();
+		recycledBullets.clear();
 	}
 	
 	/**
@@ -159,6 +160,8 @@ public class Ship extends SpatialElement{
 	 * 		  	The angle to turn this ship in the counterclockwise direction.
 	 * @effect	The sum of the angle of this ship and the given angle is set as the angle of this ship.
 	 * 			| this.setAngle(this.getAngle() + angle)
+	 * @effect	The acceleration of this ship follows its new angle.
+	 * 			| this.updateAcceleration()
 	 * @note	The sum of the current angle and the given angle should be a valid angle according to the precondition.
 	 * 			This means, before using the method turn, the user should calculate the resulting angle and if this angle
 	 * 			does not lie within the 0-2pi range (because it surpasses 2 pi, see isValidAngle), 
@@ -168,6 +171,7 @@ public class Ship extends SpatialElement{
 	// implement it in a total way by correcting the angle within the method.
 	public void turn(double angle){
 		this.setAngle(this.getAngle() + angle);
+		this.updateAcceleration();
 	}
 	
 	/** 
@@ -188,9 +192,12 @@ public class Ship extends SpatialElement{
 	 * 			The status of the thruster to set.
 	 * @post 	The status of the thruster is equal to the given status thrusterActive.
 	 * 			| (new this).isThrusterActive() == thrusterActive
+	 * @effect	The acceleration of this ship follows the new status.
+	 * 			| this.updateAcceleration()
 	 */	
 	public void setThrusterActive(boolean thrusterActive) {
 		this.thrusterActive = thrusterActive;
+		this.updateAcceleration();
 	}
 
 	/** 
@@ -198,6 +205,33 @@ public class Ship extends SpatialElement{
 	 */
 	private boolean thrusterActive = false;
 	
+	/**
+	 * Return the force exerted by the thruster of every ship.
+	 */
+	@Immutable
+	public static double getThrustForce() {
+		return 1.1E18;
+	}
+	
+	/**
+	 * Let this ship accelerate if its thruster is active and it belongs to a
+	 * world with continuous thrust.
+	 * 
+	 * @effect	...
+	 * 			| if(getWorld() != null && getWorld().isContinuousThrust() && isThrusterActive())
+	 * 			| then setAcceleration(Math.cos(getAngle())*getThrustForce()/getMass(),
+	 * 			|		Math.sin(getAngle())*getThrustForce()/getMass())
+	 * 			| else setAcceleration(0, 0)
+	 */
+	@Override
+	void updateAcceleration() {
+		if (getWorld() != null && getWorld().isContinuousThrust() && isThrusterActive())
+			setAcceleration(Math.cos(getAngle())*getThrustForce()/getMass(),
+					Math.sin(getAngle())*getThrustForce()/getMass());
+		else
+			setAcceleration(0, 0);
+	}
+	
 	/**
 	 * Accelerate this ship according to the given acceleration.
 	 * 
@@ -215,8 +249,8 @@ public class Ship extends SpatialElement{
 	 */
 	public void thrust(double acceleration){
 		if(acceleration >= 0){
-			Vector2D deltaVelocity = new Vector2D(Math.cos(this.getAngle())*acceleration,Math.sin(this.getAngle())*acceleration);
-			this.setVelocity(this.getVelocity().add(deltaVelocity));
+			this.setVelocity(this.getVelocityX() + Math.cos(this.getAngle())*acceleration,
+					this.getVelocityY() + Math.sin(this.getAngle())*acceleration);
 		}
 	}	
 	
@@ -298,6 +332,27 @@ public class Ship extends SpatialElement{
 	 */
 	private final Set<Bullet> bullets = new HashSet<Bullet>();
 	
+	/**
+	 * Hand the given terminated bullet of this ship back to this ship, to
+	 * be fired again later.
+	 * 
+	 * @param	bullet
+	 * 			The bullet to recycle.
+	 * @post	...
+	 * 			| if(bullet.getShip() == this && bullet.isTerminated() && !isTerminated())
+	 * 			| then the bullet may be fired again by fireBullet()
+	 */
+	void recycleBullet(Bullet bullet) {
+		if (bullet.getShip() == this && bullet.isTerminated() && !isTerminated())
+			recycledBullets.add(bullet);
+	}
+	
+	/**
+	 * Queue holding the terminated bullets of this ship that may be fired again,
+	 * oldest first.
+	 */
+	private final Queue<Bullet> recycledBullets = new ArrayDeque<Bullet>();
+	
 	/**
 	 * Get the maximum number of bullets.
 	 */
@@ -352,10 +407,12 @@ public class Ship extends SpatialElement{
 	 * 			| 	newBullet.getVelocity().getNorm() == 250
 	 * 			| 	newBullet.getVelocity().getDirection().getXComponent() == Math.cos(this.getAngle())
 	 * 			| 	newBullet.getVelocity().getDirection().getYComponent() == Math.sin(this.getAngle())
-	 * 			| 	newBullet.getMaxSpeed() == 300000
+	 * 			| 	newBullet.getMaxSpeed() == getSpeedOfLight()
 	 * 			| 	newBullet.getMass() == 4/3*PI*3^3*Bullet.getMassDensity()
 	 * 			| 	newBullet.getShip() == this
 	 * 			| 	this.getWorld().hasAsSpatialElement(newBullet)
+	 * @note	If the world of this ship recycles elements, the new bullet may be
+	 * 			a terminated bullet of this ship that is revived.
 	 * @throws	NullpointerException
 	 * 			The ship does not have a proper world.
 	 * 			| !this.hasProperWorld()
@@ -364,12 +421,19 @@ public class Ship extends SpatialElement{
 		if(!this.hasProperWorld())
 			throw new IllegalArgumentException("Ship not located within a proper world.");
 		if(this.getWorld() != null && getNbBullets() < getMaxNbBullets()){
-		Vector2D shootingDirection = new Vector2D(Math.cos(this.getAngle()),
-				Math.sin(this.getAngle()));
-		Vector2D bulletPosition = this.getPosition().add(shootingDirection.multiply(getRadius()));
-		Vector2D bulletVelocity = shootingDirection.multiply(250);
+		double directionX = Math.cos(this.getAngle());
+		double directionY = Math.sin(this.getAngle());
+		Vector2D bulletPosition = new Vector2D(this.getPositionX() + directionX*getRadius(),
+				this.getPositionY() + directionY*getRadius());
+		Vector2D bulletVelocity = new Vector2D(directionX*250, directionY*250);
 		double bulletRadius = 3;
-		Bullet bullet = new Bullet(bulletPosition, bulletRadius, bulletVelocity, 300000, this);
+		Bullet bullet = recycledBullets.peek();
+		if (bullet != null && bullet.canBeRevived()) {
+			recycledBullets.poll();
+			bullet.revive(bulletPosition, bulletVelocity);
+		} else {
+			bullet = new Bullet(bulletPosition, bulletRadius, bulletVelocity, getSpeedOfLight(), this);
+		}
 		this.addAsBullet(bullet);
 		this.getWorld().addAsSpatialElement(bullet);
 		}
@@ -442,26 +506,16 @@ public class Ship extends SpatialElement{
 	private Program program;
 		
 	/**
-	 * Check if the collision of this element and the given element
-	 * is a valid object collision.
+	 * Return the category of this ship.
 	 * 
-	 * @return	If the element is an asteroid or a ship, the result is
-	 * 			the boolean indicating whether this is a valid object overlap.
-	 * 			| if(element.isAsteroid() || element.isShip())
-	 *			| then result == isValidObjectOverlap(element)
-	 * @return	If the element is not an asteroid or a ship, the result
-	 * 			is the boolean indicating whether the collision of the given element
-	 * 			with this element is valid.
-	 * 			| if(!element.isAsteroid() && !element.isShip())
-	 *			| then result == element.isValidObjectCollision(this)
+	 * @return	...
+	 * 			| result == CollisionTable.SHIP
 	 */
 	@Override
-	public boolean isValidObjectCollision(SpatialElement element){
-		if(element == null)
-			return false;
-		if(element.isAsteroid() || element.isShip())
-			return isValidObjectOverlap(element);
-		return element.isValidObjectCollision(this);
+	@Immutable
+	@Raw
+	public int getCategory() {
+		return CollisionTable.SHIP;
 	}
 	
 	/**
@@ -479,25 +533,5 @@ public class Ship extends SpatialElement{
 		if(!overlappingElement.isShip())
 			overlappingElement.resolveInitialCondition(this);
 	}
-	
-	/**
-	 * Resolve a collision of this ship and another element.
-	 * 
-	 * @effect	If the other element is a ship, resolve it by bouncing.
-	 * 			| if(otherElement.isShip())
-	 * 			|	then resolveBounce(otherElement)
-	 * @effect	If the other element is not a ship, let it resolve this ship.
-	 * 			| if(!otherElement.isShip())
-	 * 			|	then otherElement.resolve(this)
-	 */
-	@Override
-	public void resolve(SpatialElement otherElement) throws IllegalArgumentException, NullPointerException{
-		if(!isValidObjectCollision(otherElement))
-			throw new IllegalArgumentException("Element cannot be resolved.");
-		if(otherElement.isShip())
-			resolveBounce(otherElement);
-		else
-			otherElement.resolve(this);
-	}
-	
+
 }
@@ -18,7 +18,7 @@ import be.kuleuven.cs.som.annotate.Raw;
  * @invar 	The spatial element has a proper world associated with it.
  * 			| hasProperWorld()
  * 
- * @version 1.2
+ * @version 1.3
  * @author Frederik Van Eeghem (1st master Mathematical engineering), 
  * 		   Pieter Lietaert (1st master Mathematical engineering)
  */
@@ -60,13 +60,13 @@ public abstract class SpatialElement {
 	 *       	or equal to the speed of light (NaN implicitly excluded),
 	 *       	the maximum speed of this new spatial element is 
 	 *       	equal to the given maximum speed. 
-	 *       	| if ((maxSpeed >=0) && (maxSpeed <= 300000)) 
+	 *       	| if ((maxSpeed >=0) && (maxSpeed <= getSpeedOfLight())) 
 	 *       	| then (new this).getMaxSpeed() == maxSpeed
 	 * @post 	If the maximum speed is NaN, a negative number or larger than the
 	 *       	speed of light, the maximum speed of this new spatial element is
 	 *       	equal to the speed of light.
-	 *       	| if (Double.isNaN(maxSpeed) || (maxSpeed < 0) || (maxSpeed > 300000)) 
-	 *       	| then (new this).getMaxSpeed() == 300000;
+	 *       	| if (Double.isNaN(maxSpeed) || (maxSpeed < 0) || (maxSpeed > getSpeedOfLight())) 
+	 *       	| then (new this).getMaxSpeed() == getSpeedOfLight();
 	 * @post 	The mass of this new spatial element is equal to the given mass. 
 	 * 			| (new this).getMass() == mass
 	 * @effect 	The given position is set as the position of this new spatial
@@ -96,10 +96,10 @@ public abstract class SpatialElement {
 		setPosition(position);
 		this.radius = radius;
 		if ((!Double.isNaN(maxSpeed)) && (maxSpeed >= 0)
-				&& (maxSpeed <= 300000)) {
+				&& (maxSpeed <= getSpeedOfLight())) {
 			this.maxSpeed = maxSpeed;
 		} else {
-			this.maxSpeed = 300000;
+			this.maxSpeed = getSpeedOfLight();
 		}
 		setVelocity(velocity);
 		this.mass = mass;
@@ -123,12 +123,12 @@ public abstract class SpatialElement {
 	 *         	given position, radius equal to the given radius, velocity equal
 	 *         	to the given velocity, maximum speed equal to the speed of light and
 	 *         	mass equal to the given mass.
-	 *          | this(position, angle, radius, velocity, 300000, mass)
+	 *          | this(position, angle, radius, velocity, getSpeedOfLight(), mass)
 	 */
 	@Raw
 	public SpatialElement(Vector2D position, double radius, Vector2D velocity,
 			double mass) throws IllegalArgumentException {
-		this(position, radius, velocity, 300000, mass);
+		this(position, radius, velocity, getSpeedOfLight(), mass);
 	}
 	
 	/**
@@ -168,6 +168,46 @@ public abstract class SpatialElement {
 		this.isTerminated = true;
 	}
 	
+	/**
+	 * Check whether this spatial element can be revived.
+	 * 
+	 * @return	...
+	 * 			| result == isTerminated() && (getWorld() == null) && (getSlot() == -1)
+	 * @note	A terminated element keeps its slot until its last world has swept
+	 * 			it, so it is never revived while that world still refers to it.
+	 */
+	boolean canBeRevived() {
+		return isTerminated() && (getWorld() == null) && (getSlot() == -1);
+	}
+	
+	/**
+	 * Revive this terminated spatial element at the given position with the
+	 * given velocity, so it can be reused instead of creating a new element.
+	 * 
+	 * @param	position
+	 * 			The new position of this spatial element.
+	 * @param	velocity
+	 * 			The new velocity of this spatial element.
+	 * @post	...
+	 * 			| !(new this).isTerminated()
+	 * @post	...
+	 * 			| (new this).getCollisionMask() == CollisionTable.ALL
+	 * @effect	...
+	 * 			| setPosition(position) && setVelocity(velocity)
+	 * @throws	IllegalStateException
+	 * 			This spatial element cannot be revived.
+	 * 			| !canBeRevived()
+	 * @note	Only worlds that recycle elements revive them, see World.isRecyclingElements().
+	 */
+	void revive(Vector2D position, Vector2D velocity) throws IllegalStateException, IllegalArgumentException {
+		if (!canBeRevived())
+			throw new IllegalStateException("Only detached terminated elements can be revived.");
+		setPosition(position);
+		setVelocity(velocity);
+		this.collisionMask = CollisionTable.ALL;
+		this.isTerminated = false;
+	}
+	
 	/**
 	 * Variable registering whether or not this world is terminated.
 	 */
@@ -220,6 +260,8 @@ public abstract class SpatialElement {
 	 * @post	This spatial element references the given world 
 	 * 			as the world it is associated to.
 	 * 			| (new this).getWorld() == world
+	 * @post	The position of this spatial element is not changed.
+	 * 			| (new this).getPosition().equals(getPosition())
 	 * @throws	IllegalArgumentException
 	 * 			Check if the given world is effective and this spatial 
 	 * 			element has the given world already attached to it.
@@ -243,7 +285,10 @@ public abstract class SpatialElement {
 			throw new IllegalArgumentException(
 					"Given world can not be set as the world of this spatial element");
 		}
+		rebase();
 		this.world = world;
+		this.referenceTime = getCurrentTime();
+		storeKinematics();
 	}
 	
 	/**
@@ -251,14 +296,268 @@ public abstract class SpatialElement {
 	 */
 	private World world;
 	
+	/**
+	 * Return the slot this spatial element occupies in its world, or -1 if
+	 * it does not occupy a slot.
+	 */
+	@Basic
+	@Raw
+	int getSlot() {
+		return this.slot;
+	}
+	
+	/**
+	 * Set the slot this spatial element occupies in its world.
+	 * 
+	 * @param	slot
+	 * 			The new slot for this spatial element.
+	 * @post	...
+	 * 			| (new this).getSlot() == slot
+	 * @note	Slots are managed by the world of this element.
+	 */
+	@Raw
+	void setSlot(int slot) {
+		this.slot = slot;
+	}
+	
+	/**
+	 * Variable registering the slot this spatial element occupies in its world.
+	 */
+	private int slot = -1;
+	
 	/**
 	 * Return the position of this element. The position is a 2D vector that
 	 * contains the coordinates of this element.
+	 * 
+	 * @return	The position at the reference time of this element, moved along
+	 * 			the velocity of this element up to the current time.
+	 * 			| result.equals(position.add(getVelocity().multiply(
+	 * 			|	getCurrentTime() - getReferenceTime())))
 	 */
-	@Basic
 	@Raw
 	public Vector2D getPosition() {
-		return this.position;
+		return new Vector2D(getPositionX(), getPositionY());
+	}
+	
+	/**
+	 * Return the x-coordinate of the position of this element.
+	 * 
+	 * @return	...
+	 * 			| result == getPosition().getXComponent()
+	 * @note	The engine uses this method and getPositionY() instead of getPosition()
+	 * 			in its own computations, so they do not create any vectors.
+	 */
+	@Raw
+	double getPositionX() {
+		double deltaT = getCurrentTime() - getReferenceTime();
+		if (deltaT == 0)
+			return this.positionX;
+		if (isAccelerating())
+			return MotionKernel.getPosition(this.positionX, this.velocityX, this.accelerationX,
+					this.accelerationTime, deltaT);
+		return this.positionX + this.velocityX*deltaT;
+	}
+	
+	/**
+	 * Return the y-coordinate of the position of this element.
+	 * 
+	 * @return	...
+	 * 			| result == getPosition().getYComponent()
+	 */
+	@Raw
+	double getPositionY() {
+		double deltaT = getCurrentTime() - getReferenceTime();
+		if (deltaT == 0)
+			return this.positionY;
+		if (isAccelerating())
+			return MotionKernel.getPosition(this.positionY, this.velocityY, this.accelerationY,
+					this.accelerationTime, deltaT);
+		return this.positionY + this.velocityY*deltaT;
+	}
+	
+	/**
+	 * Return the x-coordinate this element will have after moving for the
+	 * given time from the current time on.
+	 * 
+	 * @return	...
+	 * 			| result == MotionKernel.getPosition(getPositionX(), getVelocityX(),
+	 * 			|	getAccelerationX(), getRemainingAccelerationTime(), time)
+	 */
+	double getPositionX(double time) {
+		return MotionKernel.getPosition(getPositionX(), getVelocityX(), getAccelerationX(),
+				getRemainingAccelerationTime(), time);
+	}
+	
+	/**
+	 * Return the y-coordinate this element will have after moving for the
+	 * given time from the current time on.
+	 * 
+	 * @return	...
+	 * 			| result == MotionKernel.getPosition(getPositionY(), getVelocityY(),
+	 * 			|	getAccelerationY(), getRemainingAccelerationTime(), time)
+	 */
+	double getPositionY(double time) {
+		return MotionKernel.getPosition(getPositionY(), getVelocityY(), getAccelerationY(),
+				getRemainingAccelerationTime(), time);
+	}
+	
+	/**
+	 * Return the smallest x-coordinate of the center of this element while it
+	 * moves during the given time span from the current time on.
+	 * 
+	 * @return	...
+	 * 			| result == MotionKernel.getMinPosition(getPositionX(), getVelocityX(),
+	 * 			|	getAccelerationX(), getRemainingAccelerationTime(), timeSpan)
+	 * @note	Broadphases use this method and its relatives to bound the region
+	 * 			this element sweeps through.
+	 */
+	double getMinX(double timeSpan) {
+		return MotionKernel.getMinPosition(getPositionX(), getVelocityX(), getAccelerationX(),
+				getRemainingAccelerationTime(), timeSpan);
+	}
+	
+	/**
+	 * Return the largest x-coordinate of the center of this element while it
+	 * moves during the given time span from the current time on.
+	 * 
+	 * @return	...
+	 * 			| result == MotionKernel.getMaxPosition(getPositionX(), getVelocityX(),
+	 * 			|	getAccelerationX(), getRemainingAccelerationTime(), timeSpan)
+	 */
+	double getMaxX(double timeSpan) {
+		return MotionKernel.getMaxPosition(getPositionX(), getVelocityX(), getAccelerationX(),
+				getRemainingAccelerationTime(), timeSpan);
+	}
+	
+	/**
+	 * Return the smallest y-coordinate of the center of this element while it
+	 * moves during the given time span from the current time on.
+	 * 
+	 * @return	...
+	 * 			| result == MotionKernel.getMinPosition(getPositionY(), getVelocityY(),
+	 * 			|	getAccelerationY(), getRemainingAccelerationTime(), timeSpan)
+	 */
+	double getMinY(double timeSpan) {
+		return MotionKernel.getMinPosition(getPositionY(), getVelocityY(), getAccelerationY(),
+				getRemainingAccelerationTime(), timeSpan);
+	}
+	
+	/**
+	 * Return the largest y-coordinate of the center of this element while it
+	 * moves during the given time span from the current time on.
+	 * 
+	 * @return	...
+	 * 			| result == MotionKernel.getMaxPosition(getPositionY(), getVelocityY(),
+	 * 			|	getAccelerationY(), getRemainingAccelerationTime(), timeSpan)
+	 */
+	double getMaxY(double timeSpan) {
+		return MotionKernel.getMaxPosition(getPositionY(), getVelocityY(), getAccelerationY(),
+				getRemainingAccelerationTime(), timeSpan);
+	}
+	
+	/**
+	 * Return the current time of this spatial element, which is the time of its
+	 * world or zero if it is not associated with a world.
+	 * 
+	 * @return	...
+	 * 			| if(getWorld() == null)
+	 * 			| then result == 0
+	 * 			| else result == getWorld().getTime()
+	 */
+	public double getCurrentTime() {
+		if (getWorld() == null)
+			return 0;
+		return getWorld().getTime();
+	}
+	
+	/**
+	 * Return the reference time of this spatial element, which is the time at
+	 * which this spatial element was last touched.
+	 */
+	@Basic
+	@Raw
+	public double getReferenceTime() {
+		return this.referenceTime;
+	}
+	
+	/**
+	 * Variable registering the time at which this spatial element was located
+	 * at its stored position.
+	 */
+	private double referenceTime = 0;
+	
+	/**
+	 * Move the reference time of this spatial element to the current time,
+	 * without changing its position.
+	 * 
+	 * @post	...
+	 * 			| (new this).getReferenceTime() == getCurrentTime()
+	 * @post	...
+	 * 			| (new this).getPosition().equals(getPosition())
+	 * @note	This must be done before each change of velocity, since the
+	 * 			position at the current time is derived from the velocity.
+	 */
+	void touch() {
+		double currentTime = getCurrentTime();
+		if (currentTime != getReferenceTime()) {
+			rebase();
+			this.referenceTime = currentTime;
+			storeKinematics();
+		}
+	}
+	
+	/**
+	 * Store the position and velocity of this spatial element at the current
+	 * time as its state at its reference time, and shorten the time during
+	 * which it accelerates accordingly.
+	 * 
+	 * @note	The reference time itself must be set to the current time right
+	 * 			after this method.
+	 */
+	private void rebase() {
+		double deltaT = getCurrentTime() - getReferenceTime();
+		double x = getPositionX();
+		double y = getPositionY();
+		double vx = getVelocityX();
+		double vy = getVelocityY();
+		this.positionX = x;
+		this.positionY = y;
+		this.velocityX = vx;
+		this.velocityY = vy;
+		this.accelerationTime = Math.max(this.accelerationTime - deltaT, 0);
+	}
+	
+	/**
+	 * Return the x-coordinate of this spatial element at its reference time.
+	 */
+	@Basic
+	@Raw
+	double getReferencePositionX() {
+		return this.positionX;
+	}
+	
+	/**
+	 * Return the y-coordinate of this spatial element at its reference time.
+	 */
+	@Basic
+	@Raw
+	double getReferencePositionY() {
+		return this.positionY;
+	}
+	
+	/**
+	 * Store the position, reference time and velocity of this spatial element
+	 * in the columns of its world, if any.
+	 * 
+	 * @effect	...
+	 * 			| if(getWorld() != null)
+	 * 			| then getWorld().storeKinematics(this)
+	 * @note	This must be done after each change of the position, the reference
+	 * 			time or the velocity of this element.
+	 */
+	private void storeKinematics() {
+		if (getWorld() != null)
+			getWorld().storeKinematics(this);
 	}
 
 	/**
@@ -297,14 +596,34 @@ public abstract class SpatialElement {
 	private void setPosition(Vector2D position) throws IllegalArgumentException {
 		if (!isValidPosition(position))
 			throw new IllegalArgumentException("Invalid position.");
-		this.position = position;
+		setPosition(position.getXComponent(), position.getYComponent());
+	}
+	
+	/**
+	 * Set the position of this spatial element to the given coordinates.
+	 * 
+	 * @param	x
+	 * 			The new x-coordinate for this spatial element.
+	 * @param	y
+	 * 			The new y-coordinate for this spatial element.
+	 * @effect	...
+	 * 			| setPosition(new Vector2D(x, y))
+	 */
+	private void setPosition(double x, double y) throws IllegalArgumentException {
+		if (Double.isNaN(x) || Double.isNaN(y))
+			throw new IllegalArgumentException("Invalid position.");
+		this.positionX = x;
+		this.positionY = y;
+		this.referenceTime = getCurrentTime();
+		storeKinematics();
 	}
 
 	/**
-	 * Variable registering the position of this spatial element. The
-	 * coordinates are measured in km.
+	 * Variables registering the coordinates of this spatial element at its
+	 * reference time. The coordinates are measured in km.
 	 */
-	private Vector2D position;
+	private double positionX;
+	private double positionY;
 
 	/**
 	 * Check whether the given time period is a valid time period.
@@ -345,18 +664,48 @@ public abstract class SpatialElement {
 		if (!isValidTime(deltaT))
 			throw new IllegalArgumentException(
 					"Invalid time step while attempting to move the spatial element.");
-		this.setPosition(this.getPosition().add(
-				this.getVelocity().multiply(deltaT)));
+		this.setPosition(this.getPositionX() + this.getVelocityX()*deltaT,
+				this.getPositionY() + this.getVelocityY()*deltaT);
 	}
 
 	/**
 	 * Return the velocity of this spatial element. The velocity is a 2D vector
 	 * that contains the velocity in the x-direction and the y-direction.
+	 * 
+	 * @return	...
+	 * 			| result.equals(new Vector2D(getVelocityX(), getVelocityY()))
 	 */
-	@Basic
 	@Raw
 	public Vector2D getVelocity() {
-		return this.velocity;
+		return new Vector2D(getVelocityX(), getVelocityY());
+	}
+	
+	/**
+	 * Return the velocity of this spatial element in the x-direction.
+	 * 
+	 * @return	...
+	 * 			| result == getVelocity().getXComponent()
+	 */
+	@Raw
+	double getVelocityX() {
+		if (!isAccelerating())
+			return this.velocityX;
+		return MotionKernel.getSpeed(this.velocityX, this.accelerationX, this.accelerationTime,
+				getCurrentTime() - getReferenceTime());
+	}
+	
+	/**
+	 * Return the velocity of this spatial element in the y-direction.
+	 * 
+	 * @return	...
+	 * 			| result == getVelocity().getYComponent()
+	 */
+	@Raw
+	double getVelocityY() {
+		if (!isAccelerating())
+			return this.velocityY;
+		return MotionKernel.getSpeed(this.velocityY, this.accelerationY, this.accelerationTime,
+				getCurrentTime() - getReferenceTime());
 	}
 
 	/**
@@ -385,30 +734,191 @@ public abstract class SpatialElement {
 	 *       	velocity of this spatial element is set to zero. 
 	 *       	| if ((velocity == null) || (velocity.containsNaN()) 
 	 *       	| then (new this).getVelocity == new Vector2D(0,0)
+	 * @effect	The position of this spatial element is not changed by the new velocity.
+	 * 			| touch()
 	 */
 	public void setVelocity(Vector2D velocity) {
-		if (velocity == null || velocity.containsNaN()) {
-			this.velocity = new Vector2D(0, 0);
+		if (velocity == null)
+			setVelocity(0, 0);
+		else
+			setVelocity(velocity.getXComponent(), velocity.getYComponent());
+	}
+	
+	/**
+	 * Set the velocity of this spatial element to the given components.
+	 * 
+	 * @param	x
+	 * 			The new velocity in the x-direction.
+	 * @param	y
+	 * 			The new velocity in the y-direction.
+	 * @effect	...
+	 * 			| setVelocity(new Vector2D(x, y))
+	 */
+	void setVelocity(double x, double y) {
+		touch();
+		if (Double.isNaN(x) || Double.isNaN(y)) {
+			x = 0;
+			y = 0;
 		} else {
 			// Use of fuzzyLessThanOrEqualTo to save on calculation time when
 			// the given velocity is only slightly higher than the maximum
 			// speed. The effect will be the same as when the speed is reset to the
 			// maximum speed.
-			if (fuzzyLessThanOrEqualTo(velocity.getNorm(), this.getMaxSpeed())) {
-				this.velocity = velocity;
-			} else {
-				this.velocity = velocity.getDirection().multiply(
-						this.getMaxSpeed());
+			double norm = Vector2D.getNorm(x, y);
+			if (norm > this.getMaxSpeed() && !fuzzyLessThanOrEqualTo(norm, this.getMaxSpeed())) {
+				double angle = Vector2D.getAngle(x, y);
+				x = Math.cos(angle)*this.getMaxSpeed();
+				y = Math.sin(angle)*this.getMaxSpeed();
 			}
 		}
+		this.velocityX = x;
+		this.velocityY = y;
+		updateAccelerationTime();
+		storeKinematics();
+	}
+	
+	/**
+	 * Return the acceleration of this spatial element in the x-direction.
+	 */
+	@Basic
+	@Raw
+	double getAccelerationX() {
+		return this.accelerationX;
+	}
+	
+	/**
+	 * Return the acceleration of this spatial element in the y-direction.
+	 */
+	@Basic
+	@Raw
+	double getAccelerationY() {
+		return this.accelerationY;
+	}
+	
+	/**
+	 * Return the time this spatial element still accelerates from the current time on.
+	 * 
+	 * @return	...
+	 * 			| result == max(accelerationTime - (getCurrentTime() - getReferenceTime()), 0)
+	 */
+	@Raw
+	double getRemainingAccelerationTime() {
+		return Math.max(this.accelerationTime - (getCurrentTime() - getReferenceTime()), 0);
+	}
+	
+	/**
+	 * Check whether this spatial element accelerates at some time after its
+	 * reference time, so it does not move in a straight line from its
+	 * reference position.
+	 * 
+	 * @return	...
+	 * 			| result == (getAccelerationX() != 0 || getAccelerationY() != 0)
+	 * 			|	&& accelerationTime > 0
+	 */
+	@Raw
+	boolean isAccelerating() {
+		return (this.accelerationX != 0 || this.accelerationY != 0) && this.accelerationTime > 0;
+	}
+	
+	/**
+	 * Set the acceleration of this spatial element to the given components.
+	 * This element accelerates until it reaches its maximum speed, after
+	 * which it moves on in a straight line.
+	 * 
+	 * @param	x
+	 * 			The new acceleration in the x-direction.
+	 * @param	y
+	 * 			The new acceleration in the y-direction.
+	 * @post	...
+	 * 			| if(Double.isNaN(x) || Double.isNaN(y))
+	 * 			| then (new this).getAccelerationX() == 0 && (new this).getAccelerationY() == 0
+	 * 			| else (new this).getAccelerationX() == x && (new this).getAccelerationY() == y
+	 * @effect	...
+	 * 			| touch()
+	 * @effect	...
+	 * 			| if(getWorld() != null)
+	 * 			| then getWorld().storeAcceleration(this)
+	 * @note	Only worlds with continuous thrust let their elements accelerate,
+	 * 			see World.isContinuousThrust().
+	 */
+	void setAcceleration(double x, double y) {
+		if (Double.isNaN(x) || Double.isNaN(y)) {
+			x = 0;
+			y = 0;
+		}
+		if (x == this.accelerationX && y == this.accelerationY)
+			return;
+		touch();
+		this.accelerationX = x;
+		this.accelerationY = y;
+		updateAccelerationTime();
+		storeKinematics();
+		if (getWorld() != null)
+			getWorld().storeAcceleration(this);
 	}
+	
+	/**
+	 * Update the acceleration of this spatial element after a change of the
+	 * state it depends on.
+	 * 
+	 * @note	Spatial elements do not accelerate on their own, so this method
+	 * 			does nothing. Ships accelerate while their thruster is active.
+	 */
+	void updateAcceleration() {
+	}
+	
+	/**
+	 * Compute the time during which this spatial element accelerates from its
+	 * reference time on, which ends when it reaches its maximum speed, and
+	 * whether it is sleeping.
+	 */
+	private void updateAccelerationTime() {
+		if (this.accelerationX == 0 && this.accelerationY == 0)
+			this.accelerationTime = 0;
+		else
+			this.accelerationTime = MotionKernel.getTimeToSpeed(this.velocityX, this.velocityY,
+					this.accelerationX, this.accelerationY, getMaxSpeed());
+		this.sleeping = (this.velocityX == 0) && (this.velocityY == 0) && !isAccelerating();
+	}
+	
+	/**
+	 * Variables registering the acceleration of this spatial element in the
+	 * x-direction and the y-direction, expressed in km/s^2.
+	 */
+	private double accelerationX;
+	private double accelerationY;
+	
+	/**
+	 * Variable registering the time during which this spatial element
+	 * accelerates from its reference time on.
+	 */
+	private double accelerationTime;
+	
+	/**
+	 * Check whether this spatial element is sleeping. A sleeping element
+	 * does not move until an impulse or thrust gives it a velocity.
+	 * 
+	 * @return	...
+	 * 			| result == (getVelocity().getXComponent() == 0)
+	 * 			|	&& (getVelocity().getYComponent() == 0) && !isAccelerating()
+	 */
+	@Basic
+	@Raw
+	public boolean isSleeping() {
+		return this.sleeping;
+	}
+	
+	/**
+	 * Variable registering whether this spatial element is sleeping.
+	 */
+	private boolean sleeping;
 
 	/**
-	 * Variable registering the velocity of this spatial element. The velocity
-	 * is a 2D vector, containing the velocity in x-direction and y-direction,
-	 * expressed in km/s.
+	 * Variables registering the velocity of this spatial element in the
+	 * x-direction and the y-direction, expressed in km/s.
 	 */
-	private Vector2D velocity;
+	private double velocityX;
+	private double velocityY;
 
 	/**
 	 * Return the maximum speed of this spatial element.
@@ -426,6 +936,20 @@ public abstract class SpatialElement {
 	 */
 	private final double maxSpeed;
 
+	/**
+	 * Return the speed of light in km/s, the highest maximum speed of a spatial
+	 * element and the maximum speed it gets when none is given.
+	 */
+	@Immutable
+	public static double getSpeedOfLight() {
+		return speedOfLight;
+	}
+
+	/**
+	 * Variable registering the speed of light in km/s.
+	 */
+	private static final double speedOfLight = 300000;
+
 	/**
 	 * Calculate the distance between this spatial element and the given spatial
 	 * element.
@@ -452,8 +976,8 @@ public abstract class SpatialElement {
 		if (this == otherElement)
 			return 0;
 		else
-			return this.getPosition().subtract(otherElement.getPosition())
-					.getNorm()
+			return Vector2D.getNorm(this.getPositionX() - otherElement.getPositionX(),
+					this.getPositionY() - otherElement.getPositionY())
 					- (this.getRadius() + otherElement.getRadius());
 	}
 
@@ -516,32 +1040,16 @@ public abstract class SpatialElement {
 		if (this == other) {
 			return Double.POSITIVE_INFINITY;
 		}
-		Vector2D dposition = this.getPosition().subtract(other.getPosition());
-		Vector2D dspeed = this.getVelocity().subtract(other.getVelocity());
-		double sigma = this.getRadius() + other.getRadius();
-
-		double a = dspeed.getXComponent()*dspeed.getXComponent() + dspeed.getYComponent()*dspeed.getYComponent();
-		double b = 2 * (dposition.getXComponent()*dspeed.getXComponent() + dposition.getYComponent()*dspeed.getYComponent());
-		double c = (dposition.getXComponent()*dposition.getXComponent() + dposition.getYComponent()*dposition.getYComponent()) - Math.pow(sigma, 2);
-		if (0 <= b) {
-			return Double.POSITIVE_INFINITY;
-		}
-		double discriminant = b * b - 4 * a * c;
-		if (discriminant < 0) {
-			return Double.POSITIVE_INFINITY;
-		} else {
-			double solution1 = (-b + Math.sqrt(discriminant)) / (2 * a);
-			double solution2 = (-b - Math.sqrt(discriminant)) / (2 * a);
-			if (solution2 < 0) {
-				if (solution1 < 0) {
-					return Double.POSITIVE_INFINITY;
-				} else {
-					return solution1;
-				}
-			} else {
-				return solution2;
-			}
-		}
+		if (isAccelerating() || other.isAccelerating())
+			return MotionKernel.getTimeToCollision(getPositionX(), getPositionY(), getVelocityX(),
+					getVelocityY(), getAccelerationX(), getAccelerationY(), getRemainingAccelerationTime(),
+					getRadius(), other.getPositionX(), other.getPositionY(), other.getVelocityX(),
+					other.getVelocityY(), other.getAccelerationX(), other.getAccelerationY(),
+					other.getRemainingAccelerationTime(), other.getRadius());
+		return CollisionKernel.getTimeToCollision(getPositionX(), getPositionY(),
+				getVelocityX(), getVelocityY(), getRadius(),
+				other.getPositionX(), other.getPositionY(),
+				other.getVelocityX(), other.getVelocityY(), other.getRadius());
 	}
 
 	/**
@@ -575,26 +1083,42 @@ public abstract class SpatialElement {
 			throws NullPointerException {
 		double timeToCollision = this.getTimeToCollision(otherElement);
 		if (timeToCollision != Double.POSITIVE_INFINITY) {
-			SpatialElement thisClone = new Ship(this.getPosition(),0,
-					this.getRadius(), this.getVelocity(), this.getMaxSpeed());
-			SpatialElement otherClone = new Ship(
-					otherElement.getPosition(),0, otherElement.getRadius(),
-					otherElement.getVelocity(), otherElement.getMaxSpeed());
-
-			thisClone.move(timeToCollision);
-			otherClone.move(timeToCollision);
-			Vector2D newPositionThis = thisClone.getPosition();
-			Vector2D newPositionOther = otherClone.getPosition();
-
-			Vector2D collisionPosition = newPositionThis.add(newPositionOther
-					.subtract(newPositionThis).getDirection()
-					.multiply(this.getRadius()));
-			return collisionPosition;
+			double x = this.getPositionX(timeToCollision);
+			double y = this.getPositionY(timeToCollision);
+			double otherX = otherElement.getPositionX(timeToCollision);
+			double otherY = otherElement.getPositionY(timeToCollision);
+			double angle = Vector2D.getAngle(otherX - x, otherY - y);
+			return new Vector2D(x + Math.cos(angle)*this.getRadius(),
+					y + Math.sin(angle)*this.getRadius());
 		} else {
 			return null;
 		}
 	}
 	
+	/**
+	 * Return the time to the first collision of this spatial element with a
+	 * boundary of its world.
+	 * 
+	 * @return	...
+	 * 			| if(getWorld() == null)
+	 * 			| then result == Double.POSITIVE_INFINITY
+	 * @return	...
+	 * 			| if(getWorld() != null)
+	 * 			| then result == min(getTimeToHorizontalWallCollision(0),
+	 * 			|	getTimeToHorizontalWallCollision(getWorld().getHeight()),
+	 * 			|	getTimeToVerticalWallCollision(0),
+	 * 			|	getTimeToVerticalWallCollision(getWorld().getWidth()))
+	 */
+	public double getTimeToWallCollision() {
+		if (getWorld() == null)
+			return Double.POSITIVE_INFINITY;
+		double timeTop = getTimeToHorizontalWallCollision(getWorld().getHeight());
+		double timeBottom = getTimeToHorizontalWallCollision(0);
+		double timeRight = getTimeToVerticalWallCollision(getWorld().getWidth());
+		double timeLeft = getTimeToVerticalWallCollision(0);
+		return Math.min(Math.min(timeTop, timeBottom), Math.min(timeLeft, timeRight));
+	}
+	
 	/**
 	 * Return the time to a collision of this spatial element with an infinitely
 	 * long vertical wall located at the y-coordinate yBound.
@@ -614,8 +1138,11 @@ public abstract class SpatialElement {
 	 * @note	NaN case is implicitly excluded (returns Double.Double.POSITIVE_INFINITY).
 	 */
 	public double getTimeToHorizontalWallCollision(double yBound) {
-		double yVelocity = this.getVelocity().getYComponent();
-		double yComponent = this.getPosition().getYComponent();
+		double yVelocity = this.getVelocityY();
+		double yComponent = this.getPositionY();
+		if (isAccelerating())
+			return MotionKernel.getTimeToWall(yBound, yComponent, yVelocity, getAccelerationY(),
+					getRemainingAccelerationTime(), getRadius());
 		if ((yBound - yComponent - getRadius() * Math.signum(yVelocity)) * yVelocity > 0) {
 			return (yBound - yComponent - getRadius() * Math.signum(yVelocity))
 					/ yVelocity;
@@ -642,8 +1169,11 @@ public abstract class SpatialElement {
 	 * @note	NaN case is implicitly excluded (returns Double.Double.POSITIVE_INFINITY).
 	 */
 	public double getTimeToVerticalWallCollision(double xBound) {
-		double xVelocity = this.getVelocity().getXComponent();
-		double xComponent = this.getPosition().getXComponent();
+		double xVelocity = this.getVelocityX();
+		double xComponent = this.getPositionX();
+		if (isAccelerating())
+			return MotionKernel.getTimeToWall(xBound, xComponent, xVelocity, getAccelerationX(),
+					getRemainingAccelerationTime(), getRadius());
 		if ((xBound - xComponent - getRadius() * Math.signum(xVelocity)) * xVelocity > 0) {
 			return (xBound - xComponent - getRadius() * Math.signum(xVelocity))
 					/ xVelocity;
@@ -790,6 +1320,55 @@ public abstract class SpatialElement {
 			return true;
 	}
 	
+	/**
+	 * Return the category of this spatial element, one of the categories
+	 * defined by CollisionTable.
+	 */
+	@Immutable
+	@Raw
+	public abstract int getCategory();
+	
+	/**
+	 * Return the collision mask of this spatial element, with a bit set for
+	 * each category of elements this element can collide with.
+	 */
+	@Basic
+	@Raw
+	public int getCollisionMask() {
+		return this.collisionMask;
+	}
+	
+	/**
+	 * Set the collision mask of this spatial element to the given mask.
+	 * 
+	 * @param	collisionMask
+	 * 			The new collision mask.
+	 * @post	...
+	 * 			| (new this).getCollisionMask() == (collisionMask & CollisionTable.ALL)
+	 * @effect	The collisions of this element in its world are predicted again.
+	 * 			| if(getWorld() != null)
+	 * 			| then getWorld().storeCollisionMask(this)
+	 */
+	public void setCollisionMask(int collisionMask) {
+		this.collisionMask = collisionMask & CollisionTable.ALL;
+		if (getWorld() != null)
+			getWorld().storeCollisionMask(this);
+	}
+	
+	/**
+	 * Variable registering the collision mask of this spatial element.
+	 */
+	private int collisionMask = CollisionTable.ALL;
+	
+	/**
+	 * Return the element this spatial element originates from, which it
+	 * never collides with, or null.
+	 */
+	@Raw
+	public SpatialElement getSource() {
+		return null;
+	}
+	
 	/**
 	 * Check if the collision of this element and the given element
 	 * is a valid object collision.
@@ -799,24 +1378,68 @@ public abstract class SpatialElement {
 	 * @return	If the given element is null, false is returned
 	 * 			| if(element == null)
 	 * 			| then result == false
+	 * @return	...
+	 * 			| if(element != null)
+	 * 			| then result == CollisionTable.canCollide(getCategory(), getCollisionMask(),
+	 * 			|		element.getCategory(), element.getCollisionMask())
+	 * 			|	&& isValidObjectOverlap(element)
+	 * 			|	&& (getSource() != element) && (element.getSource() != this)
 	 */
-	public abstract boolean isValidObjectCollision(SpatialElement element);
+	public boolean isValidObjectCollision(SpatialElement element) {
+		if(element == null)
+			return false;
+		return CollisionTable.canCollide(getCategory(), getCollisionMask(), element.getCategory(),
+				element.getCollisionMask()) && isValidObjectOverlap(element)
+				&& (getSource() != element) && (element.getSource() != this);
+	}
 	
 	/**
 	 * Resolve this and the given element.
 	 * 
 	 * @param 	otherElement
 	 * 			The element to resolve with.
-	 * @return	...
-	 * 
+	 * @effect	...
+	 * 			| let resolution = CollisionTable.getResolution(getCategory(), otherElement.getCategory())
+	 * 			| in
+	 * 			|	if(resolution == CollisionTable.BOUNCE)
+	 * 			|	then resolveBounce(otherElement)
+	 * 			|	if(resolution == CollisionTable.COLLIDE_FIRST)
+	 * 			|	then collide()
+	 * 			|	if(resolution == CollisionTable.COLLIDE_SECOND)
+	 * 			|	then otherElement.collide()
+	 * 			|	if(resolution == CollisionTable.COLLIDE_FIRST_THEN_SECOND)
+	 * 			|	then collide(); otherElement.collide()
+	 * 			|	if(resolution == CollisionTable.COLLIDE_SECOND_THEN_FIRST)
+	 * 			|	then otherElement.collide(); collide()
 	 * @throws	IllegalArgumentException
 	 * 			The given element does not result in an valid object collision.
-	 * 			| !isValidObjectCollision(overlappingElement)
-	 * @throws	NullPointerException
-	 * 			...
-	 * 			... ? true
+	 * 			| !isValidObjectCollision(otherElement)
 	 */
-	public abstract void resolve(SpatialElement otherElement) throws IllegalArgumentException, NullPointerException;
+	public void resolve(SpatialElement otherElement) throws IllegalArgumentException, NullPointerException {
+		if(!isValidObjectCollision(otherElement))
+			throw new IllegalArgumentException("Element cannot be resolved.");
+		switch (CollisionTable.getResolution(getCategory(), otherElement.getCategory())) {
+		case CollisionTable.BOUNCE:
+			resolveBounce(otherElement);
+			break;
+		case CollisionTable.COLLIDE_FIRST:
+			collide();
+			break;
+		case CollisionTable.COLLIDE_SECOND:
+			otherElement.collide();
+			break;
+		case CollisionTable.COLLIDE_FIRST_THEN_SECOND:
+			collide();
+			otherElement.collide();
+			break;
+		case CollisionTable.COLLIDE_SECOND_THEN_FIRST:
+			otherElement.collide();
+			collide();
+			break;
+		default:
+			break;
+		}
+	}
 	
 	/**
 	 * Resolve the bouncing of given spatial elements.
@@ -851,27 +1474,46 @@ public abstract class SpatialElement {
 	 *			|		.add(unitTangent.multiply(element2Tangent)))
 	 */
 	public void resolveBounce(SpatialElement otherElement){
+		resolveBounce(otherElement, 1);
+	}
+	
+	/**
+	 * Resolve a bounce between this and the given element, keeping only the
+	 * given fraction of their relative velocity along the line connecting them.
+	 * 
+	 * @param	otherElement
+	 * 			The element this element bounces with.
+	 * @param	restitution
+	 * 			The fraction of the relative normal velocity that is kept.
+	 * @effect	...
+	 * 			| if(restitution == 1)
+	 * 			| then resolveBounce(otherElement)
+	 * @effect	If the restitution is zero, both elements keep their tangential velocities
+	 * 			and move on along the connecting line with their common centre of mass.
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| !this.isValidObjectCollision(otherElement)
+	 */
+	public void resolveBounce(SpatialElement otherElement, double restitution){
 		if(!this.isValidObjectCollision(otherElement))
 			throw new IllegalArgumentException("Elements cannot collide.");
 		double sumOfRadius = this.getRadius() + otherElement.getRadius();
 		double mass1 = this.getMass();
 		double mass2 = otherElement.getMass();
-		Vector2D deltaV = otherElement.getVelocity().subtract(this.getVelocity());
-		Vector2D deltaPos = otherElement.getPosition().subtract(this.getPosition());
+		double deltaVX = otherElement.getVelocityX() - this.getVelocityX();
+		double deltaVY = otherElement.getVelocityY() - this.getVelocityY();
+		double deltaPosX = otherElement.getPositionX() - this.getPositionX();
+		double deltaPosY = otherElement.getPositionY() - this.getPositionY();
 		
-		double J = 2*mass1*mass2*(deltaV.getDotProduct(deltaPos))
+		double J = (1 + restitution)*mass1*mass2*Vector2D.getDotProduct(deltaVX, deltaVY, deltaPosX, deltaPosY)
 					/(sumOfRadius*(mass1 + mass2));
 		
-		double Jx = J*deltaPos.getXComponent()/sumOfRadius;
-		double Jy = J*deltaPos.getYComponent()/sumOfRadius;
-		
-		Vector2D newVel1 = new Vector2D(this.getVelocity().getXComponent() + Jx/mass1,
-				this.getVelocity().getYComponent() + Jy/mass1);
-		Vector2D newVel2 = new Vector2D(otherElement.getVelocity().getXComponent() - Jx/mass2,
-				otherElement.getVelocity().getYComponent() - Jy/mass2);
+		double Jx = J*deltaPosX/sumOfRadius;
+		double Jy = J*deltaPosY/sumOfRadius;
 		
-		this.setVelocity(newVel1);
-		otherElement.setVelocity(newVel2);
+		this.setVelocity(this.getVelocityX() + Jx/mass1, this.getVelocityY() + Jy/mass1);
+		otherElement.setVelocity(otherElement.getVelocityX() - Jx/mass2,
+				otherElement.getVelocityY() - Jy/mass2);
 	}
 	
 	/**
@@ -920,12 +1562,12 @@ public abstract class SpatialElement {
 	 */
 	// Note that to indicate a wall an enum could be used.
 	public void resolveWall(boolean horizontal) {
-		double xComp = this.getVelocity().getXComponent();
-		double yComp = this.getVelocity().getYComponent();
+		double xComp = this.getVelocityX();
+		double yComp = this.getVelocityY();
 		if(horizontal)
-			this.setVelocity(new Vector2D(xComp, -1*yComp));
+			this.setVelocity(xComp, -1*yComp);
 		else
-			this.setVelocity(new Vector2D(-1*xComp, yComp));
+			this.setVelocity(-1*xComp, yComp);
 	}
 	
 }
@@ -0,0 +1,644 @@
+package asteroids.model;
+
+import java.util.*;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of uniform grids (spatial hashes) used as broadphase by a world
+ * to limit the number of spatial elements that have to be tested against
+ * each other when predicting collisions or checking overlaps.
+ *
+ * Each registered element occupies all cells covered by the bounding box
+ * of its disc swept along its straight line path over a given time span.
+ * Two elements can only collide within that time span if they share at
+ * least one cell.
+ *
+ * @invar	The grid has a valid cell size.
+ * 			| isValidCellSize(getCellSize())
+ *
+ * @version 1.3
+ * @author  Frederik Van Eeghem, Pieter Lietaert
+ */
+public class SpatialGrid extends Broadphase {
+	/**
+	 * Initialize this new spatial grid with the given cell size and horizon.
+	 *
+	 * @param 	cellSize
+	 * 			The length of the side of a cell of this new grid in km.
+	 * @param 	horizon
+	 * 			The time span in seconds over which the paths of the elements
+	 * 			are swept into this new grid.
+	 * @post	...
+	 * 			| (new this).getCellSize() == cellSize
+	 * @effect	...
+	 * 			| super(horizon)
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| !isValidCellSize(cellSize)
+	 */
+	public SpatialGrid(double cellSize, double horizon) throws IllegalArgumentException {
+		super(horizon);
+		if (!isValidCellSize(cellSize))
+			throw new IllegalArgumentException("Invalid cell size for the spatial grid.");
+		this.cellSize = cellSize;
+	}
+
+	/**
+	 * Return the length of the side of a cell of this grid.
+	 */
+	@Basic @Immutable
+	public double getCellSize() {
+		return this.cellSize;
+	}
+
+	/**
+	 * Check whether the given cell size is a valid cell size for a grid.
+	 *
+	 * @param	cellSize
+	 * 			The cell size to check.
+	 * @return	...
+	 * 			| result == (cellSize > 0) && (cellSize < Double.POSITIVE_INFINITY)
+	 */
+	public static boolean isValidCellSize(double cellSize) {
+		return (cellSize > 0) && (cellSize < Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * Variable registering the length of the side of a cell of this grid in km.
+	 */
+	private final double cellSize;
+
+	/**
+	 * Return the maximum number of cells a single element may occupy.
+	 * Elements sweeping through more cells are kept in a separate list
+	 * that is tested against every other element.
+	 */
+	@Basic @Immutable
+	public static int getMaxCellsPerElement() {
+		return maxCellsPerElement;
+	}
+
+	/**
+	 * Variable registering the maximum number of cells a single element may occupy.
+	 */
+	private static final int maxCellsPerElement = 64;
+
+	/**
+	 * Check whether this grid contains the given element.
+	 *
+	 * @param	element
+	 * 			The element to check.
+	 * @return	...
+	 * 			| result == registered.containsKey(element)
+	 */
+	@Override
+	@Basic
+	public boolean contains(SpatialElement element) {
+		return registered.containsKey(element);
+	}
+
+	/**
+	 * Return the number of elements registered in this grid.
+	 */
+	@Override
+	@Basic
+	public int getNbElements() {
+		return registered.size();
+	}
+
+	/**
+	 * Register the given element in this grid with the path it sweeps over
+	 * the given time span, starting from its current position. A previous
+	 * registration of the same element is replaced.
+	 *
+	 * @param	element
+	 * 			The element to register.
+	 * @param	timeSpan
+	 * 			The time span over which the path of the element is swept.
+	 * @post	...
+	 * 			| (new this).contains(element)
+	 * @throws	NullPointerException
+	 * 			...
+	 * 			| element == null
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| !SpatialElement.isValidTime(timeSpan)
+	 * @note	The box of an element that is registered again is reused, and
+	 * 			emptied cells are kept for later use, so moving elements around
+	 * 			allocates nothing once the grid has warmed up.
+	 */
+	@Override
+	public void add(SpatialElement element, double timeSpan)
+			throws NullPointerException, IllegalArgumentException {
+		if (element == null)
+			throw new NullPointerException("Non-effective element for the spatial grid.");
+		if (!SpatialElement.isValidTime(timeSpan))
+			throw new IllegalArgumentException("Invalid time span for the spatial grid.");
+		long[] box = registered.get(element);
+		if (box == null) {
+			box = new long[4];
+			registered.put(element, box);
+		} else {
+			removeFromCells(element, box);
+		}
+		double radius = element.getRadius();
+		setCellBox(box, element.getMinX(timeSpan) - radius, element.getMinY(timeSpan) - radius,
+				element.getMaxX(timeSpan) + radius, element.getMaxY(timeSpan) + radius);
+		if (getNbCells(box) > getMaxCellsPerElement()) {
+			oversized.add(element);
+			return;
+		}
+		for (long i = box[0]; i <= box[2]; i++) {
+			for (long j = box[1]; j <= box[3]; j++)
+				getOrCreateCell(getKey(i, j)).add(element, box);
+		}
+	}
+
+	/**
+	 * Remove the given element from this grid, if it is registered.
+	 *
+	 * @param	element
+	 * 			The element to remove.
+	 * @post	...
+	 * 			| !(new this).contains(element)
+	 */
+	@Override
+	public void remove(SpatialElement element) {
+		long[] box = registered.remove(element);
+		if (box != null)
+			removeFromCells(element, box);
+	}
+
+	/**
+	 * Remove the given element from the cells of the given box of cell indices,
+	 * or from the oversized elements.
+	 */
+	private void removeFromCells(SpatialElement element, long[] box) {
+		if (oversized.remove(element))
+			return;
+		for (long i = box[0]; i <= box[2]; i++) {
+			for (long j = box[1]; j <= box[3]; j++) {
+				long key = getKey(i, j);
+				Cell cell = getCell(key);
+				if (cell != null) {
+					cell.remove(element);
+					if (cell.size == 0)
+						removeCell(key);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Remove all elements from this grid.
+	 *
+	 * @post	...
+	 * 			| (new this).getNbElements() == 0
+	 */
+	@Override
+	public void clear() {
+		for (int index = 0; index < cellTable.length; index++) {
+			if (cellTable[index] != null) {
+				freeCell(cellTable[index]);
+				cellTable[index] = null;
+			}
+		}
+		nbCells = 0;
+		registered.clear();
+		oversized.clear();
+	}
+
+	/**
+	 * Return all elements that share a cell with the registered path of the given element.
+	 *
+	 * @param	element
+	 * 			The element to return the candidates of.
+	 * @return	...
+	 * 			| if (!contains(element))
+	 * 			| then result.isEmpty()
+	 * @return	...
+	 * 			| !result.contains(element)
+	 * @note	An element that is registered as oversized shares a cell with every element.
+	 */
+	@Override
+	public Set<SpatialElement> getCandidates(SpatialElement element) {
+		Set<SpatialElement> candidates = new HashSet<SpatialElement>();
+		collect(element, null, candidates);
+		return candidates;
+	}
+
+	/**
+	 * Store the slots of all elements that share a cell with the registered path
+	 * of the given element at the front of the given array, and return their number.
+	 *
+	 * @param	element
+	 * 			The element to return the candidates of.
+	 * @param	slots
+	 * 			The array to store the slots of the candidates in.
+	 * @return	...
+	 * 			| result == getCandidates(element).size()
+	 * @post	...
+	 * 			| for each other in getCandidates(element):
+	 * 			|	exactly one index in 0..result-1 has (new slots)[index] == other.getSlot()
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| slots.length < getNbElements()
+	 * @note	An element occupying several cells shared with the path is only
+	 * 			reported from the first of them, so no set is needed to report
+	 * 			each element once.
+	 */
+	@Override
+	public int getCandidates(SpatialElement element, int[] slots) throws IllegalArgumentException {
+		if (slots.length < getNbElements())
+			throw new IllegalArgumentException("Too small an array for the candidates.");
+		return collect(element, slots, null);
+	}
+
+	/**
+	 * Report all elements that share a cell with the registered path of the given
+	 * element, either by storing their slots in the given array or by adding them
+	 * to the given set, and return their number.
+	 */
+	private int collect(SpatialElement element, int[] slots, Set<SpatialElement> candidates) {
+		long[] box = registered.get(element);
+		if (box == null)
+			return 0;
+		if (!oversized.contains(element))
+			return collect(box, element, slots, candidates);
+		int nbCandidates = 0;
+		for (SpatialElement other: registered.keySet()) {
+			if (other != element)
+				nbCandidates = report(other, slots, nbCandidates, candidates);
+		}
+		return nbCandidates;
+	}
+
+	/**
+	 * Return all elements that share a cell with the given rectangle.
+	 *
+	 * @param	minX
+	 * 			The smallest x-coordinate of the rectangle.
+	 * @param	minY
+	 * 			The smallest y-coordinate of the rectangle.
+	 * @param	maxX
+	 * 			The largest x-coordinate of the rectangle.
+	 * @param	maxY
+	 * 			The largest y-coordinate of the rectangle.
+	 * @return	...
+	 * 			| for each element in result:
+	 * 			|	contains(element)
+	 */
+	@Override
+	public Set<SpatialElement> getCandidates(double minX, double minY, double maxX, double maxY) {
+		long[] box = new long[4];
+		setCellBox(box, minX, minY, maxX, maxY);
+		Set<SpatialElement> candidates = new HashSet<SpatialElement>();
+		collect(box, null, null, candidates);
+		return candidates;
+	}
+
+	/**
+	 * Store the slots of all elements that share a cell with the given rectangle
+	 * at the front of the given array, and return their number.
+	 *
+	 * @param	minX
+	 * 			The smallest x-coordinate of the rectangle.
+	 * @param	minY
+	 * 			The smallest y-coordinate of the rectangle.
+	 * @param	maxX
+	 * 			The largest x-coordinate of the rectangle.
+	 * @param	maxY
+	 * 			The largest y-coordinate of the rectangle.
+	 * @param	slots
+	 * 			The array to store the slots of the candidates in.
+	 * @return	...
+	 * 			| result == getCandidates(minX, minY, maxX, maxY).size()
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| slots.length < getNbElements()
+	 */
+	@Override
+	public int getCandidates(double minX, double minY, double maxX, double maxY, int[] slots)
+			throws IllegalArgumentException {
+		if (slots.length < getNbElements())
+			throw new IllegalArgumentException("Too small an array for the candidates.");
+		setCellBox(queryBox, minX, minY, maxX, maxY);
+		return collect(queryBox, null, slots, null);
+	}
+
+	/**
+	 * Box of cell indices reused by each query of a rectangle into an array.
+	 */
+	private final long[] queryBox = new long[4];
+
+	/**
+	 * Report all elements registered in the cells of the given box of cell indices,
+	 * together with all oversized elements, except the given element, either by
+	 * storing their slots in the given array or by adding them to the given set,
+	 * and return their number.
+	 *
+	 * @note	An element is only reported from the first cell, in both directions,
+	 * 			of the cells it shares with the box, so each element is reported once.
+	 */
+	private int collect(long[] box, SpatialElement element, int[] slots, Set<SpatialElement> candidates) {
+		int nbCandidates = 0;
+		// Walking even an empty set allocates an iterator.
+		if (!oversized.isEmpty()) {
+			for (SpatialElement other: oversized) {
+				if (other != element)
+					nbCandidates = report(other, slots, nbCandidates, candidates);
+			}
+		}
+		if (getNbCells(box) > nbCells) {
+			// Cheaper to walk the occupied cells than the requested ones.
+			for (int index = 0; index < cellTable.length; index++) {
+				Cell cell = cellTable[index];
+				if (cell == null)
+					continue;
+				long i = getFirstIndex(cellKeys[index]);
+				long j = getSecondIndex(cellKeys[index]);
+				if (box[0] <= i && i <= box[2] && box[1] <= j && j <= box[3])
+					nbCandidates = collect(cell, i, j, box, element, slots, nbCandidates, candidates);
+			}
+			return nbCandidates;
+		}
+		for (long i = box[0]; i <= box[2]; i++) {
+			for (long j = box[1]; j <= box[3]; j++) {
+				Cell cell = getCell(getKey(i, j));
+				if (cell != null)
+					nbCandidates = collect(cell, i, j, box, element, slots, nbCandidates, candidates);
+			}
+		}
+		return nbCandidates;
+	}
+
+	/**
+	 * Report the elements of the given cell with the given indices that are first
+	 * met in that cell when walking the given box of cell indices, except the given
+	 * element, and return the number of reported elements so far.
+	 */
+	private static int collect(Cell cell, long i, long j, long[] box, SpatialElement element,
+			int[] slots, int nbCandidates, Set<SpatialElement> candidates) {
+		for (int k = 0; k < cell.size; k++) {
+			if (cell.elements[k] != element && i == Math.max(cell.boxes[k][0], box[0])
+					&& j == Math.max(cell.boxes[k][1], box[1]))
+				nbCandidates = report(cell.elements[k], slots, nbCandidates, candidates);
+		}
+		return nbCandidates;
+	}
+
+	/**
+	 * Report the given element, by storing its slot in the given array at the given
+	 * number of reported elements, or by adding it to the given set if the array is
+	 * not effective, and return the number of reported elements.
+	 */
+	private static int report(SpatialElement element, int[] slots, int nbCandidates,
+			Set<SpatialElement> candidates) {
+		if (slots != null)
+			slots[nbCandidates] = element.getSlot();
+		else
+			candidates.add(element);
+		return nbCandidates + 1;
+	}
+
+	/**
+	 * Set the given box of cell indices {minI, minJ, maxI, maxJ} to the box
+	 * covering the given rectangle.
+	 */
+	private void setCellBox(long[] box, double minX, double minY, double maxX, double maxY) {
+		box[0] = getCellIndex(minX);
+		box[1] = getCellIndex(minY);
+		box[2] = getCellIndex(maxX);
+		box[3] = getCellIndex(maxY);
+	}
+
+	/**
+	 * Return the index of the cell containing the given coordinate.
+	 *
+	 * @note	Indices are clamped to the range of an int, so that the huge
+	 * 			extents a world may have still map onto valid (border) cells.
+	 */
+	private long getCellIndex(double coordinate) {
+		double index = Math.floor(coordinate / getCellSize());
+		if (index < Integer.MIN_VALUE || Double.isNaN(index))
+			return Integer.MIN_VALUE;
+		if (index > Integer.MAX_VALUE)
+			return Integer.MAX_VALUE;
+		return (long) index;
+	}
+
+	/**
+	 * Return the number of cells in the given box of cell indices.
+	 */
+	private static double getNbCells(long[] box) {
+		return (double) (box[2] - box[0] + 1) * (double) (box[3] - box[1] + 1);
+	}
+
+	/**
+	 * Return the key of the cell with the given indices.
+	 */
+	private static long getKey(long i, long j) {
+		return (i << 32) | (j & 0xffffffffL);
+	}
+
+	/**
+	 * Return the first index of the cell with the given key.
+	 */
+	private static long getFirstIndex(long key) {
+		return key >> 32;
+	}
+
+	/**
+	 * Return the second index of the cell with the given key.
+	 */
+	private static long getSecondIndex(long key) {
+		return (int) key;
+	}
+
+	/**
+	 * Return the position in the table of cells at which the search for the
+	 * cell with the given key starts.
+	 *
+	 * @note	The bits of the key are mixed first, since the indices of nearby
+	 * 			cells only differ in a few low bits of both halves of their keys.
+	 */
+	private int getHome(long key) {
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		return (int) key & (cellTable.length - 1);
+	}
+
+	/**
+	 * Return the cell with the given key, or null if it is empty.
+	 */
+	private Cell getCell(long key) {
+		int mask = cellTable.length - 1;
+		for (int index = getHome(key); cellTable[index] != null; index = (index + 1) & mask) {
+			if (cellKeys[index] == key)
+				return cellTable[index];
+		}
+		return null;
+	}
+
+	/**
+	 * Return the cell with the given key, adding an empty cell with that key
+	 * to the table of cells if there is none.
+	 */
+	private Cell getOrCreateCell(long key) {
+		if (2*(nbCells + 1) > cellTable.length)
+			resizeCellTable(2*cellTable.length);
+		int mask = cellTable.length - 1;
+		int index = getHome(key);
+		for (; cellTable[index] != null; index = (index + 1) & mask) {
+			if (cellKeys[index] == key)
+				return cellTable[index];
+		}
+		Cell cell;
+		if (nbFreeCells > 0) {
+			nbFreeCells--;
+			cell = freeCells[nbFreeCells];
+			freeCells[nbFreeCells] = null;
+		} else {
+			cell = new Cell();
+		}
+		cellKeys[index] = key;
+		cellTable[index] = cell;
+		nbCells++;
+		return cell;
+	}
+
+	/**
+	 * Remove the cell with the given key from the table of cells, and keep it for later use.
+	 *
+	 * @note	The cells after it in the same run of the table are shifted back
+	 * 			into the gap where possible, so every search still ends at the
+	 * 			first empty position.
+	 */
+	private void removeCell(long key) {
+		int mask = cellTable.length - 1;
+		int hole = getHome(key);
+		while (cellTable[hole] != null && cellKeys[hole] != key)
+			hole = (hole + 1) & mask;
+		if (cellTable[hole] == null)
+			return;
+		freeCell(cellTable[hole]);
+		for (int index = (hole + 1) & mask; cellTable[index] != null; index = (index + 1) & mask) {
+			// The cell may fill the hole if the hole lies between its home and its position.
+			if (((index - getHome(cellKeys[index])) & mask) >= ((index - hole) & mask)) {
+				cellKeys[hole] = cellKeys[index];
+				cellTable[hole] = cellTable[index];
+				hole = index;
+			}
+		}
+		cellTable[hole] = null;
+		nbCells--;
+	}
+
+	/**
+	 * Give the table of cells the given capacity, which is a power of two.
+	 */
+	private void resizeCellTable(int capacity) {
+		long[] oldKeys = cellKeys;
+		Cell[] oldTable = cellTable;
+		cellKeys = new long[capacity];
+		cellTable = new Cell[capacity];
+		int mask = capacity - 1;
+		for (int oldIndex = 0; oldIndex < oldTable.length; oldIndex++) {
+			if (oldTable[oldIndex] == null)
+				continue;
+			int index = getHome(oldKeys[oldIndex]);
+			while (cellTable[index] != null)
+				index = (index + 1) & mask;
+			cellKeys[index] = oldKeys[oldIndex];
+			cellTable[index] = oldTable[oldIndex];
+		}
+	}
+
+	/**
+	 * Keep the given emptied cell for later use.
+	 */
+	private void freeCell(Cell cell) {
+		cell.clear();
+		if (nbFreeCells == freeCells.length)
+			freeCells = Arrays.copyOf(freeCells, 2*nbFreeCells);
+		freeCells[nbFreeCells++] = cell;
+	}
+
+	/**
+	 * The table of non-empty cells, indexed by open addressing on their keys,
+	 * with the key of each cell at the same position in the table of keys.
+	 *
+	 * @note	Keys are kept as primitive longs, so looking up a cell allocates nothing.
+	 */
+	private long[] cellKeys = new long[16];
+	private Cell[] cellTable = new Cell[16];
+
+	/**
+	 * Variable registering the number of non-empty cells of this grid.
+	 */
+	private int nbCells = 0;
+
+	/**
+	 * A stack of emptied cells kept for later use.
+	 */
+	private Cell[] freeCells = new Cell[16];
+	private int nbFreeCells = 0;
+
+	/**
+	 * Map registering for each registered element the box of cell indices it occupies.
+	 */
+	private final Map<SpatialElement, long[]> registered = new HashMap<SpatialElement, long[]>();
+
+	/**
+	 * Set registering the elements that occupy too many cells to be stored in the cells.
+	 */
+	private final Set<SpatialElement> oversized = new HashSet<SpatialElement>();
+
+	/**
+	 * A class of cells of a spatial grid, holding the elements occupying the
+	 * cell together with their registered boxes of cell indices.
+	 * 
+	 * @note	A cell refers to the boxes of its elements instead of copying
+	 * 			their first cell indices, and starts out with room for only two
+	 * 			elements, since most cells of a grid hold only one or two.
+	 */
+	private static class Cell {
+		private void add(SpatialElement element, long[] box) {
+			if (size == elements.length) {
+				elements = Arrays.copyOf(elements, 2*size);
+				boxes = Arrays.copyOf(boxes, 2*size);
+			}
+			elements[size] = element;
+			boxes[size] = box;
+			size++;
+		}
+
+		/**
+		 * Remove the given element by moving the last element of this cell into its place.
+		 */
+		private void remove(SpatialElement element) {
+			for (int k = 0; k < size; k++) {
+				if (elements[k] == element) {
+					size--;
+					elements[k] = elements[size];
+					boxes[k] = boxes[size];
+					elements[size] = null;
+					boxes[size] = null;
+					return;
+				}
+			}
+		}
+
+		private void clear() {
+			Arrays.fill(elements, 0, size, null);
+			Arrays.fill(boxes, 0, size, null);
+			size = 0;
+		}
+
+		private SpatialElement[] elements = new SpatialElement[2];
+		private long[][] boxes = new long[2][];
+		private int size = 0;
+	}
+}
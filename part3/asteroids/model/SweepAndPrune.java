@@ -0,0 +1,878 @@
+package asteroids.model;
+
+import java.util.*;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of sweep-and-prune broadphases used by a world.
+ *
+ * The boxes of all registered elements are projected on both axes, and for
+ * each axis the endpoints of the projected intervals are kept in a list
+ * sorted by their coordinate. Each element keeps the list of elements its box
+ * overlaps. When the box of an element changes, its endpoints are moved to
+ * their new place in both lists by insertion sort. Each time a lower endpoint
+ * passes an upper endpoint of another element, both elements start or stop
+ * overlapping along that axis, and the pair is registered as soon as the boxes
+ * overlap along both axes. Between two updates, elements move only a little,
+ * so updating them costs a number of swaps proportional to the number of
+ * intervals they pass, rather than a test against every other element.
+ *
+ * Inserting or deleting endpoints shifts the whole list, which would make
+ * short-lived elements such as bullets expensive. New elements are therefore
+ * kept in a small unsorted list, and removed elements leave their endpoints
+ * behind, until both are merged into the sorted lists in a single pass.
+ *
+ * @version 1.2
+ * @author  Frederik Van Eeghem, Pieter Lietaert
+ */
+public class SweepAndPrune extends Broadphase {
+	/**
+	 * Initialize this new sweep-and-prune broadphase with the given horizon.
+	 *
+	 * @param 	horizon
+	 * 			The time span in seconds over which the paths of the elements
+	 * 			are swept into this new broadphase.
+	 * @effect	...
+	 * 			| super(horizon)
+	 */
+	public SweepAndPrune(double horizon) throws IllegalArgumentException {
+		super(horizon);
+	}
+
+	/**
+	 * Check whether this broadphase contains the given element.
+	 *
+	 * @param	element
+	 * 			The element to check.
+	 * @return	...
+	 * 			| result == registered.containsKey(element)
+	 */
+	@Override
+	@Basic
+	public boolean contains(SpatialElement element) {
+		return registered.containsKey(element);
+	}
+
+	/**
+	 * Return the number of elements registered in this broadphase.
+	 */
+	@Override
+	@Basic
+	public int getNbElements() {
+		return registered.size();
+	}
+
+	/**
+	 * Return the number of pairs of elements with overlapping boxes
+	 * registered in this broadphase.
+	 *
+	 * @note	Pairs with an element that has not yet been merged into the
+	 * 			sorted lists are not counted.
+	 */
+	public int getNbPairs() {
+		return this.nbPairs;
+	}
+
+	/**
+	 * Return the number of swaps of endpoints performed by this broadphase
+	 * since it was created.
+	 */
+	@Basic
+	public long getNbSwaps() {
+		return this.nbSwaps;
+	}
+
+	/**
+	 * Variable registering the number of swaps of endpoints performed by this broadphase.
+	 */
+	private long nbSwaps = 0;
+
+	/**
+	 * Register the given element in this broadphase with the path it sweeps
+	 * over the given time span, starting from its current position. A previous
+	 * registration of the same element is replaced.
+	 *
+	 * @param	element
+	 * 			The element to register.
+	 * @param	timeSpan
+	 * 			The time span over which the path of the element is swept.
+	 * @post	...
+	 * 			| (new this).contains(element)
+	 * @throws	NullPointerException
+	 * 			...
+	 * 			| element == null
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| !SpatialElement.isValidTime(timeSpan)
+	 * @note	The endpoints of an element that is already in the sorted lists are
+	 * 			moved from their current place. New elements are kept aside until
+	 * 			enough of them have been added to merge them in a single pass.
+	 */
+	@Override
+	public void add(SpatialElement element, double timeSpan)
+			throws NullPointerException, IllegalArgumentException {
+		store(element, timeSpan);
+		if (nbPending + nbRemoved > getMergeThreshold())
+			merge();
+	}
+
+	/**
+	 * Register all given elements in this broadphase with the paths they sweep
+	 * over the given time span.
+	 *
+	 * @param	elements
+	 * 			The elements to register.
+	 * @param	timeSpan
+	 * 			The time span over which the paths of the elements are swept.
+	 * @effect	...
+	 * 			| for each element in elements:
+	 * 			|	add(element, timeSpan)
+	 * @throws	NullPointerException
+	 * 			...
+	 * 			| elements == null || elements.contains(null)
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| !SpatialElement.isValidTime(timeSpan)
+	 * @note	The new elements are merged into the sorted lists at most once,
+	 * 			after all of them are registered, rather than each time the
+	 * 			merge threshold is passed.
+	 */
+	@Override
+	public void addAll(Collection<? extends SpatialElement> elements, double timeSpan)
+			throws NullPointerException, IllegalArgumentException {
+		for (SpatialElement element: elements)
+			store(element, timeSpan);
+		if (nbPending + nbRemoved > getMergeThreshold())
+			merge();
+	}
+
+	/**
+	 * Check whether this broadphase registers a batch of elements with addAll
+	 * faster than by adding them one at a time while it is queried in between.
+	 *
+	 * @return	...
+	 * 			| result == true
+	 * @note	Elements added one at a time are merged into the sorted lists
+	 * 			each time the merge threshold is passed, while addAll merges
+	 * 			a whole batch at once.
+	 */
+	@Override
+	public boolean isBatchInsertionFaster() {
+		return true;
+	}
+
+	/**
+	 * Register the given element with the path it sweeps over the given time
+	 * span, without merging the new elements into the sorted lists.
+	 */
+	private void store(SpatialElement element, double timeSpan)
+			throws NullPointerException, IllegalArgumentException {
+		if (element == null)
+			throw new NullPointerException("Non-effective element for sweep and prune.");
+		if (!SpatialElement.isValidTime(timeSpan))
+			throw new IllegalArgumentException("Invalid time span for sweep and prune.");
+		Integer registration = registered.get(element);
+		int id;
+		if (registration == null) {
+			id = allocateEntry(element);
+			states[id] = PENDING;
+			pendingIndices[id] = nbPending;
+			pending[nbPending] = id;
+			nbPending++;
+		} else {
+			id = registration;
+		}
+		double radius = element.getRadius();
+		mins[X][id] = element.getMinX(timeSpan) - radius;
+		maxs[X][id] = element.getMaxX(timeSpan) + radius;
+		mins[Y][id] = element.getMinY(timeSpan) - radius;
+		maxs[Y][id] = element.getMaxY(timeSpan) + radius;
+		maxLength = Math.max(maxLength, maxs[X][id] - mins[X][id]);
+		if (states[id] == SORTED) {
+			update(X, id);
+			update(Y, id);
+		}
+	}
+
+	/**
+	 * Remove the given element from this broadphase, if it is registered.
+	 *
+	 * @param	element
+	 * 			The element to remove.
+	 * @post	...
+	 * 			| !(new this).contains(element)
+	 * @note	The endpoints of the element stay in the sorted lists until the
+	 * 			next merge, but no longer take part in any pair.
+	 */
+	@Override
+	public void remove(SpatialElement element) {
+		Integer registration = registered.remove(element);
+		if (registration == null)
+			return;
+		int id = registration;
+		elements[id] = null;
+		if (states[id] == PENDING) {
+			nbPending--;
+			pending[pendingIndices[id]] = pending[nbPending];
+			pendingIndices[pending[nbPending]] = pendingIndices[id];
+			freeEntry(id);
+			return;
+		}
+		while (nbPartners[id] > 0)
+			removePair(id, partners[id][nbPartners[id] - 1]);
+		states[id] = REMOVED;
+		nbRemoved++;
+		if (nbPending + nbRemoved > getMergeThreshold())
+			merge();
+	}
+
+	/**
+	 * Remove all elements from this broadphase.
+	 *
+	 * @post	...
+	 * 			| (new this).getNbElements() == 0
+	 */
+	@Override
+	public void clear() {
+		registered.clear();
+		Arrays.fill(elements, null);
+		Arrays.fill(nbPartners, 0);
+		Arrays.fill(states, FREE);
+		nbPairs = 0;
+		nbEndpoints = 0;
+		nbPending = 0;
+		nbRemoved = 0;
+		nbIds = 0;
+		nbFreeIds = 0;
+		maxLength = 0;
+	}
+
+	/**
+	 * Return all elements whose registered box overlaps the registered box
+	 * of the given element.
+	 *
+	 * @param	element
+	 * 			The element to return the candidates of.
+	 * @return	...
+	 * 			| if (!contains(element))
+	 * 			| then result.isEmpty()
+	 * @return	...
+	 * 			| !result.contains(element)
+	 */
+	@Override
+	public Set<SpatialElement> getCandidates(SpatialElement element) {
+		Set<SpatialElement> candidates = new HashSet<SpatialElement>();
+		collect(element, null, candidates);
+		return candidates;
+	}
+
+	/**
+	 * Store the slots of all elements whose registered box overlaps the registered
+	 * box of the given element at the front of the given array, and return their number.
+	 *
+	 * @param	element
+	 * 			The element to return the candidates of.
+	 * @param	slots
+	 * 			The array to store the slots of the candidates in.
+	 * @return	...
+	 * 			| result == getCandidates(element).size()
+	 * @post	...
+	 * 			| for each other in getCandidates(element):
+	 * 			|	exactly one index in 0..result-1 has (new slots)[index] == other.getSlot()
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| slots.length < getNbElements()
+	 */
+	@Override
+	public int getCandidates(SpatialElement element, int[] slots) throws IllegalArgumentException {
+		if (slots.length < getNbElements())
+			throw new IllegalArgumentException("Too small an array for the candidates.");
+		return collect(element, slots, null);
+	}
+
+	/**
+	 * Report all elements whose registered box overlaps the registered box of the
+	 * given element, either by storing their slots in the given array or by adding
+	 * them to the given set, and return their number.
+	 */
+	private int collect(SpatialElement element, int[] slots, Set<SpatialElement> candidates) {
+		Integer registration = registered.get(element);
+		if (registration == null)
+			return 0;
+		int id = registration;
+		int nbCandidates = 0;
+		if (states[id] == SORTED) {
+			for (int k = 0; k < nbPartners[id]; k++)
+				nbCandidates = report(partners[id][k], slots, nbCandidates, candidates);
+			return collectPending(mins[X][id], mins[Y][id], maxs[X][id], maxs[Y][id], id, slots,
+					nbCandidates, candidates);
+		}
+		return collect(mins[X][id], mins[Y][id], maxs[X][id], maxs[Y][id], id, slots, candidates);
+	}
+
+	/**
+	 * Return all elements whose registered box overlaps the given rectangle.
+	 *
+	 * @param	minX
+	 * 			The smallest x-coordinate of the rectangle.
+	 * @param	minY
+	 * 			The smallest y-coordinate of the rectangle.
+	 * @param	maxX
+	 * 			The largest x-coordinate of the rectangle.
+	 * @param	maxY
+	 * 			The largest y-coordinate of the rectangle.
+	 * @return	...
+	 * 			| for each element in result:
+	 * 			|	contains(element)
+	 */
+	@Override
+	public Set<SpatialElement> getCandidates(double minX, double minY, double maxX, double maxY) {
+		Set<SpatialElement> candidates = new HashSet<SpatialElement>();
+		collect(minX, minY, maxX, maxY, -1, null, candidates);
+		return candidates;
+	}
+
+	/**
+	 * Store the slots of all elements whose registered box overlaps the given
+	 * rectangle at the front of the given array, and return their number.
+	 *
+	 * @param	minX
+	 * 			The smallest x-coordinate of the rectangle.
+	 * @param	minY
+	 * 			The smallest y-coordinate of the rectangle.
+	 * @param	maxX
+	 * 			The largest x-coordinate of the rectangle.
+	 * @param	maxY
+	 * 			The largest y-coordinate of the rectangle.
+	 * @param	slots
+	 * 			The array to store the slots of the candidates in.
+	 * @return	...
+	 * 			| result == getCandidates(minX, minY, maxX, maxY).size()
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| slots.length < getNbElements()
+	 */
+	@Override
+	public int getCandidates(double minX, double minY, double maxX, double maxY, int[] slots)
+			throws IllegalArgumentException {
+		if (slots.length < getNbElements())
+			throw new IllegalArgumentException("Too small an array for the candidates.");
+		return collect(minX, minY, maxX, maxY, -1, slots, null);
+	}
+
+	/**
+	 * Report all elements whose box overlaps the given rectangle, except the entry
+	 * with the given id, either by storing their slots in the given array or by
+	 * adding them to the given set, and return their number.
+	 *
+	 * @note	No x-interval is longer than the longest one registered since the
+	 * 			last clear, so only the lower endpoints at most that far before
+	 * 			minX are swept.
+	 */
+	private int collect(double minX, double minY, double maxX, double maxY, int excluded, int[] slots,
+			Set<SpatialElement> candidates) {
+		int nbCandidates = 0;
+		for (int position = getFirstPosition(X, minX - maxLength); position < nbEndpoints
+				&& values[X][position] <= maxX; position++) {
+			int endpoint = endpoints[X][position];
+			int id = getId(endpoint);
+			if (!isMax(endpoint) && id != excluded && states[id] == SORTED && minX <= maxs[X][id]
+					&& mins[Y][id] <= maxY && minY <= maxs[Y][id])
+				nbCandidates = report(id, slots, nbCandidates, candidates);
+		}
+		return collectPending(minX, minY, maxX, maxY, excluded, slots, nbCandidates, candidates);
+	}
+
+	/**
+	 * Report all elements that are not yet in the sorted lists and whose box
+	 * overlaps the given rectangle, except the entry with the given id, after
+	 * the given number of reported elements, and return the number of reported elements.
+	 */
+	private int collectPending(double minX, double minY, double maxX, double maxY, int excluded, int[] slots,
+			int nbCandidates, Set<SpatialElement> candidates) {
+		for (int k = 0; k < nbPending; k++) {
+			int id = pending[k];
+			if (id != excluded && mins[X][id] <= maxX && minX <= maxs[X][id]
+					&& mins[Y][id] <= maxY && minY <= maxs[Y][id])
+				nbCandidates = report(id, slots, nbCandidates, candidates);
+		}
+		return nbCandidates;
+	}
+
+	/**
+	 * Report the element of the entry with the given id, by storing its slot in the
+	 * given array at the given number of reported elements, or by adding it to the
+	 * given set if the array is not effective, and return the number of reported elements.
+	 */
+	private int report(int id, int[] slots, int nbCandidates, Set<SpatialElement> candidates) {
+		if (slots != null)
+			slots[nbCandidates] = elements[id].getSlot();
+		else
+			candidates.add(elements[id]);
+		return nbCandidates + 1;
+	}
+
+	/**
+	 * Return the first position in the list of endpoints along the given axis
+	 * with a value not smaller than the given value.
+	 */
+	private int getFirstPosition(int axis, double value) {
+		int low = 0, high = nbEndpoints;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (values[axis][middle] < value)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	}
+
+	/**
+	 * Return the number of new and removed elements above which they are
+	 * merged into the sorted lists.
+	 *
+	 * @note	Each query tests all new elements and a merge touches all endpoints,
+	 * 			so both costs are balanced by a threshold around the square root of
+	 * 			the number of endpoints.
+	 */
+	private int getMergeThreshold() {
+		return Math.max(16, (int) Math.sqrt(nbEndpoints));
+	}
+
+	/**
+	 * Merge the new elements into the sorted lists, drop the endpoints of
+	 * removed elements from them and register the pairs the new elements take part in.
+	 */
+	private void merge() {
+		int nbMerged = 0;
+		for (int axis = X; axis <= Y; axis++)
+			nbMerged = merge(axis);
+		for (int id = 0; id < nbIds; id++)
+			if (states[id] == REMOVED)
+				freeEntry(id);
+		nbEndpoints = nbMerged;
+		nbRemoved = 0;
+		// The sorted elements overlapping a new box along the x-axis have an endpoint
+		// within its x-interval, or a lower endpoint before it and an upper endpoint after it.
+		for (int k = 0; k < nbPending; k++)
+			states[pending[k]] = SORTED;
+		for (int k = 0; k < nbPending; k++) {
+			int id = pending[k];
+			pendingIndices[id] = -1;
+			int minPosition = minPositions[X][id];
+			int maxPosition = maxPositions[X][id];
+			for (int position = minPosition + 1; position < maxPosition; position++) {
+				int other = getId(endpoints[X][position]);
+				if ((!isMax(endpoints[X][position]) || minPositions[X][other] < minPosition)
+						&& pendingIndices[other] < 0 && overlaps(Y, id, other))
+					addPair(id, other);
+			}
+			for (int position = minPosition - 1; position >= 0
+					&& values[X][position] >= maxs[X][id] - maxLength; position--) {
+				int other = getId(endpoints[X][position]);
+				if (!isMax(endpoints[X][position]) && maxPositions[X][other] > maxPosition
+						&& pendingIndices[other] < 0 && overlaps(Y, id, other))
+					addPair(id, other);
+			}
+		}
+		nbPending = 0;
+	}
+
+	/**
+	 * Merge the endpoints of the new elements along the given axis into the
+	 * sorted list along that axis, leaving out the endpoints of removed
+	 * elements, and return the number of endpoints in the merged list.
+	 */
+	private int merge(int axis) {
+		int nbNew = 2*nbPending;
+		int[] newEndpoints = new int[nbNew];
+		for (int k = 0; k < nbPending; k++) {
+			newEndpoints[2*k] = getMin(pending[k]);
+			newEndpoints[2*k + 1] = getMax(pending[k]);
+		}
+		sort(axis, newEndpoints, new int[nbNew], 0, nbNew);
+		int capacity = Math.max(nbEndpoints + nbNew, endpoints[axis].length);
+		int[] mergedEndpoints = new int[capacity];
+		double[] mergedValues = new double[capacity];
+		int nbMerged = 0, newPosition = 0;
+		for (int position = 0; position <= nbEndpoints; position++) {
+			int endpoint = -1;
+			if (position < nbEndpoints) {
+				endpoint = endpoints[axis][position];
+				if (states[getId(endpoint)] == REMOVED)
+					continue;
+			}
+			while (newPosition < nbNew
+					&& (endpoint < 0 || isBefore(axis, newEndpoints[newPosition], endpoint))) {
+				int newEndpoint = newEndpoints[newPosition];
+				mergedEndpoints[nbMerged] = newEndpoint;
+				mergedValues[nbMerged] = getValue(axis, newEndpoint);
+				setPosition(axis, newEndpoint, nbMerged);
+				nbMerged++;
+				newPosition++;
+			}
+			if (endpoint >= 0) {
+				mergedEndpoints[nbMerged] = endpoint;
+				mergedValues[nbMerged] = values[axis][position];
+				setPosition(axis, endpoint, nbMerged);
+				nbMerged++;
+			}
+		}
+		endpoints[axis] = mergedEndpoints;
+		values[axis] = mergedValues;
+		return nbMerged;
+	}
+
+	/**
+	 * Sort the endpoints in the given range of the given list along the given
+	 * axis, using the same range of the given buffer.
+	 *
+	 * @note	Short ranges are sorted by insertion, longer ones by merging their
+	 * 			sorted halves, so a large batch of new elements is sorted in
+	 * 			n log n steps.
+	 */
+	private void sort(int axis, int[] list, int[] buffer, int from, int to) {
+		if (to - from <= 16) {
+			for (int k = from + 1; k < to; k++) {
+				int endpoint = list[k];
+				int other = k;
+				while (other > from && isBefore(axis, endpoint, list[other - 1])) {
+					list[other] = list[other - 1];
+					other--;
+				}
+				list[other] = endpoint;
+			}
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		sort(axis, list, buffer, from, middle);
+		sort(axis, list, buffer, middle, to);
+		System.arraycopy(list, from, buffer, from, to - from);
+		int first = from, second = middle;
+		for (int k = from; k < to; k++) {
+			if (second == to || (first < middle && !isBefore(axis, buffer[second], buffer[first])))
+				list[k] = buffer[first++];
+			else
+				list[k] = buffer[second++];
+		}
+	}
+
+	/**
+	 * Move the endpoints of the sorted entry with the given id along the given
+	 * axis to the place of its new interval in the sorted list along that axis.
+	 *
+	 * @note	Intervals that grow are first extended, so the lower endpoint
+	 * 			of the entry never passes its own upper endpoint.
+	 */
+	private void update(int axis, int id) {
+		int minPosition = minPositions[axis][id];
+		int maxPosition = maxPositions[axis][id];
+		double oldMin = values[axis][minPosition];
+		double oldMax = values[axis][maxPosition];
+		values[axis][minPosition] = mins[axis][id];
+		values[axis][maxPosition] = maxs[axis][id];
+		if (mins[axis][id] < oldMin)
+			sortDown(axis, minPosition);
+		if (maxs[axis][id] > oldMax)
+			sortUp(axis, maxPositions[axis][id]);
+		if (mins[axis][id] > oldMin)
+			sortUp(axis, minPositions[axis][id]);
+		if (maxs[axis][id] < oldMax)
+			sortDown(axis, maxPositions[axis][id]);
+	}
+
+	/**
+	 * Move the endpoint at the given position in the list along the given axis
+	 * towards the front of the list until it is sorted, updating the pairs of
+	 * overlapping entries.
+	 */
+	private void sortDown(int axis, int position) {
+		int[] list = endpoints[axis];
+		double[] listValues = values[axis];
+		int endpoint = list[position];
+		double value = listValues[position];
+		while (position > 0 && isBefore(value, endpoint, listValues[position - 1], list[position - 1])) {
+			int other = list[position - 1];
+			if (isMax(other) && !isMax(endpoint)) {
+				if (overlaps(1 - axis, getId(endpoint), getId(other)))
+					addPair(getId(endpoint), getId(other));
+			} else if (!isMax(other) && isMax(endpoint)) {
+				removePair(getId(endpoint), getId(other));
+			}
+			setEndpoint(axis, position, other, listValues[position - 1]);
+			position--;
+			nbSwaps++;
+		}
+		setEndpoint(axis, position, endpoint, value);
+	}
+
+	/**
+	 * Move the endpoint at the given position in the list along the given axis
+	 * towards the back of the list until it is sorted, updating the pairs of
+	 * overlapping entries.
+	 */
+	private void sortUp(int axis, int position) {
+		int[] list = endpoints[axis];
+		double[] listValues = values[axis];
+		int endpoint = list[position];
+		double value = listValues[position];
+		while (position < nbEndpoints - 1
+				&& isBefore(listValues[position + 1], list[position + 1], value, endpoint)) {
+			int other = list[position + 1];
+			if (!isMax(other) && isMax(endpoint)) {
+				if (overlaps(1 - axis, getId(endpoint), getId(other)))
+					addPair(getId(endpoint), getId(other));
+			} else if (isMax(other) && !isMax(endpoint)) {
+				removePair(getId(endpoint), getId(other));
+			}
+			setEndpoint(axis, position, other, listValues[position + 1]);
+			position++;
+			nbSwaps++;
+		}
+		setEndpoint(axis, position, endpoint, value);
+	}
+
+	/**
+	 * Check whether the intervals along the given axis of the entries with
+	 * the given ids overlap.
+	 */
+	private boolean overlaps(int axis, int id1, int id2) {
+		return mins[axis][id1] <= maxs[axis][id2] && mins[axis][id2] <= maxs[axis][id1];
+	}
+
+	/**
+	 * Check whether the first endpoint with the first value belongs in front
+	 * of the second endpoint with the second value. Lower endpoints go in
+	 * front of upper endpoints with the same value, so touching intervals overlap.
+	 */
+	private static boolean isBefore(double value1, int endpoint1, double value2, int endpoint2) {
+		return value1 < value2 || (value1 == value2 && !isMax(endpoint1) && isMax(endpoint2));
+	}
+
+	/**
+	 * Check whether the first endpoint belongs in front of the second one
+	 * along the given axis, according to the current boxes of their entries.
+	 */
+	private boolean isBefore(int axis, int endpoint1, int endpoint2) {
+		return isBefore(getValue(axis, endpoint1), endpoint1, getValue(axis, endpoint2), endpoint2);
+	}
+
+	/**
+	 * Return the current value of the given endpoint along the given axis.
+	 */
+	private double getValue(int axis, int endpoint) {
+		return isMax(endpoint) ? maxs[axis][getId(endpoint)] : mins[axis][getId(endpoint)];
+	}
+
+	private void setEndpoint(int axis, int position, int endpoint, double value) {
+		endpoints[axis][position] = endpoint;
+		values[axis][position] = value;
+		setPosition(axis, endpoint, position);
+	}
+
+	private void setPosition(int axis, int endpoint, int position) {
+		if (isMax(endpoint))
+			maxPositions[axis][getId(endpoint)] = position;
+		else
+			minPositions[axis][getId(endpoint)] = position;
+	}
+
+	private static int getMin(int id) {
+		return 2*id;
+	}
+
+	private static int getMax(int id) {
+		return 2*id + 1;
+	}
+
+	private static int getId(int endpoint) {
+		return endpoint >> 1;
+	}
+
+	private static boolean isMax(int endpoint) {
+		return (endpoint & 1) != 0;
+	}
+
+	/**
+	 * Register that the entries with the given ids overlap, unless one of
+	 * them has been removed or they are already registered as overlapping.
+	 */
+	private void addPair(int id1, int id2) {
+		if (id1 == id2 || states[id1] != SORTED || states[id2] != SORTED)
+			return;
+		if (nbPartners[id1] <= nbPartners[id2] ? getPartnerIndex(id1, id2) >= 0 : getPartnerIndex(id2, id1) >= 0)
+			return;
+		addPartner(id1, id2);
+		addPartner(id2, id1);
+		nbPairs++;
+	}
+
+	/**
+	 * Register that the entries with the given ids no longer overlap.
+	 */
+	private void removePair(int id1, int id2) {
+		int index = getPartnerIndex(id1, id2);
+		if (index < 0)
+			return;
+		removePartner(id1, index);
+		removePartner(id2, getPartnerIndex(id2, id1));
+		nbPairs--;
+	}
+
+	/**
+	 * Return the index of the given partner among the partners of the entry
+	 * with the given id, or -1 if it is not among them.
+	 *
+	 * @note	Boxes of elements overlap only a few other boxes along both
+	 * 			axes, so a linear search through the partners is cheaper than
+	 * 			a lookup in a table of all pairs.
+	 */
+	private int getPartnerIndex(int id, int partner) {
+		int[] list = partners[id];
+		for (int k = nbPartners[id] - 1; k >= 0; k--)
+			if (list[k] == partner)
+				return k;
+		return -1;
+	}
+
+	/**
+	 * Add the given partner to the partners of the entry with the given id.
+	 */
+	private void addPartner(int id, int partner) {
+		if (nbPartners[id] == partners[id].length)
+			partners[id] = Arrays.copyOf(partners[id], 2*partners[id].length);
+		partners[id][nbPartners[id]] = partner;
+		nbPartners[id]++;
+	}
+
+	/**
+	 * Remove the partner at the given index from the partners of the entry
+	 * with the given id, by moving its last partner to that index.
+	 */
+	private void removePartner(int id, int index) {
+		nbPartners[id]--;
+		partners[id][index] = partners[id][nbPartners[id]];
+	}
+
+	/**
+	 * Give the given element a free id and return it.
+	 */
+	private int allocateEntry(SpatialElement element) {
+		int id;
+		if (nbFreeIds > 0) {
+			nbFreeIds--;
+			id = freeIds[nbFreeIds];
+		} else {
+			if (nbIds == elements.length) {
+				int capacity = 2*elements.length;
+				elements = Arrays.copyOf(elements, capacity);
+				states = Arrays.copyOf(states, capacity);
+				for (int axis = X; axis <= Y; axis++) {
+					mins[axis] = Arrays.copyOf(mins[axis], capacity);
+					maxs[axis] = Arrays.copyOf(maxs[axis], capacity);
+					minPositions[axis] = Arrays.copyOf(minPositions[axis], capacity);
+					maxPositions[axis] = Arrays.copyOf(maxPositions[axis], capacity);
+				}
+				partners = Arrays.copyOf(partners, capacity);
+				nbPartners = Arrays.copyOf(nbPartners, capacity);
+				pending = Arrays.copyOf(pending, capacity);
+				pendingIndices = Arrays.copyOf(pendingIndices, capacity);
+				freeIds = Arrays.copyOf(freeIds, capacity);
+			}
+			id = nbIds;
+			nbIds++;
+		}
+		if (partners[id] == null)
+			partners[id] = new int[4];
+		elements[id] = element;
+		registered.put(element, id);
+		return id;
+	}
+
+	/**
+	 * Make the id of a removed entry available again.
+	 */
+	private void freeEntry(int id) {
+		states[id] = FREE;
+		freeIds[nbFreeIds] = id;
+		nbFreeIds++;
+	}
+
+	/**
+	 * Map registering for each registered element the id of its entry.
+	 */
+	private final Map<SpatialElement, Integer> registered = new HashMap<SpatialElement, Integer>();
+
+	/**
+	 * The indices of both axes.
+	 */
+	private static final int X = 0;
+	private static final int Y = 1;
+
+	/**
+	 * The sorted lists of endpoints along each axis, each endpoint encoded as
+	 * twice the id of its entry, plus one for an upper endpoint, together with
+	 * their coordinates.
+	 */
+	private int[][] endpoints = {new int[32], new int[32]};
+	private double[][] values = {new double[32], new double[32]};
+	private int nbEndpoints = 0;
+
+	/**
+	 * The states an id can be in: not in use, registered but not yet in the
+	 * sorted lists, in the sorted lists, or removed but still in the sorted lists.
+	 */
+	private static final byte FREE = 0;
+	private static final byte PENDING = 1;
+	private static final byte SORTED = 2;
+	private static final byte REMOVED = 3;
+
+	/**
+	 * Columns registering for each id its element, its state, its box, the
+	 * positions of its endpoints in the sorted lists and the ids of the sorted
+	 * entries its box overlaps.
+	 */
+	private SpatialElement[] elements = new SpatialElement[16];
+	private byte[] states = new byte[16];
+	private double[][] mins = {new double[16], new double[16]};
+	private double[][] maxs = {new double[16], new double[16]};
+	private int[][] minPositions = {new int[16], new int[16]};
+	private int[][] maxPositions = {new int[16], new int[16]};
+	private int[][] partners = new int[16][];
+	private int[] nbPartners = new int[16];
+
+	/**
+	 * Variable registering the number of pairs of overlapping sorted entries.
+	 */
+	private int nbPairs = 0;
+
+	/**
+	 * The ids of the entries that are not yet in the sorted lists, and for
+	 * each id its index in that list, or -1.
+	 */
+	private int[] pending = new int[16];
+	private int[] pendingIndices = new int[16];
+	private int nbPending = 0;
+
+	/**
+	 * Variable registering the number of removed entries whose endpoints are
+	 * still in the sorted lists.
+	 */
+	private int nbRemoved = 0;
+
+	/**
+	 * Variable registering the number of ids that have ever been used,
+	 * and a stack of ids that have been freed.
+	 */
+	private int nbIds = 0;
+	private int[] freeIds = new int[16];
+	private int nbFreeIds = 0;
+
+	/**
+	 * Variable registering the length of the longest x-interval registered
+	 * since this broadphase was last cleared.
+	 */
+	private double maxLength = 0;
+}
@@ -39,8 +39,23 @@ public class Vector2D {
 	 * 			| result == Math.sqrt(x*x + y*y);
 	 */
 	public double getNorm(){
-		return Math.sqrt(Math.pow(getXComponent(), 2) 
-					+ Math.pow(getYComponent(), 2));
+		return getNorm(getXComponent(), getYComponent());
+	}
+	
+	/**
+	 * Calculate the vector 2-norm of the vector with the given components.
+	 * 
+	 * @param	x
+	 * 			The x-component of the vector.
+	 * @param	y
+	 * 			The y-component of the vector.
+	 * @return	...
+	 * 			| result == Math.sqrt(x*x + y*y)
+	 * @note	This kernel and the other static kernels of this class work on
+	 * 			raw components, so the engine can use them without creating vectors.
+	 */
+	public static double getNorm(double x, double y){
+		return Math.sqrt(x*x + y*y);
 	}
 	
 	/**
@@ -92,8 +107,18 @@ public class Vector2D {
 	 *			|	+ this.getYComponent()*otherVector.getYComponent())
 	 */
 	public double getDotProduct(Vector2D otherVector){
-		return (this.getXComponent()*otherVector.getXComponent()
-					+ this.getYComponent()*otherVector.getYComponent());
+		return getDotProduct(this.getXComponent(), this.getYComponent(),
+					otherVector.getXComponent(), otherVector.getYComponent());
+	}
+	
+	/**
+	 * Calculate the dot product of the vectors with the given components.
+	 * 
+	 * @return	...
+	 * 			| result == x1*x2 + y1*y2
+	 */
+	public static double getDotProduct(double x1, double y1, double x2, double y2){
+		return x1*x2 + y1*y2;
 	}
 	
 	
@@ -124,10 +149,21 @@ public class Vector2D {
 	 * 			| result.getYComponent() == Math.sin(currentDirection)
 	 */
 	public Vector2D getDirection(){
-		double currentDirection = Math.atan2(this.getYComponent(),
-				this.getXComponent());
+		double currentDirection = getAngle(this.getXComponent(), this.getYComponent());
 		return new Vector2D(Math.cos(currentDirection),Math.sin(currentDirection));
 	}
+	
+	/**
+	 * Return the angle of the vector with the given components with the x-axis.
+	 * 
+	 * @return	...
+	 * 			| result == Math.atan2(y, x)
+	 * @note	The direction of the vector is the unit vector with the cosine and
+	 * 			the sine of the resulting angle as its components.
+	 */
+	public static double getAngle(double x, double y){
+		return Math.atan2(y, x);
+	}
 
 	/**
 	 * Check whether this vector and the given two dimensional vector are equal.
@@ -24,6 +24,8 @@ public class WallCollision extends Collision{
 	 * 			The given spatial element for this wall collision.
 	 * @post	...
 	 * 			| (new this).getElement() == element
+	 * @effect	...
+	 * 			| predictTime(element)
 	 * @throws	IllegalArgumentException
 	 * 			...
 	 * 			| !isValidElement(element)
@@ -32,6 +34,7 @@ public class WallCollision extends Collision{
 		if (!isValidElement(element))
 			throw new IllegalArgumentException("Non-valid element given while constructing wall collision.");
 		this.element = element;
+		predictTime(element);
 	}
 	
 	/**
@@ -77,14 +80,7 @@ public class WallCollision extends Collision{
 	 */
 	@Override
 	public double getCollisionTime(){
-		if(getElement().getWorld() != null){
-			double timeTop = getElement().getTimeToHorizontalWallCollision(getElement().getWorld().getHeight());
-			double timeBottom = getElement().getTimeToHorizontalWallCollision(0);
-			double timeRight = getElement().getTimeToVerticalWallCollision(getElement().getWorld().getWidth());;
-			double timeLeft = getElement().getTimeToVerticalWallCollision(0);
-			return Math.min(Math.min(timeTop, timeBottom),Math.min(timeLeft, timeRight));
-		}
-		return Double.POSITIVE_INFINITY;
+		return getElement().getTimeToWallCollision();
 	}
 	
 	/**
@@ -106,25 +102,61 @@ public class WallCollision extends Collision{
 	 */
 	@Override
 	public Vector2D getConnectingEdgePoint(){
-		Vector2D posAtColl = getElement().getPosition();
-		double xComp, yComp, height, width;
-		xComp = posAtColl.getXComponent();
-		yComp = posAtColl.getYComponent();
-		height = getElement().getWorld().getHeight();
-		width = getElement().getWorld().getWidth();
-		
-		if(Math.min(Math.abs(yComp - height), Math.abs(yComp))
-				< Math.min(Math.abs(xComp - width), Math.abs(xComp))){
-			if(Math.abs(yComp - height) < Math.abs(yComp))
-				return new Vector2D(xComp, height);
-			else
-				return new Vector2D(xComp, 0);
-		} else{
-			if(Math.abs(xComp - width) < Math.abs(xComp))
-				return new Vector2D(width, yComp);
-			else
-				return new Vector2D(0, yComp);
-		}
+		double xComp = getElement().getPositionX();
+		double yComp = getElement().getPositionY();
+		double width = getElement().getWorld().getWidth();
+		double height = getElement().getWorld().getHeight();
+		return new Vector2D(getEdgePointX(xComp, yComp, width, height), getEdgePointY(xComp, yComp, width, height));
+	}
+	
+	/**
+	 * Return the x-coordinate of the connecting edge point of a wall collision
+	 * of an element at the given position in a world with the given width and height.
+	 * 
+	 * @param	x
+	 * 			The x-coordinate of the element.
+	 * @param	y
+	 * 			The y-coordinate of the element.
+	 * @param	width
+	 * 			The width of the world.
+	 * @param	height
+	 * 			The height of the world.
+	 * @return	...
+	 * 			| if(min(abs(y - height), abs(y)) < min(abs(x - width), abs(x)))
+	 * 			| then result == x
+	 * 			| else if(abs(x - width) < abs(x))
+	 * 			| then result == width
+	 * 			| else result == 0
+	 * @note	Together with getEdgePointY, this lets a world notify a collision
+	 * 			listener without creating a wall collision.
+	 */
+	static double getEdgePointX(double x, double y, double width, double height) {
+		if (Math.min(Math.abs(y - height), Math.abs(y)) < Math.min(Math.abs(x - width), Math.abs(x)))
+			return x;
+		return (Math.abs(x - width) < Math.abs(x)) ? width : 0;
+	}
+	
+	/**
+	 * Return the y-coordinate of the connecting edge point of a wall collision
+	 * of an element at the given position in a world with the given width and height.
+	 * 
+	 * @param	x
+	 * 			The x-coordinate of the element.
+	 * @param	y
+	 * 			The y-coordinate of the element.
+	 * @param	width
+	 * 			The width of the world.
+	 * @param	height
+	 * 			The height of the world.
+	 * @return	...
+	 * 			| if(min(abs(y - height), abs(y)) < min(abs(x - width), abs(x)))
+	 * 			| then result == (abs(y - height) < abs(y) ? height : 0)
+	 * 			| else result == y
+	 */
+	static double getEdgePointY(double x, double y, double width, double height) {
+		if (Math.min(Math.abs(y - height), Math.abs(y)) < Math.min(Math.abs(x - width), Math.abs(x)))
+			return (Math.abs(y - height) < Math.abs(y)) ? height : 0;
+		return y;
 	}
 	
 	/**
@@ -151,9 +183,9 @@ public class WallCollision extends Collision{
 	 *			| 	   this.getConnectingEdgePoint().getXComponent(),
 	 *			| 	   this.getConnectingEdgePoint().getYComponent())
 	 * @effect	...
-	 * 			| let yPos == getConnectingEdgePoint().getYComponent()
-	 * 			| in getElement().resolveWall(fuzzyEquals(yPos, 0) || 
-	 * 			|	fuzzyEquals(yPos, getElement().getWorld().getHeight()))
+	 * 			| getElement().resolveWall(isHorizontalWall(getElement().getPositionX(),
+	 * 			|	getElement().getPositionY(), getElement().getWorld().getWidth(),
+	 * 			|	getElement().getWorld().getHeight()))
 	 */
 	@Override
 	public void resolve(CollisionListener collisionListener) {
@@ -162,9 +194,31 @@ public class WallCollision extends Collision{
 				this.getConnectingEdgePoint().getXComponent(),
 				this.getConnectingEdgePoint().getYComponent());
 
-		double yPos = getConnectingEdgePoint().getYComponent();
-		
-		getElement().resolveWall(fuzzyEquals(yPos, 0) || fuzzyEquals(yPos, getElement().getWorld().getHeight()));
+		getElement().resolveWall(isHorizontalWall(getElement().getPositionX(), getElement().getPositionY(),
+				getElement().getWorld().getWidth(), getElement().getWorld().getHeight()));
+	}
+	
+	/**
+	 * Check whether an element at the given position collides with a horizontal
+	 * wall of a world with the given width and height, rather than with a
+	 * vertical one.
+	 * 
+	 * @param	x
+	 * 			The x-coordinate of the element.
+	 * @param	y
+	 * 			The y-coordinate of the element.
+	 * @param	width
+	 * 			The width of the world.
+	 * @param	height
+	 * 			The height of the world.
+	 * @return	...
+	 * 			| let yPos == getEdgePointY(x, y, width, height)
+	 * 			| in result == fuzzyEquals(yPos, 0) || fuzzyEquals(yPos, height)
+	 * @note	This lets a world resolve a wall collision without creating it.
+	 */
+	static boolean isHorizontalWall(double x, double y, double width, double height) {
+		double yPos = getEdgePointY(x, y, width, height);
+		return fuzzyEquals(yPos, 0) || fuzzyEquals(yPos, height);
 	}
 
 	/**
@@ -181,4 +235,12 @@ public class WallCollision extends Collision{
 		allElements.add(getElement());
 		return allElements;
 	}
+	
+	/**
+	 * Add all spatial elements involved in this collision to the given collection.
+	 */
+	@Override
+	public void addAllElementsTo(Collection<? super SpatialElement> elements) {
+		elements.add(getElement());
+	}
 }
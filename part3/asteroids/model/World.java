@@ -1,6 +1,8 @@
 package asteroids.model;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 // import static asteroids.Util.*;
 import asteroids.CollisionListener;
 import be.kuleuven.cs.som.annotate.*;
@@ -72,11 +74,12 @@ public class World{
 	 */
 	public void terminate() throws NullPointerException, IllegalArgumentException{
 		if (!isTerminated()) {
-			Set<SpatialElement> clonedSet = new HashSet<SpatialElement>(elements);
+			Set<SpatialElement> clonedSet = new LinkedHashSet<SpatialElement>(elements);
 			for (SpatialElement element : clonedSet) {
 				// Element from elements cannot be null (invariant)
 				element.terminate();
 			}
+			recycledAsteroids.clear();
 			this.isTerminated = true;
 		}
 	}
@@ -181,14 +184,34 @@ public class World{
 	 * 			|	result.contains(ship))
 	 * 			| && (for all ship in result
 	 * 			|	   this.hasAsSpatialElement(ship))
+	 * @note	The result is a snapshot that does not change when ships are added
+	 * 			to or removed from this world. Use getShipsView() to inspect the
+	 * 			ships without copying them.
 	 */
 	public Set<Ship> getShips() {
-		Set<Ship> allShips = new HashSet<Ship>();
-		for (SpatialElement element : elements) {
-			if (element.isShip())
-				allShips.add((Ship) element);
-		}
-		return allShips;
+		return new LinkedHashSet<Ship>(ships);
+	}
+	
+	/**
+	 * Get an unmodifiable view on the ships in this game world.
+	 * 
+	 * @return	...
+	 * 			| result.equals(getShips())
+	 * @note	The view reflects later changes of this world. It must not be
+	 * 			iterated while ships are added to or removed from this world.
+	 */
+	public Set<Ship> getShipsView() {
+		return shipsView;
+	}
+	
+	/**
+	 * Return the number of ships in this game world.
+	 * 
+	 * @return	...
+	 * 			| result == getShips().size()
+	 */
+	public int getNbShips() {
+		return ships.size();
 	}
 	
 	/**
@@ -202,14 +225,31 @@ public class World{
 	 * 			|	result.contains(bullet))
 	 * 			| && (for all bullet in result
 	 * 			|	   this.hasAsSpatialElement(bullet))
+	 * @note	The result is a snapshot, see getShips().
 	 */
 	public Set<Bullet> getBullets() {
-		Set<Bullet> allBullets = new HashSet<Bullet>();
-		for (SpatialElement element : elements) {
-			if (element.isBullet())
-				allBullets.add((Bullet) element);
-		}
-		return allBullets;
+		return new LinkedHashSet<Bullet>(bullets);
+	}
+	
+	/**
+	 * Get an unmodifiable view on the bullets in this game world.
+	 * 
+	 * @return	...
+	 * 			| result.equals(getBullets())
+	 * @note	The view reflects later changes of this world, see getShipsView().
+	 */
+	public Set<Bullet> getBulletsView() {
+		return bulletsView;
+	}
+	
+	/**
+	 * Return the number of bullets in this game world.
+	 * 
+	 * @return	...
+	 * 			| result == getBullets().size()
+	 */
+	public int getNbBullets() {
+		return bullets.size();
 	}
 
 	/**
@@ -223,16 +263,52 @@ public class World{
 	 * 			|	result.contains(asteroid))
 	 * 			| && (for all asteroid in result
 	 * 			|	   this.hasAsSpatialElement(asteroid))
+	 * @note	The result is a snapshot, see getShips().
 	 */
 	public Set<Asteroid> getAsteroids() {
-		Set<Asteroid> allAsteroids = new HashSet<Asteroid>();
-		for (SpatialElement element : elements) {
-			if (element.isAsteroid())
-				allAsteroids.add((Asteroid) element);
-		}
-		return allAsteroids;
+		return new LinkedHashSet<Asteroid>(asteroids);
+	}
+	
+	/**
+	 * Get an unmodifiable view on the asteroids in this game world.
+	 * 
+	 * @return	...
+	 * 			| result.equals(getAsteroids())
+	 * @note	The view reflects later changes of this world, see getShipsView().
+	 */
+	public Set<Asteroid> getAsteroidsView() {
+		return asteroidsView;
+	}
+	
+	/**
+	 * Return the number of asteroids in this game world.
+	 * 
+	 * @return	...
+	 * 			| result == getAsteroids().size()
+	 */
+	public int getNbAsteroids() {
+		return asteroids.size();
 	}
 	
+	/**
+	 * Sets registering the ships, bullets and asteroids of this world.
+	 * 
+	 * @invar	Each set holds exactly the elements of this world of its kind.
+	 * 			| ships.equals({element in elements | element.isShip()})
+	 * 			|	&& bullets.equals({element in elements | element.isBullet()})
+	 * 			|	&& asteroids.equals({element in elements | element.isAsteroid()})
+	 */
+	private final Set<Ship> ships = new LinkedHashSet<Ship>();
+	private final Set<Bullet> bullets = new LinkedHashSet<Bullet>();
+	private final Set<Asteroid> asteroids = new LinkedHashSet<Asteroid>();
+	
+	/**
+	 * Unmodifiable views on the sets of ships, bullets and asteroids of this world.
+	 */
+	private final Set<Ship> shipsView = Collections.unmodifiableSet(ships);
+	private final Set<Bullet> bulletsView = Collections.unmodifiableSet(bullets);
+	private final Set<Asteroid> asteroidsView = Collections.unmodifiableSet(asteroids);
+	
 	/**
 	 * Check whether the given element overlaps with other elements in this world.
 	 * 
@@ -244,14 +320,332 @@ public class World{
 	 * @throws	NullPointerException
 	 * 			The given element is not effective.
 	 * 			| element == null
+	 * @note	If this world has a broadphase, or while addAll checks a large batch
+	 * 			with a grid, only the elements it returns for the box of the given
+	 * 			element are checked, and their slots are gathered in a reused array.
 	 */
 	public SpatialElement getIllegalOverlap(SpatialElement element) throws NullPointerException{
-		for (SpatialElement otherElement: elements){
-			if(element.overlap(otherElement) && element.isValidObjectCollision(otherElement)){
-				return otherElement;
+		Broadphase index = (overlapGrid != null) ? overlapGrid : getBroadphase();
+		if (index == null) {
+			for (SpatialElement otherElement: elements) {
+				if (element.overlap(otherElement) && element.isValidObjectCollision(otherElement))
+					return otherElement;
 			}
+			return null;
 		}
-		return null;
+		if (overlapSlots.length < index.getNbElements())
+			overlapSlots = new int[Math.max(index.getNbElements(), 2*overlapSlots.length)];
+		double x = element.getPositionX();
+		double y = element.getPositionY();
+		double radius = element.getRadius();
+		int nbFound = index.getCandidates(x - radius, y - radius, x + radius, y + radius, overlapSlots);
+		SpatialElement overlappingElement = null;
+		for (int k = 0; k < nbFound; k++) {
+			int slot = overlapSlots[k];
+			// A broadphase still holds removed elements until they are swept.
+			if (slot < 0 || slots[slot] == null)
+				continue;
+			SpatialElement otherElement = slots[slot];
+			// The overlapping element in the smallest slot is returned, whatever
+			// the order in which the index reports its candidates.
+			if ((overlappingElement == null || slot < overlappingElement.getSlot())
+					&& element.overlap(otherElement) && element.isValidObjectCollision(otherElement))
+				overlappingElement = otherElement;
+		}
+		return overlappingElement;
+	}
+	
+	/**
+	 * Array of which the front holds the slots of the candidates found by
+	 * getIllegalOverlap.
+	 */
+	private int[] overlapSlots = new int[16];
+	
+	/**
+	 * Grid holding all elements of this world while addAll checks the overlaps
+	 * of a large batch in a world without a broadphase, or null otherwise.
+	 * 
+	 * @note	Elements that are added or removed while the batch is added, for
+	 * 			instance when resolving the initial condition of one of its
+	 * 			elements, are added to or removed from the grid as well, so it
+	 * 			is only built once for the whole batch.
+	 */
+	private SpatialGrid overlapGrid = null;
+	
+	/**
+	 * Return the element of the given kind in this world that is nearest to the given element.
+	 * 
+	 * @param	element
+	 * 			The element to search from.
+	 * @param	kind
+	 * 			The class of the elements to search for.
+	 * @return	...
+	 * 			| if(getKNearest(element, kind, 1).isEmpty())
+	 * 			| then result == null
+	 * 			| else result == getKNearest(element, kind, 1).get(0)
+	 * @throws	NullPointerException
+	 * 			...
+	 * 			| (element == null) || (kind == null)
+	 */
+	public <T extends SpatialElement> T getNearest(SpatialElement element, Class<T> kind)
+			throws NullPointerException {
+		List<T> nearest = getKNearest(element, kind, 1);
+		if (nearest.isEmpty())
+			return null;
+		return nearest.get(0);
+	}
+	
+	/**
+	 * Return the given number of elements of the given kind in this world that are
+	 * nearest to the given element, ordered by increasing distance.
+	 * 
+	 * @param	element
+	 * 			The element to search from.
+	 * @param	kind
+	 * 			The class of the elements to search for.
+	 * @param	number
+	 * 			The number of elements to return.
+	 * @return	...
+	 * 			| result.size() == min(number,
+	 * 			|	#{other in elements | kind.isInstance(other) && other != element})
+	 * @return	...
+	 * 			| for each other in elements:
+	 * 			|	if(kind.isInstance(other) && other != element && !result.contains(other))
+	 * 			|	then for each found in result:
+	 * 			|		element.getDistanceBetween(found) <= element.getDistanceBetween(other)
+	 * @return	...
+	 * 			| for each i in 1..result.size()-1:
+	 * 			|	element.getDistanceBetween(result.get(i-1)) <= element.getDistanceBetween(result.get(i))
+	 * @throws	NullPointerException
+	 * 			...
+	 * 			| (element == null) || (kind == null)
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| number < 0
+	 * @note	If this world has a broadphase, a square around the element is
+	 * 			queried and doubled until it holds enough elements that are
+	 * 			certainly nearer than any element outside it, so only the
+	 * 			neighbourhood of the element is inspected.
+	 */
+	public <T extends SpatialElement> List<T> getKNearest(final SpatialElement element, Class<T> kind, int number)
+			throws NullPointerException, IllegalArgumentException {
+		if (element == null || kind == null)
+			throw new NullPointerException("Non-effective element or kind for a query.");
+		if (number < 0)
+			throw new IllegalArgumentException("Negative number of elements for a query.");
+		List<T> found = new ArrayList<T>();
+		if (number == 0)
+			return found;
+		double x = element.getPositionX();
+		double y = element.getPositionY();
+		double radius = element.getRadius();
+		double reach = radius + getQuerySpacing(kind);
+		while (true) {
+			boolean complete = !hasBroadphase() || reach >= getQueryLimit();
+			found.clear();
+			Collection<? extends SpatialElement> candidates = complete ? getElementsOfKind(kind)
+					: getBroadphase().getCandidates(x - reach, y - reach, x + reach, y + reach);
+			for (SpatialElement candidate: candidates)
+				if (candidate != element && candidate.getWorld() == this && kind.isInstance(candidate))
+					found.add(kind.cast(candidate));
+			Collections.sort(found, new Comparator<T>() {
+				@Override
+				public int compare(T element1, T element2) {
+					return Double.compare(element.getDistanceBetween(element1), element.getDistanceBetween(element2));
+				}
+			});
+			// Any element outside the square lies further than its reach beyond the element.
+			if (complete || (found.size() >= number
+					&& element.getDistanceBetween(found.get(number - 1)) <= reach - radius))
+				break;
+			reach *= 2;
+		}
+		if (found.size() > number)
+			found.subList(number, found.size()).clear();
+		return found;
+	}
+	
+	/**
+	 * Return all elements of the given kind in this world that lie within the
+	 * given distance of the given element.
+	 * 
+	 * @param	element
+	 * 			The element to search from.
+	 * @param	distance
+	 * 			The largest distance between the boundaries of the elements.
+	 * @param	kind
+	 * 			The class of the elements to search for.
+	 * @return	...
+	 * 			| result.equals({other in elements | kind.isInstance(other) && other != element
+	 * 			|	&& element.getDistanceBetween(other) <= distance})
+	 * @throws	NullPointerException
+	 * 			...
+	 * 			| (element == null) || (kind == null)
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| Double.isNaN(distance)
+	 */
+	public <T extends SpatialElement> Set<T> getWithinRadius(SpatialElement element, double distance, Class<T> kind)
+			throws NullPointerException, IllegalArgumentException {
+		if (element == null || kind == null)
+			throw new NullPointerException("Non-effective element or kind for a query.");
+		if (Double.isNaN(distance))
+			throw new IllegalArgumentException("Invalid distance for a query.");
+		Set<T> found = new HashSet<T>();
+		double x = element.getPositionX();
+		double y = element.getPositionY();
+		double reach = element.getRadius() + distance;
+		Collection<? extends SpatialElement> candidates = (!hasBroadphase() || reach >= getQueryLimit())
+				? getElementsOfKind(kind) : getBroadphase().getCandidates(x - reach, y - reach, x + reach, y + reach);
+		for (SpatialElement candidate: candidates)
+			if (candidate != element && candidate.getWorld() == this && kind.isInstance(candidate)
+					&& element.getDistanceBetween(candidate) <= distance)
+				found.add(kind.cast(candidate));
+		return found;
+	}
+	
+	/**
+	 * Return the first element of the given kind in this world hit by a ray
+	 * cast from the centre of the given ship along its heading.
+	 * 
+	 * @param	ship
+	 * 			The ship to cast the ray from.
+	 * @param	kind
+	 * 			The class of the elements to search for.
+	 * @return	...
+	 * 			| result == getFirstHit(ship, ship.getAngle(), Double.POSITIVE_INFINITY, kind)
+	 * @throws	NullPointerException
+	 * 			...
+	 * 			| (ship == null) || (kind == null)
+	 */
+	public <T extends SpatialElement> T getFirstHit(Ship ship, Class<T> kind) throws NullPointerException {
+		if (ship == null)
+			throw new NullPointerException("Non-effective ship for a query.");
+		return getFirstHit(ship, ship.getAngle(), Double.POSITIVE_INFINITY, kind);
+	}
+	
+	/**
+	 * Return the first element of the given kind in this world hit by a ray
+	 * cast from the centre of the given element in the given direction, up to
+	 * the given distance.
+	 * 
+	 * @param	element
+	 * 			The element to cast the ray from.
+	 * @param	angle
+	 * 			The direction of the ray in radians.
+	 * @param	maxDistance
+	 * 			The length of the ray.
+	 * @param	kind
+	 * 			The class of the elements to search for.
+	 * @return	The element whose disc the ray enters first, or null if the ray
+	 * 			hits no element of the given kind other than the given element.
+	 * 			An element whose disc contains the centre of the given element
+	 * 			is hit immediately.
+	 * 			| if(result != null)
+	 * 			| then kind.isInstance(result) && result != element
+	 * @throws	NullPointerException
+	 * 			...
+	 * 			| (element == null) || (kind == null)
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| Double.isNaN(angle) || Double.isInfinite(angle) || Double.isNaN(maxDistance)
+	 * @note	If this world has a broadphase, the ray is traced in segments of
+	 * 			doubling length, and only the elements around each segment are
+	 * 			tested, until a hit is found before the end of a segment.
+	 */
+	public <T extends SpatialElement> T getFirstHit(SpatialElement element, double angle, double maxDistance, Class<T> kind)
+			throws NullPointerException, IllegalArgumentException {
+		if (element == null || kind == null)
+			throw new NullPointerException("Non-effective element or kind for a query.");
+		if (Double.isNaN(angle) || Double.isInfinite(angle) || Double.isNaN(maxDistance))
+			throw new IllegalArgumentException("Invalid ray for a query.");
+		double x = element.getPositionX();
+		double y = element.getPositionY();
+		double directionX = Math.cos(angle);
+		double directionY = Math.sin(angle);
+		// No element lies further away than the diagonal of this world.
+		double length = Math.min(maxDistance, getQueryLimit());
+		T hit = null;
+		double hitDistance = Double.POSITIVE_INFINITY;
+		double start = 0;
+		double end = hasBroadphase() ? Math.min(length, element.getRadius() + getQuerySpacing(kind)) : length;
+		while (start <= end) {
+			Collection<? extends SpatialElement> candidates;
+			if (hasBroadphase()) {
+				double startX = x + directionX*start, startY = y + directionY*start;
+				double endX = x + directionX*end, endY = y + directionY*end;
+				candidates = getBroadphase().getCandidates(Math.min(startX, endX), Math.min(startY, endY),
+						Math.max(startX, endX), Math.max(startY, endY));
+			} else {
+				candidates = getElementsOfKind(kind);
+			}
+			for (SpatialElement candidate: candidates) {
+				if (candidate == element || candidate.getWorld() != this || !kind.isInstance(candidate))
+					continue;
+				double distance = getRayDistance(x, y, directionX, directionY, candidate);
+				if (distance < hitDistance) {
+					hit = kind.cast(candidate);
+					hitDistance = distance;
+				}
+			}
+			// Elements the ray enters before the end of this segment intersect
+			// this segment or an earlier one.
+			if (hitDistance <= end || end >= length)
+				break;
+			start = end;
+			end = Math.min(length, 2*end);
+		}
+		if (hitDistance > length)
+			return null;
+		return hit;
+	}
+	
+	/**
+	 * Return the distance along the given ray at which it enters the disc
+	 * of the given element, or positive infinity if it misses the disc.
+	 */
+	private static double getRayDistance(double x, double y, double directionX, double directionY,
+			SpatialElement element) {
+		double offsetX = x - element.getPositionX();
+		double offsetY = y - element.getPositionY();
+		double projection = offsetX*directionX + offsetY*directionY;
+		double excess = offsetX*offsetX + offsetY*offsetY - element.getRadius()*element.getRadius();
+		if (excess <= 0)
+			return 0;
+		if (projection > 0)
+			return Double.POSITIVE_INFINITY;
+		double discriminant = projection*projection - excess;
+		if (discriminant < 0)
+			return Double.POSITIVE_INFINITY;
+		return -projection - Math.sqrt(discriminant);
+	}
+	
+	/**
+	 * Return all elements of this world that may be of the given kind.
+	 */
+	private Collection<? extends SpatialElement> getElementsOfKind(Class<?> kind) {
+		if (kind == Ship.class)
+			return ships;
+		if (kind == Bullet.class)
+			return bullets;
+		if (kind == Asteroid.class)
+			return asteroids;
+		return elements;
+	}
+	
+	/**
+	 * Return the average spacing between the elements of the given kind in this
+	 * world, used as the first reach of queries.
+	 */
+	private double getQuerySpacing(Class<?> kind) {
+		return Math.sqrt(getWidth()*getHeight() / Math.max(1, getElementsOfKind(kind).size()));
+	}
+	
+	/**
+	 * Return the reach beyond which a query inspects all elements of this world.
+	 */
+	private double getQueryLimit() {
+		return Math.hypot(getWidth(), getHeight());
 	}
 	
 	/**
@@ -266,10 +660,10 @@ public class World{
 	 */
 	public boolean withinBounds(SpatialElement element){
 		return (element != null && 
-				(0 < element.getPosition().getXComponent() - element.getRadius())
-				&& (0 < element.getPosition().getYComponent() - element.getRadius())
-				&& (element.getPosition().getXComponent() + element.getRadius() < getWidth())
-				&& element.getPosition().getYComponent() + element.getRadius() < getHeight());
+				(0 < element.getPositionX() - element.getRadius())
+				&& (0 < element.getPositionY() - element.getRadius())
+				&& (element.getPositionX() + element.getRadius() < getWidth())
+				&& element.getPositionY() + element.getRadius() < getHeight());
 	}
 	
 	/**
@@ -342,14 +736,12 @@ public class World{
 	 * 			| 	then (new element).isTerminated() 
 	 * 			|			&& !(new this).hasAsSpatialElement(element)
 	 * @effect	...
-	 * 			| if(withinBound(element) && getIllegalOverlap(element) != null)
-	 * 			| 	then element.resolveInitialCondition(getIllegalOverlap(element))
+	 * 			| placeElement(element)
 	 * @post	...
 	 * 			| if(withinBound(element) && getIllegalOverlap(element) == null)
 	 * 			|	then (hasAsSpatialElement(element) && element.getWorld == this)
-	 * @effect	...
-	 * 			| if(withinBound(element) && getIllegalOverlap(element) == null)
-	 * 			|	this.addAsCollision(element)
+	 * @effect	The collisions of the element are predicted as if by addAsCollision.
+	 * 			| predictPlacedElements()
 	 * @throws 	IllegalArgumentException
 	 * 			This world can not have the given element as Spatial element.
 	 *          | !canHaveAsSpatialElement(element)
@@ -363,22 +755,223 @@ public class World{
 			throw new IllegalArgumentException("Element can't be added to the game world.");
 		if (element.getWorld() != null)
 			throw new IllegalArgumentException("Element already refers to a world.");
-		if (!withinBounds(element)){
+		placeElement(element);
+		predictPlacedElements();
+	}
+
+	/**
+	 * Add all given spatial elements to this world, in the order of the given
+	 * collection.
+	 * 
+	 * @param	newElements
+	 * 			The spatial elements to be added.
+	 * @effect	Each element is added as if it were added on its own, after all
+	 * 			elements before it in the given collection.
+	 * 			| for each element in newElements:
+	 * 			|	addAsSpatialElement(element)
+	 * @throws	NullPointerException
+	 * 			The given collection is not effective.
+	 * 			| newElements == null
+	 * @throws	IllegalArgumentException
+	 * 			This world can not have one of the given elements as spatial element.
+	 * 			| for some element in newElements:
+	 * 			|	!canHaveAsSpatialElement(element)
+	 * @throws	IllegalArgumentException
+	 * 			One of the given elements already has a world associated to it,
+	 * 			or appears more than once in the given collection.
+	 * 			| for some element in newElements:
+	 * 			|	element.getWorld() != null
+	 * @note	All elements are checked before any of them is added, so nothing
+	 * 			is added if an exception is thrown.
+	 * @note	Overlaps are found with the broadphase of this world if it has one,
+	 * 			and otherwise for batches larger than getMinGridBatchSize() with a grid
+	 * 			built once for the whole batch, rather than by scanning all elements
+	 * 			for each new element. The grid is also used for a batch at least as
+	 * 			large as this world if its broadphase registers batches faster, so
+	 * 			that the batch is registered in it at once. The grid is kept up to
+	 * 			date while the batch is added, also when resolving an initial
+	 * 			condition changes this world.
+	 * @note	The collisions of the added elements are predicted together, in the
+	 * 			stages of updateElementCollisions, in groups of getMaxBatchSize()
+	 * 			elements, so the arrays of pairs stay small. Without a broadphase
+	 * 			the groups are smaller, so that no more than getMaxNbBatchPairs()
+	 * 			pairs are collected at once.
+	 */
+	public void addAll(Collection<? extends SpatialElement> newElements)
+			throws NullPointerException, IllegalArgumentException {
+		Set<SpatialElement> checked = new HashSet<SpatialElement>(2*newElements.size());
+		double maxRadius = 0;
+		for (SpatialElement element: newElements) {
+			if (!canHaveAsSpatialElement(element))
+				throw new IllegalArgumentException("Element can't be added to the game world.");
+			if (element.getWorld() != null || !checked.add(element))
+				throw new IllegalArgumentException("Element already refers to a world.");
+			maxRadius = Math.max(maxRadius, element.getRadius());
+		}
+		ensureSlotCapacity(nbSlots + newElements.size());
+		// With a broadphase, a grid only pays off if the batch can then be registered
+		// in the broadphase at once, and the batch is as large as this world.
+		boolean ownsGrid = overlapGrid == null && newElements.size() > getMinGridBatchSize()
+				&& (!hasBroadphase() || (getBroadphase().isBatchInsertionFaster()
+						&& newElements.size() >= elements.size()));
+		if (ownsGrid) {
+			overlapGrid = new SpatialGrid(2*maxRadius, 1);
+			for (SpatialElement otherElement: elements)
+				overlapGrid.add(otherElement, 0);
+		}
+		try {
+			for (SpatialElement element: newElements) {
+				placeElement(element);
+				// Without a broadphase, each placed element is paired with all elements.
+				if (placedElements.size() >= getMaxBatchSize() || (!hasBroadphase()
+						&& (long) placedElements.size()*elements.size() > getMaxNbBatchPairs()))
+					predictPlacedElements();
+			}
+			predictPlacedElements();
+		} finally {
+			if (ownsGrid)
+				overlapGrid = null;
+		}
+	}
+	
+	/**
+	 * Return the number of elements above which addAll may find overlaps with
+	 * a grid instead of the broadphase of this world or a scan of all elements.
+	 */
+	@Immutable
+	public static int getMinGridBatchSize() {
+		return minGridBatchSize;
+	}
+	
+	/**
+	 * Variable registering the number of elements above which addAll may find
+	 * overlaps with a grid.
+	 */
+	private static final int minGridBatchSize = 16;
+	
+	/**
+	 * Return the largest number of elements of which addAll predicts the
+	 * collisions at once.
+	 */
+	@Immutable
+	public static int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+	
+	/**
+	 * Variable registering the largest number of elements of which addAll
+	 * predicts the collisions at once.
+	 */
+	private static final int maxBatchSize = 1024;
+	
+	/**
+	 * Return the largest number of pairs addAll collects at once in a world
+	 * without a broadphase.
+	 */
+	@Immutable
+	public static int getMaxNbBatchPairs() {
+		return maxNbBatchPairs;
+	}
+	
+	/**
+	 * Variable registering the largest number of pairs addAll collects at once
+	 * in a world without a broadphase.
+	 */
+	private static final int maxNbBatchPairs = 1 << 16;
+	
+	/**
+	 * Associate the given element with this world without predicting its
+	 * collisions, unless it lies outside this world or overlaps with one of
+	 * its elements.
+	 * 
+	 * @param	element
+	 * 			The element to place.
+	 * @post	...
+	 * 			| if(!withinBound(element))
+	 * 			| 	then (new element).isTerminated() 
+	 * 			|			&& !(new this).hasAsSpatialElement(element)
+	 * @effect	...
+	 * 			| if(withinBound(element) && getIllegalOverlap(element) != null)
+	 * 			| 	then element.resolveInitialCondition(getIllegalOverlap(element))
+	 * @post	...
+	 * 			| if(withinBound(element) && getIllegalOverlap(element) == null)
+	 * 			|	then (new this).hasAsSpatialElement(element) && (new element).getWorld() == this
+	 * 			|		&& (new this).placedElements.contains(element)
+	 * @effect	...
+	 * 			| if(withinBound(element) && getIllegalOverlap(element) == null)
+	 * 			|	then register(element) && element.updateAcceleration() && allocateSlot(element)
+	 * @effect	...
+	 * 			| if(withinBound(element) && getIllegalOverlap(element) == null && overlapGrid != null)
+	 * 			|	then overlapGrid.add(element, 0)
+	 * @effect	...
+	 * 			| if(withinBound(element) && getIllegalOverlap(element) == null && overlapGrid == null
+	 * 			|		&& hasBroadphase())
+	 * 			|	then getBroadphase().add(element, getTimeToGridRebuild())
+	 * @note	The element is added right away to the grid or the broadphase that
+	 * 			finds the overlaps, so the next elements of a batch are checked
+	 * 			against it. Its collisions are only predicted together with those
+	 * 			of the other placed elements, see predictPlacedElements.
+	 */
+	private void placeElement(SpatialElement element) {
+		if (!withinBounds(element)) {
 			// do not add the element and terminate it
 			element.terminate();
-		} else {
-			SpatialElement overlappingElement = getIllegalOverlap(element);
-			if(overlappingElement != null){
-				// do not add the element and resolve
-				element.resolveInitialCondition(overlappingElement);
-			} else {
-				elements.add(element);
-				element.setWorld(this);
-				this.addAsCollision(element);
-			}
+			return;
+		}
+		SpatialElement overlappingElement = getIllegalOverlap(element);
+		if (overlappingElement != null) {
+			// do not add the element and resolve
+			element.resolveInitialCondition(overlappingElement);
+			return;
 		}
+		elements.add(element);
+		register(element);
+		element.setWorld(this);
+		// Without a slot, setting the acceleration does not predict the element yet.
+		element.updateAcceleration();
+		allocateSlot(element);
+		if (overlapGrid != null)
+			overlapGrid.add(element, 0);
+		else if (hasBroadphase())
+			getBroadphase().add(element, getTimeToGridRebuild());
+		placedElements.add(element);
 	}
-
+	
+	/**
+	 * Predict the collisions of all elements placed in this world since they
+	 * were last predicted.
+	 * 
+	 * @effect	...
+	 * 			| if(overlapGrid != null && hasBroadphase())
+	 * 			| then getBroadphase().addAll(placedElements, getTimeToGridRebuild())
+	 * @effect	...
+	 * 			| scheduleCollisions(placedElements)
+	 * @post	...
+	 * 			| (new this).placedElements.isEmpty()
+	 * @note	Elements placed while a grid finds the overlaps are not yet in the
+	 * 			broadphase, and the grid is only dropped after the placed elements
+	 * 			are predicted, so they are all registered here in one batch.
+	 * @note	Every method that predicts, invalidates or removes the collisions
+	 * 			of elements first calls this method, so the placed elements are
+	 * 			never predicted twice, nor paired with an element that has left
+	 * 			this world. Resolving the initial condition of an element of a
+	 * 			batch therefore only costs a prediction if it changes this world.
+	 */
+	private void predictPlacedElements() {
+		if (placedElements.isEmpty())
+			return;
+		if (overlapGrid != null && hasBroadphase())
+			getBroadphase().addAll(placedElements, getTimeToGridRebuild());
+		scheduleCollisions(placedElements);
+		placedElements.clear();
+	}
+	
+	/**
+	 * List holding the elements placed in this world of which the collisions
+	 * have not been predicted yet, in the order in which they were placed.
+	 */
+	private final List<SpatialElement> placedElements = new ArrayList<SpatialElement>();
+	
 	/**
 	 * Remove the association between the given spatial element and this world.
 	 * 
@@ -388,166 +981,2719 @@ public class World{
 	 * 			removing it from the list of elements and setting
 	 * 			its world to null.
 	 * 			| elements.remove(element)
+	 * 			| unregister(element)
 	 *			| element.setWorld(null)
+	 * @effect	The given element no longer accelerates.
+	 * 			| element.updateAcceleration()
 	 * @effect	The given element no longer appears in the list of collisions.
-	 * 			| removeAsCollision(element)
+	 * 			| releaseSlot(element)
+	 * @effect	...
+	 * 			| if(overlapGrid != null)
+	 * 			| then overlapGrid.remove(element)
+	 * @effect	...
+	 * 			| if(!isEvolving())
+	 * 			| then sweepRemovedElements()
 	 * @throws 	IllegalArgumentException
 	 * 			Check if this world has the given element associated to it.
 	 *          | ! hasAsSpatialElement(element)
+	 * @note	While this world evolves, the element only leaves the broadphase
+	 * 			and its slot only becomes free when the removed elements are
+	 * 			swept at the end of the current step, so an event destroying
+	 * 			several elements does not pay for each of them separately.
 	 */
 	public void removeAsSpatialElement(SpatialElement element)
 			throws IllegalArgumentException {
 		if (!this.hasAsSpatialElement(element))
 			throw new IllegalArgumentException("Element not assigned to this world.");
+		predictPlacedElements();
+		releaseSlot(element);
 		elements.remove(element);
-		removeAsCollision(element);
+		unregister(element);
+		if (overlapGrid != null)
+			overlapGrid.remove(element);
 		element.setWorld(null);
+		element.updateAcceleration();
+		if (!isEvolving())
+			sweepRemovedElements();
 	}
-
+	
 	/**
-	 * Variable referencing an array containing all the spatial elements
-	 * registered in this world.
+	 * Remove all elements removed from this world since the last sweep from
+	 * the broadphase of this world and free their slots.
 	 * 
-	 * @invar 	The referenced array is effective. 
-	 * 			| elements != null
-	 * @invar 	This world can have each element of elements as a spatial element. 
-	 *        	| for each element in elements: 
-	 *        	| canHaveAsSpatialElement(element)
-	 * @invar	Each element in the set has this world as associated world.
-	 * 			| for each element in elements:
-	 * 			| (element.getWorld() == this)
+	 * @post	...
+	 * 			| for each element removed from this world since the last sweep:
+	 * 			|	if(element.getWorld() != this && hasBroadphase())
+	 * 			|	then !getBroadphase().contains(element)
+	 * @post	...
+	 * 			| for each element removed from this world since the last sweep:
+	 * 			|	if(element.getWorld() == null)
+	 * 			|	then element.getSlot() == -1
+	 * @effect	...
+	 * 			| if(nbOutdatedCollisions > getMaxNbOutdatedCollisions())
+	 * 			| then removeOutdatedCollisions()
+	 * @note	An element that was added to this world again since it was
+	 * 			removed keeps its new registration.
 	 */
-	private final Set<SpatialElement> elements = new HashSet<SpatialElement>();
+	private void sweepRemovedElements() {
+		for (int i = 0; i < nbRemovedSlots; i++) {
+			SpatialElement element = removedElements[i];
+			if (element.getWorld() != this && hasBroadphase())
+				getBroadphase().remove(element);
+			if (element.getWorld() == null)
+				element.setSlot(-1);
+			freeSlots[nbFreeSlots] = removedSlots[i];
+			nbFreeSlots++;
+			removedElements[i] = null;
+		}
+		nbRemovedSlots = 0;
+		if (nbOutdatedCollisions > getMaxNbOutdatedCollisions())
+			removeOutdatedCollisions();
+	}
 	
 	/**
-	 * Check whether this world has the given collision associated with it.
+	 * Return whether this world recycles the bullets and asteroids that are
+	 * terminated while they belong to it.
+	 */
+	@Basic
+	public boolean isRecyclingElements() {
+		return this.recyclingElements;
+	}
+	
+	/**
+	 * Set whether this world recycles the bullets and asteroids that are
+	 * terminated while they belong to it.
 	 * 
-	 * @return	True if and only if the list of collisions 
-	 * 			of this world contains the given collision.
-	 * 			| result == collisions.contains(collision)
+	 * @param	recyclingElements
+	 * 			Whether elements are recycled.
+	 * @post	...
+	 * 			| (new this).isRecyclingElements() == recyclingElements
+	 * @post	...
+	 * 			| if(!recyclingElements)
+	 * 			| then no asteroids are held for recycling by this world
+	 * @note	A recycled bullet is fired again by its own ship, and a recycled
+	 * 			asteroid is revived as a child of a splitting asteroid with the same
+	 * 			radius. A revived element is the same object as the terminated one,
+	 * 			so this should only be enabled if no references to terminated
+	 * 			elements are kept outside this world.
 	 */
-	public boolean hasAsCollision(Collision collision) {
-		return collisions.contains(collision);
+	public void setRecyclingElements(boolean recyclingElements) {
+		this.recyclingElements = recyclingElements;
+		if (!recyclingElements)
+			recycledAsteroids.clear();
 	}
 	
 	/**
-	 * Get all the collisions within this world.
+	 * Variable registering whether this world recycles elements.
+	 */
+	private boolean recyclingElements = false;
+	
+	/**
+	 * Return whether the ships of this world thrust continuously.
 	 * 
-	 * @return 	A set containing all the collisions associated with this world.
-	 * 			| let result == Set<Collision>
-	 * 			| in
-	 * 			| for each collision in result
-	 * 			|	this.hasAsCollision(collision)
-	 * 			| && for each collision in this.collisions
-	 * 			|		result.contains(collision)
+	 * @note	A ship with an active thruster in a world with continuous thrust
+	 * 			accelerates during each step of this world, until it reaches its
+	 * 			maximum speed. Otherwise its velocity is increased once at the end
+	 * 			of each step, by the thrust over the whole step.
 	 */
-	public Set<Collision> getCollisions() {
-		Set<Collision> collisionsGet = new HashSet<Collision>();
-		for(Collision collision: collisions) {
-			collisionsGet.add(collision);
-		}
-		return collisionsGet;
+	@Basic
+	public boolean isContinuousThrust() {
+		return this.continuousThrust;
 	}
 	
 	/**
-	 * Add all collisions with the given element involved 
-	 * to the set of upcoming collisions of this world.
+	 * Set whether the ships of this world thrust continuously.
 	 * 
-	 * @param	element
-	 * 			The element to add collisions of.
-	 * @effect	...
-	 * 			| for each element2 in {element | element in elements && 
-	 * 			|		element1.getTimeToCollision(element2) != Double.POSITIVE_INFINITY
-	 * 			|		&& element1.isValidObjectCollision(element2)}:
-	 * 			|	collisions.add(new ObjectCollision(element2,element1))
+	 * @param	continuousThrust
+	 * 			Whether the ships thrust continuously.
+	 * @post	...
+	 * 			| (new this).isContinuousThrust() == continuousThrust
 	 * @effect	...
-	 * 			| collisions.add(new WallCollision(element1))
+	 * 			| for each ship in getShips()
+	 * 			|	ship.updateAcceleration()
+	 */
+	public void setContinuousThrust(boolean continuousThrust) {
+		this.continuousThrust = continuousThrust;
+		for (Ship ship: getShips())
+			ship.updateAcceleration();
+	}
+	
+	/**
+	 * Variable registering whether the ships of this world thrust continuously.
+	 */
+	private boolean continuousThrust = false;
+	
+	/**
+	 * Hand the given terminated asteroid to this world, to be revived as a
+	 * child of another asteroid.
+	 * 
+	 * @param	asteroid
+	 * 			The asteroid to recycle.
+	 * @post	...
+	 * 			| if(isRecyclingElements() && asteroid.isTerminated()
+	 * 			|		&& asteroid.getMaxSpeed() == SpatialElement.getSpeedOfLight()
+	 * 			|		&& fewer than getMaxNbRecycledAsteroids() asteroids with the radius
+	 * 			|		of the given asteroid are held)
+	 * 			| then pollRecycledAsteroid(asteroid.getRadius()) may return asteroid
+	 * @note	The children of an asteroid get the speed of light as their maximum
+	 * 			speed, which a revived asteroid cannot change, so only asteroids with
+	 * 			that maximum speed can stand in for them.
+	 */
+	void recycleAsteroid(Asteroid asteroid) {
+		if (!isRecyclingElements() || !asteroid.isTerminated()
+				|| asteroid.getMaxSpeed() != SpatialElement.getSpeedOfLight())
+			return;
+		Queue<Asteroid> recycled = recycledAsteroids.get(asteroid.getRadius());
+		if (recycled == null) {
+			recycled = new ArrayDeque<Asteroid>();
+			recycledAsteroids.put(asteroid.getRadius(), recycled);
+		}
+		if (recycled.size() < getMaxNbRecycledAsteroids())
+			recycled.add(asteroid);
+	}
+	
+	/**
+	 * Return a recycled asteroid with the given radius that can be revived, if any.
+	 * 
+	 * @param	radius
+	 * 			The radius of the asteroid.
+	 * @return	...
+	 * 			| result == null || (result.getRadius() == radius && result.canBeRevived())
+	 */
+	Asteroid pollRecycledAsteroid(double radius) {
+		Queue<Asteroid> recycled = recycledAsteroids.get(radius);
+		if (recycled == null || recycled.isEmpty() || !recycled.peek().canBeRevived())
+			return null;
+		return recycled.poll();
+	}
+	
+	/**
+	 * Return the maximum number of asteroids of the same radius this world
+	 * holds for recycling.
+	 */
+	@Immutable
+	public static int getMaxNbRecycledAsteroids() {
+		return maxNbRecycledAsteroids;
+	}
+	
+	/**
+	 * Variable registering the maximum number of asteroids of the same radius
+	 * a world holds for recycling.
+	 */
+	private static final int maxNbRecycledAsteroids = 256;
+	
+	/**
+	 * Map registering for each radius the terminated asteroids held for
+	 * recycling, oldest first.
+	 */
+	private final Map<Double, Queue<Asteroid>> recycledAsteroids = new HashMap<Double, Queue<Asteroid>>();
+	
+	/**
+	 * Return whether this world is evolving, in which case removed elements
+	 * are only swept at the end of each step.
+	 */
+	@Basic
+	public boolean isEvolving() {
+		return this.evolving;
+	}
+	
+	/**
+	 * Variable registering whether this world is evolving.
+	 */
+	private boolean evolving = false;
+	
+	/**
+	 * Arrays registering the elements removed from this world since the last
+	 * sweep and the slots they occupied, at their front.
+	 */
+	private SpatialElement[] removedElements = new SpatialElement[16];
+	private int[] removedSlots = new int[16];
+	
+	/**
+	 * Variable registering the number of elements removed from this world
+	 * since the last sweep.
+	 */
+	private int nbRemovedSlots = 0;
+
+	/**
+	 * Add the given element to the set of elements of its kind.
+	 * 
+	 * @param	element
+	 * 			The element to register.
+	 * @post	...
+	 * 			| if(element.isShip()) then (new this).getShipsView().contains(element)
+	 * @post	...
+	 * 			| if(element.isBullet()) then (new this).getBulletsView().contains(element)
+	 * @post	...
+	 * 			| if(element.isAsteroid()) then (new this).getAsteroidsView().contains(element)
+	 */
+	private void register(SpatialElement element) {
+		if (element.isShip())
+			ships.add((Ship) element);
+		if (element.isBullet())
+			bullets.add((Bullet) element);
+		if (element.isAsteroid())
+			asteroids.add((Asteroid) element);
+	}
+	
+	/**
+	 * Remove the given element from the set of elements of its kind.
+	 * 
+	 * @param	element
+	 * 			The element to unregister.
+	 * @post	...
+	 * 			| !(new this).getShipsView().contains(element)
+	 * 			|	&& !(new this).getBulletsView().contains(element)
+	 * 			|	&& !(new this).getAsteroidsView().contains(element)
+	 */
+	private void unregister(SpatialElement element) {
+		if (element.isShip())
+			ships.remove(element);
+		if (element.isBullet())
+			bullets.remove(element);
+		if (element.isAsteroid())
+			asteroids.remove(element);
+	}
+	
+	/**
+	 * Variable referencing an array containing all the spatial elements
+	 * registered in this world.
+	 * 
+	 * @invar 	The referenced array is effective. 
+	 * 			| elements != null
+	 * @invar 	This world can have each element of elements as a spatial element. 
+	 *        	| for each element in elements: 
+	 *        	| canHaveAsSpatialElement(element)
+	 * @invar	Each element in the set has this world as associated world.
+	 * 			| for each element in elements:
+	 * 			| (element.getWorld() == this)
+	 * @note	This set and the sets of each kind keep the order in which the
+	 * 			elements were added, so that evolving this world does not depend
+	 * 			on the identity hash codes of its elements and is reproducible.
+	 */
+	private final Set<SpatialElement> elements = new LinkedHashSet<SpatialElement>();
+	
+	/**
+	 * Return the slot the given element occupies in this world.
+	 * 
+	 * @param	element
+	 * 			The element to return the slot of.
+	 * @return	...
+	 * 			| if(element == null || element.getWorld() != this)
+	 * 			| then result == -1
+	 * @note	Slots are small integers that identify the elements of this world
+	 * 			in its queue of collisions. The slot of a removed element may be
+	 * 			reused by an element that is added later on.
+	 */
+	private int getSlot(SpatialElement element) {
+		if (element == null)
+			return -1;
+		int slot = element.getSlot();
+		if (slot < 0 || slot >= slots.length || slots[slot] != element)
+			return -1;
+		return slot;
+	}
+	
+	/**
+	 * Make room in the columns of this world for at least the given number of slots.
+	 * 
+	 * @param	capacity
+	 * 			The number of slots to make room for.
+	 * @post	...
+	 * 			| slots.length >= capacity
+	 * @note	Adding a large batch reserves its slots at once, rather than
+	 * 			copying all columns each time they are full.
+	 */
+	private void ensureSlotCapacity(int capacity) {
+		if (capacity <= slots.length)
+			return;
+		slots = Arrays.copyOf(slots, capacity);
+		positionsX = Arrays.copyOf(positionsX, capacity);
+		positionsY = Arrays.copyOf(positionsY, capacity);
+		referenceTimes = Arrays.copyOf(referenceTimes, capacity);
+		velocitiesX = Arrays.copyOf(velocitiesX, capacity);
+		velocitiesY = Arrays.copyOf(velocitiesY, capacity);
+		accelerating = Arrays.copyOf(accelerating, capacity);
+		radii = Arrays.copyOf(radii, capacity);
+		masses = Arrays.copyOf(masses, capacity);
+		flags = Arrays.copyOf(flags, capacity);
+		masks = Arrays.copyOf(masks, capacity);
+		versions = Arrays.copyOf(versions, capacity);
+		bouncePartners = Arrays.copyOf(bouncePartners, capacity);
+		bounceTimes = Arrays.copyOf(bounceTimes, capacity);
+		nbSlotCollisions = Arrays.copyOf(nbSlotCollisions, capacity);
+		repredictionTimes = Arrays.copyOf(repredictionTimes, capacity);
+		freeSlots = Arrays.copyOf(freeSlots, capacity);
+	}
+	
+	/**
+	 * Give the given element a free slot in this world.
+	 * 
+	 * @param	element
+	 * 			The element to give a slot.
+	 * @post	...
+	 * 			| getSlot(element) >= 0
+	 */
+	private void allocateSlot(SpatialElement element) {
+		int slot;
+		if (nbFreeSlots > 0) {
+			nbFreeSlots--;
+			slot = freeSlots[nbFreeSlots];
+		} else {
+			if (nbSlots == slots.length)
+				ensureSlotCapacity(2*slots.length);
+			slot = nbSlots;
+			nbSlots++;
+		}
+		slots[slot] = element;
+		bouncePartners[slot] = -1;
+		repredictionTimes[slot] = Double.POSITIVE_INFINITY;
+		radii[slot] = element.getRadius();
+		masses[slot] = element.getMass();
+		flags[slot] = element.getCategory();
+		masks[slot] = element.getCollisionMask();
+		element.setSlot(slot);
+		storeKinematics(element);
+	}
+	
+	/**
+	 * Release the slot of the given element. The slot only becomes free for
+	 * other elements when the removed elements are swept.
+	 * 
+	 * @param	element
+	 * 			The element to release the slot of.
+	 * @effect	...
+	 * 			| invalidateCollisions(getSlot(element))
+	 * @post	...
+	 * 			| getSlot(element) == -1
+	 */
+	private void releaseSlot(SpatialElement element) {
+		int slot = getSlot(element);
+		if (slot < 0)
+			return;
+		invalidateCollisions(slot);
+		slots[slot] = null;
+		flags[slot] = 0;
+		masks[slot] = 0;
+		if (nbRemovedSlots == removedSlots.length) {
+			removedSlots = Arrays.copyOf(removedSlots, 2*nbRemovedSlots);
+			removedElements = Arrays.copyOf(removedElements, 2*nbRemovedSlots);
+		}
+		removedSlots[nbRemovedSlots] = slot;
+		removedElements[nbRemovedSlots] = element;
+		nbRemovedSlots++;
+	}
+	
+	/**
+	 * Array registering for each slot the element occupying it, if any.
+	 */
+	private SpatialElement[] slots = new SpatialElement[16];
+	
+	/**
+	 * Store the position, reference time and velocity of the given element in
+	 * the columns of this world.
+	 * 
+	 * @param	element
+	 * 			The element to store the kinematic state of.
+	 * @post	...
+	 * 			| if(getSlot(element) >= 0)
+	 * 			| then positionsX[getSlot(element)] == element.getReferencePositionX()
+	 * 			|	&& positionsY[getSlot(element)] == element.getReferencePositionY()
+	 * 			|	&& referenceTimes[getSlot(element)] == element.getReferenceTime()
+	 * 			|	&& velocitiesX[getSlot(element)] == element.getVelocityX()
+	 * 			|	&& velocitiesY[getSlot(element)] == element.getVelocityY()
+	 * 			|	&& accelerating[getSlot(element)] == element.isAccelerating()
+	 * @note	Spatial elements call this method after each change of their
+	 * 			kinematic state, so the columns of this world always mirror them.
+	 */
+	void storeKinematics(SpatialElement element) {
+		int slot = getSlot(element);
+		if (slot < 0)
+			return;
+		positionsX[slot] = element.getReferencePositionX();
+		positionsY[slot] = element.getReferencePositionY();
+		referenceTimes[slot] = element.getReferenceTime();
+		velocitiesX[slot] = element.getVelocityX();
+		velocitiesY[slot] = element.getVelocityY();
+		accelerating[slot] = element.isAccelerating();
+	}
+	
+	/**
+	 * Store the collision mask of the given element in the columns of this
+	 * world and predict the collisions of the element again.
+	 * 
+	 * @param	element
+	 * 			The element to store the collision mask of.
+	 * @post	...
+	 * 			| if(getSlot(element) >= 0)
+	 * 			| then masks[getSlot(element)] == element.getCollisionMask()
+	 * @effect	...
+	 * 			| if(getSlot(element) >= 0)
+	 * 			| then removeAsCollision(element) && addAsCollision(element)
+	 */
+	void storeCollisionMask(SpatialElement element) {
+		int slot = getSlot(element);
+		if (slot < 0)
+			return;
+		masks[slot] = element.getCollisionMask();
+		removeAsCollision(element);
+		addAsCollision(element);
+	}
+	
+	/**
+	 * Store the acceleration of the given element in the columns of this
+	 * world and predict the collisions of the element again.
+	 * 
+	 * @param	element
+	 * 			The element to store the acceleration of.
+	 * @effect	...
+	 * 			| if(getSlot(element) >= 0)
+	 * 			| then storeKinematics(element)
+	 * @effect	...
+	 * 			| if(getSlot(element) >= 0 && !isEvolving())
+	 * 			| then removeAsCollision(element) && addAsCollision(element)
+	 * @note	While this world evolves, the collisions of the element are only
+	 * 			predicted again after the current collision batch or step, together
+	 * 			with those of the other elements touched in the meantime.
+	 */
+	void storeAcceleration(SpatialElement element) {
+		if (getSlot(element) < 0)
+			return;
+		storeKinematics(element);
+		if (isEvolving()) {
+			acceleratedElements.add(element);
+		} else {
+			removeAsCollision(element);
+			addAsCollision(element);
+		}
+	}
+	
+	/**
+	 * Set holding the elements whose acceleration changed while this world
+	 * evolves, and whose collisions still have to be predicted again.
+	 */
+	private final Set<SpatialElement> acceleratedElements = new LinkedHashSet<SpatialElement>();
+	
+	/**
+	 * Add the elements of this world whose acceleration changed since they
+	 * were last predicted to the given collection.
+	 * 
+	 * @param	elements
+	 * 			The collection to add the elements to.
+	 * @post	...
+	 * 			| for each element in acceleratedElements
+	 * 			|	if(hasAsSpatialElement(element))
+	 * 			|	then elements.contains(element)
+	 */
+	private void addAcceleratedElementsTo(Collection<SpatialElement> elements) {
+		for (SpatialElement element: acceleratedElements) {
+			if (hasAsSpatialElement(element))
+				elements.add(element);
+		}
+		acceleratedElements.clear();
+	}
+	
+	/**
+	 * Check whether the elements in the given slots can collide according to
+	 * their categories and collision masks.
+	 * 
+	 * @param	slot1
+	 * 			The slot of the first element.
+	 * @param	slot2
+	 * 			The slot of the second element.
+	 * @return	...
+	 * 			| result == CollisionTable.canCollide(slots[slot1].getCategory(),
+	 * 			|	slots[slot1].getCollisionMask(), slots[slot2].getCategory(),
+	 * 			|	slots[slot2].getCollisionMask())
+	 */
+	private boolean canCollide(int slot1, int slot2) {
+		return CollisionTable.canCollide(flags[slot1], masks[slot1], flags[slot2], masks[slot2]);
+	}
+	
+	/**
+	 * Check whether the element in the given slot is sleeping.
+	 * 
+	 * @param	slot
+	 * 			The slot of the element.
+	 * @return	...
+	 * 			| result == slots[slot].isSleeping()
+	 */
+	private boolean isSleeping(int slot) {
+		return velocitiesX[slot] == 0 && velocitiesY[slot] == 0 && !accelerating[slot];
+	}
+	
+	/**
+	 * Return the time to the first collision of the element in the given slot
+	 * with a boundary of this world.
+	 * 
+	 * @param	slot
+	 * 			The slot of the element.
+	 * @return	...
+	 * 			| result == slots[slot].getTimeToWallCollision()
+	 * @note	The time is computed from the columns of this world only, in the
+	 * 			same way and with the same rounding as SpatialElement does, unless
+	 * 			the element accelerates.
+	 */
+	private double getTimeToWallCollision(int slot) {
+		if (accelerating[slot])
+			return slots[slot].getTimeToWallCollision();
+		double deltaT = getTime() - referenceTimes[slot];
+		double x = positionsX[slot] + velocitiesX[slot]*deltaT;
+		double y = positionsY[slot] + velocitiesY[slot]*deltaT;
+		double timeTop = getTimeToWall(getHeight(), y, velocitiesY[slot], radii[slot]);
+		double timeBottom = getTimeToWall(0, y, velocitiesY[slot], radii[slot]);
+		double timeRight = getTimeToWall(getWidth(), x, velocitiesX[slot], radii[slot]);
+		double timeLeft = getTimeToWall(0, x, velocitiesX[slot], radii[slot]);
+		return Math.min(Math.min(timeTop, timeBottom), Math.min(timeLeft, timeRight));
+	}
+	
+	/**
+	 * Return the time to the collision of a disc with the given coordinate,
+	 * speed and radius along some axis with a wall at the given bound.
+	 * 
+	 * @return	...
+	 * 			| if((bound - coordinate - radius * Math.signum(speed)) * speed > 0)
+	 * 			| then result == (bound - coordinate - radius * Math.signum(speed)) / speed
+	 * 			| else result == Double.POSITIVE_INFINITY
+	 */
+	private static double getTimeToWall(double bound, double coordinate, double speed, double radius) {
+		double distance = bound - coordinate - radius * Math.signum(speed);
+		if (distance * speed > 0)
+			return distance / speed;
+		return Double.POSITIVE_INFINITY;
+	}
+	
+	/**
+	 * Columns registering for each slot the position of the element occupying it
+	 * at its reference time, that reference time, its velocity, radius and mass.
+	 */
+	private double[] positionsX = new double[16];
+	private double[] positionsY = new double[16];
+	private double[] referenceTimes = new double[16];
+	private double[] velocitiesX = new double[16];
+	private double[] velocitiesY = new double[16];
+	private double[] radii = new double[16];
+	private double[] masses = new double[16];
+	
+	/**
+	 * Column registering for each slot whether the element occupying it
+	 * accelerates, in which case the other columns do not describe its motion
+	 * and its own methods are used instead.
+	 */
+	private boolean[] accelerating = new boolean[16];
+	
+	/**
+	 * Column registering for each slot the category of the element occupying it,
+	 * as defined by CollisionTable.
+	 */
+	private int[] flags = new int[16];
+	
+	/**
+	 * Column registering for each slot the collision mask of the element occupying it.
+	 */
+	private int[] masks = new int[16];
+	
+	/**
+	 * Array registering for each slot its version. The version of a slot changes
+	 * each time the collisions of the element occupying it are invalidated.
+	 */
+	private int[] versions = new int[16];
+	
+	/**
+	 * Columns registering for each slot the slot of the element the element
+	 * occupying it last bounced with, or -1, and the time of that bounce.
+	 */
+	private int[] bouncePartners = new int[16];
+	private double[] bounceTimes = new double[16];
+	
+	/**
+	 * Array registering for each slot the number of collisions in the queue of this
+	 * world that were predicted with the current version of that slot.
+	 */
+	private int[] nbSlotCollisions = new int[16];
+	
+	/**
+	 * Array registering for each slot the time of the re-prediction scheduled
+	 * with the current version of that slot, or Double.POSITIVE_INFINITY if
+	 * there is none.
+	 */
+	private double[] repredictionTimes = new double[16];
+	
+	/**
+	 * Variable registering the number of slots that have ever been used.
+	 */
+	private int nbSlots = 0;
+	
+	/**
+	 * Stack of slots that have been freed and can be reused.
+	 */
+	private int[] freeSlots = new int[16];
+	
+	/**
+	 * Variable registering the number of slots on the stack of free slots.
+	 */
+	private int nbFreeSlots = 0;
+	
+	/**
+	 * Check whether this world has the given collision associated with it.
+	 * 
+	 * @return	True if and only if the queue of this world holds a collision
+	 * 			between the same elements that is not outdated.
+	 * 			| result == (collision != null) && (for some other in getCollisions():
+	 * 			|	other.equals(collision))
+	 */
+	public boolean hasAsCollision(Collision collision) {
+		if (collision == null)
+			return false;
+		Iterator<SpatialElement> iterator = collision.getAllElements().iterator();
+		int slot1 = getSlot(iterator.next());
+		int slot2 = CollisionQueue.WALL;
+		if (iterator.hasNext()) {
+			slot2 = getSlot(iterator.next());
+			if (slot2 < 0)
+				return false;
+		}
+		if (slot1 < 0)
+			return false;
+		for (int i = 0; i < collisions.size(); i++) {
+			int element1 = collisions.getElement1(i);
+			int element2 = collisions.getElement2(i);
+			if (((element1 == slot1 && element2 == slot2) || (element1 == slot2 && element2 == slot1))
+					&& !collisions.isOutdated(i, versions))
+				return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Get all the collisions within this world.
+	 * 
+	 * @return 	A set containing all the collisions associated with this world.
+	 * 			| let result == Set<Collision>
+	 * 			| in
+	 * 			| for each collision in result
+	 * 			|	this.hasAsCollision(collision)
+	 * @note	The queue of this world does not store collision objects, so new
+	 * 			collisions are created for each call.
+	 */
+	public Set<Collision> getCollisions() {
+		Set<Collision> collisionsGet = new HashSet<Collision>();
+		for (int i = 0; i < collisions.size(); i++) {
+			if (!collisions.isOutdated(i, versions))
+				collisionsGet.add(getCollision(i));
+		}
+		return collisionsGet;
+	}
+	
+	/**
+	 * Create the collision at the given index in the queue of this world.
+	 * 
+	 * @param	index
+	 * 			The index of the collision in the queue.
+	 * @return	...
+	 * 			| if(collisions.getElement2(index) == CollisionQueue.WALL)
+	 * 			| then result.equals(new WallCollision(slots[collisions.getElement1(index)]))
+	 * 			| else result.equals(new ObjectCollision(slots[collisions.getElement2(index)],
+	 * 			|	slots[collisions.getElement1(index)]))
+	 */
+	private Collision getCollision(int index) {
+		SpatialElement element1 = slots[collisions.getElement1(index)];
+		int slot2 = collisions.getElement2(index);
+		if (slot2 == CollisionQueue.WALL)
+			return new WallCollision(element1);
+		return new ObjectCollision(slots[slot2], element1);
+	}
+	
+	/**
+	 * Add all collisions with the given element involved 
+	 * to the set of upcoming collisions of this world.
+	 * 
+	 * @param	element
+	 * 			The element to add collisions of.
+	 * @effect	...
+	 * 			| for each i in 0..predictCandidates(getSlot(element1), null)-1:
+	 * 			|	scheduleObjectCollision(getSlot(element1), candidateSlots[i], candidateTimes[i])
+	 * @effect	...
+	 * 			| scheduleCollision(getSlot(element1), CollisionQueue.WALL,
+	 * 			|	getTimeToWallCollision(getSlot(element1)))
+	 * @effect	...
+	 * 			| if(hasBroadphase())
+	 * 			| then getBroadphase().add(element1, getTimeToGridRebuild())
+	 * @note	If this world uses earliest event scheduling, the collisions of
+	 * 			element1 are invalidated first and only the first of all these
+	 * 			collisions is added instead, see scheduleEarliestCollision.
+	 * @note	If this world has a broadphase, only the candidates it returns for
+	 * 			element1 are tested. Collisions that are missed this way happen
+	 * 			after the next rebuild of the broadphase and are predicted at that rebuild.
 	 * @throws	NullpointerException
 	 * 			| element1 == null
 	 * @throws	IllegalArgumentException
 	 * 			This world does not have element1 as a spatial element.
 	 * 			| !this.hasAsSpatialElement(element1)
 	 */
-	public void addAsCollision(SpatialElement element1) throws IllegalArgumentException, 
-	NullPointerException{
-		if (element1 == null) {
-			throw new NullPointerException("Element for collision is null.");
+	public void addAsCollision(SpatialElement element1) throws IllegalArgumentException, 
+	NullPointerException{
+		if (element1 == null) {
+			throw new NullPointerException("Element for collision is null.");
+		}
+		if (!this.hasAsSpatialElement(element1)) {
+			throw new IllegalArgumentException("Element for collision does not belong to this world.");
+		}
+		predictPlacedElements();
+		if (hasBroadphase())
+			getBroadphase().add(element1, getTimeToGridRebuild());
+		int slot1 = element1.getSlot();
+		if (isEarliestEventScheduling()) {
+			invalidateCollisions(slot1);
+			scheduleEarliestCollision(slot1);
+			return;
+		}
+		scheduleCollision(slot1, CollisionQueue.WALL, getTimeToWallCollision(slot1));
+		int nbCandidates = predictCandidates(slot1, null);
+		for (int i = 0; i < nbCandidates; i++)
+			scheduleObjectCollision(slot1, candidateSlots[i], candidateTimes[i]);
+	}	
+	
+	/**
+	 * Add the collision between the elements in the given slots at the given time
+	 * to the upcoming collisions of this world, if they collide.
+	 * 
+	 * @param	slot1
+	 * 			The slot of the first element.
+	 * @param	slot2
+	 * 			The slot of the second element.
+	 * @param	collisionTime
+	 * 			The time to the collision of both elements.
+	 * @effect	...
+	 * 			| if(collisionTime != Double.POSITIVE_INFINITY
+	 * 			|		&& slots[slot1].isValidObjectCollision(slots[slot2]))
+	 * 			| then scheduleCollision(slot1, slot2, collisionTime)
+	 */
+	private void scheduleObjectCollision(int slot1, int slot2, double collisionTime) {
+		if (collisionTime != Double.POSITIVE_INFINITY
+				&& slots[slot1].isValidObjectCollision(slots[slot2]))
+			scheduleCollision(slot1, slot2, collisionTime);
+	}
+	
+	/**
+	 * Collect the slots of the elements of this world the element in the given
+	 * slot may collide with before the next rebuild of the broadphase of this
+	 * world, if any, at the front of candidateSlots.
+	 * 
+	 * @param	slot
+	 * 			The slot of the element to collect the candidates of.
+	 * @param	filter
+	 * 			If effective, only the slots for which filter is true are collected.
+	 * @return	The number of collected candidates.
+	 * @post	...
+	 * 			| if(hasBroadphase())
+	 * 			| then the first result candidateSlots are the slots stored by
+	 * 			|	getBroadphase().getCandidates(slots[slot], candidateSlots)
+	 * 			| else the first result candidateSlots are the slots of all other
+	 * 			|	elements of this world
+	 * 			| except the slots for which filter is false
+	 * @post	If the element in the given slot is sleeping, no sleeping
+	 * 			candidates are collected, since two sleeping elements never collide.
+	 * @post	The candidates are collected in the order of their slots.
+	 * @post	No candidates are collected that cannot collide with the element in
+	 * 			the given slot according to their categories and collision masks.
+	 * 			| for each i in 0..result-1:
+	 * 			|	canCollide(slot, candidateSlots[i])
+	 * @note	The candidates are overwritten by the next call, so they must be
+	 * 			used before anything else is predicted.
+	 */
+	private int collectCandidates(int slot, boolean[] filter) {
+		if (candidateSlots.length < nbSlots)
+			candidateSlots = new int[slots.length];
+		boolean sleeping = isSleeping(slot);
+		int nbCandidates = 0;
+		if (hasBroadphase()) {
+			// The broadphase stores the slots of its candidates in place, and the
+			// candidates that are kept are compacted at the front.
+			int nbFound = getBroadphase().getCandidates(slots[slot], candidateSlots);
+			for (int k = 0; k < nbFound; k++) {
+				int candidateSlot = candidateSlots[k];
+				if (candidateSlot >= 0 && canCollide(slot, candidateSlot) && (filter == null || filter[candidateSlot])
+						&& !(sleeping && isSleeping(candidateSlot))) {
+					candidateSlots[nbCandidates] = candidateSlot;
+					nbCandidates++;
+				}
+			}
+			// The broadphase returns its candidates in no particular order.
+			Arrays.sort(candidateSlots, 0, nbCandidates);
+		} else {
+			for (int candidate = 0; candidate < nbSlots; candidate++) {
+				if (candidate != slot && slots[candidate] != null && canCollide(slot, candidate)
+						&& (filter == null || filter[candidate]) && !(sleeping && isSleeping(candidate))) {
+					candidateSlots[nbCandidates] = candidate;
+					nbCandidates++;
+				}
+			}
+		}
+		return nbCandidates;
+	}
+	
+	/**
+	 * Collect the candidates of the element in the given slot and compute the
+	 * time to collision with each of them.
+	 * 
+	 * @param	slot
+	 * 			The slot of the element to predict the collisions of.
+	 * @param	filter
+	 * 			If effective, only the slots for which filter is true are predicted.
+	 * @return	...
+	 * 			| result == collectCandidates(slot, filter)
+	 * @post	...
+	 * 			| for each i in 0..result-1:
+	 * 			|	candidateTimes[i] == slots[slot].getTimeToCollision(slots[candidateSlots[i]])
+	 * @note	The states of the candidates are first gathered from the columns
+	 * 			into dense arrays, after which CollisionKernel handles all of them
+	 * 			in a single pass. The times of pairs with an accelerating element
+	 * 			are then computed again by the elements themselves.
+	 */
+	private int predictCandidates(int slot, boolean[] filter) {
+		int nbCandidates = collectCandidates(slot, filter);
+		if (candidateTimes.length < candidateSlots.length) {
+			int capacity = candidateSlots.length;
+			candidatesX = new double[capacity];
+			candidatesY = new double[capacity];
+			candidateVelocitiesX = new double[capacity];
+			candidateVelocitiesY = new double[capacity];
+			candidateRadii = new double[capacity];
+			candidateTimes = new double[capacity];
+		}
+		for (int i = 0; i < nbCandidates; i++) {
+			int candidate = candidateSlots[i];
+			double deltaT = getTime() - referenceTimes[candidate];
+			candidatesX[i] = positionsX[candidate] + velocitiesX[candidate]*deltaT;
+			candidatesY[i] = positionsY[candidate] + velocitiesY[candidate]*deltaT;
+			candidateVelocitiesX[i] = velocitiesX[candidate];
+			candidateVelocitiesY[i] = velocitiesY[candidate];
+			candidateRadii[i] = radii[candidate];
+		}
+		double deltaT = getTime() - referenceTimes[slot];
+		CollisionKernel.getTimesToCollision(positionsX[slot] + velocitiesX[slot]*deltaT,
+				positionsY[slot] + velocitiesY[slot]*deltaT, velocitiesX[slot], velocitiesY[slot],
+				radii[slot], candidatesX, candidatesY, candidateVelocitiesX, candidateVelocitiesY,
+				candidateRadii, nbCandidates, candidateTimes);
+		for (int i = 0; i < nbCandidates; i++) {
+			if (accelerating[slot] || accelerating[candidateSlots[i]])
+				candidateTimes[i] = slots[slot].getTimeToCollision(slots[candidateSlots[i]]);
+		}
+		return nbCandidates;
+	}
+	
+	/**
+	 * Array of which the front holds the slots collected by collectCandidates.
+	 */
+	private int[] candidateSlots = new int[16];
+	
+	/**
+	 * Arrays of which the front holds the states of the candidates gathered by
+	 * predictCandidates, and the times to collision computed from them.
+	 */
+	private double[] candidatesX = new double[16];
+	private double[] candidatesY = new double[16];
+	private double[] candidateVelocitiesX = new double[16];
+	private double[] candidateVelocitiesY = new double[16];
+	private double[] candidateRadii = new double[16];
+	private double[] candidateTimes = new double[16];
+	
+	/**
+	 * Remove all collisions where the given element is involved in
+	 * from the set of upcoming collisions of this world.
+	 * 
+	 * @param	element
+	 * 			The elements to remove all the collisions of.
+	 * @effect	...
+	 * 			| if(getSlot(element) >= 0)
+	 * 			| then invalidateCollisions(getSlot(element))
+	 * @note	The collisions are only invalidated here, which takes constant time.
+	 * 			With earliest event scheduling, an element whose earliest collision
+	 * 			involved the given element is predicted again once that collision
+	 * 			reaches the head of the queue.
+	 */
+	public void removeAsCollision(SpatialElement element) {
+		predictPlacedElements();
+		int slot = getSlot(element);
+		if (slot >= 0)
+			invalidateCollisions(slot);
+	}
+	
+	/**
+	 * Invalidate all collisions in the queue of this world that were predicted
+	 * for the element in the given slot.
+	 * 
+	 * @param	slot
+	 * 			The slot to invalidate the collisions of.
+	 * @post	...
+	 * 			| (new this).versions[slot] != versions[slot]
+	 * @note	Outdated collisions stay in the queue until they reach its head,
+	 * 			or until they make up too large a part of the queue. While this
+	 * 			world evolves, the latter is only checked when removed elements
+	 * 			are swept.
+	 */
+	private void invalidateCollisions(int slot) {
+		versions[slot]++;
+		nbOutdatedCollisions += nbSlotCollisions[slot];
+		nbSlotCollisions[slot] = 0;
+		repredictionTimes[slot] = Double.POSITIVE_INFINITY;
+		if (!isEvolving() && nbOutdatedCollisions > getMaxNbOutdatedCollisions())
+			removeOutdatedCollisions();
+	}
+	
+	/**
+	 * Add the first collision of the element in the given slot with a wall or
+	 * with one of its candidates to the upcoming collisions of this world.
+	 * 
+	 * @param	slot1
+	 * 			The slot of the element to add the earliest collision of.
+	 * @effect	...
+	 * 			| let
+	 * 			|	partners == {i in 0..predictCandidates(slot1, null)-1 |
+	 * 			|		slots[slot1].isValidObjectCollision(slots[candidateSlots[i]])}
+	 * 			|	wallTime == getTimeToWallCollision(slot1)
+	 * 			| in
+	 * 			|	if(for each i in partners: candidateTimes[i] >= wallTime)
+	 * 			|	then scheduleCollision(slot1, CollisionQueue.WALL, wallTime)
+	 * 			|	else scheduleCollision(slot1, candidateSlots[i], candidateTimes[i])
+	 * 			|		for the i in partners with the smallest candidateTimes[i]
+	 */
+	private void scheduleEarliestCollision(int slot1) {
+		int partner = CollisionQueue.WALL;
+		double partnerTime = getTimeToWallCollision(slot1);
+		int nbCandidates = predictCandidates(slot1, null);
+		for (int i = 0; i < nbCandidates; i++) {
+			int slot2 = candidateSlots[i];
+			double collisionTime = candidateTimes[i];
+			if (collisionTime < partnerTime && slots[slot1].isValidObjectCollision(slots[slot2])) {
+				partner = slot2;
+				partnerTime = collisionTime;
+			}
+		}
+		scheduleCollision(slot1, partner, partnerTime);
+	}
+	
+	/**
+	 * Check whether this world only schedules the earliest collision of each element.
+	 */
+	@Basic
+	public boolean isEarliestEventScheduling() {
+		return this.earliestEventScheduling;
+	}
+	
+	/**
+	 * Set whether this world only schedules the earliest collision of each element.
+	 * 
+	 * @param	earliestEventScheduling
+	 * 			True if only the earliest collision of each element is to be scheduled,
+	 * 			false if all predicted collisions are to be scheduled.
+	 * @post	...
+	 * 			| (new this).isEarliestEventScheduling() == earliestEventScheduling
+	 * @effect	...
+	 * 			| rebuildCollisions()
+	 * @note	With earliest event scheduling the queue of collisions holds at most
+	 * 			one collision per element, instead of one per pair of elements. An
+	 * 			element whose earliest collision became outdated because the other
+	 * 			element is involved in another collision, is predicted again.
+	 */
+	public void setEarliestEventScheduling(boolean earliestEventScheduling) {
+		this.earliestEventScheduling = earliestEventScheduling;
+		rebuildCollisions();
+	}
+	
+	/**
+	 * Variable registering whether this world only schedules the earliest collision of each element.
+	 */
+	private boolean earliestEventScheduling = false;
+	
+	/**
+	 * Add a collision between the elements in the given slots to the upcoming
+	 * collisions of this world.
+	 * 
+	 * @param	slot1
+	 * 			The slot of the first element of the collision.
+	 * @param	slot2
+	 * 			The slot of the second element of the collision, or CollisionQueue.WALL.
+	 * @param	collisionTime
+	 * 			The time to the collision.
+	 * @post	...
+	 * 			| if((slot2 == CollisionQueue.WALL && isSleeping(slot1))
+	 * 			|		|| (slot2 != CollisionQueue.WALL && collisionTime > getPredictionHorizon()))
+	 * 			| then (new this).collisions.size() == collisions.size()
+	 * 			| else (new this).collisions.size() == collisions.size() + 1
+	 * @effect	...
+	 * 			| if(slot2 != CollisionQueue.WALL && collisionTime > getPredictionHorizon())
+	 * 			| then scheduleReprediction(slot1, collisionTime)
+	 * @note	A sleeping element never reaches a wall, so no wall collision is
+	 * 			scheduled for it at all.
+	 */
+	private void scheduleCollision(int slot1, int slot2, double collisionTime) {
+		if (slot2 == CollisionQueue.WALL && isSleeping(slot1))
+			return;
+		if (slot2 != CollisionQueue.WALL && collisionTime > getPredictionHorizon()) {
+			scheduleReprediction(slot1, collisionTime);
+			return;
+		}
+		int version2 = 0;
+		if (slot2 != CollisionQueue.WALL) {
+			version2 = versions[slot2];
+			nbSlotCollisions[slot2]++;
+		}
+		nbSlotCollisions[slot1]++;
+		collisions.add(getTime() + collisionTime, slot1, slot2, versions[slot1], version2);
+	}
+	
+	/**
+	 * Return the time span over which this world schedules collisions between
+	 * elements.
+	 * 
+	 * @note	Collisions between elements predicted further ahead are not
+	 * 			scheduled. Instead the element that predicted them is predicted
+	 * 			again when this time span has passed, unless it changed before.
+	 * 			Collisions with walls are always scheduled, since each element
+	 * 			has at most one.
+	 */
+	@Basic
+	public double getPredictionHorizon() {
+		return this.predictionHorizon;
+	}
+	
+	/**
+	 * Check whether the given time span is a valid prediction horizon for any world.
+	 * 
+	 * @return	...
+	 * 			| result == (predictionHorizon > 0)
+	 */
+	public static boolean isValidPredictionHorizon(double predictionHorizon) {
+		return predictionHorizon > 0;
+	}
+	
+	/**
+	 * Set the time span over which this world schedules collisions between elements.
+	 * 
+	 * @param	predictionHorizon
+	 * 			The new prediction horizon in seconds, or Double.POSITIVE_INFINITY
+	 * 			to schedule all predicted collisions.
+	 * @post	...
+	 * 			| (new this).getPredictionHorizon() == predictionHorizon
+	 * @effect	...
+	 * 			| rebuildCollisions()
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| !isValidPredictionHorizon(predictionHorizon)
+	 * @note	Most collisions predicted far ahead are invalidated before they take
+	 * 			place, since one of their elements collides with something else first.
+	 * 			A finite horizon keeps them out of the queue, at the cost of a single
+	 * 			re-prediction per element and per horizon while nothing happens to it.
+	 */
+	public void setPredictionHorizon(double predictionHorizon) throws IllegalArgumentException {
+		if (!isValidPredictionHorizon(predictionHorizon))
+			throw new IllegalArgumentException("Invalid prediction horizon.");
+		this.predictionHorizon = predictionHorizon;
+		rebuildCollisions();
+	}
+	
+	/**
+	 * Variable registering the prediction horizon of this world in seconds.
+	 */
+	private double predictionHorizon = Double.POSITIVE_INFINITY;
+	
+	/**
+	 * Schedule the element in the given slot to be predicted again in time
+	 * to schedule a collision at the given time that lies beyond the
+	 * prediction horizon of this world.
+	 * 
+	 * @param	slot
+	 * 			The slot of the element to predict again.
+	 * @param	collisionTime
+	 * 			The time to the collision that was not scheduled.
+	 * @post	...
+	 * 			| let time == getTime() + Math.max(getPredictionHorizon(),
+	 * 			|		collisionTime - getPredictionHorizon()/2)
+	 * 			| in (new this).repredictionTimes[slot] == Math.min(repredictionTimes[slot], time)
+	 * @note	The element is predicted again once the collision lies well within
+	 * 			the horizon, so that rounding errors cannot push it beyond the horizon
+	 * 			again, but no sooner than one horizon from now, so that each
+	 * 			prediction covers at least one horizon. Collisions predicted to
+	 * 			happen in hours are thus left alone until shortly before, and are
+	 * 			usually outdated by then.
+	 * @note	Only the earliest re-prediction of each version of a slot counts,
+	 * 			however many of its collisions lie beyond the horizon. It is
+	 * 			outdated as soon as the slot changes, since the element is then
+	 * 			predicted again anyway.
+	 */
+	private void scheduleReprediction(int slot, double collisionTime) {
+		double time = getTime() + Math.max(getPredictionHorizon(), collisionTime - getPredictionHorizon()/2);
+		if (time >= repredictionTimes[slot])
+			return;
+		repredictionTimes[slot] = time;
+		repredictions.add(time, slot, CollisionQueue.WALL, versions[slot], 0);
+	}
+	
+	/**
+	 * Remove all outdated re-predictions from the head of the queue of
+	 * re-predictions of this world, and return the time of the first one left.
+	 * 
+	 * @return	...
+	 * 			| if(there are no re-predictions left)
+	 * 			| then result == Double.POSITIVE_INFINITY
+	 * 			| else result == repredictions.peekTime()
+	 * @note	A re-prediction that was replaced by an earlier one for the same
+	 * 			version of its slot is removed as well.
+	 */
+	private double getNextRepredictionTime() {
+		while (!repredictions.isEmpty() && (repredictions.isOutdated(0, versions)
+				|| repredictions.peekTime() != repredictionTimes[repredictions.peekElement1()]))
+			repredictions.poll();
+		if (repredictions.isEmpty())
+			return Double.POSITIVE_INFINITY;
+		return repredictions.peekTime();
+	}
+	
+	/**
+	 * Predict the collisions of all elements whose re-prediction is due at
+	 * the given time again.
+	 * 
+	 * @param	dueTime
+	 * 			The time up to which re-predictions are due.
+	 * @effect	...
+	 * 			| for each slot whose re-prediction is due no later than dueTime
+	 * 			|	if(isEarliestEventScheduling())
+	 * 			|	then scheduleEarliestCollision(slot)
+	 * 			|	else scheduleCollision(slot, CollisionQueue.WALL, getTimeToWallCollision(slot))
+	 * 			|		 for each i in 0..predictCandidates(slot, null)-1:
+	 * 			|			scheduleObjectCollision(slot, candidateSlots[i], candidateTimes[i])
+	 * @note	The collisions the element already scheduled all lie before the due
+	 * 			time and are kept. A pair may be scheduled a second time by the
+	 * 			other element, in which case the copy becomes outdated as soon as
+	 * 			the first one is resolved.
+	 * @note	Without earliest event scheduling, a pair of elements that are both
+	 * 			due is only predicted by the last of both, as in rebuildCollisions.
+	 */
+	private void repredictDue(double dueTime) {
+		if (repredictionFilter.length < slots.length) {
+			repredictionFilter = new boolean[slots.length];
+			Arrays.fill(repredictionFilter, true);
+		}
+		int nbDue = 0;
+		while (getNextRepredictionTime() <= dueTime) {
+			int slot = repredictions.peekElement1();
+			repredictions.poll();
+			repredictionTimes[slot] = Double.POSITIVE_INFINITY;
+			if (dueSlots.length == nbDue)
+				dueSlots = Arrays.copyOf(dueSlots, 2*nbDue);
+			dueSlots[nbDue] = slot;
+			nbDue++;
+			repredictionFilter[slot] = false;
+		}
+		nbRepredictions += nbDue;
+		for (int i = 0; i < nbDue; i++) {
+			int slot = dueSlots[i];
+			repredictionFilter[slot] = true;
+			if (isEarliestEventScheduling()) {
+				scheduleEarliestCollision(slot);
+				continue;
+			}
+			scheduleCollision(slot, CollisionQueue.WALL, getTimeToWallCollision(slot));
+			int nbCandidates = predictCandidates(slot, repredictionFilter);
+			for (int j = 0; j < nbCandidates; j++)
+				scheduleObjectCollision(slot, candidateSlots[j], candidateTimes[j]);
+		}
+	}
+	
+	/**
+	 * Array registering the slots whose re-prediction is due, and for each
+	 * slot whether it may be predicted against while they are predicted again,
+	 * which holds for all slots except the due slots that were not predicted
+	 * again yet.
+	 */
+	private int[] dueSlots = new int[16];
+	private boolean[] repredictionFilter = new boolean[0];
+	
+	/**
+	 * Return the number of re-predictions this world made because its
+	 * prediction horizon passed.
+	 */
+	@Basic
+	public long getNbRepredictions() {
+		return this.nbRepredictions;
+	}
+	
+	/**
+	 * Variable registering the number of re-predictions made by this world.
+	 */
+	private long nbRepredictions = 0;
+	
+	/**
+	 * Return the number of entries in the queue of collisions of this world,
+	 * including those that are outdated but not yet removed.
+	 */
+	public int getQueueSize() {
+		return collisions.size();
+	}
+	
+	/**
+	 * Remove the first collision from the queue of this world.
+	 * 
+	 * @post	...
+	 * 			| (new this).collisions.size() == collisions.size() - 1
+	 */
+	private void pollCollision() {
+		int slot1 = collisions.peekElement1();
+		int slot2 = collisions.peekElement2();
+		boolean outdated1 = collisions.isOutdated1(0, versions);
+		boolean outdated2 = collisions.isOutdated2(0, versions);
+		if (!outdated1)
+			nbSlotCollisions[slot1]--;
+		if (!outdated2 && slot2 != CollisionQueue.WALL)
+			nbSlotCollisions[slot2]--;
+		if ((outdated1 || outdated2) && nbOutdatedCollisions > 0)
+			nbOutdatedCollisions--;
+		collisions.poll();
+	}
+	
+	/**
+	 * Resolve the collision between the elements in the given slots using the
+	 * given collision listener, guarding against cascades of bounces.
+	 * 
+	 * @param	slot1
+	 * 			The slot of the first element of the collision.
+	 * @param	slot2
+	 * 			The slot of the second element of the collision, or CollisionQueue.WALL.
+	 * @param	collisionListener
+	 * 			The collision listener used to visualize the collision.
+	 * @effect	...
+	 * 			| if(slot2 == CollisionQueue.WALL && !(nbZenoEvents > 2*getEventBudget()
+	 * 			|		&& guardedCluster.contains(slots[slot1])))
+	 * 			| then resolveWallCollision(slot1, collisionListener)
+	 * @effect	Once the number of bounces in Zeno chains resolved in the current
+	 * 			budget period exceeds twice the event budget, a guarded element that
+	 * 			reaches a wall stops the elements in contact with it against that wall.
+	 * 			| if(slot2 == CollisionQueue.WALL && nbZenoEvents > 2*getEventBudget()
+	 * 			|		&& guardedCluster.contains(slots[slot1]))
+	 * 			| then stopClusterAtWall(slot1, collisionListener)
+	 * @effect	A bounce of a pair of elements that already bounced off each other
+	 * 			no longer than the Zeno interval before is resolved by merging the
+	 * 			motion of both elements along their connecting line. So is, once the
+	 * 			event budget of the current budget period is exceeded, a bounce in a
+	 * 			Zeno chain or with a guarded element, and both elements are guarded.
+	 * 			| if(slot2 != CollisionQueue.WALL)
+	 * 			| then resolveObjectCollision(slot2, slot1, both elements bounce
+	 * 			|	&& (they bounced off each other at most getZenoInterval() ago
+	 * 			|		|| (nbZenoEvents > getEventBudget() && (isInZenoChain(slot1)
+	 * 			|			|| isInZenoChain(slot2) || guardedCluster.contains(slots[slot1])
+	 * 			|			|| guardedCluster.contains(slots[slot2])))), collisionListener)
+	 * @post	...
+	 * 			| if(slot2 != CollisionQueue.WALL && both elements bounce && (they bounced off
+	 * 			|		each other at most getZenoInterval() ago || isInZenoChain(slot1)
+	 * 			|		|| isInZenoChain(slot2)))
+	 * 			| then (new this).getNbZenoEvents() == getNbZenoEvents() + 1
+	 * @note	Bounces that are not part of a Zeno chain are always resolved
+	 * 			elastically, however many collisions a budget period resolves, so
+	 * 			independent bounces in a sparse world never trigger the guard.
+	 */
+	private void resolveGuarded(int slot1, int slot2, CollisionListener collisionListener) {
+		nbStepEvents++;
+		if (slot2 == CollisionQueue.WALL) {
+			if (nbZenoEvents > 2L*getEventBudget() && guardedCluster.contains(slots[slot1]))
+				stopClusterAtWall(slot1, collisionListener);
+			else
+				resolveWallCollision(slot1, collisionListener);
+			return;
+		}
+		if (CollisionTable.getResolution(flags[slot2], flags[slot1]) != CollisionTable.BOUNCE) {
+			resolveObjectCollision(slot2, slot1, false, collisionListener);
+			return;
+		}
+		boolean repeated = (bouncePartners[slot1] == slot2 && getTime() - bounceTimes[slot1] <= getZenoInterval())
+				|| (bouncePartners[slot2] == slot1 && getTime() - bounceTimes[slot2] <= getZenoInterval());
+		boolean chained = repeated || isInZenoChain(slot1) || isInZenoChain(slot2);
+		bouncePartners[slot1] = slot2;
+		bouncePartners[slot2] = slot1;
+		bounceTimes[slot1] = getTime();
+		bounceTimes[slot2] = getTime();
+		if (chained) {
+			nbZenoEvents++;
+			if (nbZenoEvents == getEventBudget() + 1)
+				nbBudgetOverruns++;
+		}
+		boolean guarded = nbZenoEvents > getEventBudget() && (chained
+				|| guardedCluster.contains(slots[slot1]) || guardedCluster.contains(slots[slot2]));
+		if (guarded) {
+			// The bounce may join two components, so they are solved again.
+			guardedCluster.add(slots[slot2]);
+			guardedCluster.add(slots[slot1]);
+			clusterChanged = true;
+		}
+		if (repeated || guarded)
+			nbMergedBounces++;
+		resolveObjectCollision(slot2, slot1, repeated || guarded, collisionListener);
+	}
+	
+	/**
+	 * Check whether the element in the given slot takes part in a Zeno chain,
+	 * that is whether it bounced off another element no longer than the Zeno
+	 * interval of this world ago.
+	 * 
+	 * @param	slot
+	 * 			The slot of the element to check.
+	 * @return	...
+	 * 			| result == (the element in the given slot bounced off another element
+	 * 			|	at most getZenoInterval() ago)
+	 */
+	private boolean isInZenoChain(int slot) {
+		return bouncePartners[slot] >= 0 && getTime() - bounceTimes[slot] <= getZenoInterval();
+	}
+	
+	/**
+	 * Resolve the collision of the element in the given slot with a wall of
+	 * this world using the given collision listener.
+	 * 
+	 * @param	slot
+	 * 			The slot of the element.
+	 * @param	collisionListener
+	 * 			The collision listener used to visualize the collision.
+	 * @effect	...
+	 * 			| if(collisionListener != null)
+	 * 			| then notifyWallCollision(slot, collisionListener)
+	 * @effect	...
+	 * 			| slots[slot].resolveWall(WallCollision.isHorizontalWall(slots[slot].getPositionX(),
+	 * 			|	slots[slot].getPositionY(), getWidth(), getHeight()))
+	 * @note	This has the same effect as resolving a wall collision of the element,
+	 * 			but creates no collision object.
+	 */
+	private void resolveWallCollision(int slot, CollisionListener collisionListener) {
+		SpatialElement element = slots[slot];
+		if (collisionListener != null)
+			notifyWallCollision(slot, collisionListener);
+		element.resolveWall(WallCollision.isHorizontalWall(element.getPositionX(), element.getPositionY(),
+				getWidth(), getHeight()));
+	}
+	
+	/**
+	 * Notify the given collision listener of the collision of the element in
+	 * the given slot with a wall of this world.
+	 * 
+	 * @param	slot
+	 * 			The slot of the element.
+	 * @param	collisionListener
+	 * 			The collision listener to notify.
+	 * @effect	...
+	 * 			| collisionListener.boundaryCollision(slots[slot],
+	 * 			|	new WallCollision(slots[slot]).getConnectingEdgePoint().getXComponent(),
+	 * 			|	new WallCollision(slots[slot]).getConnectingEdgePoint().getYComponent())
+	 */
+	private void notifyWallCollision(int slot, CollisionListener collisionListener) {
+		SpatialElement element = slots[slot];
+		double x = element.getPositionX();
+		double y = element.getPositionY();
+		collisionListener.boundaryCollision(element, WallCollision.getEdgePointX(x, y, getWidth(), getHeight()),
+				WallCollision.getEdgePointY(x, y, getWidth(), getHeight()));
+	}
+	
+	/**
+	 * Resolve the collision between the elements in the given slots using the
+	 * given collision listener.
+	 * 
+	 * @param	slot1
+	 * 			The slot of the first element.
+	 * @param	slot2
+	 * 			The slot of the second element.
+	 * @param	merged
+	 * 			Whether a bounce is resolved by merging the motion of both elements
+	 * 			along their connecting line.
+	 * @param	collisionListener
+	 * 			The collision listener used to visualize the collision.
+	 * @effect	...
+	 * 			| if(collisionListener != null)
+	 * 			| then collisionListener.objectCollision(slots[slot1], slots[slot2],
+	 * 			|	new ObjectCollision(slots[slot1], slots[slot2]).getConnectingEdgePoint().getXComponent(),
+	 * 			|	new ObjectCollision(slots[slot1], slots[slot2]).getConnectingEdgePoint().getYComponent())
+	 * @effect	...
+	 * 			| if(merged)
+	 * 			| then slots[slot1].resolveBounce(slots[slot2], 0)
+	 * 			| else slots[slot1].resolve(slots[slot2])
+	 * @note	This has the same effect as resolving an object collision of both
+	 * 			elements, but creates no collision object.
+	 */
+	private void resolveObjectCollision(int slot1, int slot2, boolean merged, CollisionListener collisionListener) {
+		SpatialElement element1 = slots[slot1];
+		SpatialElement element2 = slots[slot2];
+		if (collisionListener != null) {
+			double x1 = element1.getPositionX();
+			double y1 = element1.getPositionY();
+			double x2 = element2.getPositionX();
+			double y2 = element2.getPositionY();
+			collisionListener.objectCollision(element1, element2,
+					ObjectCollision.getEdgePointX(x1, y1, x2, y2, element1.getRadius()),
+					ObjectCollision.getEdgePointY(x1, y1, x2, y2, element1.getRadius()));
+		}
+		if (merged)
+			element1.resolveBounce(element2, 0);
+		else
+			element1.resolve(element2);
+	}
+	
+	/**
+	 * Stop the motion of the guarded elements of this world in contact with the
+	 * element in the given slot towards the wall that element reaches.
+	 * 
+	 * @param	slot
+	 * 			The slot of the guarded element that reaches a wall.
+	 * @param	collisionListener
+	 * 			The collision listener used to visualize the collision.
+	 * @effect	...
+	 * 			| if(collisionListener != null)
+	 * 			| then notifyWallCollision(slot, collisionListener)
+	 * @effect	...
+	 * 			| let horizontal == WallCollision.isHorizontalWall(slots[slot].getPositionX(),
+	 * 			|	slots[slot].getPositionY(), getWidth(), getHeight())
+	 * 			| in for each element in the component collected by collectClusterComponent(slots[slot]):
+	 * 			|	if(horizontal)
+	 * 			|	then element.setVelocity(element.getVelocityX(), 0)
+	 * 			|	else element.setVelocity(0, element.getVelocityY())
+	 * @note	The elements of a solved component share a common velocity, so
+	 * 			bouncing the element off the wall would only make it collide with the
+	 * 			rest of its component again. The component comes to rest against the
+	 * 			wall instead, as a collapsed cluster would, and can reach each wall at
+	 * 			most once more. Other guarded elements keep their motion.
+	 */
+	private void stopClusterAtWall(int slot, CollisionListener collisionListener) {
+		SpatialElement element = slots[slot];
+		boolean horizontal = WallCollision.isHorizontalWall(element.getPositionX(), element.getPositionY(),
+				getWidth(), getHeight());
+		if (collisionListener != null)
+			notifyWallCollision(slot, collisionListener);
+		clusterComponentMembers.clear();
+		collectClusterComponent(element);
+		for (SpatialElement member: clusterComponent) {
+			if (horizontal)
+				member.setVelocity(member.getVelocityX(), 0);
+			else
+				member.setVelocity(0, member.getVelocityY());
+		}
+		clusterComponent.clear();
+		clusterComponentMembers.clear();
+		clusterChanged = true;
+	}
+	
+	/**
+	 * Give the guarded elements of each connected contact component of this world
+	 * their common centre of mass velocity, if the guarded elements changed since
+	 * the last time.
+	 * 
+	 * @effect	...
+	 * 			| if(clusterChanged)
+	 * 			| then addContactsToCluster()
+	 * @effect	...
+	 * 			| let cluster = {element in guardedCluster | hasAsSpatialElement(element)}
+	 * 			| in if(clusterChanged && !cluster.isEmpty())
+	 * 			|	then for each element in cluster:
+	 * 			|		let component = the component collected by collectClusterComponent(element)
+	 * 			|		in element.setVelocity(sum(other.getVelocity().multiply(other.getMass())
+	 * 			|				for other in component).multiply(1/sum(other.getMass() for other in component)))
+	 * 			|	updateElementCollisions(cluster)
+	 * @post	...
+	 * 			| if(clusterChanged && !cluster.isEmpty())
+	 * 			| then (new this).getNbClusterSolves() == getNbClusterSolves() + 1
+	 * @post	...
+	 * 			| (new guardedCluster).equals(cluster) && !(new this).clusterChanged
+	 * @note	Momentum is conserved within each component. Elements moving at the same
+	 * 			velocity never collide with each other, so a component can only collide
+	 * 			with other elements and walls. An element that bounces with a guarded
+	 * 			element is guarded as well. Guarded elements that are not in contact
+	 * 			with each other keep their own velocities.
+	 */
+	private void solveCluster() {
+		Iterator<SpatialElement> members = guardedCluster.iterator();
+		while (members.hasNext()) {
+			if (!hasAsSpatialElement(members.next()))
+				members.remove();
+		}
+		if (!clusterChanged || guardedCluster.isEmpty())
+			return;
+		clusterChanged = false;
+		addContactsToCluster();
+		nbClusterSolves++;
+		clusterComponentMembers.clear();
+		for (SpatialElement element: guardedCluster) {
+			if (clusterComponentMembers.contains(element))
+				continue;
+			collectClusterComponent(element);
+			double momentumX = 0, momentumY = 0, mass = 0;
+			for (SpatialElement member: clusterComponent) {
+				momentumX += member.getMass()*member.getVelocityX();
+				momentumY += member.getMass()*member.getVelocityY();
+				mass += member.getMass();
+			}
+			for (SpatialElement member: clusterComponent)
+				member.setVelocity(momentumX/mass, momentumY/mass);
+		}
+		clusterComponent.clear();
+		clusterComponentMembers.clear();
+		updateElementCollisions(guardedCluster);
+	}
+	
+	/**
+	 * Collect the guarded elements of this world that are connected to the given
+	 * guarded element through contacts between guarded elements in the component
+	 * list of this world, and register them in its set of component members.
+	 * 
+	 * @param	element
+	 * 			The guarded element to start from.
+	 * @post	...
+	 * 			| (new this).clusterComponent is the list of all elements in guardedCluster
+	 * 			|	connected to element by a chain of elements in guardedCluster with
+	 * 			|	isInClusterContact(one, next) for each two consecutive elements
+	 * @post	...
+	 * 			| (new this).clusterComponentMembers.containsAll((new this).clusterComponent)
+	 * @note	Members registered before are skipped, so the components of a whole
+	 * 			cluster are collected in time linear in its contacts.
+	 */
+	private void collectClusterComponent(SpatialElement element) {
+		List<SpatialElement> component = clusterComponent;
+		component.clear();
+		component.add(element);
+		clusterComponentMembers.add(element);
+		for (int i = 0; i < component.size(); i++) {
+			SpatialElement member = component.get(i);
+			int nbCandidates = getContactCandidates(member);
+			for (int k = 0; k < nbCandidates; k++) {
+				int otherSlot = hasBroadphase() ? candidateSlots[k] : k;
+				SpatialElement other = (otherSlot >= 0) ? slots[otherSlot] : null;
+				if (other != null && guardedCluster.contains(other) && !clusterComponentMembers.contains(other)
+						&& isInClusterContact(member, other)) {
+					clusterComponentMembers.add(other);
+					component.add(other);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * List and set registering the guarded elements of the contact component
+	 * collected last, and the guarded elements already assigned to a component.
+	 */
+	private final List<SpatialElement> clusterComponent = new ArrayList<SpatialElement>();
+	private final Set<SpatialElement> clusterComponentMembers = new HashSet<SpatialElement>();
+	
+	/**
+	 * Store the slots of the elements of this world that may be in contact with
+	 * the given element at the front of candidateSlots, and return their number.
+	 * 
+	 * @param	element
+	 * 			The element to find the candidates of.
+	 * @return	...
+	 * 			| if(hasBroadphase())
+	 * 			| then result == getBroadphase().getCandidates(element, candidateSlots)
+	 * 			| else result == nbSlots
+	 * @note	Without a broadphase, the candidates are all slots, and candidateSlots
+	 * 			is left untouched.
+	 */
+	private int getContactCandidates(SpatialElement element) {
+		if (!hasBroadphase())
+			return nbSlots;
+		if (candidateSlots.length < nbSlots)
+			candidateSlots = new int[slots.length];
+		return getBroadphase().getCandidates(element, candidateSlots);
+	}
+	
+	/**
+	 * Check whether the given elements are in contact for the guard against
+	 * cascades of bounces.
+	 * 
+	 * @param	element
+	 * 			The first element.
+	 * @param	other
+	 * 			The second element.
+	 * @return	...
+	 * 			| result == (other != element && hasAsSpatialElement(other)
+	 * 			|	&& CollisionTable.getResolution(element.getCategory(), other.getCategory())
+	 * 			|		== CollisionTable.BOUNCE && element.isValidObjectCollision(other)
+	 * 			|	&& element.getDistanceBetween(other)
+	 * 			|		<= getClusterContactMargin()*(element.getRadius() + other.getRadius()))
+	 */
+	private boolean isInClusterContact(SpatialElement element, SpatialElement other) {
+		return other != element && hasAsSpatialElement(other)
+				&& CollisionTable.getResolution(element.getCategory(), other.getCategory()) == CollisionTable.BOUNCE
+				&& element.isValidObjectCollision(other) && element.getDistanceBetween(other)
+					<= getClusterContactMargin()*(element.getRadius() + other.getRadius());
+	}
+	
+	/**
+	 * Add all elements of this world that are in contact with a guarded element
+	 * to the guarded elements, until no more elements are in contact with them.
+	 * 
+	 * @post	...
+	 * 			| for each element in (new guardedCluster):
+	 * 			|	for each other in elements:
+	 * 			|		if(isInClusterContact(element, other))
+	 * 			|		then (new guardedCluster).contains(other)
+	 * @note	An element in contact with a guarded element would be hit by it right
+	 * 			away, and then by the elements behind, so it is guarded at once
+	 * 			instead of through a cascade of its own.
+	 */
+	private void addContactsToCluster() {
+		List<SpatialElement> members = clusterComponent;
+		members.clear();
+		members.addAll(guardedCluster);
+		for (int i = 0; i < members.size(); i++) {
+			SpatialElement element = members.get(i);
+			int nbCandidates = getContactCandidates(element);
+			for (int k = 0; k < nbCandidates; k++) {
+				int otherSlot = hasBroadphase() ? candidateSlots[k] : k;
+				SpatialElement other = (otherSlot >= 0) ? slots[otherSlot] : null;
+				if (other != null && !guardedCluster.contains(other) && isInClusterContact(element, other)) {
+					guardedCluster.add(other);
+					members.add(other);
+				}
+			}
+		}
+		members.clear();
+	}
+	
+	/**
+	 * Return the largest distance between two elements, relative to the sum of
+	 * their radii, at which they are in contact for the guard against cascades
+	 * of bounces.
+	 */
+	@Immutable
+	public static double getClusterContactMargin() {
+		return clusterContactMargin;
+	}
+	
+	/**
+	 * Variable registering the contact margin of the guard against cascades of bounces.
+	 */
+	private static final double clusterContactMargin = 0.01;
+	
+	/**
+	 * Start a new budget period of the guard against cascades of bounces at
+	 * the current time of this world.
+	 * 
+	 * @post	...
+	 * 			| nbStepEvents == 0 && nbZenoEvents == 0 && guardedCluster.isEmpty()
+	 * 			|	&& !clusterChanged && budgetPeriodStart == getTime()
+	 */
+	private void startBudgetPeriod() {
+		nbStepEvents = 0;
+		nbZenoEvents = 0;
+		guardedCluster.clear();
+		clusterChanged = false;
+		budgetPeriodStart = getTime();
+	}
+	
+	/**
+	 * Return the length in seconds of the periods of world time over which
+	 * the event budget of a world is counted.
+	 * 
+	 * @note	A call of evolve counts the budget over the whole call. The long
+	 * 			steps of evolveUntil start a new period each time this much time has
+	 * 			passed instead, as a loop of evolve calls of this length would, so
+	 * 			the collisions of a long but quiet step are not taken for a cascade.
+	 */
+	@Immutable
+	public static double getEventBudgetPeriod() {
+		return eventBudgetPeriod;
+	}
+	
+	/**
+	 * Variable registering the length of the periods over which the event
+	 * budget of a world is counted.
+	 */
+	private static final double eventBudgetPeriod = 1;
+	
+	/**
+	 * Return the longest step in seconds by which evolveUntil evolves a world
+	 * without continuous thrust while one of its ships thrusts.
+	 * 
+	 * @note	Without continuous thrust the thrust of a step is applied as one
+	 * 			kick at its end, so a thrusting ship is evolved in steps of about
+	 * 			one frame, as by a game loop, instead of coasting the whole step.
+	 */
+	@Immutable
+	public static double getMaxThrustStep() {
+		return maxThrustStep;
+	}
+	
+	/**
+	 * Variable registering the longest step by which evolveUntil evolves a
+	 * world without continuous thrust while one of its ships thrusts.
+	 */
+	private static final double maxThrustStep = 1.0/30;
+	
+	/**
+	 * Return the event budget of this world, the number of bounces in Zeno chains
+	 * it resolves during a single call of evolve before it starts merging them.
+	 * 
+	 * @note	Once twice this number of bounces in Zeno chains has been resolved,
+	 * 			the guarded elements in contact with each other are given a common
+	 * 			velocity and stay together, so a single call of evolve resolves
+	 * 			little more than twice the budget of them, however densely the
+	 * 			elements are packed. Other collisions do not count against the budget.
+	 */
+	@Basic
+	public int getEventBudget() {
+		return this.eventBudget;
+	}
+	
+	/**
+	 * Check whether the given event budget is a valid event budget for a world.
+	 * 
+	 * @param	eventBudget
+	 * 			The event budget to check.
+	 * @return	...
+	 * 			| result == (eventBudget > 0)
+	 */
+	public static boolean isValidEventBudget(int eventBudget) {
+		return eventBudget > 0;
+	}
+	
+	/**
+	 * Set the event budget of this world to the given budget.
+	 * 
+	 * @param	eventBudget
+	 * 			The new event budget.
+	 * @post	...
+	 * 			| (new this).getEventBudget() == eventBudget
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| !isValidEventBudget(eventBudget)
+	 */
+	public void setEventBudget(int eventBudget) throws IllegalArgumentException {
+		if (!isValidEventBudget(eventBudget))
+			throw new IllegalArgumentException("Invalid event budget.");
+		this.eventBudget = eventBudget;
+	}
+	
+	/**
+	 * Variable registering the event budget of this world.
+	 */
+	private int eventBudget = 2000;
+	
+	/**
+	 * Return the Zeno interval of this world in seconds. A pair of elements that
+	 * bounces off each other again within this interval is merged, and a bounce
+	 * of an element that bounced within this interval before is part of a Zeno
+	 * chain, which counts against the event budget.
+	 */
+	@Basic
+	public double getZenoInterval() {
+		return this.zenoInterval;
+	}
+	
+	/**
+	 * Check whether the given Zeno interval is a valid Zeno interval for a world.
+	 * 
+	 * @param	zenoInterval
+	 * 			The Zeno interval to check.
+	 * @return	...
+	 * 			| result == (zenoInterval >= 0) && (zenoInterval < Double.POSITIVE_INFINITY)
+	 */
+	public static boolean isValidZenoInterval(double zenoInterval) {
+		return (zenoInterval >= 0) && (zenoInterval < Double.POSITIVE_INFINITY);
+	}
+	
+	/**
+	 * Set the Zeno interval of this world to the given interval.
+	 * 
+	 * @param	zenoInterval
+	 * 			The new Zeno interval in seconds.
+	 * @post	...
+	 * 			| (new this).getZenoInterval() == zenoInterval
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| !isValidZenoInterval(zenoInterval)
+	 */
+	public void setZenoInterval(double zenoInterval) throws IllegalArgumentException {
+		if (!isValidZenoInterval(zenoInterval))
+			throw new IllegalArgumentException("Invalid Zeno interval.");
+		this.zenoInterval = zenoInterval;
+	}
+	
+	/**
+	 * Variable registering the Zeno interval of this world in seconds.
+	 */
+	private double zenoInterval = 1E-6;
+	
+	/**
+	 * Return the number of budget periods of this world during which the
+	 * event budget was exceeded by bounces in Zeno chains.
+	 */
+	@Basic
+	public long getNbBudgetOverruns() {
+		return this.nbBudgetOverruns;
+	}
+	
+	/**
+	 * Return the number of bounces this world resolved by merging both elements.
+	 */
+	@Basic
+	public long getNbMergedBounces() {
+		return this.nbMergedBounces;
+	}
+	
+	/**
+	 * Return the number of times this world gave a cluster of bouncing
+	 * elements a common velocity.
+	 */
+	@Basic
+	public long getNbClusterSolves() {
+		return this.nbClusterSolves;
+	}
+	
+	/**
+	 * Variables registering the counters of the guard against cascades of bounces.
+	 */
+	private long nbBudgetOverruns = 0;
+	private long nbMergedBounces = 0;
+	private long nbClusterSolves = 0;
+	
+	/**
+	 * Return the number of collisions this world resolved during the last
+	 * budget period of its last call of evolve.
+	 */
+	public long getNbStepEvents() {
+		return this.nbStepEvents;
+	}
+	
+	/**
+	 * Return the number of bounces in Zeno chains this world resolved during the
+	 * last budget period of its last call of evolve.
+	 */
+	public long getNbZenoEvents() {
+		return this.nbZenoEvents;
+	}
+	
+	/**
+	 * Variables registering the number of collisions and of bounces in Zeno chains
+	 * resolved during the current budget period, and the time at which that
+	 * period started.
+	 */
+	private long nbStepEvents = 0;
+	private long nbZenoEvents = 0;
+	private double budgetPeriodStart = 0;
+	
+	/**
+	 * Set registering the guarded elements, which bounced in a Zeno chain or with
+	 * a guarded element since the event budget of the current budget period was
+	 * exceeded, and whether it changed since the last cluster solve.
+	 */
+	private final Set<SpatialElement> guardedCluster = new LinkedHashSet<SpatialElement>();
+	private boolean clusterChanged = false;
+	
+	/**
+	 * Poll the first collision of this world, together with all collisions
+	 * following it in the queue that are predicted no later than the given
+	 * time, before the given end time, and involve none of the elements of
+	 * the collisions polled before them.
+	 * 
+	 * @param	lastTime
+	 * 			The latest time of the polled collisions.
+	 * @param	endTime
+	 * 			The time before which the polled collisions take place.
+	 * @return	The number of polled collisions.
+	 * @post	The first result entries of batchSlots1, batchSlots2 and batchTimes
+	 * 			hold the slots and predicted times of the polled collisions, in the
+	 * 			order of their predicted times.
+	 * @note	The batch ends at the first collision that shares an element with
+	 * 			it, since that collision has to be predicted again after the batch.
+	 * @note	The batch arrays are reused by the next call.
+	 */
+	private int pollSimultaneousCollisions(double lastTime, double endTime) {
+		if (batchMarks.length < slots.length) {
+			batchMarks = new int[slots.length];
+			batchSlots1 = new int[slots.length];
+			batchSlots2 = new int[slots.length];
+			batchTimes = new double[slots.length];
+		}
+		// Slots are only marked by this batch if their mark equals batchMark.
+		batchMark++;
+		int nbCollisions = 0;
+		while (true) {
+			int slot1 = collisions.peekElement1();
+			int slot2 = collisions.peekElement2();
+			batchSlots1[nbCollisions] = slot1;
+			batchSlots2[nbCollisions] = slot2;
+			batchTimes[nbCollisions] = collisions.peekTime();
+			nbCollisions++;
+			batchMarks[slot1] = batchMark;
+			if (slot2 != CollisionQueue.WALL)
+				batchMarks[slot2] = batchMark;
+			pollCollision();
+			skipOutdatedCollisions();
+			if (collisions.isEmpty() || collisions.peekTime() > lastTime || collisions.peekTime() >= endTime)
+				return nbCollisions;
+			if (batchMarks[collisions.peekElement1()] == batchMark)
+				return nbCollisions;
+			slot2 = collisions.peekElement2();
+			if (slot2 != CollisionQueue.WALL && batchMarks[slot2] == batchMark)
+				return nbCollisions;
+		}
+	}
+	
+	/**
+	 * List holding the elements involved in the current batch, in the order
+	 * in which they were resolved.
+	 * 
+	 * @note	The list is reused by each batch, so resolving a batch allocates nothing.
+	 */
+	private final List<SpatialElement> batchElements = new ArrayList<SpatialElement>();
+	
+	/**
+	 * Arrays holding the slots of both elements of the collisions of the current
+	 * batch, and their predicted times.
+	 */
+	private int[] batchSlots1 = new int[16];
+	private int[] batchSlots2 = new int[16];
+	private double[] batchTimes = new double[16];
+	
+	/**
+	 * Array registering for each slot the last batch that involved it, and
+	 * the number of the current batch.
+	 * 
+	 * @note	A batch never holds more collisions than there are slots, since
+	 * 			its collisions involve disjoint elements.
+	 */
+	private int[] batchMarks = new int[16];
+	private int batchMark = 0;
+	
+	/**
+	 * Remove all outdated collisions from the head of the queue of this world.
+	 * 
+	 * @post	...
+	 * 			| (new this).collisions.isEmpty() || !(new this).collisions.isOutdated(0, versions)
+	 * @note	With earliest event scheduling, an outdated collision whose first
+	 * 			element did not change was the earliest collision of that element.
+	 * 			That element is predicted again, which is correct because the
+	 * 			collisions it missed in the meantime all involve elements that
+	 * 			changed, and those have been predicted again themselves.
+	 */
+	private void skipOutdatedCollisions() {
+		while (!collisions.isEmpty() && collisions.isOutdated(0, versions)) {
+			boolean repredict = isEarliestEventScheduling() && !collisions.isOutdated1(0, versions);
+			int slot1 = collisions.peekElement1();
+			pollCollision();
+			if (repredict)
+				scheduleEarliestCollision(slot1);
+		}
+	}
+	
+	/**
+	 * Remove all outdated collisions from the queue of this world.
+	 * 
+	 * @post	...
+	 * 			| for each index in 0..collisions.size()-1:
+	 * 			|	!collisions.isOutdated(index, versions)
+	 * @note	With earliest event scheduling, the elements that thereby lose
+	 * 			their earliest collision are predicted again.
+	 */
+	private void removeOutdatedCollisions() {
+		int nbOwners = 0;
+		if (isEarliestEventScheduling()) {
+			for (int i = 0; i < collisions.size(); i++) {
+				if (!collisions.isOutdated1(i, versions) && collisions.isOutdated2(i, versions)) {
+					if (nbOwners == outdatedOwners.length)
+						outdatedOwners = Arrays.copyOf(outdatedOwners, 2*nbOwners);
+					outdatedOwners[nbOwners++] = collisions.getElement1(i);
+				}
+			}
+		}
+		collisions.removeOutdated(versions);
+		repredictions.removeOutdated(versions);
+		Arrays.fill(nbSlotCollisions, 0);
+		for (int i = 0; i < collisions.size(); i++) {
+			nbSlotCollisions[collisions.getElement1(i)]++;
+			if (collisions.getElement2(i) != CollisionQueue.WALL)
+				nbSlotCollisions[collisions.getElement2(i)]++;
+		}
+		nbOutdatedCollisions = 0;
+		for (int i = 0; i < nbOwners; i++)
+			scheduleEarliestCollision(outdatedOwners[i]);
+	}
+	
+	/**
+	 * Array holding the slots that lose their earliest collision when the
+	 * outdated collisions are removed.
+	 */
+	private int[] outdatedOwners = new int[16];
+	
+	/**
+	 * Return the number of outdated collisions the queue of this world may
+	 * hold before they are removed all at once.
+	 * 
+	 * @return	...
+	 * 			| result == max(64, collisions.size() / 2)
+	 */
+	private int getMaxNbOutdatedCollisions() {
+		return Math.max(64, collisions.size() / 2);
+	}
+	
+	/**
+	 * Variable registering an estimate of the number of outdated collisions in
+	 * the queue of this world. A collision of which both elements changed may
+	 * be counted twice.
+	 */
+	private int nbOutdatedCollisions = 0;
+	
+	/**
+	 * Update the set of collisions of this world, so that all 
+	 * collisions involving the given spatial element are up to date.
+	 * 
+	 * @effect	...
+	 * 			| for each element in elementsToUpdate
+	 * 			| if !element.isTerminated()
+	 * 			| then this.removeCollision(element)
+	 * 			| 	   this.addCollisoin(element)
+	 * @note	All elements are removed before any is added again, and a pair of
+	 * 			given elements is only predicted by the last of both, so that no
+	 * 			collision is scheduled twice. An element given more than once is
+	 * 			only updated once, at its first occurrence.
+	 * @note	The predictions are made in three stages. The candidate pairs are
+	 * 			collected first. Their times to collision are then computed, in
+	 * 			parallel if this world has a fork join pool and there are more pairs
+	 * 			than its parallel threshold. Finally the collisions are scheduled in
+	 * 			the order of the pairs, so the result does not depend on the stage
+	 * 			in between.
+	 * @throws	NullPointerException
+	 * 			...
+	 * 			| elementsToUpdate == null
+	 * @throws	NullPointerException
+	 * 			...
+	 * 			| for some element in elementsToUpdate
+	 * 			|	element == null
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| for some element in elementsToUpdate
+	 * 			|	!element.isTerminated() && !hasAsSpatialElement(element)
+	 */
+	private void updateElementCollisions(Collection<SpatialElement> elementsToUpdate) throws NullPointerException, IllegalArgumentException{
+		if(elementsToUpdate == null)
+			throw new NullPointerException("Noneffective set.");
+		for(SpatialElement element: elementsToUpdate){
+			 if(element == null)
+				 throw new NullPointerException("Noneffective element in set.");
+			 if(!element.isTerminated() && !hasAsSpatialElement(element))
+				 throw new IllegalArgumentException("Element for collision does not belong to this world.");
+		}
+		predictPlacedElements();
+		if (updateOrder.length < slots.length)
+			updateOrder = new int[slots.length];
+		List<SpatialElement> updated = updatedElements;
+		updated.clear();
+		for(SpatialElement element: elementsToUpdate){
+			if(!element.isTerminated() && updateOrder[element.getSlot()] == 0){
+				this.removeAsCollision(element);
+				if (hasBroadphase())
+					getBroadphase().add(element, getTimeToGridRebuild());
+				updated.add(element);
+				updateOrder[element.getSlot()] = updated.size();
+			}
+		}
+		scheduleCollisions(updated);
+		updated.clear();
+	}
+	
+	/**
+	 * List holding the elements of which the collisions are being updated, in
+	 * the order in which they are updated.
+	 * 
+	 * @note	The list is reused by each update, so an update allocates nothing.
+	 */
+	private final List<SpatialElement> updatedElements = new ArrayList<SpatialElement>();
+	
+	/**
+	 * Predict and schedule the collisions of the given elements, which have no
+	 * scheduled collisions and are registered in the broadphase of this world, if any.
+	 * 
+	 * @param	updated
+	 * 			The elements to schedule the collisions of, without duplicates.
+	 * @effect	...
+	 * 			| for each element in updated:
+	 * 			|	if(isEarliestEventScheduling())
+	 * 			|	then scheduleEarliestCollision(getSlot(element))
+	 * 			|	else scheduleCollision(getSlot(element), CollisionQueue.WALL,
+	 * 			|			getTimeToWallCollision(getSlot(element)))
+	 * 			|		&& for each pair in 0..collectPairs(updated)-1:
+	 * 			|			if(pairOwners[pair] == getSlot(element) && pairValid[pair])
+	 * 			|			then scheduleCollision(pairOwners[pair], pairSlots[pair], pairTimes[pair])
+	 */
+	private void scheduleCollisions(List<SpatialElement> updated) {
+		int nbPairs = collectPairs(updated);
+		if (hasForkJoinPool() && nbPairs > getParallelThreshold())
+			getForkJoinPool().invoke(new PredictionTask(0, nbPairs));
+		else
+			predictPairs(0, nbPairs);
+		int pair = 0;
+		for (int i = 0; i < updated.size(); i++) {
+			int slot1 = updated.get(i).getSlot();
+			if (isEarliestEventScheduling()) {
+				int partner = CollisionQueue.WALL;
+				double partnerTime = getTimeToWallCollision(slot1);
+				for (; pair < nbPairs && pairOwners[pair] == slot1; pair++) {
+					if (pairValid[pair] && pairTimes[pair] < partnerTime) {
+						partner = pairSlots[pair];
+						partnerTime = pairTimes[pair];
+					}
+				}
+				scheduleCollision(slot1, partner, partnerTime);
+			} else {
+				scheduleCollision(slot1, CollisionQueue.WALL, getTimeToWallCollision(slot1));
+				for (; pair < nbPairs && pairOwners[pair] == slot1; pair++) {
+					if (pairValid[pair])
+						scheduleCollision(slot1, pairSlots[pair], pairTimes[pair]);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Collect the pairs of elements to predict for the given elements.
+	 * 
+	 * @param	updated
+	 * 			The elements to collect the pairs of, without duplicates.
+	 * @return	The number of collected pairs.
+	 * @post	The pairs of each element are collected in the order of the given
+	 * 			elements and the order of collectCandidates.
+	 * 			| for each pair in 0..result-1:
+	 * 			|	pairOwners[pair] is the slot of one of the given elements
+	 * 			|	&& pairSlots[pair] is the slot of one of its candidates
+	 * @post	Without earliest event scheduling, a candidate that comes later in the
+	 * 			given elements is not collected, since it predicts this pair itself.
+	 */
+	private int collectPairs(List<SpatialElement> updated) {
+		if (updateOrder.length < slots.length)
+			updateOrder = Arrays.copyOf(updateOrder, slots.length);
+		for (int i = 0; i < updated.size(); i++)
+			updateOrder[updated.get(i).getSlot()] = i + 1;
+		int nbPairs = 0;
+		for (int i = 0; i < updated.size(); i++) {
+			int slot1 = updated.get(i).getSlot();
+			int nbCandidates = collectCandidates(slot1, null);
+			if (pairSlots.length < nbPairs + nbCandidates) {
+				int capacity = Math.max(2*pairSlots.length, nbPairs + nbCandidates);
+				pairOwners = Arrays.copyOf(pairOwners, capacity);
+				pairSlots = Arrays.copyOf(pairSlots, capacity);
+				pairTimes = new double[capacity];
+				pairValid = new boolean[capacity];
+			}
+			for (int j = 0; j < nbCandidates; j++) {
+				int slot2 = candidateSlots[j];
+				if (!isEarliestEventScheduling() && updateOrder[slot2] > i + 1)
+					continue;
+				pairOwners[nbPairs] = slot1;
+				pairSlots[nbPairs] = slot2;
+				nbPairs++;
+			}
 		}
-		if (!this.hasAsSpatialElement(element1)) {
-			throw new IllegalArgumentException("Element for collision does not belong to this world.");
+		for (int i = 0; i < updated.size(); i++)
+			updateOrder[updated.get(i).getSlot()] = 0;
+		return nbPairs;
+	}
+	
+	/**
+	 * Compute the time to collision of each pair in the given range of pairs,
+	 * and whether that collision is valid.
+	 * 
+	 * @param	from
+	 * 			The first pair of the range.
+	 * @param	to
+	 * 			The pair just after the range.
+	 * @post	...
+	 * 			| for each pair in from..to-1:
+	 * 			|	pairTimes[pair] == slots[pairOwners[pair]].getTimeToCollision(slots[pairSlots[pair]])
+	 * 			|	&& pairValid[pair] == (pairTimes[pair] != Double.POSITIVE_INFINITY
+	 * 			|		&& slots[pairOwners[pair]].isValidObjectCollision(slots[pairSlots[pair]]))
+	 * @note	Only the entries of the range are written, and elements and columns
+	 * 			are only read, so disjoint ranges can be handled concurrently.
+	 */
+	private void predictPairs(int from, int to) {
+		int owner = -1;
+		double x = 0;
+		double y = 0;
+		for (int pair = from; pair < to; pair++) {
+			int slot1 = pairOwners[pair];
+			if (slot1 != owner) {
+				owner = slot1;
+				double deltaT = getTime() - referenceTimes[slot1];
+				x = positionsX[slot1] + velocitiesX[slot1]*deltaT;
+				y = positionsY[slot1] + velocitiesY[slot1]*deltaT;
+			}
+			int slot2 = pairSlots[pair];
+			double deltaT = getTime() - referenceTimes[slot2];
+			double time;
+			if (accelerating[slot1] || accelerating[slot2])
+				time = slots[slot1].getTimeToCollision(slots[slot2]);
+			else
+				time = CollisionKernel.getTimeToCollision(x, y, velocitiesX[slot1], velocitiesY[slot1], radii[slot1],
+						positionsX[slot2] + velocitiesX[slot2]*deltaT, positionsY[slot2] + velocitiesY[slot2]*deltaT,
+						velocitiesX[slot2], velocitiesY[slot2], radii[slot2]);
+			pairTimes[pair] = time;
+			pairValid[pair] = (time != Double.POSITIVE_INFINITY)
+					&& slots[slot1].isValidObjectCollision(slots[slot2]);
 		}
-		collisions.add(new WallCollision(element1));
-		for (SpatialElement element2: elements) {
-			if (element1.getTimeToCollision(element2) != Double.POSITIVE_INFINITY
-					&& element1.isValidObjectCollision(element2)) {
-					collisions.add(new ObjectCollision(element2,element1));
+	}
+	
+	/**
+	 * A class of tasks predicting a range of pairs, splitting the range until
+	 * it is not larger than the parallel threshold.
+	 */
+	private class PredictionTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		PredictionTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected void compute() {
+			if (to - from <= getParallelThreshold()) {
+				predictPairs(from, to);
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new PredictionTask(from, middle), new PredictionTask(middle, to));
 			}
 		}
-	}	
+		
+		private final int from;
+		private final int to;
+	}
 	
 	/**
-	 * Remove all collisions where the given element is involved in
-	 * from the set of upcoming collisions of this world.
+	 * Arrays registering for each collected pair the slots of both elements,
+	 * their time to collision and whether their collision is valid.
+	 */
+	private int[] pairOwners = new int[16];
+	private int[] pairSlots = new int[16];
+	private double[] pairTimes = new double[16];
+	private boolean[] pairValid = new boolean[16];
+	
+	/**
+	 * Array registering for each slot its position (starting from 1) in the
+	 * elements of which the pairs are being collected, or zero.
+	 */
+	private int[] updateOrder = new int[16];
+	
+	/**
+	 * The queue of all upcoming collisions in this world.
 	 * 
-	 * @param	element
-	 * 			The elements to remove all the collisions of.
+	 * @invar	The queue is effective.
+	 * 			| collisions != null
+	 * @invar	Each collision in the queue refers to slots that have been used.
+	 * 			| for each index in 0..collisions.size()-1:
+	 * 			|	collisions.getElement1(index) < nbSlots
+	 * 			|	&& collisions.getElement2(index) < nbSlots
+	 * @note	Outdated collisions stay in the queue until they reach its head.
+	 */
+	private final CollisionQueue collisions = new CollisionQueue();
+	
+	/**
+	 * The queue of the re-predictions of the elements of this world, each
+	 * entry holding the slot to predict again as its first element.
+	 * 
+	 * @invar	The queue is effective.
+	 * 			| repredictions != null
+	 * @invar	Each slot has at most one re-prediction that is not outdated, at
+	 * 			the time registered for it in repredictionTimes.
+	 */
+	private final CollisionQueue repredictions = new CollisionQueue();
+	
+	/**
+	 * Return the broadphase used by this world to select collision candidates,
+	 * if any.
+	 */
+	@Basic
+	public Broadphase getBroadphase() {
+		return this.broadphase;
+	}
+	
+	/**
+	 * Check whether this world uses a broadphase.
+	 * 
+	 * @return	...
+	 * 			| result == (getBroadphase() != null)
+	 */
+	public boolean hasBroadphase() {
+		return getBroadphase() != null;
+	}
+	
+	/**
+	 * Set the given broadphase as the broadphase of this world.
+	 * 
+	 * @param	broadphase
+	 * 			The new broadphase for this world, or null to test every
+	 * 			pair of elements.
 	 * @post	...
-	 * 			| for each collision in collisions:
-	 * 			|	!collision.contains(element)
+	 * 			| (new this).getBroadphase() == broadphase
+	 * @effect	...
+	 * 			| rebuildCollisions()
 	 */
-	public void removeAsCollision(SpatialElement element) {
-		List<Collision> collisionsRemoved = new ArrayList<Collision>();
-		for (Collision collision: collisions) {
-			if (collision.contains(element)) {
-				collisionsRemoved.add(collision);
+	public void setBroadphase(Broadphase broadphase) {
+		if (this.broadphase != null)
+			this.broadphase.clear();
+		this.broadphase = broadphase;
+		rebuildCollisions();
+	}
+	
+	/**
+	 * Variable referencing the broadphase of this world.
+	 */
+	private Broadphase broadphase = null;
+	
+	/**
+	 * Return the spatial grid used by this world to select collision candidates,
+	 * if any.
+	 * 
+	 * @return	...
+	 * 			| if(getBroadphase() instanceof SpatialGrid)
+	 * 			| then result == getBroadphase()
+	 * 			| else result == null
+	 */
+	public SpatialGrid getSpatialGrid() {
+		if (getBroadphase() instanceof SpatialGrid)
+			return (SpatialGrid) getBroadphase();
+		return null;
+	}
+	
+	/**
+	 * Check whether this world uses a spatial grid.
+	 * 
+	 * @return	...
+	 * 			| result == (getSpatialGrid() != null)
+	 */
+	public boolean hasSpatialGrid() {
+		return getSpatialGrid() != null;
+	}
+	
+	/**
+	 * Set the given spatial grid as the broadphase of this world.
+	 * 
+	 * @param	spatialGrid
+	 * 			The new spatial grid for this world, or null to test every
+	 * 			pair of elements.
+	 * @effect	...
+	 * 			| setBroadphase(spatialGrid)
+	 */
+	public void setSpatialGrid(SpatialGrid spatialGrid) {
+		setBroadphase(spatialGrid);
+	}
+	
+	/**
+	 * Return the time left before the broadphase of this world has to be rebuilt.
+	 */
+	public double getTimeToGridRebuild() {
+		return this.gridRebuildTime - getTime();
+	}
+	
+	/**
+	 * Variable registering the time of this world at which its broadphase
+	 * has to be rebuilt.
+	 */
+	private double gridRebuildTime = 0;
+	
+	/**
+	 * Apply the thrust of all ships of this world with an active thruster
+	 * during the given time.
+	 * 
+	 * @param	deltaT
+	 * 			The time during which the thrusters are active.
+	 * @effect	...
+	 * 			| for each ship in {ship | ship is in getShips() && ship.isThrusterActive()}
+	 * 			|	ship.thrust(deltaT * Ship.getThrustForce() / ship.getMass())
+	 * @post	...
+	 * 			| (new this).thrustingElements.containsAll({ship | ship is in getShips()
+	 * 			|	&& ship.isThrusterActive()})
+	 * @note	If this world has a fork join pool and uses more slots than its
+	 * 			parallel threshold, the ships are thrusted in parallel. Each ship is
+	 * 			handled exactly as in the serial case, so the results are identical.
+	 */
+	private void thrustShips(double deltaT) {
+		if (thrustingSlots.length < nbSlots)
+			thrustingSlots = new boolean[slots.length];
+		if (hasForkJoinPool() && nbSlots > getParallelThreshold())
+			getForkJoinPool().invoke(new ThrustTask(0, nbSlots, deltaT));
+		else
+			thrustShips(0, nbSlots, deltaT);
+		for (int slot = 0; slot < nbSlots; slot++) {
+			if (thrustingSlots[slot])
+				thrustingElements.add(slots[slot]);
+		}
+	}
+	
+	/**
+	 * List holding the ships thrusted at the end of the current step, in the
+	 * order of their slots.
+	 */
+	private final List<SpatialElement> thrustingElements = new ArrayList<SpatialElement>();
+	
+	/**
+	 * List holding the snapshot of the ships of this world of which the programs
+	 * are advanced at the end of the current step.
+	 */
+	private final List<Ship> programShips = new ArrayList<Ship>();
+	
+	/**
+	 * Apply the thrust of the ships with an active thruster in the given range
+	 * of slots during the given time, and register which slots were thrusted.
+	 * 
+	 * @param	from
+	 * 			The first slot of the range.
+	 * @param	to
+	 * 			The slot just after the range.
+	 * @param	deltaT
+	 * 			The time during which the thrusters are active.
+	 * @note	Only the elements and columns of the slots in the range are changed,
+	 * 			so disjoint ranges can be handled concurrently.
+	 */
+	private void thrustShips(int from, int to, double deltaT) {
+		for (int slot = from; slot < to; slot++) {
+			thrustingSlots[slot] = (flags[slot] & CollisionTable.SHIP) != 0 && ((Ship) slots[slot]).isThrusterActive();
+			if (thrustingSlots[slot])
+				((Ship) slots[slot]).thrust(deltaT * Ship.getThrustForce() / masses[slot]);
+		}
+	}
+	
+	/**
+	 * Array registering for each slot whether it was thrusted by the last call of thrustShips.
+	 */
+	private boolean[] thrustingSlots = new boolean[16];
+	
+	/**
+	 * A class of tasks applying the thrust of the ships in a range of slots,
+	 * splitting the range until it is not larger than the parallel threshold.
+	 */
+	private class ThrustTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		ThrustTask(int from, int to, double deltaT) {
+			this.from = from;
+			this.to = to;
+			this.deltaT = deltaT;
+		}
+		
+		@Override
+		protected void compute() {
+			if (to - from <= getParallelThreshold()) {
+				thrustShips(from, to, deltaT);
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new ThrustTask(from, middle, deltaT), new ThrustTask(middle, to, deltaT));
 			}
 		}
-		collisions.removeAll(collisionsRemoved);
+		
+		private final int from;
+		private final int to;
+		private final double deltaT;
 	}
 	
 	/**
-	 * Update the set of collisions of this world, so that all 
-	 * collisions involving the given spatial element are up to date.
+	 * Return the fork join pool used by this world for its parallel phases, if any.
+	 */
+	@Basic
+	public ForkJoinPool getForkJoinPool() {
+		return this.forkJoinPool;
+	}
+	
+	/**
+	 * Check whether this world uses a fork join pool.
 	 * 
-	 * @effect	...
-	 * 			| for each element in elementsToUpdate
-	 * 			| if !element.isTerminated()
-	 * 			| then this.removeCollision(element)
-	 * 			| 	   this.addCollisoin(element)
-	 * @throws	NullPointerException
+	 * @return	...
+	 * 			| result == (getForkJoinPool() != null)
+	 */
+	public boolean hasForkJoinPool() {
+		return getForkJoinPool() != null;
+	}
+	
+	/**
+	 * Set the fork join pool used by this world for its parallel phases.
+	 * 
+	 * @param	forkJoinPool
+	 * 			The new fork join pool for this world, or null to run serially.
+	 * @post	...
+	 * 			| (new this).getForkJoinPool() == forkJoinPool
+	 * @note	The pool is not owned by this world and is never shut down by it.
+	 */
+	public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+		this.forkJoinPool = forkJoinPool;
+	}
+	
+	/**
+	 * Variable referencing the fork join pool of this world.
+	 */
+	private ForkJoinPool forkJoinPool = null;
+	
+	/**
+	 * Return the parallel threshold of this world. Parallel phases split their
+	 * work in parts of at most this many slots, and stay serial if this world
+	 * does not use more slots.
+	 */
+	@Basic
+	public int getParallelThreshold() {
+		return this.parallelThreshold;
+	}
+	
+	/**
+	 * Check whether the given parallel threshold is a valid parallel threshold.
+	 * 
+	 * @param	parallelThreshold
+	 * 			The parallel threshold to check.
+	 * @return	...
+	 * 			| result == (parallelThreshold >= 1)
+	 */
+	public static boolean isValidParallelThreshold(int parallelThreshold) {
+		return parallelThreshold >= 1;
+	}
+	
+	/**
+	 * Set the parallel threshold of this world to the given threshold.
+	 * 
+	 * @param	parallelThreshold
+	 * 			The new parallel threshold for this world.
+	 * @post	...
+	 * 			| (new this).getParallelThreshold() == parallelThreshold
+	 * @throws	IllegalArgumentException
 	 * 			...
-	 * 			| elementsToUpdate == null
-	 * @throws	NullPointerException
+	 * 			| !isValidParallelThreshold(parallelThreshold)
+	 */
+	public void setParallelThreshold(int parallelThreshold) throws IllegalArgumentException {
+		if (!isValidParallelThreshold(parallelThreshold))
+			throw new IllegalArgumentException("Invalid parallel threshold.");
+		this.parallelThreshold = parallelThreshold;
+	}
+	
+	/**
+	 * Variable registering the parallel threshold of this world.
+	 */
+	private int parallelThreshold = 1024;
+	
+	/**
+	 * Return the simultaneity tolerance of this world in seconds. Collisions
+	 * predicted within this tolerance after the first upcoming collision are
+	 * resolved in the same batch.
+	 */
+	@Basic
+	public double getSimultaneityTolerance() {
+		return this.simultaneityTolerance;
+	}
+	
+	/**
+	 * Check whether the given simultaneity tolerance is a valid simultaneity tolerance for a world.
+	 * 
+	 * @param	simultaneityTolerance
+	 * 			The simultaneity tolerance to check.
+	 * @return	...
+	 * 			| result == (simultaneityTolerance >= 0) && (simultaneityTolerance < Double.POSITIVE_INFINITY)
+	 */
+	public static boolean isValidSimultaneityTolerance(double simultaneityTolerance) {
+		return (simultaneityTolerance >= 0) && (simultaneityTolerance < Double.POSITIVE_INFINITY);
+	}
+	
+	/**
+	 * Set the simultaneity tolerance of this world to the given tolerance.
+	 * 
+	 * @param	simultaneityTolerance
+	 * 			The new simultaneity tolerance in seconds.
+	 * @post	...
+	 * 			| (new this).getSimultaneityTolerance() == simultaneityTolerance
+	 * @throws	IllegalArgumentException
 	 * 			...
-	 * 			| for some element in elementsToUpdate
-	 * 			|	element == null
+	 * 			| !isValidSimultaneityTolerance(simultaneityTolerance)
+	 * @note	A collision of the batch is resolved at its own predicted time, but
+	 * 			a new collision caused by an earlier collision of the same batch is
+	 * 			only predicted after the batch, so it may be resolved up to this
+	 * 			tolerance late.
 	 */
-	private void updateElementCollisions(Set<SpatialElement> elementsToUpdate) throws NullPointerException, IllegalArgumentException{
-		if(elementsToUpdate == null)
-			throw new NullPointerException("Noneffective set.");
-		for(SpatialElement element: elementsToUpdate){
-			 if(element == null)
-				 throw new NullPointerException("Noneffective element in set.");
+	public void setSimultaneityTolerance(double simultaneityTolerance) throws IllegalArgumentException {
+		if (!isValidSimultaneityTolerance(simultaneityTolerance))
+			throw new IllegalArgumentException("Invalid simultaneity tolerance.");
+		this.simultaneityTolerance = simultaneityTolerance;
+	}
+	
+	/**
+	 * Variable registering the simultaneity tolerance of this world in seconds.
+	 */
+	private double simultaneityTolerance = 1E-9;
+	
+	/**
+	 * Recompute all upcoming collisions of this world from scratch.
+	 * 
+	 * @post	...
+	 * 			| if(hasBroadphase())
+	 * 			| then (new this).getTimeToGridRebuild() == getBroadphase().getHorizon()
+	 * @effect	...
+	 * 			| for each element in {element in elements | !element.isSleeping()}:
+	 * 			|	addAsCollision(element)
+	 * @note	Each pair of elements is only added once.
+	 * @note	If this world uses earliest event scheduling, only the earliest
+	 * 			collision of each element is added.
+	 * @note	Sleeping elements predict nothing themselves. Their collisions with
+	 * 			moving elements are predicted by those moving elements.
+	 */
+	private void rebuildCollisions() {
+		// The placed elements are predicted below, together with all others.
+		placedElements.clear();
+		collisions.clear();
+		repredictions.clear();
+		Arrays.fill(repredictionTimes, Double.POSITIVE_INFINITY);
+		Arrays.fill(nbSlotCollisions, 0);
+		nbOutdatedCollisions = 0;
+		if (hasBroadphase()) {
+			gridRebuildTime = getTime() + getBroadphase().getHorizon();
+			// Registrations are replaced rather than cleared, so a broadphase
+			// can reuse what it knows about the previous ones.
+			// The box of a sleeping element does not depend on the horizon.
+			for (SpatialElement element: elements)
+				if (!element.isSleeping() || !getBroadphase().contains(element))
+					getBroadphase().add(element, getTimeToGridRebuild());
 		}
-		for(SpatialElement element: elementsToUpdate){
-			if(!element.isTerminated()){
-				this.removeAsCollision(element);
-				this.addAsCollision(element);
+		// Sleeping elements are only passive targets: each moving element
+		// predicts its collisions with all of them.
+		if (rebuiltSlots.length < nbSlots)
+			rebuiltSlots = new boolean[slots.length];
+		boolean[] done = rebuiltSlots;
+		// Only the first nbSlots entries are read, so only those are cleared.
+		for (int slot1 = 0; slot1 < nbSlots; slot1++)
+			done[slot1] = (slots[slot1] != null) && isSleeping(slot1);
+		for (int slot1 = 0; slot1 < nbSlots; slot1++) {
+			if (slots[slot1] == null || isSleeping(slot1))
+				continue;
+			if (isEarliestEventScheduling()) {
+				scheduleEarliestCollision(slot1);
+				continue;
 			}
+			scheduleCollision(slot1, CollisionQueue.WALL, getTimeToWallCollision(slot1));
+			int nbCandidates = predictCandidates(slot1, done);
+			for (int i = 0; i < nbCandidates; i++)
+				scheduleObjectCollision(slot1, candidateSlots[i], candidateTimes[i]);
+			done[slot1] = true;
 		}
 	}
 	
 	/**
-	 * A set containing all upcoming collisions in this world.
-	 * 
-	 * @invar	The structure is effective.
-	 * 			| collisions != null
-	 * @invar	Each collision in collisions is effective.
-	 * 			| for each collision in collisions:
-	 * 			| collision != null
+	 * Array registering for each slot whether the collisions of the element
+	 * occupying it were already predicted during the current rebuild.
+	 */
+	private boolean[] rebuiltSlots = new boolean[16];
+	
+	/**
+	 * Return the current time of this world in seconds. The time of a new world is zero
+	 * and only advances while evolving.
 	 */
-	private final PriorityQueue<Collision> collisions = new PriorityQueue<Collision>();
+	@Basic
+	public double getTime() {
+		return this.time;
+	}
 	
+	/**
+	 * Variable registering the current time of this world in seconds.
+	 * 
+	 * @note	Elements only store their position at some reference time, their
+	 * 			current position is derived from this clock. Advancing the clock
+	 * 			therefore moves all elements at once.
+	 */
+	private double time = 0;
 	
 	/**
 	 * Evolve the world by the time deltaT.
@@ -556,65 +3702,296 @@ public class World{
 	 * 			| (deltaT >= 0)
 	 * 
 	 * @effect	...
-	 * 			| timeLeft = deltaT
+	 * 			| endTime = getTime() + deltaT
 	 * 			| do	
-	 * 			| 	minCollisionTime = Double.POSITIVE_INFINITY;
+	 * 			| 	skipOutdatedCollisions()
+	 * 			| 	nextCollisionTime = Double.POSITIVE_INFINITY;
 	 *			| 	if(!collisions.isEmpty())
-	 *			|	then minCollisionTime = collisions.peek().getCollisionTime()
-	 *			| 
-	 *			| 	for each element in elements
-	 *			|		element.move(min(minCollisionTime, timeLeft))
+	 *			|	then nextCollisionTime = collisions.peekTime()
+	 *			| 	rebuildTime = Double.POSITIVE_INFINITY
+	 *			| 	if(hasBroadphase())
+	 *			|	then rebuildTime = getTime() + getTimeToGridRebuild()
+	 *			|
+	 *			|	repredictionTime = getNextRepredictionTime()
 	 *			|
-	 *			|	if( minCollsionTime < timeLeft )
-	 *			|	then timeLeft -= minCollisionTime
-	 *			|		 firstCollision = collision.poll()
-	 * 			|		 firstCollision.resolve(collisionListener)
-	 * 			|		 updateElementCollisions(firstCollision.getAllElements())
+	 *			|	if( repredictionTime < endTime && repredictionTime <= nextCollisionTime
+	 *			|			&& repredictionTime <= rebuildTime )
+	 *			|	then time = repredictionTime
+	 *			|		 repredictDue(repredictionTime)
+	 *			|	else if( nextCollisionTime < endTime && nextCollisionTime <= rebuildTime )
+	 *			|	then n = pollSimultaneousCollisions(min(nextCollisionTime
+	 *			|			+ getSimultaneityTolerance(), rebuildTime, repredictionTime), endTime)
+	 *			|		 for each i in 0..n-1:
+	 *			|			time = batchTimes[i]
+	 * 			|			resolveGuarded(batchSlots1[i], batchSlots2[i], collisionListener)
+	 * 			|		 updateElementCollisions(union of the elements in batchSlots1[i]
+	 * 			|			and batchSlots2[i] for each i in 0..n-1)
+	 * 			|		 sweepRemovedElements()
+	 * 			|	else if( rebuildTime < endTime )
+	 * 			|	then time = rebuildTime
+	 * 			|		 rebuildCollisions()
 	 * 			|	else
-	 * 			|		for each element in {element | element is in elements && element.isThrusterActive()}
-	 * 			|			element.thrust(deltaT * 1.1E18 / element.getMass())
+	 * 			|		time = endTime
+	 * 			|		if(!isContinuousThrust())
+	 * 			|		then thrustShips(deltaT)
 	 * 			|		for each ship in {ship | ship is in getShips() && ship.getProgram() != null}
 	 * 			|			ship.getProgram().advanceProgram(deltaT)
-	 * 			|		element.updateElementCollisions({element | element is in elements && element.isThrusterActive()})
-	 * 			|		timeLeft -=	minCollisionTime
-	 * 			|	while(0 < timeLeft)
+	 * 			|		element.updateElementCollisions({element | element is in elements && element.isThrusterActive()
+	 * 			|			&& !isContinuousThrust()} union {element | element is in elements
+	 * 			|			&& the acceleration of element changed since it was last predicted})
+	 * 			|	while(time < endTime)
+	 * 			| sweepRemovedElements()
+	 * @note	Elements are never moved explicitly: advancing the time of this world
+	 * 			moves all of them. Only the elements involved in a collision are touched.
+	 * 			With continuous thrust, thrusting ships follow a parabola until they
+	 * 			reach their maximum speed and are predicted along it.
+	 * @note	Collisions predicted within the simultaneity tolerance of each other
+	 * 			that involve disjoint elements are resolved as one batch, in the order
+	 * 			of their predicted times, and the elements they involve are predicted
+	 * 			again only once, after the whole batch.
+	 * @note	Elements removed while resolving a batch leave this world at once,
+	 * 			but are only swept from its broadphase and slots after the batch.
+	 * @note	Collisions are resolved from the slots in the queue without creating
+	 * 			collision objects, also when a collision listener is notified, and the
+	 * 			sets and lists used by each batch and step are reused.
+	 * @note	Collisions are resolved by resolveGuarded, which guards against
+	 * 			cascades of bounces in dense clusters. Only bounces in Zeno chains
+	 * 			count against the event budget. Once their number during this call
+	 * 			exceeds twice the budget, the guarded elements in contact with each
+	 * 			other are given a common velocity by solveCluster after each batch, and
+	 * 			stop together at walls, which cuts off cascades that merging alone does
+	 * 			not end. evolveUntil counts the budget per getEventBudgetPeriod()
+	 * 			instead of per step.
 	 */
 	public void evolve(Double deltaT, CollisionListener collisionListener) throws IllegalArgumentException, NullPointerException{
 		assert (deltaT >= 0);
+		evolve(deltaT, collisionListener, null, Double.POSITIVE_INFINITY);
+	}
+	
+	/**
+	 * Evolve the world by the time deltaT, or until the given condition holds
+	 * after a collision batch.
+	 * 
+	 * @param	deltaT
+	 * 			The time to evolve this world by.
+	 * @param	collisionListener
+	 * 			The listener to notify of the resolved collisions.
+	 * @param	condition
+	 * 			The condition to stop at, or null to evolve by the whole time.
+	 * @param	budgetPeriod
+	 * 			The time after which a new budget period starts.
+	 * @effect	...
+	 * 			| if(condition == null && budgetPeriod == Double.POSITIVE_INFINITY)
+	 * 			| then evolve(deltaT, collisionListener)
+	 * @effect	Otherwise this world evolves as by evolve(deltaT, collisionListener),
+	 * 			except that the step ends at the time of the first collision batch
+	 * 			after which the condition holds. The ships are then thrusted and
+	 * 			their programs advanced by the time evolved so far. The event
+	 * 			budget is counted anew each time the given budget period passed.
+	 * @return	...
+	 * 			| result == (condition != null && condition.holds(this))
+	 * @note	An infinite time is only evolved by until no collision and no
+	 * 			re-prediction is left. This world then stays at the time it reached.
+	 */
+	private boolean evolve(double deltaT, CollisionListener collisionListener, WorldCondition condition,
+			double budgetPeriod) throws IllegalArgumentException, NullPointerException{
 		if(!this.isTerminated()){
-			double timeLeft = deltaT;
-			do {
-				double minCollisionTime = Double.POSITIVE_INFINITY;
-				if(!collisions.isEmpty())
-					minCollisionTime = collisions.peek().getCollisionTime();
-				
-				Set<SpatialElement> thrusting = new HashSet<SpatialElement>();
-				for (SpatialElement element : elements) {
-					element.move(Math.min(minCollisionTime, timeLeft));
-					if (element.isShip() && ((Ship) element).isThrusterActive()) {
-						thrusting.add(element);
-					}
-				}
+			double startTime = getTime();
+			double endTime = startTime + deltaT;
+			startBudgetPeriod();
+			evolving = true;
+			try {
+				while (true) {
+					skipOutdatedCollisions();
+					double nextCollisionTime = Double.POSITIVE_INFINITY;
+					if(!collisions.isEmpty())
+						nextCollisionTime = collisions.peekTime();
+					double rebuildTime = Double.POSITIVE_INFINITY;
+					if (hasBroadphase())
+						rebuildTime = gridRebuildTime;
+					double repredictionTime = getNextRepredictionTime();
 				
-				if (minCollisionTime < timeLeft) {
-					timeLeft -= minCollisionTime;
-					Collision firstCollision = collisions.poll();
-					firstCollision.resolve(collisionListener);
-					updateElementCollisions(firstCollision.getAllElements());
-				} else {
-					for (SpatialElement element : thrusting) {				
-						Double acc = deltaT * 1.1E18 / element.getMass();
-						((Ship) element).thrust(acc);
+					if (repredictionTime < endTime && repredictionTime <= nextCollisionTime
+							&& repredictionTime <= rebuildTime) {
+						time = Math.max(time, repredictionTime);
+						repredictDue(repredictionTime);
+					} else if (nextCollisionTime < endTime && nextCollisionTime <= rebuildTime) {
+						int nbCollisions = pollSimultaneousCollisions(Math.min(Math.min(nextCollisionTime
+								+ getSimultaneityTolerance(), rebuildTime), repredictionTime), endTime);
+						List<SpatialElement> involved = batchElements;
+						involved.clear();
+						for (int i = 0; i < nbCollisions; i++) {
+							int slot1 = batchSlots1[i];
+							int slot2 = batchSlots2[i];
+							// An element may have been removed by an earlier collision of the batch.
+							// Its slot is only freed after the batch, so no other element takes it.
+							if (slots[slot1] == null || (slot2 != CollisionQueue.WALL && slots[slot2] == null))
+								continue;
+							// Predicted times are never in the past, up to rounding errors.
+							time = Math.max(time, batchTimes[i]);
+							if (slot2 != CollisionQueue.WALL)
+								involved.add(slots[slot2]);
+							involved.add(slots[slot1]);
+							resolveGuarded(slot1, slot2, collisionListener);
+						}
+						addAcceleratedElementsTo(involved);
+						updateElementCollisions(involved);
+						if (nbZenoEvents >= 2L*getEventBudget())
+							solveCluster();
+						if (time - budgetPeriodStart >= budgetPeriod)
+							startBudgetPeriod();
+						sweepRemovedElements();
+						if (condition != null && condition.holds(this)) {
+							// End the step here, as if it were asked to end at this time.
+							endTime = time;
+							deltaT = time - startTime;
+						}
+					} else if (endTime == Double.POSITIVE_INFINITY && nextCollisionTime == Double.POSITIVE_INFINITY
+							&& repredictionTime == Double.POSITIVE_INFINITY) {
+						// No event is left, so rebuilding the broadphase would never end.
+						break;
+					} else if (rebuildTime < endTime) {
+						time = Math.max(time, rebuildTime);
+						rebuildCollisions();
+					} else {
+						time = endTime;
+						List<SpatialElement> thrusting = thrustingElements;
+						thrusting.clear();
+						if (!isContinuousThrust())
+							thrustShips(deltaT);
+						// Programs may fire bullets that destroy ships, so iterate a snapshot.
+						List<Ship> programShips = this.programShips;
+						programShips.clear();
+						programShips.addAll(ships);
+						for (int i = 0; i < programShips.size(); i++) {
+							Program program = programShips.get(i).getProgram();
+							if (program != null)
+								program.advanceProgram(deltaT);
+						}
+						programShips.clear();
+						addAcceleratedElementsTo(thrusting);
+						updateElementCollisions(thrusting);
+						break;
 					}
-					for (Ship ship: this.getShips()) {
-						Program program = ship.getProgram();
-						if (program != null)
-							program.advanceProgram(deltaT);
-					}
-					updateElementCollisions(thrusting);
-					timeLeft -= minCollisionTime;
 				}
-			} while (0 < timeLeft);
+			} finally {
+				evolving = false;
+				sweepRemovedElements();
+			}
+		}
+		return condition != null && condition.holds(this);
+	}
+	
+	/**
+	 * Evolve this world until its time reaches the given time.
+	 * 
+	 * @param	targetTime
+	 * 			The time to evolve this world to.
+	 * @param	collisionListener
+	 * 			The listener to notify of the resolved collisions.
+	 * @effect	...
+	 * 			| evolveUntil(null, targetTime, collisionListener)
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| !(targetTime >= getTime())
+	 */
+	public void evolveUntil(double targetTime, CollisionListener collisionListener) throws IllegalArgumentException {
+		evolveUntil(null, targetTime, collisionListener);
+	}
+	
+	/**
+	 * Evolve this world until the given condition holds, or until its time
+	 * reaches the given maximum time.
+	 * 
+	 * @param	condition
+	 * 			The condition to stop at, or null to evolve up to the maximum time.
+	 * @param	maxTime
+	 * 			The time of this world at which to stop if the condition never holds.
+	 * @param	collisionListener
+	 * 			The listener to notify of the resolved collisions.
+	 * @effect	...
+	 * 			| while(!isTerminated() && getTime() < maxTime
+	 * 			|		&& !(condition != null && condition.holds(this)))
+	 * 			|	if(!isContinuousThrust() && hasThrustingShip())
+	 * 			|	then evolve(Math.min(Math.min(maxTime - getTime(), getTimeToProgramAction()),
+	 * 			|			getMaxThrustStep()), collisionListener)
+	 * 			|	else evolve(Math.min(maxTime - getTime(), getTimeToProgramAction()), collisionListener)
+	 * 			|	but stopping after the first collision batch after which the condition holds,
+	 * 			|	and stopping when an infinite step has no collision or re-prediction left
+	 * @return	...
+	 * 			| result == (condition != null && condition.holds(this))
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| !(maxTime >= getTime())
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| condition == null && maxTime == Double.POSITIVE_INFINITY
+	 * @note	This world is only evolved in steps from one action of a program to
+	 * 			the next, and collisions are handled within each step as they come.
+	 * 			The ships and programs are thus handled exactly as by a loop of
+	 * 			evolve calls that stops at the actions, however long nothing happens.
+	 * @note	If the maximum time is infinite and neither a program nor a thrusting
+	 * 			ship bounds the step, this world stops when no collision is left, since
+	 * 			the condition can then no longer change.
+	 * @note	The condition is checked before evolving, after every collision
+	 * 			batch and after every step, so changes caused by collisions or
+	 * 			programs are noticed at the time they happen.
+	 * @note	The event budget is counted per getEventBudgetPeriod() of world time,
+	 * 			rather than per step, since a step may span any time.
+	 * @note	Without continuous thrust the kick of a thrusting ship is applied
+	 * 			once per step, so steps are at most getMaxThrustStep() long while a
+	 * 			ship thrusts. Only with continuous thrust the result does not depend
+	 * 			on how the time is split into steps.
+	 */
+	public boolean evolveUntil(WorldCondition condition, double maxTime, CollisionListener collisionListener)
+			throws IllegalArgumentException {
+		if (!(maxTime >= getTime()))
+			throw new IllegalArgumentException("Cannot evolve a world back in time.");
+		if (condition == null && maxTime == Double.POSITIVE_INFINITY)
+			throw new IllegalArgumentException("Cannot evolve a world forever without a condition.");
+		if (condition != null && condition.holds(this))
+			return true;
+		while (!isTerminated() && getTime() < maxTime) {
+			double deltaT = Math.min(maxTime - getTime(), getTimeToProgramAction());
+			if (!isContinuousThrust() && hasThrustingShip())
+				deltaT = Math.min(deltaT, getMaxThrustStep());
+			if (evolve(deltaT, collisionListener, condition, getEventBudgetPeriod()))
+				return true;
+			// An infinite step only ends without the condition when no event is left.
+			if (deltaT == Double.POSITIVE_INFINITY)
+				return false;
+		}
+		return false;
+	}
+	
+	/**
+	 * Check whether a ship of this world has an active thruster.
+	 * 
+	 * @return	...
+	 * 			| result == (for some ship in getShips(): ship.isThrusterActive())
+	 */
+	public boolean hasThrustingShip() {
+		for (Ship ship: ships) {
+			if (ship.isThrusterActive())
+				return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Return the time until the next action of a program of a ship of this world.
+	 * 
+	 * @return	...
+	 * 			| result == minimum({ship.getProgram().getTimeToAction() | ship is in getShips()
+	 * 			|	&& ship.getProgram() != null} union {Double.POSITIVE_INFINITY})
+	 */
+	public double getTimeToProgramAction() {
+		double result = Double.POSITIVE_INFINITY;
+		for (Ship ship: ships) {
+			Program program = ship.getProgram();
+			if (program != null)
+				result = Math.min(result, program.getTimeToAction());
 		}
+		return result;
 	}
 }
@@ -0,0 +1,21 @@
+package asteroids.model;
+
+/**
+ * An interface of conditions on the state of a world, used to stop evolving
+ * a world as soon as they hold.
+ *
+ * @version 1.0
+ * @author  Frederik Van Eeghem, Pieter Lietaert
+ */
+public interface WorldCondition {
+	/**
+	 * Check whether this condition holds for the given world.
+	 * 
+	 * @param	world
+	 * 			The world to check this condition for.
+	 * @note	The condition is checked after every event while the world
+	 * 			evolves, so it should not change the world and should be cheap
+	 * 			to check.
+	 */
+	boolean holds(World world);
+}
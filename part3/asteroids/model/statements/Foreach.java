@@ -111,28 +111,28 @@ public class Foreach extends S{
 			this.setLooped(this.getLooped()+1);
 			switch (this.getType()) {
 				case SHIP:
-					for (Ship shipje:ship.getWorld().getShips()) {
+					for (Ship shipje:ship.getWorld().getShipsView()) {
 						this.getList().add(shipje);
 					}
 					break;
 				case ASTEROID:
-					for (Asteroid asteroid:ship.getWorld().getAsteroids()) {
+					for (Asteroid asteroid:ship.getWorld().getAsteroidsView()) {
 						this.getList().add(asteroid);
 					}
 					break;
 				case BULLET:
-					for (Bullet bullet:ship.getWorld().getBullets()) {
+					for (Bullet bullet:ship.getWorld().getBulletsView()) {
 						this.getList().add(bullet);
 					}
 					break;
 				case ANY:
-					for (Asteroid asteroid:ship.getWorld().getAsteroids()) {
+					for (Asteroid asteroid:ship.getWorld().getAsteroidsView()) {
 						this.getList().add(asteroid);
 					}
-					for (Bullet bullet:ship.getWorld().getBullets()) {
+					for (Bullet bullet:ship.getWorld().getBulletsView()) {
 						this.getList().add(bullet);
 					}
-					for (Ship shipje:ship.getWorld().getShips()) {
+					for (Ship shipje:ship.getWorld().getShipsView()) {
 						this.getList().add(shipje);
 					}
 					break;
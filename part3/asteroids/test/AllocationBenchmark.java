@@ -0,0 +1,196 @@
+package asteroids.test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import asteroids.CollisionListener;
+import asteroids.model.*;
+
+/**
+ * A benchmark measuring the allocation rate of evolving a world full of
+ * firing ships and splitting asteroids, with and without recycling.
+ *
+ * Ships are spread over the world and turn and fire in every frame, while
+ * large asteroids drift among them and split when they are hit. For each
+ * number of ships, the bytes allocated per frame by the evolving thread and
+ * the resulting allocation rate at the given frame rate are reported, for a
+ * world that creates new bullets and asteroids and for one that recycles
+ * terminated ones.
+ *
+ * A second measurement evolves only bouncing asteroids in a world without a
+ * broadphase, and reports the bytes allocated per asteroid and per frame once
+ * the world has settled, without and with a collision listener.
+ *
+ * The allocated bytes are read from the HotSpot thread bean, so this
+ * benchmark needs a HotSpot based virtual machine. Run as a plain Java
+ * application; the numbers of ships can be given as arguments.
+ *
+ * @version 1.2
+ * @author  Frederik Van Eeghem, Pieter Lietaert
+ */
+public class AllocationBenchmark {
+
+	/**
+	 * The area in km^2 available to each ship.
+	 */
+	private static final double areaPerShip = 400*400;
+
+	/**
+	 * The number of asteroids per ship.
+	 */
+	private static final int asteroidsPerShip = 2;
+
+	/**
+	 * The radius of each asteroid in km.
+	 */
+	private static final double radius = 60;
+
+	/**
+	 * The maximum speed of each asteroid in km/s.
+	 */
+	private static final double speed = 50;
+
+	/**
+	 * The duration of a single frame in seconds.
+	 */
+	private static final double frameTime = 1.0/30;
+
+	/**
+	 * The number of evolved frames.
+	 */
+	private static final int nbFrames = 300;
+
+	/**
+	 * The number of asteroids per ship of the bouncing measurement.
+	 */
+	private static final int bouncersPerShip = 10;
+
+	public static void main(String[] args) {
+		int[] sizes = {100, 400};
+		if (args.length > 0) {
+			sizes = new int[args.length];
+			for (int i = 0; i < args.length; i++)
+				sizes[i] = Integer.parseInt(args[i]);
+		}
+		// Warm up the JIT before measuring anything.
+		run(50, false);
+		run(50, true);
+		System.out.println("ships\trecycling\tbytes/frame\tMB/s\t\tevolve/frame (ms)");
+		for (int n: sizes) {
+			for (boolean recycling: new boolean[] {false, true}) {
+				long[] results = run(n, recycling);
+				System.out.printf("%d\t%-9s\t%d\t\t%.1f\t\t%.3f%n", n, recycling, results[0],
+						results[0] / frameTime / 1e6, results[1] / 1e6);
+			}
+		}
+		runBouncing(50, false);
+		runBouncing(50, true);
+		System.out.println();
+		System.out.println("asteroids	listener	bytes/frame	bytes/asteroid/frame	evolve/frame (ms)");
+		for (int n: sizes) {
+			for (boolean listening: new boolean[] {false, true}) {
+				long[] results = runBouncing(bouncersPerShip*n, listening);
+				System.out.printf("%d		%-8s	%d		%.2f			%.3f%n", bouncersPerShip*n, listening,
+						results[0], (double) results[0] / (bouncersPerShip*n), results[1] / 1e6);
+			}
+		}
+	}
+
+	/**
+	 * Evolve a world with the given number of ships and return the bytes
+	 * allocated per frame and the average time per frame in nanoseconds.
+	 */
+	private static long[] run(int nbShips, boolean recycling) {
+		com.sun.management.ThreadMXBean bean =
+				(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+		double side = Math.sqrt(nbShips * areaPerShip);
+		World world = new World(side, side);
+		world.setBroadphase(new SpatialGrid(4*radius, 1));
+		world.setRecyclingElements(recycling);
+		Random random = new Random(42);
+		List<Ship> ships = new ArrayList<Ship>();
+		List<SpatialElement> elements = new ArrayList<SpatialElement>();
+		for (int i = 0; i < nbShips; i++) {
+			Ship ship = new Ship(randomPosition(random, side, 20), random.nextDouble()*2*Math.PI, 20,
+					new Vector2D(0, 0), 300000, 1e5);
+			ship.setMaxNbBullets(10);
+			ships.add(ship);
+			elements.add(ship);
+		}
+		for (int i = 0; i < asteroidsPerShip*nbShips; i++) {
+			Vector2D velocity = new Vector2D((2*random.nextDouble() - 1)*speed,
+					(2*random.nextDouble() - 1)*speed);
+			elements.add(new Asteroid(randomPosition(random, side, radius), radius, velocity,
+					new Random(i)));
+		}
+		world.addAll(elements);
+		long allocated = bean.getThreadAllocatedBytes(thread);
+		long start = System.nanoTime();
+		for (int i = 0; i < nbFrames; i++) {
+			for (Ship ship: ships) {
+				if (ship.getWorld() == world) {
+					ship.turn(0.1);
+					ship.fireBullet();
+				}
+			}
+			world.evolve(frameTime, null);
+		}
+		long evolved = System.nanoTime();
+		allocated = bean.getThreadAllocatedBytes(thread) - allocated;
+		return new long[] {allocated / nbFrames, (evolved - start) / nbFrames};
+	}
+
+	/**
+	 * Evolve a world without a broadphase, with the given number of bouncing
+	 * asteroids, and return the bytes allocated per frame and the average time
+	 * per frame in nanoseconds, measured after the world has settled. If
+	 * listening, a collision listener that ignores the collisions is used.
+	 */
+	private static long[] runBouncing(int nbAsteroids, boolean listening) {
+		com.sun.management.ThreadMXBean bean =
+				(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+		double side = Math.sqrt(nbAsteroids * 200*200);
+		World world = new World(side, side);
+		Random random = new Random(42);
+		List<SpatialElement> elements = new ArrayList<SpatialElement>();
+		for (int i = 0; i < nbAsteroids; i++) {
+			Vector2D velocity = new Vector2D((2*random.nextDouble() - 1)*speed,
+					(2*random.nextDouble() - 1)*speed);
+			elements.add(new Asteroid(randomPosition(random, side, 10), 10, velocity, new Random(i)));
+		}
+		world.addAll(elements);
+		CollisionListener listener = null;
+		if (listening)
+			listener = new CollisionListener() {
+				@Override
+				public void boundaryCollision(Object entity, double x, double y) {
+				}
+				
+				@Override
+				public void objectCollision(Object entity1, Object entity2, double x, double y) {
+				}
+			};
+		for (int i = 0; i < nbFrames / 10; i++)
+			world.evolve(frameTime, listener);
+		long allocated = bean.getThreadAllocatedBytes(thread);
+		long start = System.nanoTime();
+		for (int i = 0; i < nbFrames; i++)
+			world.evolve(frameTime, listener);
+		long evolved = System.nanoTime();
+		allocated = bean.getThreadAllocatedBytes(thread) - allocated;
+		return new long[] {allocated / nbFrames, (evolved - start) / nbFrames};
+	}
+
+	/**
+	 * Return a random position in a world with the given side at which an
+	 * element with the given radius lies within the boundaries.
+	 */
+	private static Vector2D randomPosition(Random random, double side, double radius) {
+		return new Vector2D(radius + random.nextDouble()*(side - 2*radius),
+				radius + random.nextDouble()*(side - 2*radius));
+	}
+}
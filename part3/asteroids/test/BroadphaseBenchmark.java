@@ -0,0 +1,174 @@
+package asteroids.test;
+
+import java.util.Random;
+
+import asteroids.model.*;
+
+/**
+ * A benchmark comparing the broadphases a world can use, for differently
+ * distributed elements.
+ *
+ * Five distributions are measured: asteroids spread uniformly over the world,
+ * asteroids packed in a few dense clusters, ships that fire a stream of
+ * bullets in every frame, uniformly spread asteroids of which only a few move,
+ * and only those few moving asteroids. For each distribution and broadphase,
+ * the time to load the world and the average time to evolve it for a frame
+ * are reported.
+ *
+ * Run as a plain Java application; the sizes can be given as arguments.
+ *
+ * @version 1.1
+ * @author  Frederik Van Eeghem, Pieter Lietaert
+ */
+public class BroadphaseBenchmark {
+
+	/**
+	 * The area in km^2 available to each element.
+	 */
+	private static final double areaPerElement = 200*200;
+
+	/**
+	 * The radius of each asteroid in km.
+	 */
+	private static final double radius = 10;
+
+	/**
+	 * The maximum speed of each asteroid in km/s.
+	 */
+	private static final double speed = 50;
+
+	/**
+	 * The number of clusters of the clustered distribution.
+	 */
+	private static final int nbClusters = 8;
+
+	/**
+	 * The number of elements per ship of the streaming distribution.
+	 */
+	private static final int elementsPerShip = 20;
+
+	/**
+	 * The number of asteroids per moving asteroid of the resting distribution.
+	 */
+	private static final int elementsPerMover = 200;
+
+	/**
+	 * The duration of a single frame in seconds.
+	 */
+	private static final double frameTime = 1.0/30;
+
+	/**
+	 * The number of evolved frames.
+	 */
+	private static final int nbFrames = 60;
+
+	private static final String[] distributions = {"uniform", "clustered", "streaming", "resting",
+			"movers"};
+
+	private static final String[] broadphases = {"none", "grid", "quadtree", "sweep"};
+
+	public static void main(String[] args) {
+		int[] sizes = {1000, 4000};
+		if (args.length > 0) {
+			sizes = new int[args.length];
+			for (int i = 0; i < args.length; i++)
+				sizes[i] = Integer.parseInt(args[i]);
+		}
+		// Warm up the JIT before measuring anything.
+		for (String distribution: distributions)
+			for (String broadphase: broadphases)
+				run(500, distribution, broadphase);
+		System.out.println("N\tdistribution\tbroadphase\tload (ms)\tevolve/frame (ms)");
+		for (int n: sizes) {
+			for (String distribution: distributions) {
+				for (String broadphase: broadphases) {
+					if (broadphase.equals("none") && n > 4000)
+						continue;
+					long[] results = run(n, distribution, broadphase);
+					System.out.printf("%d\t%-10s\t%-10s\t%.1f\t\t%.3f%n", n, distribution, broadphase,
+							results[0] / 1e6, results[1] / 1e6);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Load and evolve a world with the given number of elements, distributed
+	 * as given, using the given broadphase, and return the load time and the
+	 * average time per frame in nanoseconds.
+	 */
+	private static long[] run(int nbElements, String distribution, String broadphase) {
+		long start = System.nanoTime();
+		double side = Math.sqrt(nbElements * areaPerElement);
+		World world = new World(side, side);
+		if (broadphase.equals("grid"))
+			world.setBroadphase(new SpatialGrid(4*radius, 1));
+		else if (broadphase.equals("quadtree"))
+			world.setBroadphase(new LooseQuadtree(side, side, 1));
+		else if (broadphase.equals("sweep"))
+			world.setBroadphase(new SweepAndPrune(1));
+		Ship[] ships = fill(world, nbElements, distribution);
+		long loaded = System.nanoTime();
+		for (int i = 0; i < nbFrames; i++) {
+			for (Ship ship: ships) {
+				if (ship.getWorld() == world)
+					ship.fireBullet();
+			}
+			world.evolve(frameTime, null);
+		}
+		long evolved = System.nanoTime();
+		return new long[] {loaded - start, (evolved - loaded) / nbFrames};
+	}
+
+	/**
+	 * Fill the given world with the given number of elements, distributed as
+	 * given by a random generator with a fixed seed, and return the ships that
+	 * fire in every frame.
+	 */
+	private static Ship[] fill(World world, int nbElements, String distribution) {
+		Random random = new Random(42);
+		double side = world.getWidth();
+		if (distribution.equals("streaming")) {
+			Ship[] ships = new Ship[nbElements / elementsPerShip];
+			for (int i = 0; i < ships.length; i++) {
+				Vector2D position = new Vector2D(2*radius + random.nextDouble()*(side - 4*radius),
+						2*radius + random.nextDouble()*(side - 4*radius));
+				ships[i] = new Ship(position, random.nextDouble()*2*Math.PI, 2*radius,
+						new Vector2D(0, 0), 300000, 1e5);
+				ships[i].setMaxNbBullets(elementsPerShip);
+				world.addAsSpatialElement(ships[i]);
+			}
+			return ships;
+		}
+		double[] centersX = new double[nbClusters], centersY = new double[nbClusters];
+		for (int k = 0; k < nbClusters; k++) {
+			centersX[k] = side/4 + random.nextDouble()*side/2;
+			centersY[k] = side/4 + random.nextDouble()*side/2;
+		}
+		for (int i = 0; i < nbElements; i++) {
+			double x, y;
+			if (distribution.equals("clustered")) {
+				int k = random.nextInt(nbClusters);
+				double spread = side/(4*Math.sqrt(nbClusters));
+				x = centersX[k] + random.nextGaussian()*spread;
+				y = centersY[k] + random.nextGaussian()*spread;
+			} else {
+				x = random.nextDouble()*side;
+				y = random.nextDouble()*side;
+			}
+			Vector2D position = new Vector2D(Math.max(radius + 1, Math.min(side - radius - 1, x)),
+					Math.max(radius + 1, Math.min(side - radius - 1, y)));
+			Vector2D velocity = new Vector2D((2*random.nextDouble() - 1)*speed,
+					(2*random.nextDouble() - 1)*speed);
+			if (i % elementsPerMover != 0) {
+				// Both distributions draw the same numbers, so they share their moving asteroids.
+				if (distribution.equals("movers"))
+					continue;
+				if (distribution.equals("resting"))
+					velocity = new Vector2D(0, 0);
+			}
+			world.addAsSpatialElement(new Asteroid(position, radius, velocity, 300000, new Random(i)));
+		}
+		return new Ship[0];
+	}
+}
@@ -0,0 +1,85 @@
+package asteroids.test;
+
+import java.util.Random;
+
+import asteroids.model.*;
+
+/**
+ * A benchmark comparing the batch kernel for times to collision with the
+ * prediction of one pair of spatial elements at a time.
+ *
+ * For a growing number of candidates, the time to collision of a single ship
+ * with each candidate is computed repeatedly, once through
+ * SpatialElement.getTimeToCollision and once through CollisionKernel. The
+ * time per candidate is reported.
+ *
+ * Run as a plain Java application; the sizes can be given as arguments.
+ *
+ * @version 1.0
+ * @author  Frederik Van Eeghem, Pieter Lietaert
+ */
+public class CollisionKernelBenchmark {
+
+	/**
+	 * The number of candidates handled per measurement.
+	 */
+	private static final int nbPredictions = 20000000;
+
+	public static void main(String[] args) {
+		int[] sizes = {1000, 10000, 100000};
+		if (args.length > 0) {
+			sizes = new int[args.length];
+			for (int i = 0; i < args.length; i++)
+				sizes[i] = Integer.parseInt(args[i]);
+		}
+		// Warm up the JIT before measuring anything.
+		run(1000);
+		System.out.println("N\tper pair (ns)\tkernel (ns)");
+		for (int n: sizes) {
+			double[] results = run(n);
+			System.out.printf("%d\t%.2f\t\t%.2f%n", n, results[0], results[1]);
+		}
+	}
+
+	/**
+	 * Predict the collisions of a ship with the given number of candidates in
+	 * both ways and return the time per candidate in nanoseconds.
+	 */
+	private static double[] run(int nbCandidates) {
+		Random random = new Random(42);
+		Ship ship = new Ship(new Vector2D(0,0), 0, 10, new Vector2D(10,5), 300000, 1e5);
+		Ship[] candidates = new Ship[nbCandidates];
+		double[] xs = new double[nbCandidates], ys = new double[nbCandidates];
+		double[] vxs = new double[nbCandidates], vys = new double[nbCandidates];
+		double[] radii = new double[nbCandidates], times = new double[nbCandidates];
+		for (int i = 0; i < nbCandidates; i++) {
+			candidates[i] = new Ship(new Vector2D(2000*random.nextDouble() - 1000, 2000*random.nextDouble() - 1000),
+					0, 10, new Vector2D(200*random.nextDouble() - 100, 200*random.nextDouble() - 100), 300000, 1e5);
+			xs[i] = candidates[i].getPosition().getXComponent();
+			ys[i] = candidates[i].getPosition().getYComponent();
+			vxs[i] = candidates[i].getVelocity().getXComponent();
+			vys[i] = candidates[i].getVelocity().getYComponent();
+			radii[i] = candidates[i].getRadius();
+		}
+		int nbRounds = Math.max(1, nbPredictions / nbCandidates);
+		double perPairSum = 0;
+		double kernelSum = 0;
+		long start = System.nanoTime();
+		for (int round = 0; round < nbRounds; round++) {
+			for (int i = 0; i < nbCandidates; i++)
+				perPairSum += Math.min(1, ship.getTimeToCollision(candidates[i]));
+		}
+		long perPair = System.nanoTime() - start;
+		start = System.nanoTime();
+		for (int round = 0; round < nbRounds; round++) {
+			CollisionKernel.getTimesToCollision(0, 0, 10, 5, 10, xs, ys, vxs, vys, radii, nbCandidates, times);
+			for (int i = 0; i < nbCandidates; i++)
+				kernelSum += Math.min(1, times[i]);
+		}
+		long kernel = System.nanoTime() - start;
+		if (perPairSum != kernelSum)
+			throw new IllegalStateException("Kernel and per pair prediction differ.");
+		double total = (double) nbRounds * nbCandidates;
+		return new double[] {perPair / total, kernel / total};
+	}
+}
@@ -0,0 +1,83 @@
+package asteroids.test;
+
+import java.util.Random;
+import static org.junit.Assert.*;
+import org.junit.*;
+import asteroids.model.*;
+
+public class CollisionKernelTest {
+
+	private static Ship standardShip;
+	private static Ship[] otherShips;
+
+	/**
+	 * Set up a mutable test fixture
+	 *
+	 * @post	The variable standardShip references a new ship at (0,0) with velocity
+	 * 			(10,5) and a radius of 10.
+	 * @post	The variable otherShips references an array of 200 new ships, placed
+	 * 			and moving randomly around standardShip.
+	 */
+	@Before
+	public void setUpMutableFixture() throws Exception{
+		standardShip = new Ship(new Vector2D(0,0), 0, 10, new Vector2D(10,5), 300000, 1e5);
+		Random random = new Random(42);
+		otherShips = new Ship[200];
+		for (int i = 0; i < otherShips.length; i++) {
+			otherShips[i] = new Ship(new Vector2D(2000*random.nextDouble() - 1000, 2000*random.nextDouble() - 1000),
+					0, 10 + 40*random.nextDouble(),
+					new Vector2D(200*random.nextDouble() - 100, 200*random.nextDouble() - 100), 300000, 1e5);
+		}
+	}
+
+	@Test
+	public final void getTimesToCollision_MatchesSpatialElement() {
+		int n = otherShips.length;
+		double[] xs = new double[n], ys = new double[n], vxs = new double[n], vys = new double[n];
+		double[] radii = new double[n], times = new double[n];
+		for (int i = 0; i < n; i++) {
+			xs[i] = otherShips[i].getPosition().getXComponent();
+			ys[i] = otherShips[i].getPosition().getYComponent();
+			vxs[i] = otherShips[i].getVelocity().getXComponent();
+			vys[i] = otherShips[i].getVelocity().getYComponent();
+			radii[i] = otherShips[i].getRadius();
+		}
+		CollisionKernel.getTimesToCollision(0, 0, 10, 5, 10, xs, ys, vxs, vys, radii, n, times);
+		int nbFinite = 0;
+		for (int i = 0; i < n; i++) {
+			assertEquals(standardShip.getTimeToCollision(otherShips[i]), times[i], 0);
+			if (times[i] != Double.POSITIVE_INFINITY)
+				nbFinite++;
+		}
+		assertTrue(nbFinite > 0);
+	}
+
+	@Test
+	public final void getTimeToCollision_Approaching() {
+		assertEquals(4, CollisionKernel.getTimeToCollision(0, 0, 10, 0, 10, 100, 0, -10, 0, 10), 1e-9);
+	}
+
+	@Test
+	public final void getTimeToCollision_Receding() {
+		assertEquals(Double.POSITIVE_INFINITY,
+				CollisionKernel.getTimeToCollision(0, 0, -10, 0, 10, 100, 0, 10, 0, 10), 0);
+	}
+
+	@Test
+	public final void getTimeToCollision_Missing() {
+		assertEquals(Double.POSITIVE_INFINITY,
+				CollisionKernel.getTimeToCollision(0, 0, 10, 0, 10, 100, 50, -10, 0, 10), 0);
+	}
+
+	@Test
+	public final void getTimeToCollision_Overlapping() {
+		assertEquals(Double.POSITIVE_INFINITY,
+				CollisionKernel.getTimeToCollision(0, 0, 0, 0, 10, 5, 0, 0, 0, 10), 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public final void getTimesToCollision_ArraysTooShort() {
+		double[] array = new double[2];
+		CollisionKernel.getTimesToCollision(0, 0, 0, 0, 10, array, array, array, array, array, 3, array);
+	}
+}
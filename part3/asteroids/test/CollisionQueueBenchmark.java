@@ -0,0 +1,126 @@
+package asteroids.test;
+
+import java.lang.management.ManagementFactory;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import asteroids.model.*;
+
+/**
+ * A benchmark comparing the primitive collision queue with a priority queue
+ * of collision objects.
+ *
+ * Both queues are filled with a given number of collisions, after which
+ * they run the classic hold model: the first collision is removed and a
+ * new one is added at a random later time. The time per hold operation and
+ * the number of bytes allocated per hold operation are reported.
+ *
+ * Run as a plain Java application; the sizes can be given as arguments.
+ *
+ * @version 1.0
+ * @author  Frederik Van Eeghem, Pieter Lietaert
+ */
+public class CollisionQueueBenchmark {
+
+	/**
+	 * The number of hold operations per measurement.
+	 */
+	private static final int nbOperations = 2000000;
+
+	public static void main(String[] args) {
+		int[] sizes = {1000, 10000, 100000, 1000000};
+		if (args.length > 0) {
+			sizes = new int[args.length];
+			for (int i = 0; i < args.length; i++)
+				sizes[i] = Integer.parseInt(args[i]);
+		}
+		// Warm up the JIT before measuring anything.
+		holdObjects(10000);
+		holdPrimitives(10000);
+		System.out.println("N\tqueue\t\tns/op\tbytes/op");
+		for (int n: sizes) {
+			report(n, "objects", holdObjects(n));
+			report(n, "primitives", holdPrimitives(n));
+		}
+	}
+
+	/**
+	 * A stand-in for the collision objects the queue of a world used to hold:
+	 * a time and references to the elements involved.
+	 */
+	private static class Event implements Comparable<Event> {
+		Event(double time, SpatialElement element1, SpatialElement element2) {
+			this.time = time;
+			this.element1 = element1;
+			this.element2 = element2;
+		}
+
+		@Override
+		public int compareTo(Event other) {
+			return Double.compare(time, other.time);
+		}
+
+		final double time;
+		final SpatialElement element1;
+		final SpatialElement element2;
+	}
+
+	/**
+	 * Run the hold model on a priority queue of objects of the given size and
+	 * return the time and the number of allocated bytes per operation.
+	 */
+	private static double[] holdObjects(int size) {
+		Random random = new Random(42);
+		PriorityQueue<Event> queue = new PriorityQueue<Event>();
+		for (int i = 0; i < size; i++)
+			queue.add(new Event(random.nextDouble(), null, null));
+		long bytes = getAllocatedBytes();
+		long start = System.nanoTime();
+		for (int i = 0; i < nbOperations; i++) {
+			Event first = queue.poll();
+			queue.add(new Event(first.time + random.nextDouble(), first.element2, first.element1));
+		}
+		long stop = System.nanoTime();
+		bytes = getAllocatedBytes() - bytes;
+		return new double[] {(double) (stop - start) / nbOperations, (double) bytes / nbOperations};
+	}
+
+	/**
+	 * Run the hold model on a collision queue of the given size and return
+	 * the time and the number of allocated bytes per operation.
+	 */
+	private static double[] holdPrimitives(int size) {
+		Random random = new Random(42);
+		CollisionQueue queue = new CollisionQueue();
+		for (int i = 0; i < size; i++)
+			queue.add(random.nextDouble(), i, CollisionQueue.WALL, 0, 0);
+		long bytes = getAllocatedBytes();
+		long start = System.nanoTime();
+		for (int i = 0; i < nbOperations; i++) {
+			double time = queue.peekTime();
+			int element1 = queue.peekElement1();
+			int element2 = queue.peekElement2();
+			queue.poll();
+			queue.add(time + random.nextDouble(), element2, element1, 0, 0);
+		}
+		long stop = System.nanoTime();
+		bytes = getAllocatedBytes() - bytes;
+		return new double[] {(double) (stop - start) / nbOperations, (double) bytes / nbOperations};
+	}
+
+	/**
+	 * Return the number of bytes allocated so far by the current thread, or
+	 * zero if the virtual machine does not keep track of it.
+	 */
+	static long getAllocatedBytes() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean)
+			return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(
+					Thread.currentThread().getId());
+		return 0;
+	}
+
+	private static void report(int size, String queue, double[] results) {
+		System.out.printf("%d\t%-10s\t%.1f\t%.1f%n", size, queue, results[0], results[1]);
+	}
+}
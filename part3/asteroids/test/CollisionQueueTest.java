@@ -0,0 +1,94 @@
+package asteroids.test;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+import asteroids.model.*;
+
+public class CollisionQueueTest {
+
+	private static CollisionQueue standardQueue;
+
+	/**
+	 * Set up a mutable test fixture
+	 *
+	 * @post	The variable standardQueue references a new collision queue with an
+	 * 			initial capacity of 2, holding collisions at times 3, 1 and 2.
+	 */
+	@Before
+	public void setUpMutableFixture() throws Exception{
+		standardQueue = new CollisionQueue(2);
+		standardQueue.add(3, 0, 1, 0, 0);
+		standardQueue.add(1, 2, CollisionQueue.WALL, 0, 0);
+		standardQueue.add(2, 1, 2, 0, 0);
+	}
+
+	@Test
+	public final void constructor_NormalCase() {
+		CollisionQueue queue = new CollisionQueue();
+		assertTrue(queue.isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public final void constructor_InvalidCapacity() {
+		new CollisionQueue(0);
+	}
+
+	@Test
+	public final void add_Grows() {
+		assertEquals(3, standardQueue.size());
+		assertTrue(standardQueue.getCapacity() >= 3);
+	}
+
+	@Test
+	public final void poll_InTimeOrder() {
+		assertEquals(1, standardQueue.peekTime(), 0);
+		assertEquals(2, standardQueue.peekElement1());
+		assertEquals(CollisionQueue.WALL, standardQueue.peekElement2());
+		standardQueue.poll();
+		assertEquals(2, standardQueue.peekTime(), 0);
+		standardQueue.poll();
+		assertEquals(3, standardQueue.peekTime(), 0);
+		standardQueue.poll();
+		assertTrue(standardQueue.isEmpty());
+	}
+
+	@Test
+	public final void poll_ManyRandom() {
+		CollisionQueue queue = new CollisionQueue();
+		java.util.Random random = new java.util.Random(7);
+		for (int i = 0; i < 1000; i++)
+			queue.add(random.nextDouble(), i, CollisionQueue.WALL, 0, 0);
+		double previous = Double.NEGATIVE_INFINITY;
+		while (!queue.isEmpty()) {
+			assertTrue(queue.peekTime() >= previous);
+			previous = queue.peekTime();
+			queue.poll();
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public final void poll_Empty() {
+		new CollisionQueue().poll();
+	}
+
+	@Test
+	public final void isOutdated_NormalCase() {
+		int[] versions = {0, 1, 0};
+		for (int i = 0; i < standardQueue.size(); i++) {
+			boolean involvesSlot1 = standardQueue.getElement1(i) == 1 || standardQueue.getElement2(i) == 1;
+			assertEquals(involvesSlot1, standardQueue.isOutdated(i, versions));
+		}
+	}
+
+	@Test
+	public final void removeOutdated_NormalCase() {
+		standardQueue.removeOutdated(new int[] {0, 1, 0});
+		assertEquals(1, standardQueue.size());
+		assertEquals(1, standardQueue.peekTime(), 0);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public final void getTime_InvalidIndex() {
+		standardQueue.getTime(3);
+	}
+}
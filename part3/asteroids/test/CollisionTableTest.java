@@ -0,0 +1,62 @@
+package asteroids.test;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+import asteroids.model.*;
+
+public class CollisionTableTest {
+
+	@Test
+	public final void canCollide_TrueCase() {
+		assertTrue(CollisionTable.canCollide(CollisionTable.SHIP, CollisionTable.ALL,
+				CollisionTable.ASTEROID, CollisionTable.SHIP));
+	}
+
+	@Test
+	public final void canCollide_FalseCaseOneMask() {
+		assertFalse(CollisionTable.canCollide(CollisionTable.SHIP, CollisionTable.ALL,
+				CollisionTable.ASTEROID, CollisionTable.BULLET));
+		assertFalse(CollisionTable.canCollide(CollisionTable.ASTEROID, CollisionTable.BULLET,
+				CollisionTable.SHIP, CollisionTable.ALL));
+	}
+
+	@Test
+	public final void getResolution_Bounces() {
+		assertEquals(CollisionTable.BOUNCE, CollisionTable.getResolution(CollisionTable.SHIP,
+				CollisionTable.SHIP));
+		assertEquals(CollisionTable.BOUNCE, CollisionTable.getResolution(CollisionTable.ASTEROID,
+				CollisionTable.ASTEROID));
+	}
+
+	@Test
+	public final void getResolution_Symmetric() {
+		assertEquals(CollisionTable.COLLIDE_FIRST, CollisionTable.getResolution(CollisionTable.SHIP,
+				CollisionTable.ASTEROID));
+		assertEquals(CollisionTable.COLLIDE_SECOND, CollisionTable.getResolution(CollisionTable.ASTEROID,
+				CollisionTable.SHIP));
+		assertEquals(CollisionTable.COLLIDE_FIRST_THEN_SECOND, CollisionTable.getResolution(
+				CollisionTable.BULLET, CollisionTable.ASTEROID));
+		assertEquals(CollisionTable.COLLIDE_SECOND_THEN_FIRST, CollisionTable.getResolution(
+				CollisionTable.ASTEROID, CollisionTable.BULLET));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public final void getResolution_IllegalCategory() {
+		CollisionTable.getResolution(CollisionTable.SHIP | CollisionTable.BULLET, CollisionTable.SHIP);
+	}
+
+	@Test
+	public final void resolve_BulletHitsAsteroid() {
+		World world = new World(1000,1000);
+		Ship ship = new Ship(new Vector2D(800,800), 0, 10, new Vector2D(0,0), 300000, 1E5);
+		Asteroid asteroid = new Asteroid(new Vector2D(100,100), 10, new Vector2D(0,0));
+		Bullet bullet = new Bullet(new Vector2D(120,100), 3, new Vector2D(-10,0), 300000, ship);
+		world.addAsSpatialElement(ship);
+		world.addAsSpatialElement(asteroid);
+		world.addAsSpatialElement(bullet);
+		asteroid.resolve(bullet);
+		assertTrue(bullet.isTerminated());
+		assertTrue(asteroid.isTerminated());
+		assertFalse(ship.isTerminated());
+	}
+}
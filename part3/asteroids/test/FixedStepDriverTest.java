@@ -0,0 +1,132 @@
+package asteroids.test;
+
+import java.util.*;
+import static org.junit.Assert.*;
+import org.junit.*;
+import asteroids.model.*;
+
+public class FixedStepDriverTest {
+
+	private static final double STEP = 1.0/60;
+
+	private static World standardWorld;
+	private static FixedStepDriver standardDriver;
+	private static Ship movingShip;
+
+	/**
+	 * Set up a mutable test fixture
+	 *
+	 * @post	The variable standardWorld references a new world of 1000 by 1000
+	 * 			holding movingShip.
+	 * @post	The variable movingShip references a new ship at (100,100) with
+	 * 			velocity (60,0) and a radius of 20.
+	 * @post	The variable standardDriver references a new driver for standardWorld
+	 * 			with a step of 1/60 seconds and at most 5 steps per frame.
+	 */
+	@Before
+	public void setUpMutableFixture() throws Exception{
+		standardWorld = new World(1000,1000);
+		movingShip = new Ship(new Vector2D(100,100), 0, 20, new Vector2D(60,0), 300000, 1e5);
+		standardWorld.addAsSpatialElement(movingShip);
+		standardDriver = new FixedStepDriver(standardWorld, STEP, 5);
+	}
+
+	/**
+	 * Return a new world filled with ships and asteroids that collide often,
+	 * built the same way for the same seed.
+	 */
+	private static World createBusyWorld(long seed) {
+		World world = new World(1000,1000);
+		Random random = new Random(seed);
+		for (int i = 0; i < 40; i++) {
+			Vector2D position = new Vector2D(60 + 110*(i % 8), 60 + 110*(i / 8));
+			Vector2D velocity = new Vector2D(200*random.nextDouble() - 100, 200*random.nextDouble() - 100);
+			if (i % 4 == 0)
+				world.addAsSpatialElement(new Ship(position, 0, 20, velocity, 300000, 1e5));
+			else
+				world.addAsSpatialElement(new Asteroid(position, 30, velocity, 300000, new Random(seed + i)));
+		}
+		return world;
+	}
+
+	@Test
+	public final void constructor_NormalCase() {
+		assertSame(standardWorld, standardDriver.getWorld());
+		assertEquals(STEP, standardDriver.getStepSize(), 0);
+		assertEquals(5, standardDriver.getMaxStepsPerFrame());
+		assertEquals(0, standardDriver.getNbSteps());
+		assertEquals(0, standardDriver.getAlpha(), 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public final void constructor_IllegalStepSize() {
+		new FixedStepDriver(standardWorld, 0, 5);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public final void constructor_IllegalMaxSteps() {
+		new FixedStepDriver(standardWorld, STEP, 0);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public final void constructor_NullWorld() {
+		new FixedStepDriver(null, STEP, 5);
+	}
+
+	@Test
+	public final void advance_AccumulatesPartialSteps() {
+		assertEquals(0, standardDriver.advance(0.4*STEP, null));
+		assertEquals(0, standardWorld.getTime(), 0);
+		assertEquals(1, standardDriver.advance(0.8*STEP, null));
+		assertEquals(STEP, standardWorld.getTime(), 0);
+		assertEquals(0.2, standardDriver.getAlpha(), 1e-9);
+	}
+
+	@Test
+	public final void advance_MaxStepsPerFrame() {
+		assertEquals(5, standardDriver.advance(10.5*STEP, null));
+		assertEquals(5, standardDriver.getNbSteps());
+		assertEquals(5*STEP, standardDriver.getDroppedTime(), 1e-9);
+		assertEquals(0.5, standardDriver.getAlpha(), 1e-9);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public final void advance_IllegalFrameTime() {
+		standardDriver.advance(-1, null);
+	}
+
+	@Test
+	public final void getInterpolatedX_BlendsLastStep() {
+		standardDriver.advance(2.5*STEP, null);
+		// The ship moves 1 per step, and is rendered halfway the last step.
+		assertEquals(100 + 1.5, standardDriver.getInterpolatedX(movingShip), 1e-9);
+		assertEquals(100, standardDriver.getInterpolatedY(movingShip), 1e-9);
+	}
+
+	@Test
+	public final void getInterpolatedX_NoStepYet() {
+		assertEquals(100, standardDriver.getInterpolatedX(movingShip), 0);
+	}
+
+	@Test
+	public final void advance_IndependentOfFrameTimes() {
+		World regularWorld = createBusyWorld(7);
+		World jitteredWorld = createBusyWorld(7);
+		FixedStepDriver regularDriver = new FixedStepDriver(regularWorld, STEP, 5);
+		FixedStepDriver jitteredDriver = new FixedStepDriver(jitteredWorld, STEP, 5);
+		for (int i = 0; i < 300; i++)
+			regularDriver.step(null);
+		Random jitter = new Random(3);
+		while (jitteredDriver.getNbSteps() < 300)
+			jitteredDriver.advance(STEP*jitter.nextDouble(), null);
+		assertEquals(regularWorld.getTime(), jitteredWorld.getTime(), 0);
+		assertEquals(regularWorld.getNbAsteroids(), jitteredWorld.getNbAsteroids());
+		Iterator<Asteroid> jitteredAsteroids = jitteredWorld.getAsteroids().iterator();
+		for (Asteroid asteroid: regularWorld.getAsteroids()) {
+			Asteroid other = jitteredAsteroids.next();
+			assertEquals(asteroid.getPosition().getXComponent(), other.getPosition().getXComponent(), 0);
+			assertEquals(asteroid.getPosition().getYComponent(), other.getPosition().getYComponent(), 0);
+			assertEquals(asteroid.getVelocity().getXComponent(), other.getVelocity().getXComponent(), 0);
+		}
+	}
+}
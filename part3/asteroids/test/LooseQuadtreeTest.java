@@ -0,0 +1,168 @@
+package asteroids.test;
+
+import java.util.*;
+import static org.junit.Assert.*;
+import org.junit.*;
+import asteroids.model.*;
+
+public class LooseQuadtreeTest {
+
+	private static LooseQuadtree standardTree;
+	private static Ship standingShip, movingShip, farShip;
+
+	/**
+	 * Set up a mutable test fixture
+	 *
+	 * @post	The variable standardTree references a new loose quadtree covering
+	 * 			10000 by 10000 km with a horizon of 1 second.
+	 * @post	The variable standingShip references a new ship at (50,50) with zero velocity
+	 * 			and a radius of 10.
+	 * @post	The variable movingShip references a new ship at (450,50) with velocity (-400,0)
+	 * 			and a radius of 10.
+	 * @post	The variable farShip references a new ship at (5000,5000) with zero velocity
+	 * 			and a radius of 10.
+	 */
+	@Before
+	public void setUpMutableFixture() throws Exception{
+		standardTree = new LooseQuadtree(10000, 10000, 1);
+		standingShip = new Ship(new Vector2D(50,50), 0, 10, new Vector2D(0,0), 300000, 1e5);
+		movingShip = new Ship(new Vector2D(450,50), 0, 10, new Vector2D(-400,0), 300000, 1e5);
+		farShip = new Ship(new Vector2D(5000,5000), 0, 10, new Vector2D(0,0), 300000, 1e5);
+	}
+
+	@Test
+	public final void constructor_NormalCase() {
+		LooseQuadtree tree = new LooseQuadtree(500, 2000, 2);
+		assertEquals(2000, tree.getSize(), 0);
+		assertEquals(2, tree.getHorizon(), 0);
+		assertEquals(0, tree.getNbElements());
+		assertEquals(1, tree.getNbNodes());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public final void constructor_InvalidSize() {
+		new LooseQuadtree(0, 0, 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public final void constructor_InvalidHorizon() {
+		new LooseQuadtree(100, 100, 0);
+	}
+
+	@Test
+	public final void add_NormalCase() {
+		standardTree.add(standingShip, 1);
+		assertTrue(standardTree.contains(standingShip));
+		assertEquals(1, standardTree.getNbElements());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public final void add_Null() {
+		standardTree.add(null, 1);
+	}
+
+	@Test
+	public final void add_Replaces() {
+		standardTree.add(movingShip, 1);
+		standardTree.add(movingShip, 0.1);
+		assertEquals(1, standardTree.getNbElements());
+		standardTree.add(standingShip, 1);
+		assertFalse(standardTree.getCandidates(movingShip).contains(standingShip));
+	}
+
+	@Test
+	public final void remove_NormalCase() {
+		standardTree.add(standingShip, 1);
+		standardTree.add(movingShip, 1);
+		standardTree.remove(standingShip);
+		assertFalse(standardTree.contains(standingShip));
+		assertFalse(standardTree.getCandidates(movingShip).contains(standingShip));
+	}
+
+	@Test
+	public final void remove_PrunesNodes() {
+		standardTree.add(farShip, 1);
+		assertTrue(standardTree.getNbNodes() > 1);
+		standardTree.remove(farShip);
+		assertEquals(1, standardTree.getNbNodes());
+	}
+
+	@Test
+	public final void getCandidates_SweptPath() {
+		standardTree.add(standingShip, 1);
+		standardTree.add(movingShip, 1);
+		standardTree.add(farShip, 1);
+		Set<SpatialElement> candidates = standardTree.getCandidates(movingShip);
+		assertTrue(candidates.contains(standingShip));
+		assertFalse(candidates.contains(farShip));
+		assertFalse(candidates.contains(movingShip));
+	}
+
+	@Test
+	public final void getCandidates_Rectangle() {
+		standardTree.add(standingShip, 1);
+		standardTree.add(farShip, 1);
+		Set<SpatialElement> candidates = standardTree.getCandidates(4950, 4950, 5050, 5050);
+		assertTrue(candidates.contains(farShip));
+		assertFalse(candidates.contains(standingShip));
+	}
+
+	@Test
+	public final void getCandidates_VaryingSizes() {
+		Asteroid bigAsteroid = new Asteroid(new Vector2D(3000,3000), 2500, new Vector2D(0,0), 300000, new Random());
+		standardTree.add(bigAsteroid, 1);
+		standardTree.add(standingShip, 1);
+		standardTree.add(farShip, 1);
+		assertTrue(standardTree.getCandidates(farShip).contains(bigAsteroid));
+		assertTrue(standardTree.getCandidates(bigAsteroid).contains(farShip));
+		assertFalse(standardTree.getCandidates(bigAsteroid).contains(standingShip));
+	}
+
+	@Test
+	public final void getCandidates_OutsideRegion() {
+		Ship outsideShip = new Ship(new Vector2D(20000,5000), 0, 10, new Vector2D(-15000,0), 300000, 1e5);
+		standardTree.add(farShip, 1);
+		standardTree.add(outsideShip, 1);
+		assertTrue(standardTree.getCandidates(farShip).contains(outsideShip));
+	}
+
+	@Test
+	public final void getCandidatesSlots_NormalCase() {
+		Asteroid bigAsteroid = new Asteroid(new Vector2D(3000,3000), 2500, new Vector2D(0,0), 300000, new Random());
+		standardTree.add(bigAsteroid, 1);
+		standardTree.add(standingShip, 1);
+		standardTree.add(farShip, 1);
+		int[] slots = new int[3];
+		assertEquals(standardTree.getCandidates(bigAsteroid).size(), standardTree.getCandidates(bigAsteroid, slots));
+		assertEquals(standardTree.getCandidates(farShip).size(), standardTree.getCandidates(farShip, slots));
+		assertEquals(-1, slots[0]);
+	}
+
+	@Test
+	public final void getCandidatesRectangleSlots_NormalCase() {
+		standardTree.add(standingShip, 1);
+		standardTree.add(farShip, 1);
+		int[] slots = new int[2];
+		assertEquals(1, standardTree.getCandidates(4950, 4950, 5050, 5050, slots));
+		assertEquals(-1, slots[0]);
+		assertEquals(standardTree.getCandidates(0, 0, 6000, 6000).size(),
+				standardTree.getCandidates(0, 0, 6000, 6000, slots));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public final void getCandidatesSlots_TooSmallArray() {
+		standardTree.add(standingShip, 1);
+		standardTree.add(movingShip, 1);
+		standardTree.getCandidates(movingShip, new int[1]);
+	}
+
+	@Test
+	public final void clear_NormalCase() {
+		standardTree.add(standingShip, 1);
+		standardTree.add(movingShip, 1);
+		standardTree.clear();
+		assertEquals(0, standardTree.getNbElements());
+		assertEquals(1, standardTree.getNbNodes());
+		assertTrue(standardTree.getCandidates(0, 0, 1000, 1000).isEmpty());
+	}
+}
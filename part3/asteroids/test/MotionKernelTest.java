@@ -0,0 +1,109 @@
+package asteroids.test;
+
+import java.util.Random;
+import static org.junit.Assert.*;
+import org.junit.*;
+import asteroids.model.*;
+
+public class MotionKernelTest {
+
+	private static final double EPSILON = 1e-6;
+
+	@Test
+	public final void getPosition_Accelerating() {
+		assertEquals(100 + 10*4 + 0.5*2*16, MotionKernel.getPosition(100, 10, 2, 10, 4), EPSILON);
+	}
+
+	@Test
+	public final void getPosition_AccelerationEnded() {
+		// Accelerates during 2 seconds to a speed of 14, then moves straight.
+		assertEquals(100 + 10*2 + 0.5*2*4 + 14*3, MotionKernel.getPosition(100, 10, 2, 2, 5), EPSILON);
+		assertEquals(14, MotionKernel.getSpeed(10, 2, 2, 5), EPSILON);
+	}
+
+	@Test
+	public final void getMinMaxPosition_TurningPoint() {
+		// Turns at time 5 at coordinate 100 - 25, then accelerates back.
+		assertEquals(75, MotionKernel.getMinPosition(100, -10, 2, 20, 10), EPSILON);
+		assertEquals(100, MotionKernel.getMaxPosition(100, -10, 2, 20, 10), EPSILON);
+		assertEquals(100, MotionKernel.getMinPosition(100, 10, 0, 0, 10), 0);
+		assertEquals(200, MotionKernel.getMaxPosition(100, 10, 0, 0, 10), 0);
+	}
+
+	@Test
+	public final void getTimeToSpeed_NormalCase() {
+		assertEquals(5, MotionKernel.getTimeToSpeed(0, 0, 6, 8, 50), EPSILON);
+		assertEquals(4, MotionKernel.getTimeToSpeed(10, 0, 10, 0, 50), EPSILON);
+	}
+
+	@Test
+	public final void getTimeToSpeed_NoAcceleration() {
+		assertEquals(Double.POSITIVE_INFINITY, MotionKernel.getTimeToSpeed(10, 0, 0, 0, 50), 0);
+	}
+
+	@Test
+	public final void getTimeToWall_Accelerating() {
+		// The edge starts 40 away from the wall and covers 0.5*5*t*t.
+		assertEquals(4, MotionKernel.getTimeToWall(1000, 950, 0, 5, 10, 10), EPSILON);
+		// The acceleration ends after 2 seconds, 30 away from the wall at speed 10.
+		assertEquals(5, MotionKernel.getTimeToWall(1000, 950, 0, 5, 2, 10), EPSILON);
+	}
+
+	@Test
+	public final void getTimeToWall_Linear() {
+		assertEquals(MotionKernel.getTimeToWall(1000, 950, 10, 10),
+				MotionKernel.getTimeToWall(1000, 950, 10, 0, 10, 10), 0);
+	}
+
+	@Test
+	public final void getTimeToCollision_NoAccelerationMatchesCollisionKernel() {
+		Random random = new Random(42);
+		for (int i = 0; i < 200; i++) {
+			double x = 2000*random.nextDouble() - 1000, y = 2000*random.nextDouble() - 1000;
+			double vx = 200*random.nextDouble() - 100, vy = 200*random.nextDouble() - 100;
+			double radius = 10 + 40*random.nextDouble();
+			assertEquals(CollisionKernel.getTimeToCollision(0, 0, 10, 5, 10, x, y, vx, vy, radius),
+					MotionKernel.getTimeToCollision(0, 0, 10, 5, 0, 0, 0, 10, x, y, vx, vy, 0, 0, 0, radius), 0);
+		}
+	}
+
+	@Test
+	public final void getTimeToCollision_Accelerating() {
+		// The gap of 700 between the edges closes as 200*t + t*t/2.
+		assertEquals(Math.sqrt(41400) - 200, MotionKernel.getTimeToCollision(100, 100, 100, 0, 1, 0, 10, 50,
+				900, 100, -100, 0, 0, 0, 0, 50), EPSILON);
+	}
+
+	@Test
+	public final void getTimeToCollision_MatchesSimulation() {
+		Random random = new Random(7);
+		int nbFinite = 0;
+		for (int i = 0; i < 50; i++) {
+			double x = 400*random.nextDouble() - 200, y = 400*random.nextDouble() - 200;
+			double vx = 40*random.nextDouble() - 20, vy = 40*random.nextDouble() - 20;
+			double ax = 10*random.nextDouble() - 5, ay = 10*random.nextDouble() - 5;
+			double accelerationTime = 10*random.nextDouble();
+			if (Vector2D.getNorm(x, y) <= 40)
+				continue;
+			double time = MotionKernel.getTimeToCollision(0, 0, 0, 0, 0, 0, 0, 20,
+					x, y, vx, vy, ax, ay, accelerationTime, 20);
+			// Step through the motion and find the first time the discs touch.
+			double simulated = Double.POSITIVE_INFINITY;
+			for (double t = 0; t < 30; t += 1e-4) {
+				double dx = MotionKernel.getPosition(x, vx, ax, accelerationTime, t);
+				double dy = MotionKernel.getPosition(y, vy, ay, accelerationTime, t);
+				if (Vector2D.getNorm(dx, dy) <= 40) {
+					simulated = t;
+					break;
+				}
+			}
+			if (simulated == Double.POSITIVE_INFINITY) {
+				assertTrue(time >= 30 - 1e-3);
+			} else {
+				assertEquals(simulated, time, 1e-3);
+				nbFinite++;
+			}
+		}
+		assertTrue(nbFinite > 0);
+	}
+}
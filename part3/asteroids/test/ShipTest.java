@@ -574,6 +574,17 @@ public class ShipTest {
 		assertFalse(ship100.isValidObjectCollision(bullet));
 	}
 	
+	@Test
+	public final void isValidObjectCollision_MaskedCase() {
+		Asteroid asteroid = new Asteroid(new Vector2D(100,0),10,new Vector2D(-10,0),300000,new Random());
+		Bullet bullet = new Bullet(new Vector2D(100,0),10, new Vector2D(-10,0),300000,ship100PiD4);
+		ship100.setCollisionMask(CollisionTable.ALL & ~CollisionTable.ASTEROID);
+		assertEquals(CollisionTable.SHIP | CollisionTable.BULLET, ship100.getCollisionMask());
+		assertFalse(ship100.isValidObjectCollision(asteroid));
+		assertFalse(asteroid.isValidObjectCollision(ship100));
+		assertTrue(ship100.isValidObjectCollision(bullet));
+	}
+	
 	@Test
 	public final void isValidObjectCollisioni_NullCase() {
 		assertFalse(ship100.isValidObjectCollision(null));
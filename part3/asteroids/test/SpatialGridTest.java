@@ -0,0 +1,196 @@
+package asteroids.test;
+
+import java.util.*;
+import static org.junit.Assert.*;
+import org.junit.*;
+import asteroids.model.*;
+
+public class SpatialGridTest {
+
+	private static SpatialGrid standardGrid;
+	private static Ship standingShip, movingShip, farShip;
+
+	/**
+	 * Set up a mutable test fixture
+	 *
+	 * @post	The variable standardGrid references a new spatial grid with cells of 100 km
+	 * 			and a horizon of 1 second.
+	 * @post	The variable standingShip references a new ship at (50,50) with zero velocity
+	 * 			and a radius of 10.
+	 * @post	The variable movingShip references a new ship at (450,50) with velocity (-400,0)
+	 * 			and a radius of 10.
+	 * @post	The variable farShip references a new ship at (5000,5000) with zero velocity
+	 * 			and a radius of 10.
+	 */
+	@Before
+	public void setUpMutableFixture() throws Exception{
+		standardGrid = new SpatialGrid(100, 1);
+		standingShip = new Ship(new Vector2D(50,50), 0, 10, new Vector2D(0,0), 300000, 1e5);
+		movingShip = new Ship(new Vector2D(450,50), 0, 10, new Vector2D(-400,0), 300000, 1e5);
+		farShip = new Ship(new Vector2D(5000,5000), 0, 10, new Vector2D(0,0), 300000, 1e5);
+	}
+
+	@Test
+	public final void constructor_NormalCase() {
+		SpatialGrid grid = new SpatialGrid(50, 2);
+		assertEquals(50, grid.getCellSize(), 0);
+		assertEquals(2, grid.getHorizon(), 0);
+		assertEquals(0, grid.getNbElements());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public final void constructor_InvalidCellSize() {
+		new SpatialGrid(0, 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public final void constructor_InvalidHorizon() {
+		new SpatialGrid(100, Double.POSITIVE_INFINITY);
+	}
+
+	@Test
+	public final void add_NormalCase() {
+		standardGrid.add(standingShip, 1);
+		assertTrue(standardGrid.contains(standingShip));
+		assertEquals(1, standardGrid.getNbElements());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public final void add_Null() {
+		standardGrid.add(null, 1);
+	}
+
+	@Test
+	public final void remove_NormalCase() {
+		standardGrid.add(standingShip, 1);
+		standardGrid.add(movingShip, 1);
+		standardGrid.remove(standingShip);
+		assertFalse(standardGrid.contains(standingShip));
+		assertFalse(standardGrid.getCandidates(movingShip).contains(standingShip));
+	}
+
+	@Test
+	public final void getCandidates_SweptPath() {
+		standardGrid.add(standingShip, 1);
+		standardGrid.add(movingShip, 1);
+		standardGrid.add(farShip, 1);
+		Set<SpatialElement> candidates = standardGrid.getCandidates(movingShip);
+		assertTrue(candidates.contains(standingShip));
+		assertFalse(candidates.contains(farShip));
+		assertFalse(candidates.contains(movingShip));
+	}
+
+	@Test
+	public final void getCandidates_ShortTimeSpan() {
+		standardGrid.add(standingShip, 1);
+		standardGrid.add(movingShip, 0.1);
+		assertFalse(standardGrid.getCandidates(movingShip).contains(standingShip));
+	}
+
+	@Test
+	public final void getCandidates_Rectangle() {
+		standardGrid.add(standingShip, 1);
+		standardGrid.add(farShip, 1);
+		Set<SpatialElement> candidates = standardGrid.getCandidates(4950, 4950, 5050, 5050);
+		assertTrue(candidates.contains(farShip));
+		assertFalse(candidates.contains(standingShip));
+	}
+
+	@Test
+	public final void getCandidates_Oversized() {
+		Ship fastShip = new Ship(new Vector2D(50,5000), 0, 10, new Vector2D(0,-200000), 300000, 1e5);
+		standardGrid.add(standingShip, 1);
+		standardGrid.add(farShip, 1);
+		standardGrid.add(fastShip, 1);
+		assertTrue(standardGrid.getCandidates(fastShip).contains(farShip));
+		assertTrue(standardGrid.getCandidates(farShip).contains(fastShip));
+	}
+
+	@Test
+	public final void getCandidatesSlots_NormalCase() {
+		standardGrid.add(standingShip, 1);
+		standardGrid.add(movingShip, 1);
+		standardGrid.add(farShip, 1);
+		int[] slots = new int[3];
+		assertEquals(1, standardGrid.getCandidates(movingShip, slots));
+		assertEquals(-1, slots[0]);
+		assertEquals(0, standardGrid.getCandidates(farShip, slots));
+	}
+
+	@Test
+	public final void getCandidatesRectangleSlots_NormalCase() {
+		standardGrid.add(standingShip, 1);
+		standardGrid.add(farShip, 1);
+		int[] slots = new int[2];
+		assertEquals(1, standardGrid.getCandidates(4950, 4950, 5050, 5050, slots));
+		assertEquals(-1, slots[0]);
+		assertEquals(standardGrid.getCandidates(0, 0, 6000, 6000).size(),
+				standardGrid.getCandidates(0, 0, 6000, 6000, slots));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public final void getCandidatesRectangleSlots_TooSmallArray() {
+		standardGrid.add(standingShip, 1);
+		standardGrid.add(farShip, 1);
+		standardGrid.getCandidates(0, 0, 6000, 6000, new int[1]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public final void getCandidatesSlots_TooSmallArray() {
+		standardGrid.add(standingShip, 1);
+		standardGrid.add(movingShip, 1);
+		standardGrid.getCandidates(movingShip, new int[1]);
+	}
+
+	@Test
+	public final void getCandidatesSlots_MovingElements() {
+		Random random = new Random(3);
+		Ship[] ships = new Ship[200];
+		double[][] boxes = new double[ships.length][];
+		for (int i = 0; i < ships.length; i++) {
+			ships[i] = new Ship(new Vector2D(random.nextDouble()*1000, random.nextDouble()*1000), 0, 10,
+					new Vector2D((random.nextDouble() - 0.5)*100, (random.nextDouble() - 0.5)*100), 300000, 1e5);
+			boxes[i] = addWithBox(ships[i], random.nextDouble()*3);
+		}
+		int[] slots = new int[ships.length];
+		for (int round = 0; round < 5; round++) {
+			for (int i = round % 3; i < ships.length; i += 3) {
+				standardGrid.remove(ships[i]);
+				boxes[i] = null;
+			}
+			for (int i = round % 2; i < ships.length; i += 2)
+				boxes[i] = addWithBox(ships[i], random.nextDouble()*3);
+			for (int i = 0; i < ships.length; i++) {
+				Set<SpatialElement> candidates = standardGrid.getCandidates(ships[i]);
+				assertEquals(candidates.size(), standardGrid.getCandidates(ships[i], slots));
+				for (int j = 0; j < ships.length; j++) {
+					if (i != j && boxes[i] != null && boxes[j] != null && boxes[i][0] <= boxes[j][2]
+							&& boxes[j][0] <= boxes[i][2] && boxes[i][1] <= boxes[j][3] && boxes[j][1] <= boxes[i][3])
+						assertTrue(candidates.contains(ships[j]));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Add the given ship to the standard grid and return its swept box {minX, minY, maxX, maxY}.
+	 */
+	private static double[] addWithBox(Ship ship, double timeSpan) {
+		standardGrid.add(ship, timeSpan);
+		double x = ship.getPosition().getXComponent(), y = ship.getPosition().getYComponent();
+		double endX = x + ship.getVelocity().getXComponent()*timeSpan;
+		double endY = y + ship.getVelocity().getYComponent()*timeSpan;
+		double radius = ship.getRadius();
+		return new double[] {Math.min(x, endX) - radius, Math.min(y, endY) - radius,
+				Math.max(x, endX) + radius, Math.max(y, endY) + radius};
+	}
+
+	@Test
+	public final void clear_NormalCase() {
+		standardGrid.add(standingShip, 1);
+		standardGrid.add(movingShip, 1);
+		standardGrid.clear();
+		assertEquals(0, standardGrid.getNbElements());
+		assertTrue(standardGrid.getCandidates(0, 0, 1000, 1000).isEmpty());
+	}
+}
@@ -0,0 +1,204 @@
+package asteroids.test;
+
+import java.util.*;
+import static org.junit.Assert.*;
+import org.junit.*;
+import asteroids.model.*;
+
+public class SweepAndPruneTest {
+
+	private static SweepAndPrune standardSweep;
+	private static Ship standingShip, movingShip, farShip;
+
+	/**
+	 * Set up a mutable test fixture
+	 *
+	 * @post	The variable standardSweep references a new sweep-and-prune broadphase
+	 * 			with a horizon of 1 second.
+	 * @post	The variable standingShip references a new ship at (50,50) with zero velocity
+	 * 			and a radius of 10.
+	 * @post	The variable movingShip references a new ship at (450,50) with velocity (-400,0)
+	 * 			and a radius of 10.
+	 * @post	The variable farShip references a new ship at (5000,5000) with zero velocity
+	 * 			and a radius of 10.
+	 */
+	@Before
+	public void setUpMutableFixture() throws Exception{
+		standardSweep = new SweepAndPrune(1);
+		standingShip = new Ship(new Vector2D(50,50), 0, 10, new Vector2D(0,0), 300000, 1e5);
+		movingShip = new Ship(new Vector2D(450,50), 0, 10, new Vector2D(-400,0), 300000, 1e5);
+		farShip = new Ship(new Vector2D(5000,5000), 0, 10, new Vector2D(0,0), 300000, 1e5);
+	}
+
+	@Test
+	public final void constructor_NormalCase() {
+		SweepAndPrune sweep = new SweepAndPrune(2);
+		assertEquals(2, sweep.getHorizon(), 0);
+		assertEquals(0, sweep.getNbElements());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public final void constructor_InvalidHorizon() {
+		new SweepAndPrune(-1);
+	}
+
+	@Test
+	public final void add_NormalCase() {
+		standardSweep.add(standingShip, 1);
+		assertTrue(standardSweep.contains(standingShip));
+		assertEquals(1, standardSweep.getNbElements());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public final void add_Null() {
+		standardSweep.add(null, 1);
+	}
+
+	@Test
+	public final void add_Replaces() {
+		standardSweep.add(standingShip, 1);
+		standardSweep.add(movingShip, 1);
+		assertTrue(standardSweep.getCandidates(movingShip).contains(standingShip));
+		standardSweep.add(movingShip, 0.1);
+		assertEquals(2, standardSweep.getNbElements());
+		assertFalse(standardSweep.getCandidates(movingShip).contains(standingShip));
+		assertFalse(standardSweep.getCandidates(standingShip).contains(movingShip));
+	}
+
+	@Test
+	public final void remove_NormalCase() {
+		standardSweep.add(standingShip, 1);
+		standardSweep.add(movingShip, 1);
+		standardSweep.remove(standingShip);
+		assertFalse(standardSweep.contains(standingShip));
+		assertFalse(standardSweep.getCandidates(movingShip).contains(standingShip));
+	}
+
+	@Test
+	public final void getCandidates_SweptPath() {
+		standardSweep.add(standingShip, 1);
+		standardSweep.add(movingShip, 1);
+		standardSweep.add(farShip, 1);
+		Set<SpatialElement> candidates = standardSweep.getCandidates(movingShip);
+		assertTrue(candidates.contains(standingShip));
+		assertFalse(candidates.contains(farShip));
+		assertFalse(candidates.contains(movingShip));
+	}
+
+	@Test
+	public final void getCandidates_Rectangle() {
+		standardSweep.add(standingShip, 1);
+		standardSweep.add(farShip, 1);
+		Set<SpatialElement> candidates = standardSweep.getCandidates(4950, 4950, 5050, 5050);
+		assertTrue(candidates.contains(farShip));
+		assertFalse(candidates.contains(standingShip));
+	}
+
+	@Test
+	public final void getCandidates_MatchesAllPairs() {
+		Random random = new Random(7);
+		Ship[] ships = new Ship[60];
+		double[][] boxes = new double[ships.length][];
+		for (int i = 0; i < ships.length; i++) {
+			ships[i] = randomShip(random);
+			boxes[i] = addWithBox(ships[i], 1);
+		}
+		for (int round = 0; round < 20; round++) {
+			for (int i = 0; i < ships.length; i++) {
+				if (random.nextInt(4) == 0) {
+					standardSweep.remove(ships[i]);
+					ships[i] = randomShip(random);
+				} else {
+					ships[i].move(random.nextDouble());
+					ships[i].setVelocity(new Vector2D((random.nextDouble() - 0.5)*100,
+							(random.nextDouble() - 0.5)*100));
+				}
+				boxes[i] = addWithBox(ships[i], random.nextDouble());
+			}
+			for (int i = 0; i < ships.length; i++) {
+				Set<SpatialElement> candidates = standardSweep.getCandidates(ships[i]);
+				for (int j = 0; j < ships.length; j++) {
+					boolean overlap = (i != j) && boxes[i][0] <= boxes[j][2] && boxes[j][0] <= boxes[i][2]
+							&& boxes[i][1] <= boxes[j][3] && boxes[j][1] <= boxes[i][3];
+					assertEquals(overlap, candidates.contains(ships[j]));
+				}
+			}
+		}
+	}
+
+	@Test
+	public final void getCandidatesSlots_PendingAndSorted() {
+		Random random = new Random(5);
+		Ship[] ships = new Ship[100];
+		int[] slots = new int[ships.length];
+		for (int i = 0; i < ships.length; i++) {
+			ships[i] = randomShip(random);
+			standardSweep.add(ships[i], random.nextDouble());
+			// Check while some ships are merged into the sorted lists and others are still pending.
+			for (int j = 0; j <= i; j++)
+				assertEquals(standardSweep.getCandidates(ships[j]).size(), standardSweep.getCandidates(ships[j], slots));
+		}
+	}
+
+	@Test
+	public final void getCandidatesRectangleSlots_NormalCase() {
+		standardSweep.add(standingShip, 1);
+		standardSweep.add(farShip, 1);
+		int[] slots = new int[2];
+		assertEquals(1, standardSweep.getCandidates(4950, 4950, 5050, 5050, slots));
+		assertEquals(-1, slots[0]);
+		assertEquals(standardSweep.getCandidates(0, 0, 6000, 6000).size(),
+				standardSweep.getCandidates(0, 0, 6000, 6000, slots));
+	}
+
+	@Test
+	public final void addAll_SameAsSingleAdds() {
+		Random random = new Random(11);
+		SweepAndPrune singleSweep = new SweepAndPrune(1);
+		List<Ship> ships = new ArrayList<Ship>();
+		for (int i = 0; i < 300; i++) {
+			ships.add(randomShip(random));
+			singleSweep.add(ships.get(i), 1);
+		}
+		standardSweep.add(standingShip, 1);
+		singleSweep.add(standingShip, 1);
+		standardSweep.addAll(ships, 1);
+		assertEquals(singleSweep.getNbElements(), standardSweep.getNbElements());
+		for (Ship ship: ships)
+			assertEquals(singleSweep.getCandidates(ship), standardSweep.getCandidates(ship));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public final void getCandidatesSlots_TooSmallArray() {
+		standardSweep.add(standingShip, 1);
+		standardSweep.add(movingShip, 1);
+		standardSweep.getCandidates(movingShip, new int[1]);
+	}
+
+	private static Ship randomShip(Random random) {
+		return new Ship(new Vector2D(random.nextDouble()*1000, random.nextDouble()*1000), 0, 10,
+				new Vector2D((random.nextDouble() - 0.5)*100, (random.nextDouble() - 0.5)*100), 300000, 1e5);
+	}
+
+	/**
+	 * Add the given ship to the standard sweep and return its swept box {minX, minY, maxX, maxY}.
+	 */
+	private static double[] addWithBox(Ship ship, double timeSpan) {
+		standardSweep.add(ship, timeSpan);
+		double x = ship.getPosition().getXComponent(), y = ship.getPosition().getYComponent();
+		double endX = x + ship.getVelocity().getXComponent()*timeSpan;
+		double endY = y + ship.getVelocity().getYComponent()*timeSpan;
+		double radius = ship.getRadius();
+		return new double[] {Math.min(x, endX) - radius, Math.min(y, endY) - radius,
+				Math.max(x, endX) + radius, Math.max(y, endY) + radius};
+	}
+
+	@Test
+	public final void clear_NormalCase() {
+		standardSweep.add(standingShip, 1);
+		standardSweep.add(movingShip, 1);
+		standardSweep.clear();
+		assertEquals(0, standardSweep.getNbElements());
+		assertTrue(standardSweep.getCandidates(0, 0, 1000, 1000).isEmpty());
+	}
+}
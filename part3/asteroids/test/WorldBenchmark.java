@@ -0,0 +1,134 @@
+package asteroids.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import asteroids.model.*;
+
+/**
+ * A scaling benchmark for the collision handling of worlds.
+ *
+ * For a growing number of asteroids, a world is filled with randomly
+ * placed and randomly moving asteroids at a fixed density, added in a
+ * single batch, after which the world is evolved for a number of frames. The time to load the world,
+ * the time to evolve it and the number of scheduled collisions are
+ * reported for each configuration of the world.
+ *
+ * Run as a plain Java application; the sizes can be given as arguments.
+ *
+ * @version 1.4
+ * @author  Frederik Van Eeghem, Pieter Lietaert
+ */
+public class WorldBenchmark {
+
+	/**
+	 * The area in km^2 available to each asteroid.
+	 */
+	private static final double areaPerAsteroid = 200*200;
+
+	/**
+	 * The radius of each asteroid in km.
+	 */
+	private static final double radius = 10;
+
+	/**
+	 * The maximum speed of each asteroid in km/s.
+	 */
+	private static final double speed = 50;
+
+	/**
+	 * The duration of a single frame in seconds.
+	 */
+	private static final double frameTime = 1.0/30;
+
+	/**
+	 * The number of evolved frames.
+	 */
+	private static final int nbFrames = 30;
+
+	/**
+	 * The names of the benchmarked configurations of a world.
+	 */
+	private static final String[] configurations = {"all pairs", "earliest", "grid", "grid+earliest",
+			"quadtree", "quadtree+earliest", "horizon", "grid+horizon"};
+
+	/**
+	 * The prediction horizon in seconds of the configurations with a horizon.
+	 */
+	private static final double horizon = 0.5;
+
+	public static void main(String[] args) {
+		int[] sizes = {250, 500, 1000, 2000, 4000};
+		if (args.length > 0) {
+			sizes = new int[args.length];
+			for (int i = 0; i < args.length; i++)
+				sizes[i] = Integer.parseInt(args[i]);
+		}
+		// Warm up the JIT before measuring anything.
+		for (String configuration: configurations)
+			run(500, configuration);
+		System.out.println("N\tconfiguration\tload (ms)\tevolve/frame (ms)\tqueue");
+		for (int n: sizes) {
+			for (String configuration: configurations)
+				report(n, configuration, run(n, configuration));
+		}
+	}
+
+	/**
+	 * Create a world with the given number of asteroids, placed by a random
+	 * generator with a fixed seed, using the given configuration.
+	 */
+	public static World createWorld(int nbAsteroids, String configuration) {
+		double side = Math.sqrt(nbAsteroids * areaPerAsteroid);
+		World world = new World(side, side);
+		configure(world, configuration);
+		Random random = new Random(42);
+		List<SpatialElement> asteroids = new ArrayList<SpatialElement>(nbAsteroids);
+		for (int i = 0; i < nbAsteroids; i++) {
+			Vector2D position = new Vector2D(radius + random.nextDouble()*(side - 2*radius),
+					radius + random.nextDouble()*(side - 2*radius));
+			Vector2D velocity = new Vector2D((2*random.nextDouble() - 1)*speed,
+					(2*random.nextDouble() - 1)*speed);
+			asteroids.add(new Asteroid(position, radius, velocity, 300000, new Random(i)));
+		}
+		world.addAll(asteroids);
+		return world;
+	}
+
+	/**
+	 * Apply the given configuration to the given (empty) world.
+	 */
+	private static void configure(World world, String configuration) {
+		if (configuration.contains("grid"))
+			world.setSpatialGrid(new SpatialGrid(4*radius, 1));
+		if (configuration.contains("quadtree"))
+			world.setBroadphase(new LooseQuadtree(world.getWidth(), world.getHeight(), 1));
+		if (configuration.contains("earliest"))
+			world.setEarliestEventScheduling(true);
+		if (configuration.contains("horizon"))
+			world.setPredictionHorizon(horizon);
+	}
+
+	/**
+	 * Load and evolve a world with the given number of asteroids and return
+	 * the load time and the average time per frame in nanoseconds, and the
+	 * number of scheduled collisions after loading.
+	 */
+	private static long[] run(int nbAsteroids, String configuration) {
+		long start = System.nanoTime();
+		World world = createWorld(nbAsteroids, configuration);
+		long loaded = System.nanoTime();
+		long queueSize = world.getCollisions().size();
+		long evolveStart = System.nanoTime();
+		for (int i = 0; i < nbFrames; i++)
+			world.evolve(frameTime, null);
+		long evolved = System.nanoTime();
+		return new long[] {loaded - start, (evolved - evolveStart) / nbFrames, queueSize};
+	}
+
+	private static void report(int nbAsteroids, String configuration, long[] results) {
+		System.out.printf("%d\t%-17s\t%.1f\t\t%.3f\t\t\t%d%n", nbAsteroids, configuration,
+				results[0] / 1e6, results[1] / 1e6, results[2]);
+	}
+}
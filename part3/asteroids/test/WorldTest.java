@@ -225,6 +225,31 @@ public class WorldTest {
 		}
 	}
 	
+	@Test
+	public final void getShipsView_Live() {
+		Set<Ship> ships = standardWorld.getShipsView();
+		Set<Ship> snapshot = standardWorld.getShips();
+		assertEquals(snapshot, ships);
+		assertEquals(snapshot.size(), standardWorld.getNbShips());
+		standardWorld.removeAsSpatialElement(standardShip1);
+		assertFalse(ships.contains(standardShip1));
+		assertTrue(snapshot.contains(standardShip1));
+		assertEquals(ships.size(), standardWorld.getNbShips());
+	}
+	
+	@Test
+	public final void getAsteroidsView_Counts() {
+		assertEquals(standardWorld.getAsteroids(), standardWorld.getAsteroidsView());
+		assertEquals(standardAsteroids.size(), standardWorld.getNbAsteroids());
+		assertEquals(standardBullets.size(), standardWorld.getNbBullets());
+		assertEquals(standardWorld.getBullets(), standardWorld.getBulletsView());
+	}
+	
+	@Test(expected = UnsupportedOperationException.class)
+	public final void getBulletsView_Unmodifiable() {
+		standardWorld.getBulletsView().clear();
+	}
+	
 	@Test
 	public final void getIllegalOverlap_NoOverlap(){
 		assertTrue(standardWorld.getIllegalOverlap(newShip2) == null);
@@ -444,6 +469,119 @@ public class WorldTest {
 		assertTrue(newBullet.isTerminated());
 	}
 	
+	@Test
+	public final void addAll_NormalCase() {
+		Ship ship = new Ship(new Vector2D(800,800), 0, 50, new Vector2D(0,0), 300000, 50);
+		Asteroid asteroid = new Asteroid(new Vector2D(800,200), 50, new Vector2D(0,100), 300000, new Random());
+		worldToEvolve.addAll(Arrays.asList(ship, asteroid));
+		assertTrue(worldToEvolve.hasAsSpatialElement(ship));
+		assertTrue(worldToEvolve.hasAsSpatialElement(asteroid));
+		assertTrue(asteroid.getWorld() == worldToEvolve);
+		int nbPairCollisions = 0;
+		for (Collision collision: worldToEvolve.getCollisions())
+			if (collision.contains(ship) && collision.contains(asteroid))
+				nbPairCollisions++;
+		assertEquals(1, nbPairCollisions);
+	}
+	
+	@Test
+	public final void addAll_CaseIllegalOverlapInBatch() {
+		Ship ship = new Ship(new Vector2D(800,800), 0, 50, new Vector2D(0,0), 300000, 50);
+		Ship overlappingShip = new Ship(new Vector2D(820,800), 0, 50, new Vector2D(0,0), 300000, 50);
+		Ship outsideShip = new Ship(new Vector2D(100,1000), 0, 50, new Vector2D(0,0), 300000, 50);
+		standardWorld.addAll(Arrays.asList(ship, overlappingShip, outsideShip));
+		assertTrue(standardWorld.hasAsSpatialElement(ship));
+		assertFalse(standardWorld.hasAsSpatialElement(overlappingShip));
+		assertFalse(overlappingShip.isTerminated());
+		assertFalse(standardWorld.hasAsSpatialElement(outsideShip));
+		assertTrue(outsideShip.isTerminated());
+	}
+	
+	@Test
+	public final void addAll_IllegalElement() {
+		Ship ship = new Ship(new Vector2D(800,800), 0, 50, new Vector2D(0,0), 300000, 50);
+		try {
+			standardWorld.addAll(Arrays.asList(ship, standardShip1));
+			fail();
+		} catch (IllegalArgumentException exc) {
+			assertFalse(standardWorld.hasAsSpatialElement(ship));
+			assertTrue(ship.getWorld() == null);
+		}
+	}
+	
+	@Test
+	public final void addAll_LargeBatchSameAsSingle() {
+		World singleWorld = new World(1000,1000);
+		World batchWorld = new World(1000,1000);
+		List<SpatialElement> batch = new ArrayList<SpatialElement>();
+		Random random = new Random(7);
+		for (int i = 0; i < 4*World.getMinGridBatchSize(); i++) {
+			Vector2D position = new Vector2D(30 + random.nextDouble()*940, 30 + random.nextDouble()*940);
+			Vector2D velocity = new Vector2D(random.nextDouble()*100 - 50, random.nextDouble()*100 - 50);
+			batch.add(new Asteroid(position, 20, velocity, 300000, new Random(i)));
+			singleWorld.addAsSpatialElement(new Asteroid(position, 20, velocity, 300000, new Random(i)));
+		}
+		batchWorld.addAll(batch);
+		assertTrue(batchWorld.getAsteroids().size() < batch.size());
+		assertEquals(singleWorld.getAsteroids().size(), batchWorld.getAsteroids().size());
+		assertEquals(singleWorld.getCollisions().size(), batchWorld.getCollisions().size());
+	}
+
+	@Test
+	public final void addAll_LargeBatchWithBroadphaseSameAsSingle() {
+		Broadphase[][] broadphases = {{new SpatialGrid(100, 1), new SpatialGrid(100, 1)},
+				{new LooseQuadtree(1000, 1000, 1), new LooseQuadtree(1000, 1000, 1)},
+				{new SweepAndPrune(1), new SweepAndPrune(1)}};
+		for (Broadphase[] pair: broadphases) {
+			World singleWorld = new World(1000,1000);
+			World batchWorld = new World(1000,1000);
+			singleWorld.setBroadphase(pair[0]);
+			batchWorld.setBroadphase(pair[1]);
+			List<SpatialElement> batch = new ArrayList<SpatialElement>();
+			Random random = new Random(7);
+			for (int i = 0; i < 2*World.getMaxBatchSize(); i++) {
+				Vector2D position = new Vector2D(15 + random.nextDouble()*970, 15 + random.nextDouble()*970);
+				Vector2D velocity = new Vector2D(random.nextDouble()*100 - 50, random.nextDouble()*100 - 50);
+				batch.add(new Asteroid(position, 10, velocity, 300000, new Random(i)));
+				singleWorld.addAsSpatialElement(new Asteroid(position, 10, velocity, 300000, new Random(i)));
+			}
+			batchWorld.addAll(batch);
+			assertEquals(singleWorld.getAsteroids().size(), batchWorld.getAsteroids().size());
+			assertEquals(batchWorld.getAsteroids().size(), batchWorld.getBroadphase().getNbElements());
+			assertEquals(singleWorld.getCollisions().size(), batchWorld.getCollisions().size());
+		}
+	}
+
+	@Test
+	public final void addAll_CaseBulletSplitsAsteroidInLargeBatch() {
+		World singleWorld = new World(1000,1000);
+		World batchWorld = new World(1000,1000);
+		List<SpatialElement> batch = new ArrayList<SpatialElement>();
+		for (World world: new World[] {singleWorld, batchWorld}) {
+			List<SpatialElement> elements = new ArrayList<SpatialElement>();
+			for (int i = 0; i < 2*World.getMinGridBatchSize(); i++)
+				elements.add(new Asteroid(new Vector2D(50 + 25*i, 100), 10, new Vector2D(0,10), 300000, new Random(i)));
+			Ship ship = new Ship(new Vector2D(100,900), 0, 10, new Vector2D(0,0), 300000, 1E5);
+			elements.add(ship);
+			elements.add(new Asteroid(new Vector2D(500,500), 40, new Vector2D(0,0), 300000, new Random(1)));
+			elements.add(new Bullet(new Vector2D(500,530), 3, new Vector2D(0,0), 300000, ship));
+			// These overlap the split asteroid, but may not overlap its children.
+			for (int i = 0; i < 8; i++)
+				elements.add(new Asteroid(new Vector2D(500 + 52*Math.cos(i*Math.PI/4), 500 + 52*Math.sin(i*Math.PI/4)),
+						15, new Vector2D(0,0), 300000, new Random(i)));
+			if (world == singleWorld)
+				for (SpatialElement element: elements)
+					world.addAsSpatialElement(element);
+			else
+				batch.addAll(elements);
+		}
+		batchWorld.addAll(batch);
+		assertTrue(batch.get(2*World.getMinGridBatchSize() + 1).isTerminated());
+		assertTrue(batch.get(2*World.getMinGridBatchSize() + 2).isTerminated());
+		assertEquals(singleWorld.getAsteroids().size(), batchWorld.getAsteroids().size());
+		assertEquals(singleWorld.getCollisions().size(), batchWorld.getCollisions().size());
+	}
+
 	@Test
 	public final void removeAsSpatialElement_NormalCase() throws Exception{
 		for(Ship ship: standardShips) {
@@ -543,6 +681,174 @@ public class WorldTest {
 		assertFalse(isin1 && isin2);
 	}
 	
+	@Test
+	public final void removeAsCollision_InvalidatesCollisions(){
+		Ship newShip = new Ship(new Vector2D(40,100), 0, 10, new Vector2D(10,0), 300000, 50);
+		standardWorld.addAsSpatialElement(newShip);
+		Set<Collision> involved = new HashSet<Collision>();
+		for (Collision collision: standardWorld.getCollisions()) {
+			assertTrue(standardWorld.hasAsCollision(collision));
+			if (collision.contains(newShip))
+				involved.add(collision);
+		}
+		assertFalse(involved.isEmpty());
+		standardWorld.removeAsCollision(newShip);
+		for (Collision collision: involved) {
+			assertFalse(standardWorld.hasAsCollision(collision));
+		}
+		for (Collision collision: standardWorld.getCollisions())
+			assertFalse(collision.contains(newShip));
+	}
+	
+	@Test
+	public final void removeAsCollision_OtherCollisionsKept(){
+		Ship newShip = new Ship(new Vector2D(40,100), 0, 10, new Vector2D(10,0), 300000, 50);
+		standardWorld.addAsSpatialElement(newShip);
+		int nbCollisions = standardWorld.getCollisions().size();
+		standardWorld.removeAsCollision(standardShip1);
+		assertEquals(nbCollisions - 1, standardWorld.getCollisions().size());
+	}
+	
+	@Test
+	public final void addAsSpatialElement_SleepingPassive(){
+		assertTrue(standardAsteroid1.isSleeping());
+		assertTrue(standardWorld.getCollisions().isEmpty());
+		Ship newShip = new Ship(new Vector2D(40,300), 0, 10, new Vector2D(10,0), 300000, 50);
+		standardWorld.addAsSpatialElement(newShip);
+		assertFalse(newShip.isSleeping());
+		boolean hitsAsteroid = false;
+		for (Collision collision: standardWorld.getCollisions()) {
+			assertTrue(collision.contains(newShip));
+			if (collision.contains(standardAsteroid1))
+				hitsAsteroid = true;
+		}
+		assertTrue(hitsAsteroid);
+	}
+	
+	@Test
+	public final void evolve_CaseSleepingWoken(){
+		Ship sleeper = new Ship(new Vector2D(500,100), 0, 50, new Vector2D(0,0), 300000, 1.1E18);
+		worldToEvolve.addAsSpatialElement(sleeper);
+		worldToEvolve.setBroadphase(new SpatialGrid(100, 1));
+		assertTrue(sleeper.isSleeping());
+		worldToEvolve.evolve(3.5, null);
+		assertEquals(550,sleeper.getPosition().getXComponent(),EPSILON);
+		assertFalse(sleeper.isSleeping());
+		assertEquals(0,newShip.getVelocity().getXComponent(),EPSILON);
+	}
+	
+	@Test
+	public final void evolve_CaseCollisionMask(){
+		Ship otherShip = new Ship(new Vector2D(500,100), 0, 50, new Vector2D(0,0), 300000, 1.1E18);
+		worldToEvolve.addAsSpatialElement(otherShip);
+		otherShip.setCollisionMask(CollisionTable.ALL & ~CollisionTable.SHIP);
+		for (Collision collision: worldToEvolve.getCollisions())
+			assertFalse(collision.contains(otherShip) && collision.contains(newShip));
+		worldToEvolve.evolve(3.5, null);
+		assertEquals(500,otherShip.getPosition().getXComponent(),EPSILON);
+		assertEquals(450,newShip.getPosition().getXComponent(),EPSILON);
+		assertEquals(100,newShip.getVelocity().getXComponent(),EPSILON);
+	}
+	
+	@Test
+	public final void evolve_CaseRemovalsSwept(){
+		World world = new World(1000,1000);
+		world.setBroadphase(new SpatialGrid(100, 1));
+		Ship ship = new Ship(new Vector2D(100,500), 0, 10, new Vector2D(0,0), 300000, 1E5);
+		Asteroid asteroid = new Asteroid(new Vector2D(500,500), 40, new Vector2D(0,0), 300000, new Random());
+		Bullet bullet = new Bullet(new Vector2D(300,500), 3, new Vector2D(100,0), 300000, ship);
+		world.addAll(Arrays.<SpatialElement>asList(ship, asteroid, bullet));
+		world.evolve(3.0, null);
+		assertFalse(world.isEvolving());
+		assertTrue(asteroid.isTerminated());
+		assertTrue(asteroid.getWorld() == null);
+		assertTrue(bullet.isTerminated());
+		assertFalse(world.getBroadphase().contains(asteroid));
+		assertFalse(world.getBroadphase().contains(bullet));
+		// The children are not blocked by their parent while it waits to be swept.
+		assertEquals(2, world.getAsteroids().size());
+		for (Asteroid child: world.getAsteroids())
+			assertEquals(20, child.getRadius(), EPSILON);
+	}
+	
+	@Test
+	public final void removeAsSpatialElement_SweptWhenNotEvolving(){
+		standardWorld.setBroadphase(new SpatialGrid(100, 1));
+		standardWorld.removeAsSpatialElement(standardShip1);
+		assertFalse(standardWorld.getBroadphase().contains(standardShip1));
+		assertTrue(standardShip1.getWorld() == null);
+		standardWorld.addAsSpatialElement(standardShip1);
+		assertTrue(standardWorld.getBroadphase().contains(standardShip1));
+	}
+	
+	@Test
+	public final void setRecyclingElements_BulletFiredAgain(){
+		standardWorld.setRecyclingElements(true);
+		assertTrue(standardWorld.isRecyclingElements());
+		Ship ship = new Ship(new Vector2D(800,800), 0, 20, new Vector2D(0,0), 300000, 1E5);
+		standardWorld.addAsSpatialElement(ship);
+		ship.fireBullet();
+		Bullet bullet = null;
+		for (Bullet fired: standardWorld.getBullets())
+			if (fired.getShip() == ship)
+				bullet = fired;
+		bullet.terminate();
+		assertTrue(bullet.isTerminated());
+		assertEquals(0, ship.getNbBullets());
+		ship.fireBullet();
+		assertFalse(bullet.isTerminated());
+		assertTrue(bullet.getWorld() == standardWorld);
+		assertTrue(standardWorld.hasAsSpatialElement(bullet));
+		assertEquals(1, ship.getNbBullets());
+		assertEquals(820, bullet.getPosition().getXComponent(), EPSILON);
+	}
+	
+	@Test
+	public final void setRecyclingElements_FalseCaseNewBullet(){
+		Ship ship = new Ship(new Vector2D(800,800), 0, 20, new Vector2D(0,0), 300000, 1E5);
+		standardWorld.addAsSpatialElement(ship);
+		ship.fireBullet();
+		Bullet bullet = null;
+		for (Bullet fired: standardWorld.getBullets())
+			if (fired.getShip() == ship)
+				bullet = fired;
+		bullet.terminate();
+		ship.fireBullet();
+		assertTrue(bullet.isTerminated());
+		assertTrue(bullet.getWorld() == null);
+		assertEquals(1, ship.getNbBullets());
+	}
+	
+	@Test
+	public final void setRecyclingElements_AsteroidRevivedAsChild(){
+		World world = new World(1000,1000);
+		world.setRecyclingElements(true);
+		Asteroid small = new Asteroid(new Vector2D(100,100), 20, new Vector2D(10,0), new Random());
+		Asteroid large = new Asteroid(new Vector2D(500,500), 40, new Vector2D(10,0), new Random());
+		world.addAll(Arrays.<SpatialElement>asList(small, large));
+		small.terminate();
+		large.collide();
+		assertTrue(large.isTerminated());
+		assertFalse(small.isTerminated());
+		assertTrue(world.hasAsSpatialElement(small));
+		assertEquals(2, world.getAsteroids().size());
+		assertEquals(500, small.getPosition().getXComponent(), 20 + EPSILON);
+		assertEquals(15, small.getVelocity().getNorm(), EPSILON);
+	}
+	
+	@Test
+	public final void removeAsSpatialElement_SlotReused(){
+		Ship newShip = new Ship(new Vector2D(40,100), 0, 10, new Vector2D(10,0), 300000, 50);
+		standardWorld.addAsSpatialElement(newShip);
+		standardWorld.removeAsSpatialElement(newShip);
+		Ship otherShip = new Ship(new Vector2D(500,500), 0, 10, new Vector2D(0,0), 300000, 50);
+		standardWorld.addAsSpatialElement(otherShip);
+		for (Collision collision: standardWorld.getCollisions()) {
+			assertFalse(collision.contains(newShip));
+			assertFalse(collision.contains(otherShip) && collision.contains(standardShip1));
+		}
+	}
+	
 //	@Test
 //	public final void updateElementCollisions_NormalCase() {
 //		Ship newShip = new Ship(new Vector2D(50,100), 0, 20, new Vector2D(10,0), 300000, 50);
@@ -569,6 +875,213 @@ public class WorldTest {
 		assertEquals(101,newShip.getVelocity().getXComponent(),EPSILON);
 	}
 	
+	@Test
+	public final void evolve_CaseMoveContinuousThrust(){
+		worldToEvolve.setContinuousThrust(true);
+		newShip.setThrusterActive(true);
+		worldToEvolve.evolve(1.0, null);
+		assertEquals(200.5,newShip.getPosition().getXComponent(),EPSILON);
+		assertEquals(101,newShip.getVelocity().getXComponent(),EPSILON);
+	}
+	
+	@Test
+	public final void evolve_CaseContinuousThrustStepIndependent(){
+		World steppedWorld = new World(1000,1000);
+		Ship steppedShip = new Ship(new Vector2D(100,100), 0, 50, new Vector2D(100,0), 300000, 1.1E18);
+		steppedWorld.addAsSpatialElement(steppedShip);
+		worldToEvolve.setContinuousThrust(true);
+		steppedWorld.setContinuousThrust(true);
+		newShip.turn(Math.PI/4);
+		steppedShip.turn(Math.PI/4);
+		newShip.setThrusterActive(true);
+		steppedShip.setThrusterActive(true);
+		worldToEvolve.evolve(2.0, null);
+		for (int i = 0; i < 100; i++)
+			steppedWorld.evolve(0.02, null);
+		assertEquals(newShip.getPosition().getXComponent(), steppedShip.getPosition().getXComponent(), 1e-6);
+		assertEquals(newShip.getPosition().getYComponent(), steppedShip.getPosition().getYComponent(), 1e-6);
+		assertEquals(newShip.getVelocity().getXComponent(), steppedShip.getVelocity().getXComponent(), 1e-6);
+		assertEquals(newShip.getVelocity().getYComponent(), steppedShip.getVelocity().getYComponent(), 1e-6);
+	}
+	
+	@Test
+	public final void evolve_CaseContinuousThrustMaxSpeed(){
+		World world = new World(1000,1000);
+		Ship ship = new Ship(new Vector2D(100,500), 0, 20, new Vector2D(0,0), 50, 1.1E18/10);
+		world.addAsSpatialElement(ship);
+		world.setContinuousThrust(true);
+		ship.setThrusterActive(true);
+		world.evolve(6.0, null);
+		// The ship reaches its maximum speed after 5 seconds and moves straight afterwards.
+		assertEquals(50,ship.getVelocity().getXComponent(),EPSILON);
+		assertEquals(100 + 125 + 50,ship.getPosition().getXComponent(),EPSILON);
+	}
+	
+	@Test
+	public final void evolve_CaseContinuousThrustCollision(){
+		worldToEvolve.setContinuousThrust(true);
+		worldToEvolve.addAsSpatialElement(newShip2);
+		newShip.setThrusterActive(true);
+		final List<Double> collisionPoints = new ArrayList<Double>();
+		asteroids.CollisionListener listener = new asteroids.CollisionListener() {
+			public void boundaryCollision(Object entity, double x, double y) {
+			}
+			public void objectCollision(Object entity1, Object entity2, double x, double y) {
+				collisionPoints.add(x);
+			}
+		};
+		worldToEvolve.evolve(4.0, listener);
+		// The ships touch when 800 - 200*t - t*t/2 == 100.
+		double time = Math.sqrt(41400) - 200;
+		assertEquals(1, collisionPoints.size());
+		assertEquals(100 + 100*time + time*time/2 + 50, collisionPoints.get(0), 1e-6);
+	}
+	
+	@Test
+	public final void evolveUntil_TargetTime(){
+		worldToEvolve.evolveUntil(1.0, null);
+		assertEquals(1.0,worldToEvolve.getTime(),EPSILON);
+		assertEquals(200,newShip.getPosition().getXComponent(),EPSILON);
+	}
+	
+	@Test
+	public final void evolveUntil_MatchesEvolveLoop(){
+		World steppedWorld = new World(1000,1000);
+		Ship steppedShip = new Ship(new Vector2D(100,100), 0, 50, new Vector2D(100,0), 300000, 1.1E18);
+		Ship steppedShip2 = new Ship(new Vector2D(900,100), 0, 50, new Vector2D(-100,0), 300000, 1.1E18);
+		steppedWorld.addAsSpatialElement(steppedShip);
+		steppedWorld.addAsSpatialElement(steppedShip2);
+		worldToEvolve.addAsSpatialElement(newShip2);
+		worldToEvolve.setContinuousThrust(true);
+		steppedWorld.setContinuousThrust(true);
+		newShip.setThrusterActive(true);
+		steppedShip.setThrusterActive(true);
+		worldToEvolve.evolveUntil(10.0, null);
+		for (int i = 0; i < 300; i++)
+			steppedWorld.evolve(1.0/30, null);
+		assertEquals(steppedWorld.getTime(), worldToEvolve.getTime(), 1e-9);
+		assertEquals(steppedShip.getPosition().getXComponent(), newShip.getPosition().getXComponent(), 1e-6);
+		assertEquals(steppedShip2.getPosition().getXComponent(), newShip2.getPosition().getXComponent(), 1e-6);
+		assertEquals(steppedShip.getVelocity().getXComponent(), newShip.getVelocity().getXComponent(), 1e-6);
+	}
+	
+	@Test
+	public final void evolveUntil_ConditionHolds(){
+		worldToEvolve.addAsSpatialElement(newAsteroid);
+		assertTrue(worldToEvolve.evolveUntil(new WorldCondition() {
+			public boolean holds(World world) {
+				return newShip.isTerminated();
+			}
+		}, 100, null));
+		// The ship touches the asteroid when 100 + 100*t == 400.
+		assertEquals(3,worldToEvolve.getTime(),EPSILON);
+	}
+	
+	@Test
+	public final void evolveUntil_ConditionHoldsAtStart(){
+		assertTrue(worldToEvolve.evolveUntil(new WorldCondition() {
+			public boolean holds(World world) {
+				return world.getNbShips() == 1;
+			}
+		}, 100, null));
+		assertEquals(0,worldToEvolve.getTime(),0);
+	}
+	
+	@Test
+	public final void evolveUntil_ConditionNeverHolds(){
+		assertFalse(worldToEvolve.evolveUntil(new WorldCondition() {
+			public boolean holds(World world) {
+				return world.getNbShips() == 0;
+			}
+		}, 5, null));
+		assertEquals(5,worldToEvolve.getTime(),EPSILON);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public final void evolveUntil_IllegalTime(){
+		worldToEvolve.evolveUntil(-1, null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public final void evolveUntil_InfiniteTimeWithoutCondition(){
+		worldToEvolve.evolveUntil(Double.POSITIVE_INFINITY, null);
+	}
+	
+	@Test
+	public final void evolveUntil_NoEventLeft(){
+		World world = new World(1000,1000);
+		world.setBroadphase(new SpatialGrid(100, 1));
+		Ship standingShip = new Ship(new Vector2D(100,100), 0, 50, new Vector2D(0,0), 300000, 1.1E18);
+		world.addAsSpatialElement(standingShip);
+		assertFalse(world.evolveUntil(new WorldCondition() {
+			public boolean holds(World world) {
+				return world.getNbShips() == 0;
+			}
+		}, Double.POSITIVE_INFINITY, null));
+		assertFalse(Double.isNaN(standingShip.getPosition().getXComponent()));
+		assertTrue(world.getTime() < Double.POSITIVE_INFINITY);
+	}
+	
+	@Test
+	public final void evolveUntil_KickThrustMatchesFrames(){
+		World steppedWorld = new World(1000,1000);
+		Ship steppedShip = new Ship(new Vector2D(100,100), 0, 50, new Vector2D(100,0), 300000, 1.1E18);
+		steppedWorld.addAsSpatialElement(steppedShip);
+		newShip.setThrusterActive(true);
+		steppedShip.setThrusterActive(true);
+		worldToEvolve.evolveUntil(1.0, null);
+		for (int i = 0; i < 30; i++)
+			steppedWorld.evolve(World.getMaxThrustStep(), null);
+		assertEquals(steppedShip.getPosition().getXComponent(), newShip.getPosition().getXComponent(), 1e-6);
+		assertEquals(steppedShip.getVelocity().getXComponent(), newShip.getVelocity().getXComponent(), 1e-6);
+		assertTrue(newShip.getVelocity().getXComponent() > 100);
+	}
+	
+	@Test
+	public final void evolve_CaseParallelIdentical(){
+		World serialWorld = new World(5000, 5000);
+		World parallelWorld = new World(5000, 5000);
+		java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(4);
+		parallelWorld.setForkJoinPool(pool);
+		parallelWorld.setParallelThreshold(4);
+		List<Ship> serialShips = new ArrayList<Ship>();
+		List<Ship> parallelShips = new ArrayList<Ship>();
+		for (int i = 0; i < 64; i++) {
+			Vector2D position = new Vector2D(300 + 500*(i % 8), 300 + 500*(i / 8));
+			Vector2D velocity = new Vector2D(10*(i % 5) - 20, 10*(i % 3) - 10);
+			Ship serialShip = new Ship(position, i*2*Math.PI/64, 20, velocity, 1e18 + 1e16*i);
+			Ship parallelShip = new Ship(position, i*2*Math.PI/64, 20, velocity, 1e18 + 1e16*i);
+			serialShip.setThrusterActive(i % 2 == 0);
+			parallelShip.setThrusterActive(i % 2 == 0);
+			serialWorld.addAsSpatialElement(serialShip);
+			parallelWorld.addAsSpatialElement(parallelShip);
+			serialShips.add(serialShip);
+			parallelShips.add(parallelShip);
+		}
+		for (int step = 0; step < 50; step++) {
+			serialWorld.evolve(0.1, null);
+			parallelWorld.evolve(0.1, null);
+		}
+		pool.shutdown();
+		for (int i = 0; i < 64; i++) {
+			assertEquals(serialShips.get(i).getPosition().getXComponent(),
+					parallelShips.get(i).getPosition().getXComponent(), 0);
+			assertEquals(serialShips.get(i).getPosition().getYComponent(),
+					parallelShips.get(i).getPosition().getYComponent(), 0);
+			assertEquals(serialShips.get(i).getVelocity().getXComponent(),
+					parallelShips.get(i).getVelocity().getXComponent(), 0);
+			assertEquals(serialShips.get(i).getVelocity().getYComponent(),
+					parallelShips.get(i).getVelocity().getYComponent(), 0);
+		}
+		assertTrue(serialShips.get(0).getVelocity().getXComponent() > -20);
+		assertEquals(serialWorld.getCollisions().size(), parallelWorld.getCollisions().size());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public final void setParallelThreshold_Invalid(){
+		standardWorld.setParallelThreshold(0);
+	}
+	
 	@Test
 	public final void evolve_CaseWallCollision(){
 		worldToEvolve.evolve(10.0, null);
@@ -641,4 +1154,514 @@ public class WorldTest {
 		assertFalse(worldToEvolve.getBullets().isEmpty());
 		assertEquals(800,newShip.getPosition().getXComponent(),EPSILON);
 	}
+	
+	@Test
+	public final void setSpatialGrid_NormalCase(){
+		SpatialGrid grid = new SpatialGrid(100, 1);
+		standardWorld.setSpatialGrid(grid);
+		assertTrue(standardWorld.hasSpatialGrid());
+		assertTrue(standardWorld.getSpatialGrid() == grid);
+		assertEquals(6, grid.getNbElements());
+		assertEquals(1, standardWorld.getTimeToGridRebuild(), EPSILON);
+	}
+	
+	@Test
+	public final void addAsSpatialElement_CaseIllegalOverlapSpatialGrid() {
+		standardWorld.setSpatialGrid(new SpatialGrid(100, 1));
+		Ship newShip = new Ship(new Vector2D(100,100), 0, 50, new Vector2D(0,0), 300000, 50);
+		standardWorld.addAsSpatialElement(newShip);
+		assertFalse(standardWorld.hasAsSpatialElement(newShip));
+		assertFalse(newShip.isTerminated());
+	}
+	
+	@Test
+	public final void evolve_CaseObjectCollisionBounceSpatialGrid(){
+		worldToEvolve.addAsSpatialElement(newShip2);
+		worldToEvolve.setSpatialGrid(new SpatialGrid(100, 0.5));
+		worldToEvolve.evolve(7.0, null);
+		assertEquals(100,newShip.getPosition().getXComponent(),EPSILON);
+		assertEquals(-100,newShip.getVelocity().getXComponent(),EPSILON);
+		assertEquals(900,newShip2.getPosition().getXComponent(),EPSILON);
+		assertEquals(100,newShip2.getVelocity().getXComponent(),EPSILON);
+	}
+	
+	@Test
+	public final void evolve_CaseObjectCollisionBulletHitAsteroidSpatialGrid(){
+		worldToEvolve.setSpatialGrid(new SpatialGrid(50, 0.25));
+		newShip.fireBullet();
+		worldToEvolve.addAsSpatialElement(newAsteroid);
+		worldToEvolve.evolve(2.0, null);
+		assertTrue(worldToEvolve.getBullets().isEmpty());
+		assertTrue(newAsteroid.isTerminated());
+		assertEquals(2,worldToEvolve.getAsteroids().size());
+	}
+	
+	@Test
+	public final void setBroadphase_LooseQuadtree(){
+		LooseQuadtree tree = new LooseQuadtree(1000, 1000, 1);
+		standardWorld.setBroadphase(tree);
+		assertTrue(standardWorld.getBroadphase() == tree);
+		assertFalse(standardWorld.hasSpatialGrid());
+		assertEquals(6, tree.getNbElements());
+	}
+	
+	@Test
+	public final void evolve_CaseObjectCollisionBounceLooseQuadtree(){
+		worldToEvolve.addAsSpatialElement(newShip2);
+		worldToEvolve.setBroadphase(new LooseQuadtree(1000, 1000, 0.5));
+		worldToEvolve.evolve(7.0, null);
+		assertEquals(100,newShip.getPosition().getXComponent(),EPSILON);
+		assertEquals(-100,newShip.getVelocity().getXComponent(),EPSILON);
+		assertEquals(900,newShip2.getPosition().getXComponent(),EPSILON);
+		assertEquals(100,newShip2.getVelocity().getXComponent(),EPSILON);
+	}
+	
+	@Test
+	public final void evolve_CaseObjectCollisionBulletHitAsteroidSweepAndPrune(){
+		worldToEvolve.setBroadphase(new SweepAndPrune(0.25));
+		newShip.fireBullet();
+		worldToEvolve.addAsSpatialElement(newAsteroid);
+		worldToEvolve.evolve(2.0, null);
+		assertTrue(worldToEvolve.getBullets().isEmpty());
+		assertTrue(newAsteroid.isTerminated());
+		assertEquals(2,worldToEvolve.getAsteroids().size());
+	}
+	
+	@Test
+	public final void getNearest_NormalCase(){
+		assertTrue(standardWorld.getNearest(standardShip1, Asteroid.class) == standardAsteroid1);
+		assertTrue(standardWorld.getNearest(standardShip1, Ship.class) == standardShip2);
+	}
+	
+	@Test
+	public final void getNearest_NoneOfKind(){
+		assertNull(worldToEvolve.getNearest(newShip, Ship.class));
+	}
+	
+	@Test
+	public final void getKNearest_Ordered(){
+		standardWorld.setBroadphase(new LooseQuadtree(1000, 1000, 1));
+		List<SpatialElement> nearest = standardWorld.getKNearest(standardShip1, SpatialElement.class, 3);
+		assertEquals(3, nearest.size());
+		assertTrue(nearest.get(0) == standardShip2);
+		assertTrue(nearest.get(1) == standardAsteroid1);
+		assertEquals(5, standardWorld.getKNearest(standardShip1, SpatialElement.class, 10).size());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public final void getKNearest_NegativeNumber(){
+		standardWorld.getKNearest(standardShip1, Ship.class, -1);
+	}
+	
+	@Test
+	public final void getKNearest_MatchesLinearScan(){
+		Random random = new Random(7);
+		World world = new World(10000, 10000);
+		world.setBroadphase(new SweepAndPrune(1));
+		for (int i = 0; i < 300; i++) {
+			Vector2D position = new Vector2D(100 + random.nextDouble()*9800, 100 + random.nextDouble()*9800);
+			Vector2D velocity = new Vector2D(random.nextDouble()*100 - 50, random.nextDouble()*100 - 50);
+			Asteroid asteroid = new Asteroid(position, 10 + random.nextDouble()*20, velocity, 300000, new Random());
+			if (world.getIllegalOverlap(asteroid) == null)
+				world.addAsSpatialElement(asteroid);
+		}
+		world.evolve(0.5, null);
+		List<Asteroid> asteroids = new ArrayList<Asteroid>(world.getAsteroids());
+		for (int i = 0; i < 20; i++) {
+			Asteroid asteroid = asteroids.get(random.nextInt(asteroids.size()));
+			List<Asteroid> found = world.getKNearest(asteroid, Asteroid.class, 5);
+			double nextDistance = Double.POSITIVE_INFINITY;
+			int nbWithin = 0;
+			for (Asteroid other: asteroids) {
+				if (other != asteroid && !found.contains(other))
+					nextDistance = Math.min(nextDistance, asteroid.getDistanceBetween(other));
+				if (other != asteroid && asteroid.getDistanceBetween(other) <= 300)
+					nbWithin++;
+			}
+			assertEquals(5, found.size());
+			assertTrue(asteroid.getDistanceBetween(found.get(4)) <= nextDistance);
+			assertEquals(nbWithin, world.getWithinRadius(asteroid, 300, Asteroid.class).size());
+		}
+	}
+	
+	@Test
+	public final void getWithinRadius_NormalCase(){
+		Set<Asteroid> within = standardWorld.getWithinRadius(standardShip1, 200, Asteroid.class);
+		assertEquals(1, within.size());
+		assertTrue(within.contains(standardAsteroid1));
+		assertTrue(standardWorld.getWithinRadius(standardShip1, 10, Asteroid.class).isEmpty());
+	}
+	
+	@Test
+	public final void getFirstHit_NormalCase(){
+		standardWorld.setBroadphase(new SpatialGrid(100, 1));
+		assertTrue(standardWorld.getFirstHit(standardShip1, Math.PI/4, Double.POSITIVE_INFINITY, SpatialElement.class) == standardShip2);
+		assertTrue(standardWorld.getFirstHit(standardShip1, Math.PI/4, Double.POSITIVE_INFINITY, Asteroid.class) == standardAsteroid1);
+		assertNull(standardWorld.getFirstHit(standardShip1, Math.PI/4, 50, Asteroid.class));
+	}
+	
+	@Test
+	public final void getFirstHit_Heading(){
+		worldToEvolve.addAsSpatialElement(newAsteroid);
+		assertTrue(worldToEvolve.getFirstHit(newShip, Asteroid.class) == newAsteroid);
+		newShip.turn(Math.PI/2);
+		assertNull(worldToEvolve.getFirstHit(newShip, Asteroid.class));
+	}
+	
+	@Test
+	public final void evolve_CaseSimultaneousCollisions(){
+		Ship ship1 = new Ship(new Vector2D(100,700), 0, 50, new Vector2D(100,0), 300000, 1.1E18);
+		Ship ship2 = new Ship(new Vector2D(900,700), 0, 50, new Vector2D(-100,0), 300000, 1.1E18);
+		worldToEvolve.addAsSpatialElement(newShip2);
+		worldToEvolve.addAsSpatialElement(ship1);
+		worldToEvolve.addAsSpatialElement(ship2);
+		final List<Object> collided = new ArrayList<Object>();
+		worldToEvolve.evolve(4.0, new asteroids.CollisionListener() {
+			@Override
+			public void boundaryCollision(Object entity, double x, double y) {
+				collided.add(entity);
+			}
+			@Override
+			public void objectCollision(Object entity1, Object entity2, double x, double y) {
+				collided.add(entity1);
+				collided.add(entity2);
+			}
+		});
+		assertEquals(4, collided.size());
+		assertTrue(collided.containsAll(Arrays.asList(newShip, newShip2, ship1, ship2)));
+		worldToEvolve.evolve(3.0, null);
+		assertEquals(100,newShip.getPosition().getXComponent(),EPSILON);
+		assertEquals(900,newShip2.getPosition().getXComponent(),EPSILON);
+		assertEquals(100,ship1.getPosition().getXComponent(),EPSILON);
+		assertEquals(100,ship2.getVelocity().getXComponent(),EPSILON);
+	}
+
+	@Test
+	public final void evolve_CaseListenerDoesNotChangeResolution(){
+		World listenedWorld = createCrowdedWorld(5);
+		World silentWorld = createCrowdedWorld(5);
+		final int[] nbEvents = new int[2];
+		listenedWorld.evolve(5.0, new asteroids.CollisionListener() {
+			@Override
+			public void boundaryCollision(Object entity, double x, double y) {
+				nbEvents[0]++;
+			}
+			@Override
+			public void objectCollision(Object entity1, Object entity2, double x, double y) {
+				nbEvents[1]++;
+			}
+		});
+		silentWorld.evolve(5.0, null);
+		assertTrue(nbEvents[0] > 0);
+		assertTrue(nbEvents[1] > 0);
+		Iterator<Asteroid> silentAsteroids = silentWorld.getAsteroids().iterator();
+		for (Asteroid asteroid: listenedWorld.getAsteroids()) {
+			Asteroid other = silentAsteroids.next();
+			assertEquals(asteroid.getPosition().getXComponent(), other.getPosition().getXComponent(), 0);
+			assertEquals(asteroid.getPosition().getYComponent(), other.getPosition().getYComponent(), 0);
+			assertEquals(asteroid.getVelocity().getXComponent(), other.getVelocity().getXComponent(), 0);
+			assertEquals(asteroid.getVelocity().getYComponent(), other.getVelocity().getYComponent(), 0);
+		}
+	}
+
+	@Test
+	public final void setSimultaneityTolerance_NormalCase(){
+		worldToEvolve.setSimultaneityTolerance(0);
+		assertEquals(0, worldToEvolve.getSimultaneityTolerance(), EPSILON);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public final void setSimultaneityTolerance_Negative(){
+		worldToEvolve.setSimultaneityTolerance(-1);
+	}
+	
+	@Test
+	public final void evolve_CaseRepeatedBounceMerged(){
+		worldToEvolve.addAsSpatialElement(newShip2);
+		worldToEvolve.setZenoInterval(10);
+		worldToEvolve.evolve(12.0, null);
+		assertTrue(worldToEvolve.getNbMergedBounces() >= 1);
+		assertEquals(0, worldToEvolve.getNbBudgetOverruns());
+		assertEquals(0,newShip.getVelocity().getXComponent(),EPSILON);
+		assertEquals(0,newShip2.getVelocity().getXComponent(),EPSILON);
+	}
+	
+	@Test
+	public final void evolve_CaseEventBudgetExceeded(){
+		World world = createPackedCluster(4);
+		world.setEventBudget(1);
+		world.setZenoInterval(1);
+		world.evolve(0.3, null);
+		assertEquals(1, world.getNbBudgetOverruns());
+		assertTrue(world.getNbMergedBounces() >= 1);
+		assertTrue(world.getNbClusterSolves() >= 1);
+		assertTrue(world.getNbZenoEvents() <= 2*world.getEventBudget() + 2);
+	}
+	
+	@Test
+	public final void evolve_CaseIndependentBouncesNotGuarded(){
+		worldToEvolve.addAsSpatialElement(newShip2);
+		worldToEvolve.setEventBudget(1);
+		worldToEvolve.evolve(12.0, null);
+		// The ships bounce off each other twice, six seconds apart.
+		assertTrue(worldToEvolve.getNbStepEvents() > 2*worldToEvolve.getEventBudget());
+		assertEquals(0, worldToEvolve.getNbZenoEvents());
+		assertEquals(0, worldToEvolve.getNbBudgetOverruns());
+		assertEquals(0, worldToEvolve.getNbMergedBounces());
+		assertEquals(100,Math.abs(newShip.getVelocity().getXComponent()),EPSILON);
+		assertEquals(100,Math.abs(newShip2.getVelocity().getXComponent()),EPSILON);
+	}
+	
+	@Test
+	public final void evolve_CaseSparseBoxConservesEnergy(){
+		World world = new World(20000,20000);
+		Random random = new Random(3);
+		List<SpatialElement> elements = new ArrayList<SpatialElement>();
+		for (int i = 0; i < 399; i++) {
+			Vector2D position = new Vector2D(500 + 1000*(i % 20) + random.nextDouble()*100,
+					500 + 1000*(i / 20) + random.nextDouble()*100);
+			Vector2D velocity = new Vector2D(random.nextDouble()*400 - 200, random.nextDouble()*400 - 200);
+			elements.add(new Asteroid(position, 30, velocity, 300000, new Random(i)));
+		}
+		world.addAll(elements);
+		double energy = 0;
+		for (Asteroid asteroid: world.getAsteroids())
+			energy += asteroid.getMass()*Math.pow(asteroid.getVelocity().getNorm(), 2);
+		world.evolve(2000.0, null);
+		assertTrue(world.getNbStepEvents() > 2*world.getEventBudget());
+		assertEquals(0, world.getNbBudgetOverruns());
+		double newEnergy = 0;
+		for (Asteroid asteroid: world.getAsteroids())
+			newEnergy += asteroid.getMass()*Math.pow(asteroid.getVelocity().getNorm(), 2);
+		assertEquals(energy, newEnergy, 1e-9*energy);
+	}
+	
+	@Test
+	public final void evolve_CasePackedClusterAgainstWall(){
+		World world = createPackedCluster(16);
+		world.setEventBudget(100);
+		double momentumY = 0, energy = 0, scale = 0;
+		for (Asteroid asteroid: world.getAsteroids()) {
+			momentumY += asteroid.getMass()*asteroid.getVelocity().getYComponent();
+			energy += asteroid.getMass()*Math.pow(asteroid.getVelocity().getNorm(), 2);
+			scale += asteroid.getMass()*asteroid.getVelocity().getNorm();
+		}
+		world.evolve(0.3, null);
+		// Without the guard, this cluster keeps resolving simultaneous bounces.
+		assertEquals(1, world.getNbBudgetOverruns());
+		assertTrue(world.getNbClusterSolves() >= 1);
+		assertTrue(world.getNbZenoEvents() <= 2*world.getEventBudget() + 2);
+		double newMomentumY = 0, newEnergy = 0;
+		for (Asteroid asteroid: world.getAsteroids()) {
+			newMomentumY += asteroid.getMass()*asteroid.getVelocity().getYComponent();
+			newEnergy += asteroid.getMass()*Math.pow(asteroid.getVelocity().getNorm(), 2);
+		}
+		// The wall only takes momentum perpendicular to it.
+		assertEquals(momentumY, newMomentumY, 1e-9*scale);
+		assertTrue(newEnergy <= energy);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public final void setEventBudget_Zero(){
+		worldToEvolve.setEventBudget(0);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public final void setZenoInterval_NaN(){
+		worldToEvolve.setZenoInterval(Double.NaN);
+	}
+	
+	@Test
+	public final void evolve_CaseTimeAdvances(){
+		worldToEvolve.evolve(1.0, null);
+		worldToEvolve.evolve(0.5, null);
+		assertEquals(1.5,worldToEvolve.getTime(),EPSILON);
+		assertEquals(250,newShip.getPosition().getXComponent(),EPSILON);
+	}
+	
+	@Test
+	public final void evolve_CaseCollisionTimesAbsolute(){
+		worldToEvolve.addAsSpatialElement(newShip2);
+		worldToEvolve.evolve(1.0, null);
+		for (Collision collision: worldToEvolve.getCollisions()) {
+			assertEquals(worldToEvolve.getTime() + collision.getCollisionTime(),
+					collision.getTime(), EPSILON);
+		}
+	}
+	
+	@Test
+	public final void evolve_CaseUninvolvedElementUntouched(){
+		Ship farShip = new Ship(new Vector2D(500,800), 0, 50, new Vector2D(0,10), 300000, 1.1E18);
+		worldToEvolve.addAsSpatialElement(newShip2);
+		worldToEvolve.addAsSpatialElement(farShip);
+		worldToEvolve.evolve(7.0, null);
+		assertEquals(0,farShip.getReferenceTime(),EPSILON);
+		assertEquals(870,farShip.getPosition().getYComponent(),EPSILON);
+	}
+	
+	@Test
+	public final void setEarliestEventScheduling_NormalCase(){
+		standardWorld.setEarliestEventScheduling(true);
+		assertTrue(standardWorld.isEarliestEventScheduling());
+		Ship newShip = new Ship(new Vector2D(40,100), 0, 10, new Vector2D(10,0), 300000, 50);
+		standardWorld.addAsSpatialElement(newShip);
+		Set<SpatialElement> elements = new HashSet<SpatialElement>();
+		elements.addAll(standardWorld.getShips());
+		elements.addAll(standardWorld.getAsteroids());
+		elements.addAll(standardWorld.getBullets());
+		assertTrue(standardWorld.getCollisions().size() <= elements.size());
+		boolean isin = false;
+		for (Collision collision: standardWorld.getCollisions()) {
+			if (collision.contains(newShip) && collision.contains(standardShip1))
+				isin = true;
+		}
+		assertTrue(isin);
+	}
+	
+	@Test
+	public final void evolve_CaseObjectCollisionBounceEarliestEvent(){
+		worldToEvolve.setEarliestEventScheduling(true);
+		worldToEvolve.addAsSpatialElement(newShip2);
+		worldToEvolve.evolve(7.0, null);
+		assertEquals(100,newShip.getPosition().getXComponent(),EPSILON);
+		assertEquals(-100,newShip.getVelocity().getXComponent(),EPSILON);
+		assertEquals(900,newShip2.getPosition().getXComponent(),EPSILON);
+		assertEquals(100,newShip2.getVelocity().getXComponent(),EPSILON);
+	}
+	
+	@Test
+	public final void evolve_CaseObjectCollisionBulletHitAsteroidEarliestEvent(){
+		worldToEvolve.setEarliestEventScheduling(true);
+		newShip.fireBullet();
+		worldToEvolve.addAsSpatialElement(newAsteroid);
+		worldToEvolve.evolve(2.0, null);
+		assertTrue(worldToEvolve.getBullets().isEmpty());
+		assertTrue(newAsteroid.isTerminated());
+		assertEquals(2,worldToEvolve.getAsteroids().size());
+	}
+	
+	@Test
+	public final void evolve_CaseChainedCollisions(){
+		evolveChainedCollisions(false);
+	}
+	
+	@Test
+	public final void evolve_CaseChainedCollisionsEarliestEvent(){
+		evolveChainedCollisions(true);
+	}
+	
+	/**
+	 * Evolve three ships on a line, where the first collision invalidates
+	 * the collision that was predicted for the other pair.
+	 */
+	private void evolveChainedCollisions(boolean earliestEventScheduling){
+		World world = new World(1000,1000);
+		world.setEarliestEventScheduling(earliestEventScheduling);
+		Ship shipA = new Ship(new Vector2D(100,500), 0, 50, new Vector2D(100,0), 300000, 1.1E18);
+		Ship shipB = new Ship(new Vector2D(400,500), 0, 50, new Vector2D(0,0), 300000, 1.1E18);
+		Ship shipC = new Ship(new Vector2D(900,500), 0, 50, new Vector2D(-100,0), 300000, 1.1E18);
+		world.addAsSpatialElement(shipA);
+		world.addAsSpatialElement(shipB);
+		world.addAsSpatialElement(shipC);
+		world.evolve(5.0, null);
+		assertEquals(200,shipA.getPosition().getXComponent(),EPSILON);
+		assertEquals(-100,shipA.getVelocity().getXComponent(),EPSILON);
+		assertEquals(400,shipB.getPosition().getXComponent(),EPSILON);
+		assertEquals(0,shipB.getVelocity().getXComponent(),EPSILON);
+		assertEquals(800,shipC.getPosition().getXComponent(),EPSILON);
+		assertEquals(100,shipC.getVelocity().getXComponent(),EPSILON);
+	}
+	
+	@Test
+	public final void setPredictionHorizon_NormalCase(){
+		worldToEvolve.addAsSpatialElement(newShip2);
+		worldToEvolve.setPredictionHorizon(1);
+		assertEquals(1,worldToEvolve.getPredictionHorizon(),0);
+		// The ships only meet after 3.5 seconds.
+		for (Collision collision: worldToEvolve.getCollisions())
+			assertFalse(collision.contains(newShip) && collision.contains(newShip2));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public final void setPredictionHorizon_IllegalCase(){
+		worldToEvolve.setPredictionHorizon(0);
+	}
+	
+	@Test
+	public final void evolve_CaseObjectCollisionBouncePredictionHorizon(){
+		evolveBounceWithHorizon(false);
+	}
+	
+	@Test
+	public final void evolve_CaseObjectCollisionBouncePredictionHorizonEarliestEvent(){
+		evolveBounceWithHorizon(true);
+	}
+	
+	/**
+	 * Evolve two ships that meet beyond the prediction horizon of their world.
+	 */
+	private void evolveBounceWithHorizon(boolean earliestEventScheduling){
+		worldToEvolve.setEarliestEventScheduling(earliestEventScheduling);
+		worldToEvolve.setPredictionHorizon(1);
+		worldToEvolve.addAsSpatialElement(newShip2);
+		worldToEvolve.evolve(7.0, null);
+		assertEquals(100,newShip.getPosition().getXComponent(),EPSILON);
+		assertEquals(-100,newShip.getVelocity().getXComponent(),EPSILON);
+		assertEquals(900,newShip2.getPosition().getXComponent(),EPSILON);
+		assertEquals(100,newShip2.getVelocity().getXComponent(),EPSILON);
+		assertTrue(worldToEvolve.getNbRepredictions() > 0);
+	}
+	
+	@Test
+	public final void evolve_CasePredictionHorizonMissesNothing(){
+		World unboundedWorld = createCrowdedWorld(11);
+		World boundedWorld = createCrowdedWorld(11);
+		boundedWorld.setPredictionHorizon(0.5);
+		assertTrue(boundedWorld.getQueueSize() < unboundedWorld.getQueueSize());
+		for (int i = 0; i < 60; i++) {
+			unboundedWorld.evolve(0.1, null);
+			boundedWorld.evolve(0.1, null);
+		}
+		assertEquals(unboundedWorld.getNbAsteroids(), boundedWorld.getNbAsteroids());
+		Iterator<Asteroid> boundedAsteroids = boundedWorld.getAsteroids().iterator();
+		for (Asteroid asteroid: unboundedWorld.getAsteroids()) {
+			Asteroid other = boundedAsteroids.next();
+			assertEquals(asteroid.getPosition().getXComponent(), other.getPosition().getXComponent(), 1e-6);
+			assertEquals(asteroid.getPosition().getYComponent(), other.getPosition().getYComponent(), 1e-6);
+		}
+	}
+	
+	/**
+	 * Return a new world of 2000 by 2000 with 60 asteroids moving in random
+	 * directions, built the same way for the same seed.
+	 */
+	/**
+	 * Return a new world holding a square block of the given number of asteroids
+	 * per side, packed against the left wall with gaps of 0.001 and moving towards it.
+	 */
+	private static World createPackedCluster(int side){
+		World world = new World(1000,1000);
+		Random random = new Random(1);
+		List<SpatialElement> elements = new ArrayList<SpatialElement>();
+		for (int i = 0; i < side; i++) {
+			for (int j = 0; j < side; j++) {
+				Vector2D velocity = new Vector2D(-50 + 10*random.nextDouble(), 10*random.nextDouble() - 5);
+				elements.add(new Asteroid(new Vector2D(10.001 + 20.001*i, 400 + 20.001*j), 10, velocity,
+						300000, new Random(side*i + j)));
+			}
+		}
+		world.addAll(elements);
+		return world;
+	}
+	
+	private static World createCrowdedWorld(long seed){
+		World world = new World(2000,2000);
+		Random random = new Random(seed);
+		for (int i = 0; i < 60; i++) {
+			Vector2D position = new Vector2D(100 + 250*(i % 8), 100 + 250*(i / 8));
+			Vector2D velocity = new Vector2D(300*random.nextDouble() - 150, 300*random.nextDouble() - 150);
+			world.addAsSpatialElement(new Asteroid(position, 20, velocity, 300000, new Random(seed + i)));
+		}
+		return world;
+	}
 }